@@ -169,6 +169,35 @@ class BlobManager {
     NativeBlobModule.removeWebSocketHandler(socketId);
   }
 
+  /**
+   * If blobs can be read synchronously into ArrayBuffers backed by native
+   * memory, see `takeArrayBuffer`.
+   */
+  static hasArrayBufferProvider(): boolean {
+    return global.__blobArrayBufferProvider != null;
+  }
+
+  /**
+   * Read the content of blob data from native into an ArrayBuffer, and
+   * release the blob. The content is copied once, straight from the native
+   * blob store into the memory of the ArrayBuffer.
+   */
+  static takeArrayBuffer(options: BlobData): ArrayBuffer {
+    invariant(
+      global.__blobArrayBufferProvider != null,
+      'Blobs can not be read into ArrayBuffers.',
+    );
+
+    const buffer = global.__blobArrayBufferProvider(
+      options.blobId,
+      options.offset,
+      options.size,
+    );
+    BlobManager.release(options.blobId);
+    invariant(buffer != null, 'The blob could not be read.');
+    return buffer;
+  }
+
   /**
    * Send a blob message to a websocket.
    */
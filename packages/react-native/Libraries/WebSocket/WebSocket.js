@@ -51,13 +51,17 @@ const WEBSOCKET_EVENTS = ['close', 'error', 'message', 'open'];
 
 let nextWebSocketId = 0;
 
+type WebSocketMessage =
+  | {type: 'binary', id: number, data: string}
+  | {type: 'text', id: number, data: string}
+  | {type: 'blob', id: number, data: BlobData};
+
 type WebSocketEventDefinitions = {
   websocketOpen: [{id: number, protocol: string}],
   websocketClosed: [{id: number, code: number, reason: string}],
   websocketMessage: [
-    | {type: 'binary', id: number, data: string}
-    | {type: 'text', id: number, data: string}
-    | {type: 'blob', id: number, data: BlobData},
+    | WebSocketMessage
+    | {type: 'batch', id: number, data: Array<WebSocketMessage>},
   ],
   websocketFailed: [{id: number, message: string}],
 };
@@ -156,20 +160,33 @@ class WebSocket extends (EventTarget(...WEBSOCKET_EVENTS): any) {
     if (binaryType !== 'blob' && binaryType !== 'arraybuffer') {
       throw new Error("binaryType must be either 'blob' or 'arraybuffer'");
     }
-    if (this._binaryType === 'blob' || binaryType === 'blob') {
+    if (binaryType === 'blob') {
       invariant(
         BlobManager.isAvailable,
         'Native module BlobModule is required for blob support',
       );
-      if (binaryType === 'blob') {
-        BlobManager.addWebSocketHandler(this._socketId);
-      } else {
-        BlobManager.removeWebSocketHandler(this._socketId);
-      }
+    }
+    const usedBlobHandler = this._usesBlobHandler(this._binaryType);
+    const usesBlobHandler = this._usesBlobHandler(binaryType);
+    if (!usedBlobHandler && usesBlobHandler) {
+      BlobManager.addWebSocketHandler(this._socketId);
+    } else if (usedBlobHandler && !usesBlobHandler) {
+      BlobManager.removeWebSocketHandler(this._socketId);
     }
     this._binaryType = binaryType;
   }
 
+  // Binary messages are received as blobs when they are read as blobs, or when
+  // blobs can be read into ArrayBuffers without going through base64.
+  _usesBlobHandler(binaryType: ?BinaryType): boolean {
+    return (
+      binaryType === 'blob' ||
+      (binaryType === 'arraybuffer' &&
+        BlobManager.isAvailable &&
+        BlobManager.hasArrayBufferProvider())
+    );
+  }
+
   close(code?: number, reason?: string): void {
     if (this.readyState === this.CLOSING || this.readyState === this.CLOSED) {
       return;
@@ -220,7 +237,7 @@ class WebSocket extends (EventTarget(...WEBSOCKET_EVENTS): any) {
     const closeReason = typeof reason === 'string' ? reason : '';
     NativeWebSocketModule.close(statusCode, closeReason, this._socketId);
 
-    if (BlobManager.isAvailable && this._binaryType === 'blob') {
+    if (this._usesBlobHandler(this._binaryType)) {
       BlobManager.removeWebSocketHandler(this._socketId);
     }
   }
@@ -230,22 +247,35 @@ class WebSocket extends (EventTarget(...WEBSOCKET_EVENTS): any) {
     this._subscriptions = [];
   }
 
+  _dispatchMessage(message: WebSocketMessage): void {
+    let data: Blob | BlobData | ArrayBuffer | string = message.data;
+    switch (message.type) {
+      case 'binary':
+        data = base64.toByteArray(message.data).buffer;
+        break;
+      case 'blob':
+        data =
+          this._binaryType === 'arraybuffer' &&
+          BlobManager.hasArrayBufferProvider()
+            ? BlobManager.takeArrayBuffer(message.data)
+            : BlobManager.createFromOptions(message.data);
+        break;
+    }
+    this.dispatchEvent(new WebSocketEvent('message', {data}));
+  }
+
   _registerEvents(): void {
     this._subscriptions = [
       this._eventEmitter.addListener('websocketMessage', ev => {
         if (ev.id !== this._socketId) {
           return;
         }
-        let data: Blob | BlobData | ArrayBuffer | string = ev.data;
-        switch (ev.type) {
-          case 'binary':
-            data = base64.toByteArray(ev.data).buffer;
-            break;
-          case 'blob':
-            data = BlobManager.createFromOptions(ev.data);
-            break;
+        if (ev.type === 'batch') {
+          // Messages received within the same JS tick are sent together.
+          ev.data.forEach(message => this._dispatchMessage(message));
+        } else {
+          this._dispatchMessage(ev);
         }
-        this.dispatchEvent(new WebSocketEvent('message', {data}));
       }),
       this._eventEmitter.addListener('websocketOpen', ev => {
         if (ev.id !== this._socketId) {
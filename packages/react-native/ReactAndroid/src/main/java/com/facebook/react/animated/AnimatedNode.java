@@ -23,6 +23,9 @@ import java.util.List;
   /*package*/ int mActiveIncomingNodes = 0;
   /*package*/ int mBFSColor = INITIAL_BFS_COLOR;
   /*package*/ int mTag = -1;
+  // Position of the node in the topological order of the whole graph.
+  /*package*/ int mTopologicalRank = -1;
+  /*package*/ @Nullable NativeAnimatedNodesManager.UpdatePlan mUpdatePlan;
 
   public final void addChild(AnimatedNode child) {
     if (mChildren == null) {
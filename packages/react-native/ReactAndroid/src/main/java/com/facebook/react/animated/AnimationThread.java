@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.animated;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.view.Choreographer;
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.common.annotations.VisibleForTesting;
+
+/**
+ * Runs the animation loop of {@link NativeAnimatedModule} on a dedicated thread, driven by the
+ * {@link Choreographer} of that thread, so that animation drivers keep being stepped while the UI
+ * thread is busy. The thread owns the graph of animated nodes: the operations on it are posted to
+ * the thread, and the views are then updated on the UI thread, see {@link
+ * NativeAnimatedNodesManager#setAnimationThreadHandler}.
+ */
+/*package*/ final class AnimationThread implements Choreographer.FrameCallback {
+
+  private final ReactContext mReactContext;
+  private final NativeAnimatedModule mNativeAnimatedModule;
+  private final HandlerThread mThread;
+  private final Handler mHandler;
+  // Only accessed from the animation thread.
+  private @Nullable Choreographer mChoreographer;
+  private boolean mIsRunning = false;
+
+  private final Runnable mStartRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          if (mIsRunning) {
+            return;
+          }
+          if (mChoreographer == null) {
+            mChoreographer = Choreographer.getInstance();
+          }
+          mIsRunning = true;
+          mChoreographer.postFrameCallback(AnimationThread.this);
+        }
+      };
+
+  private final Runnable mStopRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          mIsRunning = false;
+          if (mChoreographer != null) {
+            mChoreographer.removeFrameCallback(AnimationThread.this);
+          }
+        }
+      };
+
+  /*package*/ AnimationThread(
+      ReactContext reactContext, NativeAnimatedModule nativeAnimatedModule) {
+    mReactContext = reactContext;
+    mNativeAnimatedModule = nativeAnimatedModule;
+    mThread = new HandlerThread("react-native-animations", Process.THREAD_PRIORITY_DISPLAY);
+    mThread.start();
+    mHandler = new Handler(mThread.getLooper());
+  }
+
+  /** Starts running the animation loop, every frame. */
+  /*package*/ void start() {
+    mHandler.post(mStartRunnable);
+  }
+
+  /** Stops running the animation loop, until {@link #start} is called again. */
+  /*package*/ void stop() {
+    mHandler.post(mStopRunnable);
+  }
+
+  /** Runs {@code runnable} on the animation thread, after the runnables posted before it. */
+  /*package*/ void post(Runnable runnable) {
+    mHandler.post(runnable);
+  }
+
+  /*package*/ Handler getHandler() {
+    return mHandler;
+  }
+
+  @VisibleForTesting
+  /*package*/ Looper getLooper() {
+    return mThread.getLooper();
+  }
+
+  /** Stops the animation loop and the thread. */
+  /*package*/ void quit() {
+    stop();
+    mThread.quitSafely();
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    if (!mIsRunning) {
+      return;
+    }
+    try {
+      NativeAnimatedNodesManager nodesManager = mNativeAnimatedModule.getNodesManager();
+      if (nodesManager != null && nodesManager.hasActiveAnimations()) {
+        nodesManager.runUpdates(frameTimeNanos);
+      }
+    } catch (RuntimeException e) {
+      mReactContext.handleException(e);
+    }
+    if (mChoreographer != null) {
+      mChoreographer.postFrameCallback(this);
+    }
+  }
+}
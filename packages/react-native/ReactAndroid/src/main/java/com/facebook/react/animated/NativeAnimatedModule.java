@@ -25,6 +25,7 @@ import com.facebook.react.bridge.UIManager;
 import com.facebook.react.bridge.UIManagerListener;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.annotations.VisibleForTesting;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.modules.core.ReactChoreographer;
 import com.facebook.react.uimanager.GuardedFrameCallback;
@@ -163,13 +164,28 @@ public class NativeAnimatedModule extends NativeAnimatedModuleSpec
     }
 
     @UiThread
-    void executeBatch(long maxBatchNumber, NativeAnimatedNodesManager nodesManager) {
+    void executeBatch(long maxBatchNumber, final NativeAnimatedNodesManager nodesManager) {
       List<UIThreadOperation> operations;
       operations = drainQueueIntoList(maxBatchNumber);
-      if (operations != null) {
-        for (UIThreadOperation operation : operations) {
-          operation.execute(nodesManager);
-        }
+      if (operations == null) {
+        return;
+      }
+      if (mAnimationThread != null) {
+        // The graph is owned by the animation thread, see AnimationThread.
+        final List<UIThreadOperation> operationsToRun = operations;
+        mAnimationThread.post(
+            new Runnable() {
+              @Override
+              public void run() {
+                for (UIThreadOperation operation : operationsToRun) {
+                  operation.execute(nodesManager);
+                }
+              }
+            });
+        return;
+      }
+      for (UIThreadOperation operation : operations) {
+        operation.execute(nodesManager);
       }
     }
 
@@ -213,6 +229,8 @@ public class NativeAnimatedModule extends NativeAnimatedModuleSpec
 
   @NonNull private final GuardedFrameCallback mAnimatedFrameCallback;
   private final ReactChoreographer mReactChoreographer;
+  // Runs the animation loop instead of `mAnimatedFrameCallback`, when it runs off the UI thread.
+  @Nullable private final AnimationThread mAnimationThread;
 
   @NonNull private final ConcurrentOperationQueue mOperations = new ConcurrentOperationQueue();
   @NonNull private final ConcurrentOperationQueue mPreOperations = new ConcurrentOperationQueue();
@@ -233,6 +251,8 @@ public class NativeAnimatedModule extends NativeAnimatedModuleSpec
     super(reactContext);
 
     mReactChoreographer = ReactChoreographer.getInstance();
+    mAnimationThread =
+        ReactFeatureFlags.enableAnimationThread ? new AnimationThread(reactContext, this) : null;
     mAnimatedFrameCallback =
         new GuardedFrameCallback(reactContext) {
           @Override
@@ -395,7 +415,12 @@ public class NativeAnimatedModule extends NativeAnimatedModuleSpec
       ReactApplicationContext reactApplicationContext = getReactApplicationContextIfActiveOrWarn();
 
       if (reactApplicationContext != null) {
-        mNodesManager.compareAndSet(null, new NativeAnimatedNodesManager(reactApplicationContext));
+        NativeAnimatedNodesManager nodesManager =
+            new NativeAnimatedNodesManager(reactApplicationContext);
+        if (mAnimationThread != null) {
+          nodesManager.setAnimationThreadHandler(mAnimationThread.getHandler());
+        }
+        mNodesManager.compareAndSet(null, nodesManager);
       }
     }
 
@@ -403,12 +428,20 @@ public class NativeAnimatedModule extends NativeAnimatedModuleSpec
   }
 
   private void clearFrameCallback() {
+    if (mAnimationThread != null) {
+      mAnimationThread.stop();
+      return;
+    }
     Assertions.assertNotNull(mReactChoreographer)
         .removeFrameCallback(
             ReactChoreographer.CallbackType.NATIVE_ANIMATED_MODULE, mAnimatedFrameCallback);
   }
 
   private void enqueueFrameCallback() {
+    if (mAnimationThread != null) {
+      mAnimationThread.start();
+      return;
+    }
     Assertions.assertNotNull(mReactChoreographer)
         .postFrameCallback(
             ReactChoreographer.CallbackType.NATIVE_ANIMATED_MODULE, mAnimatedFrameCallback);
@@ -989,6 +1022,9 @@ public class NativeAnimatedModule extends NativeAnimatedModuleSpec
     super.invalidate();
 
     getReactApplicationContext().removeLifecycleEventListener(this);
+    if (mAnimationThread != null) {
+      mAnimationThread.quit();
+    }
   }
 
   /**
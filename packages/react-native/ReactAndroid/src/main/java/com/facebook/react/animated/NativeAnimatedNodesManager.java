@@ -7,14 +7,17 @@
 
 package com.facebook.react.animated;
 
+import android.os.Handler;
 import android.util.SparseArray;
 import androidx.annotation.Nullable;
 import androidx.annotation.UiThread;
 import com.facebook.common.logging.FLog;
+import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.Callback;
 import com.facebook.react.bridge.JSApplicationCausedNativeException;
 import com.facebook.react.bridge.JSApplicationIllegalArgumentException;
+import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactNoCrashSoftException;
 import com.facebook.react.bridge.ReactSoftExceptionLogger;
@@ -22,6 +25,7 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.UIManager;
 import com.facebook.react.bridge.UiThreadUtil;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.UIManagerHelper;
 import com.facebook.react.uimanager.common.UIManagerType;
@@ -29,12 +33,13 @@ import com.facebook.react.uimanager.common.ViewUtil;
 import com.facebook.react.uimanager.events.Event;
 import com.facebook.react.uimanager.events.EventDispatcher;
 import com.facebook.react.uimanager.events.EventDispatcherListener;
-import java.util.ArrayDeque;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.ListIterator;
-import java.util.Queue;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This is the main class that coordinates how native animated JS implementation drives UI changes.
@@ -45,30 +50,84 @@ import java.util.Queue;
  * <p>For each animation frame we visit animated nodes that might've been updated as well as their
  * children that may use parent's values to update themselves. At the end of the traversal algorithm
  * we expect to reach a special type of the node: PropsAnimatedNode that is then responsible for
- * calculating property map which can be sent to native view hierarchy to update the view.
+ * calculating property map which can be sent to native view hierarchy to update the view. The order
+ * in which nodes are visited is only computed again when the graph changes, see {@link
+ * UpdatePlan}.
  *
- * <p>IMPORTANT: This class should be accessed only from the UI Thread
+ * <p>IMPORTANT: This class should be accessed only from the UI Thread, unless the animation loop
+ * runs on another thread, see {@link #setAnimationThreadHandler}.
  */
 public class NativeAnimatedNodesManager implements EventDispatcherListener {
 
   private static final String TAG = "NativeAnimatedNodesManager";
 
+  // Below this number of nodes to update, sorting them is cheaper than scanning the whole graph.
+  private static final int MAX_SORTED_UPDATE_NODES = 256;
+
+  /**
+   * The nodes to update, in topological order, when a given node is updated: the node itself and
+   * the nodes that use its value, directly or not. Plans are cached on their first node until the
+   * graph changes.
+   */
+  /*package*/ static final class UpdatePlan {
+    private final int mGraphVersion;
+    private final AnimatedNode[] mNodes;
+    // Number of nodes reachable from the first node, including the ones that are part of a cycle
+    // and aren't in `mNodes`.
+    private final int mActiveNodesCount;
+    private final int mCyclesDetected;
+
+    private UpdatePlan(
+        int graphVersion, AnimatedNode[] nodes, int activeNodesCount, int cyclesDetected) {
+      mGraphVersion = graphVersion;
+      mNodes = nodes;
+      mActiveNodesCount = activeNodesCount;
+      mCyclesDetected = cyclesDetected;
+    }
+  }
+
   private final SparseArray<AnimatedNode> mAnimatedNodes = new SparseArray<>();
   private final SparseArray<AnimationDriver> mActiveAnimations = new SparseArray<>();
   private final SparseArray<AnimatedNode> mUpdatedNodes = new SparseArray<>();
   // List of event animation drivers for an event on view.
-  // There may be multiple drivers for the same event and view.
-  private final List<EventAnimationDriver> mEventDrivers = new ArrayList<>();
+  // There may be multiple drivers for the same event and view. It is copied on write, so that the
+  // thread dispatching an event can match it while the animation thread runs.
+  private final List<EventAnimationDriver> mEventDrivers = new CopyOnWriteArrayList<>();
   private final ReactApplicationContext mReactApplicationContext;
   private int mAnimatedGraphBFSColor = 0;
   // Used to avoid allocating a new array on every frame in `runUpdates` and `onEventDispatch`.
-  private final List<AnimatedNode> mRunUpdateNodeList = new LinkedList<>();
+  private final List<AnimatedNode> mRunUpdateNodeList = new ArrayList<>();
+  // Incremented whenever nodes or connections between them are added or removed.
+  private int mGraphVersion = 0;
+  private int mTopologicalOrderGraphVersion = -1;
+  private AnimatedNode[] mTopologicalOrder = new AnimatedNode[0];
+  // Nodes that were dropped but are still updated, and need to be ranked along with their children.
+  private final List<AnimatedNode> mDetachedRoots = new ArrayList<>();
+  // Used to avoid allocating a new array on every frame when updating several plans at once.
+  private int[] mUpdateNodeRanks = new int[MAX_SORTED_UPDATE_NODES];
 
   private boolean mEventListenerInitializedForFabric = false;
   private boolean mEventListenerInitializedForNonFabric = false;
 
   private boolean mWarnedAboutGraphTraversal = false;
 
+  // Set when the graph is owned by the animation thread, see setAnimationThreadHandler.
+  private @Nullable Handler mAnimationThreadHandler;
+  // The latest props of the views updated on the animation thread, by view tag, which are applied
+  // on the UI thread by `mCommitViewUpdatesRunnable`. These are the only state the two threads
+  // share, and they are guarded by their own lock so the UI thread never waits for a frame.
+  private final Object mPendingViewUpdatesLock = new Object();
+  private Map<Integer, PendingViewUpdate> mPendingViewUpdates = new LinkedHashMap<>();
+  private Map<Integer, PendingViewUpdate> mCommittedViewUpdates = new LinkedHashMap<>();
+  private boolean mCommitViewUpdatesScheduled = false;
+  private final Runnable mCommitViewUpdatesRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          commitViewUpdates();
+        }
+      };
+
   public NativeAnimatedNodesManager(ReactApplicationContext reactApplicationContext) {
     mReactApplicationContext = reactApplicationContext;
   }
@@ -103,6 +162,25 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
     return mAnimatedNodes.get(id);
   }
 
+  /** Returns a number that changes whenever nodes or connections between them change. */
+  /*package*/ int getGraphVersion() {
+    return mGraphVersion;
+  }
+
+  /**
+   * Hands the graph over to the thread of {@code handler}, which runs the animation loop: the
+   * operations on the graph are expected to be run on that thread too, and events are posted to it.
+   * Views are updated on the UI thread with a snapshot of their props taken when the nodes are
+   * updated, so a view is updated once with its latest props even if several frames ran meanwhile.
+   */
+  public void setAnimationThreadHandler(@Nullable Handler handler) {
+    mAnimationThreadHandler = handler;
+  }
+
+  /* package */ boolean isRunningOnAnimationThread() {
+    return mAnimationThreadHandler != null;
+  }
+
   public boolean hasActiveAnimations() {
     return mActiveAnimations.size() > 0 || mUpdatedNodes.size() > 0;
   }
@@ -149,6 +227,7 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
     node.mTag = tag;
     mAnimatedNodes.put(tag, node);
     mUpdatedNodes.put(tag, node);
+    mGraphVersion++;
   }
 
   @UiThread
@@ -170,6 +249,7 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
   public void dropAnimatedNode(int tag) {
     mAnimatedNodes.remove(tag);
     mUpdatedNodes.remove(tag);
+    mGraphVersion++;
   }
 
   @UiThread
@@ -375,6 +455,7 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
     }
     parentNode.addChild(childNode);
     mUpdatedNodes.put(childNodeTag, childNode);
+    mGraphVersion++;
   }
 
   public void disconnectAnimatedNodes(int parentNodeTag, int childNodeTag) {
@@ -394,6 +475,7 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
     }
     parentNode.removeChild(childNode);
     mUpdatedNodes.put(childNodeTag, childNode);
+    mGraphVersion++;
   }
 
   @UiThread
@@ -538,13 +620,12 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
 
     String eventName = normalizeEventName(eventHandlerName);
 
-    ListIterator<EventAnimationDriver> it = mEventDrivers.listIterator();
-    while (it.hasNext()) {
-      EventAnimationDriver driver = it.next();
+    for (int i = 0; i < mEventDrivers.size(); i++) {
+      EventAnimationDriver driver = mEventDrivers.get(i);
       if (eventName.equals(driver.mEventName)
           && viewTag == driver.mViewTag
           && animatedValueTag == driver.mValueNode.mTag) {
-        it.remove();
+        mEventDrivers.remove(i);
         break;
       }
     }
@@ -552,6 +633,10 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
 
   @Override
   public void onEventDispatch(final Event event) {
+    if (mAnimationThreadHandler != null) {
+      postEventToAnimationThread(mAnimationThreadHandler, event);
+      return;
+    }
     // Events can be dispatched from any thread so we have to make sure handleEvent is run from the
     // UI thread.
     if (UiThreadUtil.isOnUiThread()) {
@@ -567,6 +652,43 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
     }
   }
 
+  /**
+   * Reads the data of an event for the drivers it matches, as the event may be recycled once it is
+   * dispatched, and updates the nodes of these drivers on the animation thread.
+   */
+  private void postEventToAnimationThread(Handler handler, Event event) {
+    final List<EventAnimationDriver> drivers = new ArrayList<>();
+    Event.EventAnimationDriverMatchSpec matchSpec = event.getEventAnimationDriverMatchSpec();
+    for (EventAnimationDriver driver : mEventDrivers) {
+      if (matchSpec.match(driver.mViewTag, driver.mEventName)) {
+        drivers.add(driver);
+      }
+    }
+    if (drivers.isEmpty()) {
+      return;
+    }
+    final EventDataRecorder recorder = new EventDataRecorder();
+    event.dispatch(recorder);
+    handler.post(
+        new Runnable() {
+          @Override
+          public void run() {
+            for (EventAnimationDriver driver : drivers) {
+              // The driver may have been removed since the event was dispatched.
+              if (mEventDrivers.contains(driver)) {
+                stopAnimationsForNode(driver.mValueNode);
+                driver.receiveEvent(recorder.mTargetTag, recorder.mEventName, recorder.mEventData);
+                mRunUpdateNodeList.add(driver.mValueNode);
+              }
+            }
+            if (!mRunUpdateNodeList.isEmpty()) {
+              updateNodes(mRunUpdateNodeList);
+              mRunUpdateNodeList.clear();
+            }
+          }
+        });
+  }
+
   @UiThread
   private void handleEvent(Event event) {
     if (!mEventDrivers.isEmpty()) {
@@ -603,20 +725,15 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
   }
 
   /**
-   * Animation loop performs two BFSes over the graph of animated nodes. We use incremented {@code
-   * mAnimatedGraphBFSColor} to mark nodes as visited in each of the BFSes which saves additional
-   * loops for clearing "visited" states.
-   *
-   * <p>First BFS starts with nodes that are in {@code mUpdatedNodes} (that is, their value have
+   * Animation loop updates the nodes that are in {@code mUpdatedNodes} (that is, their value have
    * been modified from JS in the last batch of JS operations) or directly attached to an active
-   * animation (hence linked to objects from {@code mActiveAnimations}). In that step we calculate
-   * an attribute {@code mActiveIncomingNodes}. The second BFS runs in topological order over the
-   * sub-graph of *active* nodes. This is done by adding node to the BFS queue only if all its
-   * "predecessors" have already been visited.
+   * animation (hence linked to objects from {@code mActiveAnimations}), and all the nodes that
+   * depend on them, in topological order. See {@link #updateNodes}.
    */
-  @UiThread
   public void runUpdates(long frameTimeNanos) {
-    UiThreadUtil.assertOnUiThread();
+    if (mAnimationThreadHandler == null) {
+      UiThreadUtil.assertOnUiThread();
+    }
     boolean hasFinishedAnimations = false;
 
     for (int i = 0; i < mUpdatedNodes.size(); i++) {
@@ -668,114 +785,82 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
     }
   }
 
+  /**
+   * Updates the given nodes and the nodes that depend on them, visiting each node only after all
+   * its "predecessors" in the graph. It is important to visit nodes in that order as they may often
+   * use values of their predecessors in order to calculate "next state" of their own.
+   *
+   * <p>The order is precomputed when the graph changes: each starting node caches its {@link
+   * UpdatePlan}, and the whole graph is ranked in topological order. When the plans of several
+   * nodes are used in the same frame, their nodes are visited in the order of their rank. We use
+   * incremented {@code mAnimatedGraphBFSColor} to mark nodes as visited, which saves additional
+   * loops for clearing "visited" states.
+   */
   @UiThread
   private void updateNodes(List<AnimatedNode> nodes) {
     int activeNodesCount = 0;
     int updatedNodesCount = 0;
+    int cyclesDetected = 0;
 
-    // STEP 1.
-    // BFS over graph of nodes. Update `mIncomingNodes` attribute for each node during that BFS.
-    // Store number of visited nodes in `activeNodesCount`. We "execute" active animations as a part
-    // of this step.
-
-    mAnimatedGraphBFSColor++; /* use new color */
-    if (mAnimatedGraphBFSColor == AnimatedNode.INITIAL_BFS_COLOR) {
-      // value "0" is used as an initial color for a new node, using it in BFS may cause some nodes
-      // to be skipped.
-      mAnimatedGraphBFSColor++;
-    }
-
-    Queue<AnimatedNode> nodesQueue = new ArrayDeque<>();
-    for (AnimatedNode node : nodes) {
-      if (node.mBFSColor != mAnimatedGraphBFSColor) {
-        node.mBFSColor = mAnimatedGraphBFSColor;
-        activeNodesCount++;
-        nodesQueue.add(node);
+    @Nullable UpdatePlan singlePlan = null;
+    boolean hasMultiplePlans = false;
+    for (int i = 0; i < nodes.size(); i++) {
+      UpdatePlan plan = getUpdatePlan(nodes.get(i));
+      if (singlePlan == null) {
+        singlePlan = plan;
+      } else if (plan != singlePlan) {
+        hasMultiplePlans = true;
       }
     }
+    if (singlePlan == null) {
+      return;
+    }
 
-    while (!nodesQueue.isEmpty()) {
-      AnimatedNode nextNode = nodesQueue.poll();
-      if (nextNode.mChildren != null) {
-        for (int i = 0; i < nextNode.mChildren.size(); i++) {
-          AnimatedNode child = nextNode.mChildren.get(i);
-          child.mActiveIncomingNodes++;
-          if (child.mBFSColor != mAnimatedGraphBFSColor) {
-            child.mBFSColor = mAnimatedGraphBFSColor;
-            activeNodesCount++;
-            nodesQueue.add(child);
+    if (!hasMultiplePlans) {
+      for (AnimatedNode node : singlePlan.mNodes) {
+        updateNode(node);
+      }
+      activeNodesCount = singlePlan.mActiveNodesCount;
+      updatedNodesCount = singlePlan.mNodes.length;
+      cyclesDetected = singlePlan.mCyclesDetected;
+    } else {
+      int color = nextAnimatedGraphBFSColor();
+      for (int i = 0; i < nodes.size(); i++) {
+        UpdatePlan plan = Assertions.assertNotNull(nodes.get(i).mUpdatePlan);
+        if (plan.mNodes.length > 0 && plan.mNodes[0].mBFSColor == color) {
+          // The plan was already merged, or is included in a plan that was.
+          continue;
+        }
+        for (AnimatedNode node : plan.mNodes) {
+          if (node.mBFSColor != color) {
+            node.mBFSColor = color;
+            if (updatedNodesCount < mUpdateNodeRanks.length) {
+              mUpdateNodeRanks[updatedNodesCount] = node.mTopologicalRank;
+            }
+            updatedNodesCount++;
           }
         }
+        activeNodesCount += plan.mActiveNodesCount - plan.mNodes.length;
+        cyclesDetected += plan.mCyclesDetected;
       }
-    }
+      activeNodesCount += updatedNodesCount;
 
-    // STEP 2
-    // BFS over the graph of active nodes in topological order -> visit node only when all its
-    // "predecessors" in the graph have already been visited. It is important to visit nodes in that
-    // order as they may often use values of their predecessors in order to calculate "next state"
-    // of their own. We start by determining the starting set of nodes by looking for nodes with
-    // `mActiveIncomingNodes = 0` (those can only be the ones that we start BFS in the previous
-    // step). We store number of visited nodes in this step in `updatedNodesCount`
-
-    mAnimatedGraphBFSColor++;
-    if (mAnimatedGraphBFSColor == AnimatedNode.INITIAL_BFS_COLOR) {
-      // see reasoning for this check a few lines above
-      mAnimatedGraphBFSColor++;
-    }
-
-    // find nodes with zero "incoming nodes", those can be either nodes from `mUpdatedNodes` or
-    // ones connected to active animations
-    for (AnimatedNode node : nodes) {
-      if (node.mActiveIncomingNodes == 0 && node.mBFSColor != mAnimatedGraphBFSColor) {
-        node.mBFSColor = mAnimatedGraphBFSColor;
-        updatedNodesCount++;
-        nodesQueue.add(node);
-      }
-    }
-
-    // Run main "update" loop
-    int cyclesDetected = 0;
-    while (!nodesQueue.isEmpty()) {
-      AnimatedNode nextNode = nodesQueue.poll();
-      try {
-        nextNode.update();
-        if (nextNode instanceof PropsAnimatedNode) {
-          // Send property updates to native view manager
-          ((PropsAnimatedNode) nextNode).updateView();
+      if (updatedNodesCount <= mUpdateNodeRanks.length) {
+        Arrays.sort(mUpdateNodeRanks, 0, updatedNodesCount);
+        for (int i = 0; i < updatedNodesCount; i++) {
+          updateNode(mTopologicalOrder[mUpdateNodeRanks[i]]);
         }
-      } catch (JSApplicationCausedNativeException e) {
-        // An exception is thrown if the view hasn't been created yet. This can happen because
-        // views are created in batches. If this particular view didn't make it into a batch yet,
-        // the view won't exist and an exception will be thrown when attempting to start an
-        // animation on it.
-        //
-        // Eat the exception rather than crashing. The impact is that we may drop one or more
-        // frames of the animation.
-        FLog.e(TAG, "Native animation workaround, frame lost as result of race condition", e);
-      }
-      if (nextNode instanceof ValueAnimatedNode) {
-        // Potentially send events to JS when the node's value is updated
-        ((ValueAnimatedNode) nextNode).onValueUpdate();
-      }
-      if (nextNode.mChildren != null) {
-        for (int i = 0; i < nextNode.mChildren.size(); i++) {
-          AnimatedNode child = nextNode.mChildren.get(i);
-          child.mActiveIncomingNodes--;
-          if (child.mBFSColor != mAnimatedGraphBFSColor && child.mActiveIncomingNodes == 0) {
-            child.mBFSColor = mAnimatedGraphBFSColor;
-            updatedNodesCount++;
-            nodesQueue.add(child);
-          } else if (child.mBFSColor == mAnimatedGraphBFSColor) {
-            cyclesDetected++;
+      } else {
+        for (AnimatedNode node : mTopologicalOrder) {
+          if (node.mBFSColor == color) {
+            updateNode(node);
           }
         }
       }
     }
 
     // Verify that we've visited *all* active nodes. Throw otherwise as this could mean there is a
-    // cycle in animated node graph, or that the graph is only partially set up. We also take
-    // advantage of the fact that all active nodes are visited in the step above so that all the
-    // nodes properties `mActiveIncomingNodes` are set to zero.
+    // cycle in animated node graph, or that the graph is only partially set up.
     // In Fabric there can be race conditions between the JS thread setting up or tearing down
     // animated nodes, and Fabric executing them on the UI thread, leading to temporary inconsistent
     // states.
@@ -822,6 +907,222 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
     }
   }
 
+  @UiThread
+  private void updateNode(AnimatedNode node) {
+    try {
+      node.update();
+      if (node instanceof PropsAnimatedNode) {
+        // Send property updates to native view manager
+        ((PropsAnimatedNode) node).updateView();
+      }
+    } catch (JSApplicationCausedNativeException e) {
+      // An exception is thrown if the view hasn't been created yet. This can happen because
+      // views are created in batches. If this particular view didn't make it into a batch yet,
+      // the view won't exist and an exception will be thrown when attempting to start an
+      // animation on it.
+      //
+      // Eat the exception rather than crashing. The impact is that we may drop one or more
+      // frames of the animation.
+      FLog.e(TAG, "Native animation workaround, frame lost as result of race condition", e);
+    }
+    if (node instanceof ValueAnimatedNode) {
+      // Potentially send events to JS when the node's value is updated
+      ((ValueAnimatedNode) node).onValueUpdate();
+    }
+  }
+
+  /**
+   * Updates a view with the props of its props node, right away or, if the graph is owned by the
+   * animation thread, on the UI thread with a copy of these props.
+   */
+  /* package */ void updateView(UIManager uiManager, int viewTag, ReadableMap props) {
+    if (mAnimationThreadHandler == null) {
+      uiManager.synchronouslyUpdateViewOnUIThread(viewTag, props);
+      return;
+    }
+    PendingViewUpdate update =
+        new PendingViewUpdate(uiManager, viewTag, JavaOnlyMap.deepClone(props));
+    boolean scheduleCommit;
+    synchronized (mPendingViewUpdatesLock) {
+      mPendingViewUpdates.put(viewTag, update);
+      scheduleCommit = !mCommitViewUpdatesScheduled;
+      mCommitViewUpdatesScheduled = true;
+    }
+    if (scheduleCommit) {
+      UiThreadUtil.runOnUiThread(mCommitViewUpdatesRunnable);
+    }
+  }
+
+  @UiThread
+  private void commitViewUpdates() {
+    Map<Integer, PendingViewUpdate> updates;
+    synchronized (mPendingViewUpdatesLock) {
+      updates = mPendingViewUpdates;
+      mPendingViewUpdates = mCommittedViewUpdates;
+      mCommittedViewUpdates = updates;
+      mCommitViewUpdatesScheduled = false;
+    }
+    for (PendingViewUpdate update : updates.values()) {
+      try {
+        update.mUIManager.synchronouslyUpdateViewOnUIThread(update.mViewTag, update.mProps);
+      } catch (JSApplicationCausedNativeException e) {
+        // See updateNode.
+        FLog.e(TAG, "Native animation workaround, frame lost as result of race condition", e);
+      }
+    }
+    updates.clear();
+  }
+
+  private int nextAnimatedGraphBFSColor() {
+    mAnimatedGraphBFSColor++;
+    if (mAnimatedGraphBFSColor == AnimatedNode.INITIAL_BFS_COLOR) {
+      // value "0" is used as an initial color for a new node, using it in BFS may cause some nodes
+      // to be skipped.
+      mAnimatedGraphBFSColor++;
+    }
+    return mAnimatedGraphBFSColor;
+  }
+
+  /** Returns the cached plan of the node, computing it again if the graph changed since. */
+  @UiThread
+  private UpdatePlan getUpdatePlan(AnimatedNode node) {
+    UpdatePlan plan = node.mUpdatePlan;
+    if (plan != null && plan.mGraphVersion == mGraphVersion) {
+      return plan;
+    }
+    if (mTopologicalOrderGraphVersion != mGraphVersion) {
+      computeTopologicalOrder();
+    }
+
+    // STEP 1.
+    // BFS over graph of nodes. Update `mActiveIncomingNodes` attribute for each node during that
+    // BFS. Active nodes are the ones reachable from the given node.
+    int color = nextAnimatedGraphBFSColor();
+    List<AnimatedNode> activeNodes = new ArrayList<>();
+    node.mBFSColor = color;
+    activeNodes.add(node);
+    for (int i = 0; i < activeNodes.size(); i++) {
+      List<AnimatedNode> children = activeNodes.get(i).mChildren;
+      if (children != null) {
+        for (int j = 0; j < children.size(); j++) {
+          AnimatedNode child = children.get(j);
+          child.mActiveIncomingNodes++;
+          if (child.mBFSColor != color) {
+            child.mBFSColor = color;
+            activeNodes.add(child);
+          }
+        }
+      }
+    }
+
+    // STEP 2
+    // BFS over the graph of active nodes in topological order -> visit node only when all its
+    // "predecessors" in the graph have already been visited.
+    color = nextAnimatedGraphBFSColor();
+    List<AnimatedNode> sortedNodes = new ArrayList<>(activeNodes.size());
+    if (node.mActiveIncomingNodes == 0) {
+      node.mBFSColor = color;
+      sortedNodes.add(node);
+    }
+    int cyclesDetected = 0;
+    for (int i = 0; i < sortedNodes.size(); i++) {
+      List<AnimatedNode> children = sortedNodes.get(i).mChildren;
+      if (children != null) {
+        for (int j = 0; j < children.size(); j++) {
+          AnimatedNode child = children.get(j);
+          child.mActiveIncomingNodes--;
+          if (child.mBFSColor != color && child.mActiveIncomingNodes == 0) {
+            child.mBFSColor = color;
+            sortedNodes.add(child);
+          } else if (child.mBFSColor == color) {
+            cyclesDetected++;
+          }
+        }
+      }
+    }
+    // Nodes that are part of a cycle are never visited.
+    for (int i = 0; i < activeNodes.size(); i++) {
+      activeNodes.get(i).mActiveIncomingNodes = 0;
+    }
+    for (int i = 0; i < sortedNodes.size(); i++) {
+      AnimatedNode sortedNode = sortedNodes.get(i);
+      int rank = sortedNode.mTopologicalRank;
+      if (rank < 0 || rank >= mTopologicalOrder.length || mTopologicalOrder[rank] != sortedNode) {
+        mDetachedRoots.add(node);
+        computeTopologicalOrder();
+        break;
+      }
+    }
+
+    plan =
+        new UpdatePlan(
+            mGraphVersion,
+            sortedNodes.toArray(new AnimatedNode[sortedNodes.size()]),
+            activeNodes.size(),
+            cyclesDetected);
+    node.mUpdatePlan = plan;
+    return plan;
+  }
+
+  /**
+   * Ranks all the nodes of the graph in reverse DFS post-order, which is a topological order of
+   * every acyclic part of the graph.
+   */
+  @UiThread
+  private void computeTopologicalOrder() {
+    if (mTopologicalOrderGraphVersion != mGraphVersion) {
+      mDetachedRoots.clear();
+    }
+    int color = nextAnimatedGraphBFSColor();
+    List<AnimatedNode> postOrder = new ArrayList<>(mAnimatedNodes.size());
+    AnimatedNode[] stack = new AnimatedNode[16];
+    int[] childIndices = new int[16];
+    int rootCount = mDetachedRoots.size() + mAnimatedNodes.size();
+    for (int i = 0; i < rootCount; i++) {
+      AnimatedNode root =
+          i < mDetachedRoots.size()
+              ? mDetachedRoots.get(i)
+              : mAnimatedNodes.valueAt(i - mDetachedRoots.size());
+      if (root.mBFSColor == color) {
+        continue;
+      }
+      root.mBFSColor = color;
+      stack[0] = root;
+      childIndices[0] = 0;
+      int depth = 1;
+      while (depth > 0) {
+        AnimatedNode node = stack[depth - 1];
+        int childIndex = childIndices[depth - 1];
+        if (node.mChildren != null && childIndex < node.mChildren.size()) {
+          childIndices[depth - 1]++;
+          AnimatedNode child = node.mChildren.get(childIndex);
+          if (child.mBFSColor != color) {
+            child.mBFSColor = color;
+            if (depth == stack.length) {
+              stack = Arrays.copyOf(stack, depth * 2);
+              childIndices = Arrays.copyOf(childIndices, depth * 2);
+            }
+            stack[depth] = child;
+            childIndices[depth] = 0;
+            depth++;
+          }
+        } else {
+          postOrder.add(node);
+          depth--;
+        }
+      }
+    }
+
+    int nodeCount = postOrder.size();
+    mTopologicalOrder = new AnimatedNode[nodeCount];
+    for (int i = 0; i < nodeCount; i++) {
+      AnimatedNode node = postOrder.get(nodeCount - 1 - i);
+      node.mTopologicalRank = i;
+      mTopologicalOrder[i] = node;
+    }
+    mTopologicalOrderGraphVersion = mGraphVersion;
+  }
+
   private String normalizeEventName(String eventHandlerName) {
     // Fabric UIManager also makes this assumption
     String eventName = eventHandlerName;
@@ -831,4 +1132,37 @@ public class NativeAnimatedNodesManager implements EventDispatcherListener {
 
     return eventName;
   }
+
+  /** The props to update a view with on the UI thread, see {@link #updateView}. */
+  private static final class PendingViewUpdate {
+    private final UIManager mUIManager;
+    private final int mViewTag;
+    private final ReadableMap mProps;
+
+    private PendingViewUpdate(UIManager uiManager, int viewTag, ReadableMap props) {
+      mUIManager = uiManager;
+      mViewTag = viewTag;
+      mProps = props;
+    }
+  }
+
+  /** Keeps the data of a dispatched event, see {@link #postEventToAnimationThread}. */
+  private static final class EventDataRecorder implements RCTEventEmitter {
+    private int mTargetTag;
+    private String mEventName = "";
+    private @Nullable WritableMap mEventData;
+
+    @Override
+    public void receiveEvent(int targetTag, String eventName, @Nullable WritableMap event) {
+      mTargetTag = targetTag;
+      mEventName = eventName;
+      mEventData = event;
+    }
+
+    @Override
+    public void receiveTouches(
+        String eventName, WritableArray touches, WritableArray changedIndices) {
+      throw new RuntimeException("receiveTouches is not support by native animated events");
+    }
+  }
 }
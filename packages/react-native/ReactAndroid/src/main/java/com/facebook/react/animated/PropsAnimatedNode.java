@@ -14,6 +14,7 @@ import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
 import com.facebook.react.bridge.UIManager;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.uimanager.IllegalViewOperationException;
 import com.facebook.react.uimanager.common.UIManagerType;
 import com.facebook.react.uimanager.common.ViewUtil;
@@ -32,6 +33,9 @@ import java.util.Map;
   private final Map<String, Integer> mPropNodeMapping;
   private final JavaOnlyMap mPropMap;
   @Nullable private UIManager mUIManager;
+  @Nullable private TypedAnimatedProps mTypedProps;
+  // The graph version `mTypedProps` was resolved for, or -1 if it wasn't resolved yet.
+  private int mTypedPropsGraphVersion = -1;
 
   PropsAnimatedNode(ReadableMap config, NativeAnimatedNodesManager nativeAnimatedNodesManager) {
     ReadableMap props = config.getMap("props");
@@ -87,13 +91,19 @@ import java.util.Map;
       mPropMap.putNull(it.nextKey());
     }
 
-    mUIManager.synchronouslyUpdateViewOnUIThread(mConnectedViewTag, mPropMap);
+    mNativeAnimatedNodesManager.updateView(mUIManager, mConnectedViewTag, mPropMap);
   }
 
   public final void updateView() {
     if (mConnectedViewTag == -1) {
       return;
     }
+    // Typed props are set on the view directly, which the animation thread can't do.
+    if (ReactFeatureFlags.enableTypedAnimatedProps
+        && !mNativeAnimatedNodesManager.isRunningOnAnimationThread()
+        && updateViewTyped()) {
+      return;
+    }
     for (Map.Entry<String, Integer> entry : mPropNodeMapping.entrySet()) {
       @Nullable AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(entry.getValue());
       if (node == null) {
@@ -119,7 +129,20 @@ import java.util.Map;
       }
     }
 
-    mUIManager.synchronouslyUpdateViewOnUIThread(mConnectedViewTag, mPropMap);
+    mNativeAnimatedNodesManager.updateView(mUIManager, mConnectedViewTag, mPropMap);
+  }
+
+  private boolean updateViewTyped() {
+    int graphVersion = mNativeAnimatedNodesManager.getGraphVersion();
+    if (mTypedPropsGraphVersion != graphVersion) {
+      mTypedProps = TypedAnimatedProps.resolve(mPropNodeMapping, mNativeAnimatedNodesManager);
+      mTypedPropsGraphVersion = graphVersion;
+      if (mTypedProps != null) {
+        // Lets restoreDefaultValues reset the props applied to the view.
+        mTypedProps.putNullProps(mPropMap);
+      }
+    }
+    return mTypedProps != null && mTypedProps.applyTo(getConnectedView());
   }
 
   public View getConnectedView() {
@@ -61,6 +61,10 @@ import java.util.Map;
     }
   }
 
+  /*package*/ Map<String, Integer> getPropMapping() {
+    return mPropMapping;
+  }
+
   public String prettyPrint() {
     return "StyleAnimatedNode["
         + mTag
@@ -7,10 +7,12 @@
 
 package com.facebook.react.animated;
 
+import androidx.annotation.Nullable;
 import com.facebook.react.bridge.JavaOnlyArray;
 import com.facebook.react.bridge.JavaOnlyMap;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.uimanager.MatrixMathHelper;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -20,12 +22,29 @@ import java.util.List;
  */
 /* package */ class TransformAnimatedNode extends AnimatedNode {
 
+  private static final int TRANSFORM_UNSUPPORTED = -1;
+  private static final int TRANSFORM_PERSPECTIVE = 0;
+  private static final int TRANSFORM_ROTATE_X = 1;
+  private static final int TRANSFORM_ROTATE_Y = 2;
+  private static final int TRANSFORM_ROTATE_Z = 3;
+  private static final int TRANSFORM_SCALE = 4;
+  private static final int TRANSFORM_SCALE_X = 5;
+  private static final int TRANSFORM_SCALE_Y = 6;
+  private static final int TRANSFORM_TRANSLATE_X = 7;
+  private static final int TRANSFORM_TRANSLATE_Y = 8;
+  private static final int TRANSFORM_SKEW_X = 9;
+  private static final int TRANSFORM_SKEW_Y = 10;
+
   private class TransformConfig {
     public String mProperty;
+    public int mType;
   }
 
   private class AnimatedTransformConfig extends TransformConfig {
     public int mNodeTag;
+    // The node with `mNodeTag`, resolved once for each version of the graph.
+    public @Nullable ValueAnimatedNode mNode;
+    public int mNodeGraphVersion = -1;
   }
 
   private class StaticTransformConfig extends TransformConfig {
@@ -45,11 +64,13 @@ import java.util.List;
       if (type.equals("animated")) {
         AnimatedTransformConfig transformConfig = new AnimatedTransformConfig();
         transformConfig.mProperty = property;
+        transformConfig.mType = getTransformType(property);
         transformConfig.mNodeTag = transformConfigMap.getInt("nodeTag");
         mTransformConfigs.add(transformConfig);
       } else {
         StaticTransformConfig transformConfig = new StaticTransformConfig();
         transformConfig.mProperty = property;
+        transformConfig.mType = getTransformType(property);
         transformConfig.mValue = transformConfigMap.getDouble("value");
         mTransformConfigs.add(transformConfig);
       }
@@ -83,6 +104,121 @@ import java.util.List;
     propsMap.putArray("transform", JavaOnlyArray.from(transforms));
   }
 
+  private static int getTransformType(String property) {
+    switch (property) {
+      case "perspective":
+        return TRANSFORM_PERSPECTIVE;
+      case "rotateX":
+        return TRANSFORM_ROTATE_X;
+      case "rotateY":
+        return TRANSFORM_ROTATE_Y;
+      case "rotate":
+      case "rotateZ":
+        return TRANSFORM_ROTATE_Z;
+      case "scale":
+        return TRANSFORM_SCALE;
+      case "scaleX":
+        return TRANSFORM_SCALE_X;
+      case "scaleY":
+        return TRANSFORM_SCALE_Y;
+      case "translateX":
+        return TRANSFORM_TRANSLATE_X;
+      case "translateY":
+        return TRANSFORM_TRANSLATE_Y;
+      case "skewX":
+        return TRANSFORM_SKEW_X;
+      case "skewY":
+        return TRANSFORM_SKEW_Y;
+      default:
+        return TRANSFORM_UNSUPPORTED;
+    }
+  }
+
+  /** Whether {@link #computeTransformMatrix} supports all the transforms of this node. */
+  /*package*/ boolean isTransformMatrixSupported() {
+    for (int i = 0; i < mTransformConfigs.size(); i++) {
+      if (mTransformConfigs.get(i).mType == TRANSFORM_UNSUPPORTED) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes the transform matrix, the same way {@link
+   * com.facebook.react.uimanager.TransformHelper#processTransform} does for the array of transforms
+   * that {@link #collectViewUpdates} collects, without allocating that array.
+   *
+   * @param result the matrix to compute
+   * @param helperMatrix a matrix to use while computing the result
+   */
+  /*package*/ void computeTransformMatrix(double[] result, double[] helperMatrix) {
+    MatrixMathHelper.resetIdentityMatrix(result);
+    int graphVersion = mNativeAnimatedNodesManager.getGraphVersion();
+    for (int i = 0; i < mTransformConfigs.size(); i++) {
+      TransformConfig transformConfig = mTransformConfigs.get(i);
+      double value;
+      if (transformConfig instanceof AnimatedTransformConfig) {
+        AnimatedTransformConfig animatedConfig = (AnimatedTransformConfig) transformConfig;
+        if (animatedConfig.mNodeGraphVersion != graphVersion) {
+          AnimatedNode node = mNativeAnimatedNodesManager.getNodeById(animatedConfig.mNodeTag);
+          if (node == null) {
+            throw new IllegalArgumentException("Mapped style node does not exist");
+          } else if (!(node instanceof ValueAnimatedNode)) {
+            throw new IllegalArgumentException(
+                "Unsupported type of node used as a transform child " + "node " + node.getClass());
+          }
+          animatedConfig.mNode = (ValueAnimatedNode) node;
+          animatedConfig.mNodeGraphVersion = graphVersion;
+        }
+        value = animatedConfig.mNode.getValue();
+      } else {
+        value = ((StaticTransformConfig) transformConfig).mValue;
+      }
+
+      MatrixMathHelper.resetIdentityMatrix(helperMatrix);
+      switch (transformConfig.mType) {
+        case TRANSFORM_PERSPECTIVE:
+          MatrixMathHelper.applyPerspective(helperMatrix, value);
+          break;
+        case TRANSFORM_ROTATE_X:
+          MatrixMathHelper.applyRotateX(helperMatrix, value);
+          break;
+        case TRANSFORM_ROTATE_Y:
+          MatrixMathHelper.applyRotateY(helperMatrix, value);
+          break;
+        case TRANSFORM_ROTATE_Z:
+          MatrixMathHelper.applyRotateZ(helperMatrix, value);
+          break;
+        case TRANSFORM_SCALE:
+          MatrixMathHelper.applyScaleX(helperMatrix, value);
+          MatrixMathHelper.applyScaleY(helperMatrix, value);
+          break;
+        case TRANSFORM_SCALE_X:
+          MatrixMathHelper.applyScaleX(helperMatrix, value);
+          break;
+        case TRANSFORM_SCALE_Y:
+          MatrixMathHelper.applyScaleY(helperMatrix, value);
+          break;
+        case TRANSFORM_TRANSLATE_X:
+          MatrixMathHelper.applyTranslate2D(helperMatrix, value, 0d);
+          break;
+        case TRANSFORM_TRANSLATE_Y:
+          MatrixMathHelper.applyTranslate2D(helperMatrix, 0d, value);
+          break;
+        case TRANSFORM_SKEW_X:
+          MatrixMathHelper.applySkewX(helperMatrix, value);
+          break;
+        case TRANSFORM_SKEW_Y:
+          MatrixMathHelper.applySkewY(helperMatrix, value);
+          break;
+        default:
+          throw new IllegalStateException("Unsupported transform: " + transformConfig.mProperty);
+      }
+      MatrixMathHelper.multiplyInto(result, result, helperMatrix);
+    }
+  }
+
   @Override
   public String prettyPrint() {
     return "TransformAnimatedNode["
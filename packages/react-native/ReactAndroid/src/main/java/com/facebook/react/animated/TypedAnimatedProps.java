@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.animated;
+
+import android.view.View;
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.uimanager.BaseViewManager;
+import com.facebook.react.uimanager.ViewProps;
+import com.facebook.react.views.view.ReactViewGroup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The props of a {@link PropsAnimatedNode}, resolved once to the nodes animating them, which are
+ * applied to a {@link ReactViewGroup} with the same setters as {@link
+ * com.facebook.react.views.view.ReactViewManager}, without building a map of props.
+ *
+ * <p>Only opacity, background color and transforms are supported: props animating anything else
+ * don't have typed props and are updated through the map of props.
+ */
+/*package*/ final class TypedAnimatedProps {
+
+  private static final int PROP_OPACITY = 0;
+  private static final int PROP_BACKGROUND_COLOR = 1;
+  private static final int PROP_TRANSFORM = 2;
+
+  private static final String[] PROP_NAMES = {
+    ViewProps.OPACITY, ViewProps.BACKGROUND_COLOR, ViewProps.TRANSFORM
+  };
+
+  private final int[] mPropIds;
+  private final AnimatedNode[] mNodes;
+  private final double[] mTransformMatrix = new double[16];
+  private final double[] mHelperMatrix = new double[16];
+
+  private TypedAnimatedProps(int[] propIds, AnimatedNode[] nodes) {
+    mPropIds = propIds;
+    mNodes = nodes;
+  }
+
+  /**
+   * Resolves the nodes animating the props of a {@link PropsAnimatedNode}, or returns null if some
+   * of these props don't have a typed setter.
+   */
+  /*package*/ static @Nullable TypedAnimatedProps resolve(
+      Map<String, Integer> propNodeMapping, NativeAnimatedNodesManager nativeAnimatedNodesManager) {
+    List<Integer> propIds = new ArrayList<>();
+    List<AnimatedNode> nodes = new ArrayList<>();
+    for (Map.Entry<String, Integer> entry : propNodeMapping.entrySet()) {
+      @Nullable AnimatedNode node = nativeAnimatedNodesManager.getNodeById(entry.getValue());
+      if (node instanceof StyleAnimatedNode) {
+        Map<String, Integer> styleMapping = ((StyleAnimatedNode) node).getPropMapping();
+        for (Map.Entry<String, Integer> styleEntry : styleMapping.entrySet()) {
+          @Nullable
+          AnimatedNode styleNode = nativeAnimatedNodesManager.getNodeById(styleEntry.getValue());
+          if (!addProp(styleEntry.getKey(), styleNode, propIds, nodes)) {
+            return null;
+          }
+        }
+      } else if (!addProp(entry.getKey(), node, propIds, nodes)) {
+        return null;
+      }
+    }
+
+    int[] propIdArray = new int[propIds.size()];
+    for (int i = 0; i < propIdArray.length; i++) {
+      propIdArray[i] = propIds.get(i);
+    }
+    return new TypedAnimatedProps(propIdArray, nodes.toArray(new AnimatedNode[0]));
+  }
+
+  private static boolean addProp(
+      String propName,
+      @Nullable AnimatedNode node,
+      List<Integer> propIds,
+      List<AnimatedNode> nodes) {
+    int propId;
+    if (ViewProps.OPACITY.equals(propName) && node instanceof ValueAnimatedNode) {
+      propId = PROP_OPACITY;
+    } else if (ViewProps.BACKGROUND_COLOR.equals(propName)
+        && (node instanceof ColorAnimatedNode || node instanceof ValueAnimatedNode)) {
+      propId = PROP_BACKGROUND_COLOR;
+    } else if (ViewProps.TRANSFORM.equals(propName)
+        && node instanceof TransformAnimatedNode
+        && ((TransformAnimatedNode) node).isTransformMatrixSupported()) {
+      propId = PROP_TRANSFORM;
+    } else {
+      return false;
+    }
+    propIds.add(propId);
+    nodes.add(node);
+    return true;
+  }
+
+  /** Adds the names of the typed props to {@code propMap}, so that they can be reset later. */
+  /*package*/ void putNullProps(JavaOnlyMap propMap) {
+    for (int propId : mPropIds) {
+      propMap.putNull(PROP_NAMES[propId]);
+    }
+  }
+
+  /**
+   * Applies the current values of the props to the view, unless they can't be applied without the
+   * view manager, in which case the view is left untouched.
+   *
+   * @return whether the props were applied
+   */
+  /*package*/ boolean applyTo(@Nullable View view) {
+    // Subclasses of ReactViewGroup may have view managers handling these props differently.
+    if (view == null || view.getClass() != ReactViewGroup.class) {
+      return false;
+    }
+    for (int i = 0; i < mPropIds.length; i++) {
+      if (mNodes[i] instanceof ValueAnimatedNode) {
+        Object animatedObject = ((ValueAnimatedNode) mNodes[i]).getAnimatedObject();
+        boolean isColor = mPropIds[i] == PROP_BACKGROUND_COLOR;
+        if (isColor ? !(animatedObject instanceof Integer) : animatedObject != null) {
+          return false;
+        }
+      }
+    }
+
+    ReactViewGroup reactView = (ReactViewGroup) view;
+    for (int i = 0; i < mPropIds.length; i++) {
+      AnimatedNode node = mNodes[i];
+      switch (mPropIds[i]) {
+        case PROP_OPACITY:
+          reactView.setOpacityIfPossible((float) ((ValueAnimatedNode) node).getValue());
+          break;
+        case PROP_BACKGROUND_COLOR:
+          reactView.setBackgroundColor(
+              node instanceof ColorAnimatedNode
+                  ? ((ColorAnimatedNode) node).getColor()
+                  : (Integer) ((ValueAnimatedNode) node).getAnimatedObject());
+          break;
+        case PROP_TRANSFORM:
+          ((TransformAnimatedNode) node).computeTransformMatrix(mTransformMatrix, mHelperMatrix);
+          BaseViewManager.setTransformMatrix(reactView, mTransformMatrix);
+          reactView.setBackfaceVisibilityDependantOpacity();
+          break;
+        default:
+          throw new IllegalStateException("Unknown typed prop: " + mPropIds[i]);
+      }
+    }
+    return true;
+  }
+}
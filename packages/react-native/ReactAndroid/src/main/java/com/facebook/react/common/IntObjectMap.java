@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.common;
+
+import androidx.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from int keys to object values. Like a {@code HashMap<Integer, V>} or
+ * {@code SparseArray<V>} but without the autoboxing, and with O(1) inserts, lookups and removals.
+ *
+ * <p>Uses linear probing over power-of-two sized tables, with backward-shift deletion so removals
+ * don't leave tombstones behind. Null values are not supported. Not thread safe.
+ */
+public class IntObjectMap<V> {
+
+  /** Callback for {@link #forEach}. */
+  public interface Visitor<V> {
+    void visit(int key, V value);
+  }
+
+  private static final float MAX_LOAD_FACTOR = 0.5f;
+  private static final int EMPTY_KEY = 0;
+
+  private int[] mKeys;
+  private Object[] mValues;
+  private int mMask;
+  private int mSize;
+  private int mResizeThreshold;
+
+  // EMPTY_KEY marks free slots in mKeys, so an entry with that key is stored separately.
+  @Nullable private Object mEmptyKeyValue;
+
+  public IntObjectMap() {
+    this(16);
+  }
+
+  public IntObjectMap(int initialCapacity) {
+    int capacity = Integer.highestOneBit(Math.max(2, (int) (initialCapacity / MAX_LOAD_FACTOR)));
+    if (capacity < initialCapacity / MAX_LOAD_FACTOR) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  /** @return the value mapped to {@code key}, or null if there is none. */
+  @SuppressWarnings("unchecked")
+  public @Nullable V get(int key) {
+    if (key == EMPTY_KEY) {
+      return (V) mEmptyKeyValue;
+    }
+    int slot = slotFor(key);
+    while (true) {
+      int slotKey = mKeys[slot];
+      if (slotKey == key) {
+        return (V) mValues[slot];
+      }
+      if (slotKey == EMPTY_KEY) {
+        return null;
+      }
+      slot = (slot + 1) & mMask;
+    }
+  }
+
+  public boolean containsKey(int key) {
+    return get(key) != null;
+  }
+
+  /** @return the value previously mapped to {@code key}, or null if there was none. */
+  @SuppressWarnings("unchecked")
+  public @Nullable V put(int key, V value) {
+    if (key == EMPTY_KEY) {
+      V previous = (V) mEmptyKeyValue;
+      if (previous == null) {
+        mSize++;
+      }
+      mEmptyKeyValue = value;
+      return previous;
+    }
+    int slot = slotFor(key);
+    while (true) {
+      int slotKey = mKeys[slot];
+      if (slotKey == key) {
+        V previous = (V) mValues[slot];
+        mValues[slot] = value;
+        return previous;
+      }
+      if (slotKey == EMPTY_KEY) {
+        mKeys[slot] = key;
+        mValues[slot] = value;
+        if (++mSize > mResizeThreshold) {
+          rehash(mKeys.length << 1);
+        }
+        return null;
+      }
+      slot = (slot + 1) & mMask;
+    }
+  }
+
+  /** @return the value that was mapped to {@code key}, or null if there was none. */
+  @SuppressWarnings("unchecked")
+  public @Nullable V remove(int key) {
+    if (key == EMPTY_KEY) {
+      V previous = (V) mEmptyKeyValue;
+      if (previous != null) {
+        mEmptyKeyValue = null;
+        mSize--;
+      }
+      return previous;
+    }
+    int slot = slotFor(key);
+    while (true) {
+      int slotKey = mKeys[slot];
+      if (slotKey == key) {
+        V previous = (V) mValues[slot];
+        mSize--;
+        shiftKeysBack(slot);
+        return previous;
+      }
+      if (slotKey == EMPTY_KEY) {
+        return null;
+      }
+      slot = (slot + 1) & mMask;
+    }
+  }
+
+  /** Calls {@code visitor} for every entry, in no order. The map must not be modified meanwhile. */
+  @SuppressWarnings("unchecked")
+  public void forEach(Visitor<? super V> visitor) {
+    if (mEmptyKeyValue != null) {
+      visitor.visit(EMPTY_KEY, (V) mEmptyKeyValue);
+    }
+    for (int i = 0; i < mKeys.length; i++) {
+      if (mKeys[i] != EMPTY_KEY) {
+        visitor.visit(mKeys[i], (V) mValues[i]);
+      }
+    }
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  /** Removes all entries, keeping the current capacity so the map can be refilled without GC. */
+  public void clear() {
+    if (mSize == 0) {
+      return;
+    }
+    Arrays.fill(mKeys, EMPTY_KEY);
+    Arrays.fill(mValues, null);
+    mEmptyKeyValue = null;
+    mSize = 0;
+  }
+
+  private int slotFor(int key) {
+    // Fibonacci hashing spreads sequential keys (like react tags) over the whole table.
+    int hash = key * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mMask;
+  }
+
+  /**
+   * Frees {@code slot} and moves later entries of the same probe sequence back, so that lookups
+   * never run into a hole before reaching their key.
+   */
+  private void shiftKeysBack(int slot) {
+    int free = slot;
+    int next = (free + 1) & mMask;
+    while (mKeys[next] != EMPTY_KEY) {
+      int ideal = slotFor(mKeys[next]);
+      // Move the entry if its ideal slot is not cyclically within (free, next].
+      boolean canMove =
+          free <= next ? (ideal <= free || ideal > next) : (ideal <= free && ideal > next);
+      if (canMove) {
+        mKeys[free] = mKeys[next];
+        mValues[free] = mValues[next];
+        free = next;
+      }
+      next = (next + 1) & mMask;
+    }
+    mKeys[free] = EMPTY_KEY;
+    mValues[free] = null;
+  }
+
+  private void allocate(int capacity) {
+    mKeys = new int[capacity];
+    mValues = new Object[capacity];
+    mMask = capacity - 1;
+    mResizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+  }
+
+  private void rehash(int newCapacity) {
+    int[] oldKeys = mKeys;
+    Object[] oldValues = mValues;
+    allocate(newCapacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      int key = oldKeys[i];
+      if (key != EMPTY_KEY) {
+        int slot = slotFor(key);
+        while (mKeys[slot] != EMPTY_KEY) {
+          slot = (slot + 1) & mMask;
+        }
+        mKeys[slot] = key;
+        mValues[slot] = oldValues[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.common;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to int values. Like a {@code HashMap<Long, Integer>} or
+ * {@code LongSparseArray<Integer>} but without the autoboxing, and with O(1) inserts and lookups.
+ *
+ * <p>Uses linear probing over power-of-two sized tables, with backward-shift deletion so removals
+ * don't leave tombstones behind. Not thread safe.
+ */
+public class LongIntMap {
+
+  private static final float MAX_LOAD_FACTOR = 0.5f;
+  private static final long EMPTY_KEY = 0L;
+
+  private long[] mKeys;
+  private int[] mValues;
+  private int mMask;
+  private int mSize;
+  private int mResizeThreshold;
+
+  // EMPTY_KEY marks free slots in mKeys, so an entry with that key is stored separately.
+  private boolean mHasEmptyKey;
+  private int mEmptyKeyValue;
+
+  public LongIntMap() {
+    this(16);
+  }
+
+  public LongIntMap(int initialCapacity) {
+    int capacity = Integer.highestOneBit(Math.max(2, (int) (initialCapacity / MAX_LOAD_FACTOR)));
+    if (capacity < initialCapacity / MAX_LOAD_FACTOR) {
+      capacity <<= 1;
+    }
+    allocate(capacity);
+  }
+
+  /** @return the value mapped to {@code key}, or {@code defaultValue} if there is none. */
+  public int get(long key, int defaultValue) {
+    if (key == EMPTY_KEY) {
+      return mHasEmptyKey ? mEmptyKeyValue : defaultValue;
+    }
+    int slot = slotFor(key);
+    while (true) {
+      long slotKey = mKeys[slot];
+      if (slotKey == key) {
+        return mValues[slot];
+      }
+      if (slotKey == EMPTY_KEY) {
+        return defaultValue;
+      }
+      slot = (slot + 1) & mMask;
+    }
+  }
+
+  public boolean containsKey(long key) {
+    if (key == EMPTY_KEY) {
+      return mHasEmptyKey;
+    }
+    int slot = slotFor(key);
+    while (true) {
+      long slotKey = mKeys[slot];
+      if (slotKey == key) {
+        return true;
+      }
+      if (slotKey == EMPTY_KEY) {
+        return false;
+      }
+      slot = (slot + 1) & mMask;
+    }
+  }
+
+  public void put(long key, int value) {
+    if (key == EMPTY_KEY) {
+      if (!mHasEmptyKey) {
+        mHasEmptyKey = true;
+        mSize++;
+      }
+      mEmptyKeyValue = value;
+      return;
+    }
+    int slot = slotFor(key);
+    while (true) {
+      long slotKey = mKeys[slot];
+      if (slotKey == key) {
+        mValues[slot] = value;
+        return;
+      }
+      if (slotKey == EMPTY_KEY) {
+        mKeys[slot] = key;
+        mValues[slot] = value;
+        if (++mSize > mResizeThreshold) {
+          rehash(mKeys.length << 1);
+        }
+        return;
+      }
+      slot = (slot + 1) & mMask;
+    }
+  }
+
+  /** @return the value that was mapped to {@code key}, or {@code defaultValue} if none was. */
+  public int remove(long key, int defaultValue) {
+    if (key == EMPTY_KEY) {
+      if (!mHasEmptyKey) {
+        return defaultValue;
+      }
+      mHasEmptyKey = false;
+      mSize--;
+      return mEmptyKeyValue;
+    }
+    int slot = slotFor(key);
+    while (true) {
+      long slotKey = mKeys[slot];
+      if (slotKey == key) {
+        int previous = mValues[slot];
+        mSize--;
+        shiftKeysBack(slot);
+        return previous;
+      }
+      if (slotKey == EMPTY_KEY) {
+        return defaultValue;
+      }
+      slot = (slot + 1) & mMask;
+    }
+  }
+
+  public int size() {
+    return mSize;
+  }
+
+  public boolean isEmpty() {
+    return mSize == 0;
+  }
+
+  /** Removes all entries, keeping the current capacity so the map can be refilled without GC. */
+  public void clear() {
+    if (mSize == 0) {
+      return;
+    }
+    Arrays.fill(mKeys, EMPTY_KEY);
+    mHasEmptyKey = false;
+    mSize = 0;
+  }
+
+  private int slotFor(long key) {
+    // Fibonacci hashing spreads the clustered bits of packed keys over the whole table.
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mMask;
+  }
+
+  /**
+   * Frees {@code slot} and moves later entries of the same probe sequence back, so that lookups
+   * never run into a hole before reaching their key.
+   */
+  private void shiftKeysBack(int slot) {
+    int free = slot;
+    int next = (free + 1) & mMask;
+    while (mKeys[next] != EMPTY_KEY) {
+      int ideal = slotFor(mKeys[next]);
+      // Move the entry if its ideal slot is not cyclically within (free, next].
+      boolean canMove =
+          free <= next ? (ideal <= free || ideal > next) : (ideal <= free && ideal > next);
+      if (canMove) {
+        mKeys[free] = mKeys[next];
+        mValues[free] = mValues[next];
+        free = next;
+      }
+      next = (next + 1) & mMask;
+    }
+    mKeys[free] = EMPTY_KEY;
+  }
+
+  private void allocate(int capacity) {
+    mKeys = new long[capacity];
+    mValues = new int[capacity];
+    mMask = capacity - 1;
+    mResizeThreshold = (int) (capacity * MAX_LOAD_FACTOR);
+  }
+
+  private void rehash(int newCapacity) {
+    long[] oldKeys = mKeys;
+    int[] oldValues = mValues;
+    allocate(newCapacity);
+    for (int i = 0; i < oldKeys.length; i++) {
+      long key = oldKeys[i];
+      if (key != EMPTY_KEY) {
+        int slot = slotFor(key);
+        while (mKeys[slot] != EMPTY_KEY) {
+          slot = (slot + 1) & mMask;
+        }
+        mKeys[slot] = key;
+        mValues[slot] = oldValues[i];
+      }
+    }
+  }
+}
@@ -15,8 +15,18 @@ import android.util.SparseArray;
 import androidx.annotation.Nullable;
 import androidx.core.content.res.ResourcesCompat;
 import com.facebook.infer.annotation.Nullsafe;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Responsible for loading and caching Typeface objects.
@@ -39,22 +49,31 @@ public class ReactFontManager {
   // NOTE: Indices in `EXTENSIONS` correspond to the `TypeFace` style constants.
   private static final String[] EXTENSIONS = {"", "_bold", "_italic", "_bold_italic"};
   private static final String[] FILE_EXTENSIONS = {".ttf", ".otf"};
-  private static final String FONTS_ASSET_PATH = "fonts/";
+  private static final String FONTS_ASSET_FOLDER = "fonts";
+  private static final String FONTS_ASSET_PATH = FONTS_ASSET_FOLDER + "/";
 
-  private static ReactFontManager sReactFontManagerInstance;
+  private static final ReactFontManager sReactFontManagerInstance = new ReactFontManager();
 
-  private final Map<String, AssetFontFamily> mFontCache;
-  private final Map<String, Typeface> mCustomTypefaceCache;
+  private final ConcurrentHashMap<String, AssetFontFamily> mFontCache;
+  private final ConcurrentHashMap<String, Typeface> mCustomTypefaceCache;
+
+  // File names in the fonts asset folder, so missing variants are not probed by loading them. Null
+  // until listed, or if the folder can't be listed.
+  private volatile @Nullable Set<String> mFontAssetFileNames;
+  private volatile boolean mFontAssetFileNamesListed = false;
+
+  private @Nullable ExecutorService mPreloadExecutor;
+
+  private final AtomicLong mCacheHitCount = new AtomicLong();
+  private final AtomicLong mResolveCount = new AtomicLong();
+  private final AtomicLong mResolveNanos = new AtomicLong();
 
   private ReactFontManager() {
-    mFontCache = new HashMap<>();
-    mCustomTypefaceCache = new HashMap<>();
+    mFontCache = new ConcurrentHashMap<>();
+    mCustomTypefaceCache = new ConcurrentHashMap<>();
   }
 
   public static ReactFontManager getInstance() {
-    if (sReactFontManagerInstance == null) {
-      sReactFontManagerInstance = new ReactFontManager();
-    }
     return sReactFontManagerInstance;
   }
 
@@ -74,29 +93,64 @@ public class ReactFontManager {
 
   public Typeface getTypeface(
       String fontFamilyName, TypefaceStyle typefaceStyle, AssetManager assetManager) {
-    if (mCustomTypefaceCache.containsKey(fontFamilyName)) {
+    Typeface customTypeface = mCustomTypefaceCache.get(fontFamilyName);
+    if (customTypeface != null) {
       // Apply `typefaceStyle` because custom fonts configure variants using `app:fontStyle` and
       // `app:fontWeight` in their resource XML configuration file.
-      return typefaceStyle.apply(mCustomTypefaceCache.get(fontFamilyName));
-    }
-
-    AssetFontFamily assetFontFamily = mFontCache.get(fontFamilyName);
-    if (assetFontFamily == null) {
-      assetFontFamily = new AssetFontFamily();
-      mFontCache.put(fontFamilyName, assetFontFamily);
+      return typefaceStyle.apply(customTypeface);
     }
 
+    AssetFontFamily assetFontFamily = getOrCreateAssetFontFamily(fontFamilyName);
     int style = typefaceStyle.getNearestStyle();
 
     Typeface assetTypeface = assetFontFamily.getTypefaceForStyle(style);
-    if (assetTypeface == null) {
+    if (assetTypeface != null) {
+      mCacheHitCount.incrementAndGet();
+    } else {
+      long start = System.nanoTime();
       assetTypeface = createAssetTypeface(fontFamilyName, style, assetManager);
+      mResolveNanos.addAndGet(System.nanoTime() - start);
+      mResolveCount.incrementAndGet();
       assetFontFamily.setTypefaceForStyle(style, assetTypeface);
     }
     // Do not apply `typefaceStyle` because asset font files already incorporate the style.
     return assetTypeface;
   }
 
+  /**
+   * Resolves every style of the given font families on a background thread, so that the first
+   * text using them doesn't load font assets on the thread measuring or drawing it. Call it at
+   * startup with the font families the app declares.
+   */
+  public Future<?> preloadFontFamilies(
+      final AssetManager assetManager, final Collection<String> fontFamilyNames) {
+    final List<String> fontFamilies = new ArrayList<>(fontFamilyNames);
+    return getPreloadExecutor()
+        .submit(
+            () -> {
+              for (String fontFamilyName : fontFamilies) {
+                for (int style = 0; style < EXTENSIONS.length; style++) {
+                  getTypeface(fontFamilyName, style, assetManager);
+                }
+              }
+            });
+  }
+
+  /** @return number of typeface lookups that were served from the cache. */
+  public long getCacheHitCount() {
+    return mCacheHitCount.get();
+  }
+
+  /** @return number of typefaces resolved from assets or the system. */
+  public long getResolveCount() {
+    return mResolveCount.get();
+  }
+
+  /** @return total time spent resolving typefaces from assets or the system. */
+  public long getResolveTimeMs() {
+    return mResolveNanos.get() / 1_000_000;
+  }
+
   /*
    * This method allows you to load custom fonts from res/font folder as provided font family name.
    * Fonts may be one of .ttf, .otf or XML (https://developer.android.com/guide/topics/ui/look-and-feel/fonts-in-xml).
@@ -132,28 +186,71 @@ public class ReactFontManager {
    */
   public void setTypeface(String fontFamilyName, int style, Typeface typeface) {
     if (typeface != null) {
-      AssetFontFamily assetFontFamily = mFontCache.get(fontFamilyName);
+      getOrCreateAssetFontFamily(fontFamilyName).setTypefaceForStyle(style, typeface);
+    }
+  }
+
+  private AssetFontFamily getOrCreateAssetFontFamily(String fontFamilyName) {
+    AssetFontFamily assetFontFamily = mFontCache.get(fontFamilyName);
+    if (assetFontFamily == null) {
+      AssetFontFamily newAssetFontFamily = new AssetFontFamily();
+      assetFontFamily = mFontCache.putIfAbsent(fontFamilyName, newAssetFontFamily);
       if (assetFontFamily == null) {
-        assetFontFamily = new AssetFontFamily();
-        mFontCache.put(fontFamilyName, assetFontFamily);
+        assetFontFamily = newAssetFontFamily;
+      }
+    }
+    return assetFontFamily;
+  }
+
+  private synchronized ExecutorService getPreloadExecutor() {
+    if (mPreloadExecutor == null) {
+      mPreloadExecutor =
+          Executors.newSingleThreadExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "ReactFontPreloader");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+              });
+    }
+    return mPreloadExecutor;
+  }
+
+  private @Nullable Set<String> getFontAssetFileNames(AssetManager assetManager) {
+    if (!mFontAssetFileNamesListed) {
+      synchronized (this) {
+        if (!mFontAssetFileNamesListed) {
+          try {
+            String[] fileNames = assetManager.list(FONTS_ASSET_FOLDER);
+            mFontAssetFileNames =
+                fileNames != null ? new HashSet<>(Arrays.asList(fileNames)) : null;
+          } catch (IOException e) {
+            mFontAssetFileNames = null;
+          }
+          mFontAssetFileNamesListed = true;
+        }
       }
-      assetFontFamily.setTypefaceForStyle(style, typeface);
     }
+    return mFontAssetFileNames;
   }
 
-  private static Typeface createAssetTypeface(
+  private Typeface createAssetTypeface(
       String fontFamilyName, int style, AssetManager assetManager) {
+    Set<String> fontAssetFileNames = getFontAssetFileNames(assetManager);
     String extension = EXTENSIONS[style];
     for (String fileExtension : FILE_EXTENSIONS) {
       String fileName =
           new StringBuilder()
-              .append(FONTS_ASSET_PATH)
               .append(fontFamilyName)
               .append(extension)
               .append(fileExtension)
               .toString();
+      if (fontAssetFileNames != null && !fontAssetFileNames.contains(fileName)) {
+        // Known to be missing, don't pay for a failing asset load.
+        continue;
+      }
       try {
-        return Typeface.createFromAsset(assetManager, fileName);
+        return Typeface.createFromAsset(assetManager, FONTS_ASSET_PATH + fileName);
       } catch (RuntimeException e) {
         // If the typeface asset does not exist, try another extension.
         continue;
@@ -222,17 +319,17 @@ public class ReactFontManager {
   /** Responsible for caching typefaces for each custom font family. */
   private static class AssetFontFamily {
 
-    private SparseArray<Typeface> mTypefaceSparseArray;
+    private final SparseArray<Typeface> mTypefaceSparseArray;
 
     private AssetFontFamily() {
       mTypefaceSparseArray = new SparseArray<>(4);
     }
 
-    public @Nullable Typeface getTypefaceForStyle(int style) {
+    public synchronized @Nullable Typeface getTypefaceForStyle(int style) {
       return mTypefaceSparseArray.get(style);
     }
 
-    public void setTypefaceForStyle(int style, Typeface typeface) {
+    public synchronized void setTypefaceForStyle(int style, Typeface typeface) {
       mTypefaceSparseArray.put(style, typeface);
     }
   }
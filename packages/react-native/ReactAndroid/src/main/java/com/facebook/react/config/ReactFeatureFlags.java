@@ -95,9 +95,51 @@ public class ReactFeatureFlags {
 
   public static boolean dispatchPointerEvents = false;
 
-  /** Feature Flag to enable a cache of Spannable objects used by TextLayoutManagerMapBuffer */
+  /** Feature Flag to enable a cache of Spannable objects used by TextLayoutManager(MapBuffer) */
   public static boolean enableTextSpannableCache = false;
 
+  /**
+   * Feature Flag to reuse the Layout built for measuring an attributed string when it's measured
+   * again with the same constraints, see TextLayoutCache.
+   */
+  public static boolean enableTextLayoutCache = false;
+
+  /**
+   * Feature Flag to precompute the glyph metrics of text off the UI thread with PrecomputedText, so
+   * ReactTextView doesn't have to measure it again when it's mounted.
+   */
+  public static boolean enableTextPrecomputation = false;
+
+  /**
+   * Feature Flag to share the TextAttributeProps and style spans of text fragments with identical
+   * styling instead of allocating them per fragment. Only applies to MapBuffer attributed strings.
+   */
+  public static boolean enableTextAttributeInterning = false;
+
+  /**
+   * Feature Flag to coalesce the incremental text of XHR responses while JS is busy, and to stop
+   * reading the response while JS has too many events to handle.
+   */
+  public static boolean enableBackPressuredIncrementalUpdates = false;
+
+  /**
+   * Feature Flag to stop running the JS timers frame callback on every frame while no timer is due,
+   * and to wake up the UI thread once for the next timer instead.
+   */
+  public static boolean enableSleepAwareTimers = false;
+
+  /**
+   * Feature Flag to apply the opacity, background color and transform animated by native driven
+   * animations directly to the properties of the view, without building a map of props every frame.
+   */
+  public static boolean enableTypedAnimatedProps = false;
+
+  /**
+   * Feature Flag to step native driven animations on a dedicated thread, and only update the views
+   * on the UI thread, so that heavy work on the UI thread doesn't make animations skip frames.
+   */
+  public static boolean enableAnimationThread = false;
+
   /** Feature Flag to enable the pending event queue in fabric before mounting views */
   public static boolean enableFabricPendingEventQueue = false;
 
@@ -119,6 +161,18 @@ public class ReactFeatureFlags {
   /** Temporary flag to allow execution of mount items up to 15ms earlier than normal. */
   public static boolean enableEarlyScheduledMountItemExecution = false;
 
+  /**
+   * Allow large batches of mount items to be spread across several frames when they don't fit in
+   * the current one.
+   */
+  public static boolean enableIncrementalBatchMountItemExecution = false;
+
+  /**
+   * Create the Views of preallocated components on a background thread, for ViewManagers that allow
+   * it, so the UI thread only needs to apply props when they are mounted.
+   */
+  public static boolean enableBackgroundViewPreallocation = false;
+
   /**
    * Allow closing the small gap that appears between paths when drawing a rounded View with a
    * border.
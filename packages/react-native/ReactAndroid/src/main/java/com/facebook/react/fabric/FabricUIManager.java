@@ -86,6 +86,7 @@ import com.facebook.react.uimanager.events.EventDispatcherImpl;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 import com.facebook.react.views.text.TextLayoutManager;
 import com.facebook.react.views.text.TextLayoutManagerMapBuffer;
+import com.facebook.react.views.text.TextPrecomputer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -727,6 +728,10 @@ public class FabricUIManager implements UIManager, LifecycleEventListener {
       @Nullable Object eventEmitterWrapper,
       boolean isLayoutable) {
 
+    if (ReactFeatureFlags.enableBackgroundViewPreallocation) {
+      mMountingManager.preallocateViewInBackground(rootTag, reactTag, componentName);
+    }
+
     mMountItemDispatcher.addPreAllocateMountItem(
         MountItemFactory.createPreAllocateViewMountItem(
             rootTag,
@@ -780,6 +785,17 @@ public class FabricUIManager implements UIManager, LifecycleEventListener {
       listener.didScheduleMountItems(this);
     }
 
+    if (isBatchMountItem && ReactFeatureFlags.enableTextPrecomputation) {
+      // The text measured in this commit is about to be mounted: precompute it in the background
+      // rather than when it's set on the UI thread, unless this is already the UI thread and the
+      // commit is mounted right away.
+      if (UiThreadUtil.isOnUiThread()) {
+        TextPrecomputer.clearPendingTexts();
+      } else {
+        TextPrecomputer.schedulePrecomputePendingTexts();
+      }
+    }
+
     if (isBatchMountItem) {
       mCommitStartTime = commitStartTime;
       mLayoutTime = layoutEndTime - layoutStartTime;
@@ -1313,6 +1329,7 @@ public class FabricUIManager implements UIManager, LifecycleEventListener {
         stop();
         throw ex;
       } finally {
+        mMountItemDispatcher.onFrameDispatched(frameTimeNanos);
         ReactChoreographer.getInstance()
             .postFrameCallback(
                 ReactChoreographer.CallbackType.DISPATCH_UI, mDispatchUIFrameCallback);
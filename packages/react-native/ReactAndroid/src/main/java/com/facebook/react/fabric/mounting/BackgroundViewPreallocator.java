@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.fabric.mounting;
+
+import android.os.Process;
+import android.view.View;
+import androidx.annotation.AnyThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import com.facebook.react.bridge.ReactSoftExceptionLogger;
+import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.ViewManager;
+import com.facebook.react.uimanager.ViewManagerRegistry;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates View instances for {@link
+ * com.facebook.react.fabric.mounting.mountitems.PreAllocateViewMountItem}s on a low-priority
+ * background thread, so that the UI thread only has to apply props, state and event emitters when
+ * the preallocation or the create mount item runs. Only ViewManagers that opt in through {@link
+ * ViewManager#canCreateViewInstanceOffUiThread()} are used; everything else keeps being created on
+ * the UI thread.
+ *
+ * <p>Every scheduled tag reserves a slot in its {@link SurfaceMountingManager}, which the View is
+ * published to once it is created. The UI thread claims the slot of a tag before creating its View:
+ * a View that isn't published by then is dropped, so a tag never ends up with two Views. The
+ * surface only keeps a bounded number of slots, so a View whose slot was evicted is dropped too.
+ * The surface counts how many Views were taken from a slot; both sets of counters are logged when
+ * the surface stops if {@link com.facebook.react.fabric.FabricUIManager#ENABLE_FABRIC_PERF_LOGS}
+ * is set.
+ */
+final class BackgroundViewPreallocator {
+  private static final String TAG = BackgroundViewPreallocator.class.getSimpleName();
+  private static final long KEEP_ALIVE_SECONDS = 5;
+
+  private static final ThreadPoolExecutor sExecutor =
+      new ThreadPoolExecutor(
+          1,
+          1,
+          KEEP_ALIVE_SECONDS,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(),
+          new PreallocationThreadFactory());
+
+  static {
+    sExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  @NonNull private final ViewManagerRegistry mViewManagerRegistry;
+
+  private final AtomicLong mScheduledCount = new AtomicLong();
+  private final AtomicLong mCreatedCount = new AtomicLong();
+  private final AtomicLong mSkippedCount = new AtomicLong();
+
+  BackgroundViewPreallocator(@NonNull ViewManagerRegistry viewManagerRegistry) {
+    mViewManagerRegistry = viewManagerRegistry;
+  }
+
+  /**
+   * Schedules the creation of a View for the given tag and ViewManager name on the given surface.
+   * Never blocks the calling thread.
+   */
+  @AnyThread
+  void schedule(
+      @NonNull final SurfaceMountingManager surfaceMountingManager,
+      final int reactTag,
+      @NonNull final String viewManagerName) {
+    try {
+      if (!mViewManagerRegistry.get(viewManagerName).canCreateViewInstanceOffUiThread()) {
+        return;
+      }
+    } catch (RuntimeException e) {
+      // Unknown components fail when they are created on the UI thread, not here.
+      return;
+    }
+    if (!surfaceMountingManager.reservePreallocatedViewSlot(reactTag)) {
+      return;
+    }
+    mScheduledCount.incrementAndGet();
+    try {
+      sExecutor.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              preallocate(surfaceMountingManager, reactTag, viewManagerName);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      surfaceMountingManager.releasePreallocatedViewSlot(reactTag);
+      mSkippedCount.incrementAndGet();
+    }
+  }
+
+  @WorkerThread
+  private void preallocate(
+      @NonNull SurfaceMountingManager surfaceMountingManager,
+      int reactTag,
+      @NonNull String viewManagerName) {
+    @Nullable ThemedReactContext context = surfaceMountingManager.getContext();
+    if (!surfaceMountingManager.isPreallocatedViewSlotPending(reactTag) || context == null) {
+      // The UI thread already claimed the slot, or the surface is gone.
+      surfaceMountingManager.releasePreallocatedViewSlot(reactTag);
+      mSkippedCount.incrementAndGet();
+      return;
+    }
+    @Nullable View view = null;
+    try {
+      view = mViewManagerRegistry.get(viewManagerName).createViewInstanceOffUiThread(context);
+    } catch (RuntimeException e) {
+      // The View will just be created on the UI thread instead; this must never crash the app.
+      ReactSoftExceptionLogger.logSoftException(TAG, e);
+    }
+    if (view != null && surfaceMountingManager.publishPreallocatedView(reactTag, view)) {
+      mCreatedCount.incrementAndGet();
+    } else {
+      surfaceMountingManager.releasePreallocatedViewSlot(reactTag);
+      mSkippedCount.incrementAndGet();
+    }
+  }
+
+  long getScheduledCount() {
+    return mScheduledCount.get();
+  }
+
+  long getCreatedCount() {
+    return mCreatedCount.get();
+  }
+
+  long getSkippedCount() {
+    return mSkippedCount.get();
+  }
+
+  private static final class PreallocationThreadFactory implements ThreadFactory {
+    private final AtomicInteger mThreadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      Thread thread =
+          new Thread(
+              new Runnable() {
+                @Override
+                public void run() {
+                  Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                  runnable.run();
+                }
+              },
+              "fabric_view_preallocation_" + mThreadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -24,20 +24,45 @@ import com.facebook.react.bridge.ReactIgnorableMountingException;
 import com.facebook.react.bridge.ReactNoCrashSoftException;
 import com.facebook.react.bridge.ReactSoftExceptionLogger;
 import com.facebook.react.bridge.RetryableMountingLayerException;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.react.fabric.mounting.mountitems.BatchMountItem;
 import com.facebook.react.fabric.mounting.mountitems.DispatchCommandMountItem;
 import com.facebook.react.fabric.mounting.mountitems.MountItem;
 import com.facebook.systrace.Systrace;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Queues {@link MountItem}s produced by Fabric and executes them on the UI thread.
+ *
+ * <p>Work is executed in priority order: view commands first, then regular mount items, and
+ * finally pre-allocation items, which only run while there is time left in the current frame.
+ * Pre-allocation items for surfaces whose root view is attached run before those for surfaces that
+ * are not on screen yet.
+ *
+ * <p>The frame budget is derived from the interval between the frame timestamps reported by the
+ * Choreographer, so it adapts to 90Hz and 120Hz displays instead of assuming 60Hz.
+ *
+ * <p>With {@link ReactFeatureFlags#enableIncrementalBatchMountItemExecution}, a {@link
+ * BatchMountItem} that doesn't fit in the current frame is suspended at an instruction boundary and
+ * resumed in the next frame. Every mount item queued after it waits until it has finished, so
+ * commits are still applied in order.
+ */
 public class MountItemDispatcher {
 
   private static final String TAG = "MountItemDispatcher";
-  private static final int FRAME_TIME_MS = 16;
-  private static final int MAX_TIME_IN_FRAME_FOR_NON_BATCHED_OPERATIONS_MS = 8;
+
+  private static final long DEFAULT_FRAME_INTERVAL_NANOS = 1000000000L / 60;
+  private static final long MIN_FRAME_INTERVAL_NANOS = 1000000000L / 240;
+  private static final long MAX_FRAME_INTERVAL_NANOS = 1000000000L / 24;
+  // The frame interval is the shortest gap seen over this many frames, so dropped frames (which
+  // show up as longer gaps) don't inflate it, while refresh rate changes are picked up quickly.
+  private static final int FRAME_INTERVAL_SAMPLE_COUNT = 16;
 
   private final MountingManager mMountingManager;
   private final ItemDispatchListener mItemDispatchListener;
@@ -52,11 +77,44 @@ public class MountItemDispatcher {
   @NonNull
   private final ConcurrentLinkedQueue<MountItem> mPreMountItems = new ConcurrentLinkedQueue<>();
 
+  private final AtomicInteger mPreMountItemCount = new AtomicInteger();
+
+  // Pre-allocation items for surfaces that aren't attached yet; run after all other pre-allocation
+  // items.
+  @ThreadConfined(UI)
+  private final ArrayDeque<MountItem> mLowPriorityPreMountItems = new ArrayDeque<>();
+
+  // Mount items that couldn't be executed in a previous frame, starting with a partially executed
+  // batch. They run before any newly queued mount item.
+  @ThreadConfined(UI)
+  private final ArrayDeque<MountItem> mSuspendedMountItems = new ArrayDeque<>();
+
+  // View commands queued while mount items were suspended. They run once the mount items queued
+  // before them have been executed.
+  @ThreadConfined(UI)
+  private final ArrayDeque<DispatchCommandMountItem> mSuspendedViewCommandMountItems =
+      new ArrayDeque<>();
+
   private boolean mInDispatch = false;
   private int mReDispatchCounter = 0;
   private long mBatchedExecutionTime = 0L;
   private long mRunStartTime = 0L;
 
+  @ThreadConfined(UI)
+  private final long[] mFrameIntervalSamples = new long[FRAME_INTERVAL_SAMPLE_COUNT];
+
+  private int mFrameIntervalSampleIndex = 0;
+  private long mLastFrameTimeNanos = 0L;
+  private long mFrameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+  // Only set while the frame callback is running; outside of it mount items run to completion.
+  private long mFrameDeadlineNanos = Long.MAX_VALUE;
+
+  // Per-frame metrics
+  private long mFrameDispatchStartNanos = 0L;
+  private long mLastFrameExecutionTimeNanos = 0L;
+  private int mLastFrameDeferredItemCount = 0;
+  private long mOverrunFrameCount = 0L;
+
   public MountItemDispatcher(MountingManager mountingManager, ItemDispatchListener listener) {
     mMountingManager = mountingManager;
     mItemDispatchListener = listener;
@@ -79,6 +137,7 @@ public class MountItemDispatcher {
     // both to queue, to drain, and to execute.
     if (!mMountingManager.surfaceIsStopped(mountItem.getSurfaceId())) {
       mPreMountItems.add(mountItem);
+      mPreMountItemCount.incrementAndGet();
     } else if (IS_DEVELOPMENT_ENVIRONMENT) {
       FLog.e(
           TAG,
@@ -127,7 +186,10 @@ public class MountItemDispatcher {
 
     // We call didDispatchMountItems regardless of whether we actually dispatched anything, since
     // NativeAnimatedModule relies on this for executing any animations that may have been scheduled
-    mItemDispatchListener.didDispatchMountItems();
+    // (unless a batch is suspended: its views may not exist yet, so wait until it has finished).
+    if (mSuspendedMountItems.isEmpty()) {
+      mItemDispatchListener.didDispatchMountItems();
+    }
 
     // Decide if we want to try reentering
     if (mReDispatchCounter < 10 && didDispatchItems) {
@@ -184,10 +246,20 @@ public class MountItemDispatcher {
 
     mRunStartTime = SystemClock.uptimeMillis();
 
+    // View commands queued after a suspended batch must not run before it.
+    boolean resumingSuspendedItems = !mSuspendedMountItems.isEmpty();
     List<DispatchCommandMountItem> viewCommandMountItemsToDispatch =
         getAndResetViewCommandMountItems();
     List<MountItem> mountItemsToDispatch = getAndResetMountItems();
 
+    if (resumingSuspendedItems && mountItemsToDispatch == null) {
+      // The suspended items resume in the next frame.
+      if (viewCommandMountItemsToDispatch != null) {
+        mSuspendedViewCommandMountItems.addAll(viewCommandMountItemsToDispatch);
+      }
+      return false;
+    }
+
     if (mountItemsToDispatch == null && viewCommandMountItemsToDispatch == null) {
       return false;
     }
@@ -204,44 +276,8 @@ public class MountItemDispatcher {
     // likely it is that the view disappears.
     //    Thus, by executing ViewCommands early, we should actually avoid a category of
     // errors/glitches.
-    if (viewCommandMountItemsToDispatch != null) {
-      Systrace.beginSection(
-          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
-          "FabricUIManager::mountViews viewCommandMountItems");
-      for (DispatchCommandMountItem command : viewCommandMountItemsToDispatch) {
-        if (ENABLE_FABRIC_LOGS) {
-          printMountItem(command, "dispatchMountItems: Executing viewCommandMountItem");
-        }
-        try {
-          executeOrEnqueue(command);
-        } catch (RetryableMountingLayerException e) {
-          // If the exception is marked as Retryable, we retry the viewcommand exactly once, after
-          // the current batch of mount items has finished executing.
-          if (command.getRetries() == 0) {
-            command.incrementRetries();
-            dispatchCommandMountItem(command);
-          } else {
-            // It's very common for commands to be executed on views that no longer exist - for
-            // example, a blur event on TextInput being fired because of a navigation event away
-            // from the current screen. If the exception is marked as Retryable, we log a soft
-            // exception but never crash in debug.
-            // It's not clear that logging this is even useful, because these events are very
-            // common, mundane, and there's not much we can do about them currently.
-            ReactSoftExceptionLogger.logSoftException(
-                TAG,
-                new ReactNoCrashSoftException(
-                    "Caught exception executing ViewCommand: " + command.toString(), e));
-          }
-        } catch (Throwable e) {
-          // Non-Retryable exceptions are logged as soft exceptions in prod, but crash in Debug.
-          ReactSoftExceptionLogger.logSoftException(
-              TAG,
-              new RuntimeException(
-                  "Caught exception executing ViewCommand: " + command.toString(), e));
-        }
-      }
-
-      Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+    if (viewCommandMountItemsToDispatch != null && !resumingSuspendedItems) {
+      dispatchViewCommandMountItems(viewCommandMountItemsToDispatch);
     }
 
     // If there are MountItems to dispatch, we make sure all the "pre mount items" are executed
@@ -259,6 +295,8 @@ public class MountItemDispatcher {
       Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
     }
 
+    // The mount items that were executed, without the suspended ones
+    List<MountItem> mountedItems = mountItemsToDispatch;
     if (mountItemsToDispatch != null) {
       Systrace.beginSection(
           Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
@@ -266,13 +304,20 @@ public class MountItemDispatcher {
 
       long batchedExecutionStartTime = SystemClock.uptimeMillis();
 
-      for (MountItem mountItem : mountItemsToDispatch) {
+      for (int itemIndex = 0; itemIndex < mountItemsToDispatch.size(); itemIndex++) {
+        MountItem mountItem = mountItemsToDispatch.get(itemIndex);
         if (ENABLE_FABRIC_LOGS) {
           printMountItem(mountItem, "dispatchMountItems: Executing mountItem");
         }
 
         try {
-          executeOrEnqueue(mountItem);
+          if (!executeOrSuspend(mountItem)) {
+            // Out of time for this frame: keep this batch and everything after it for the next one
+            mSuspendedMountItems.addAll(
+                mountItemsToDispatch.subList(itemIndex, mountItemsToDispatch.size()));
+            mountedItems = new ArrayList<>(mountItemsToDispatch.subList(0, itemIndex));
+            break;
+          }
         } catch (Throwable e) {
           // If there's an exception, we want to log diagnostics in prod and rethrow.
           FLog.e(TAG, "dispatchMountItems: caught exception, displaying mount state", e);
@@ -301,18 +346,76 @@ public class MountItemDispatcher {
       mBatchedExecutionTime += SystemClock.uptimeMillis() - batchedExecutionStartTime;
     }
 
-    mItemDispatchListener.didMountItems(mountItemsToDispatch);
+    if (viewCommandMountItemsToDispatch != null && resumingSuspendedItems) {
+      if (mSuspendedMountItems.isEmpty()) {
+        dispatchViewCommandMountItems(viewCommandMountItemsToDispatch);
+      } else {
+        mSuspendedViewCommandMountItems.addAll(viewCommandMountItemsToDispatch);
+      }
+    }
+
+    // Only report the items that were mounted: suspended items are reported once they finish.
+    mItemDispatchListener.didMountItems(mountedItems);
 
     Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
 
     return true;
   }
 
+  @UiThread
+  @ThreadConfined(UI)
+  private void dispatchViewCommandMountItems(
+      List<DispatchCommandMountItem> viewCommandMountItemsToDispatch) {
+    Systrace.beginSection(
+        Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+        "FabricUIManager::mountViews viewCommandMountItems");
+    for (DispatchCommandMountItem command : viewCommandMountItemsToDispatch) {
+      if (ENABLE_FABRIC_LOGS) {
+        printMountItem(command, "dispatchMountItems: Executing viewCommandMountItem");
+      }
+      try {
+        executeOrEnqueue(command);
+      } catch (RetryableMountingLayerException e) {
+        // If the exception is marked as Retryable, we retry the viewcommand exactly once, after
+        // the current batch of mount items has finished executing.
+        if (command.getRetries() == 0) {
+          command.incrementRetries();
+          dispatchCommandMountItem(command);
+        } else {
+          // It's very common for commands to be executed on views that no longer exist - for
+          // example, a blur event on TextInput being fired because of a navigation event away
+          // from the current screen. If the exception is marked as Retryable, we log a soft
+          // exception but never crash in debug.
+          // It's not clear that logging this is even useful, because these events are very
+          // common, mundane, and there's not much we can do about them currently.
+          ReactSoftExceptionLogger.logSoftException(
+              TAG,
+              new ReactNoCrashSoftException(
+                  "Caught exception executing ViewCommand: " + command.toString(), e));
+        }
+      } catch (Throwable e) {
+        // Non-Retryable exceptions are logged as soft exceptions in prod, but crash in Debug.
+        ReactSoftExceptionLogger.logSoftException(
+            TAG,
+            new RuntimeException(
+                "Caught exception executing ViewCommand: " + command.toString(), e));
+      }
+    }
+
+    Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+  }
+
   @UiThread
   @ThreadConfined(UI)
   public void dispatchPreMountItems(long frameTimeNanos) {
     Systrace.beginSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "FabricUIManager::premountViews");
 
+    updateFrameInterval(frameTimeNanos);
+    mFrameDispatchStartNanos = System.nanoTime();
+    if (ReactFeatureFlags.enableIncrementalBatchMountItemExecution) {
+      mFrameDeadlineNanos = frameTimeNanos + mFrameIntervalNanos;
+    }
+
     // dispatchPreMountItems cannot be reentrant, but we want to prevent dispatchMountItems from
     // reentering during dispatchPreMountItems
     mInDispatch = true;
@@ -328,6 +431,12 @@ public class MountItemDispatcher {
         if (preMountItemToDispatch == null) {
           break;
         }
+        mPreMountItemCount.decrementAndGet();
+
+        if (mMountingManager.isWaitingForViewAttach(preMountItemToDispatch.getSurfaceId())) {
+          mLowPriorityPreMountItems.add(preMountItemToDispatch);
+          continue;
+        }
 
         if (ENABLE_FABRIC_LOGS) {
           printMountItem(
@@ -337,6 +446,11 @@ public class MountItemDispatcher {
 
         executeOrEnqueue(preMountItemToDispatch);
       }
+
+      while (!mLowPriorityPreMountItems.isEmpty()
+          && !haveExceededNonBatchedFrameTime(frameTimeNanos)) {
+        executeOrEnqueue(mLowPriorityPreMountItems.poll());
+      }
     } finally {
       mInDispatch = false;
     }
@@ -344,6 +458,35 @@ public class MountItemDispatcher {
     Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
   }
 
+  /**
+   * Called by the frame callback after all mount items for the frame at {@code frameTimeNanos}
+   * have been dispatched, to record the per-frame metrics.
+   */
+  @UiThread
+  @ThreadConfined(UI)
+  public void onFrameDispatched(long frameTimeNanos) {
+    mFrameDeadlineNanos = Long.MAX_VALUE;
+
+    long now = System.nanoTime();
+    mLastFrameExecutionTimeNanos = now - mFrameDispatchStartNanos;
+    mLastFrameDeferredItemCount =
+        mPreMountItemCount.get() + mLowPriorityPreMountItems.size() + mSuspendedMountItems.size();
+    if (now - frameTimeNanos > mFrameIntervalNanos) {
+      mOverrunFrameCount++;
+    }
+
+    if (Systrace.isTracing(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE)) {
+      Systrace.traceCounter(
+          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+          "MountItemDispatcher::frameExecutionTimeUs",
+          (int) (mLastFrameExecutionTimeNanos / 1000));
+      Systrace.traceCounter(
+          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE,
+          "MountItemDispatcher::deferredItems",
+          mLastFrameDeferredItemCount);
+    }
+  }
+
   private void executeOrEnqueue(MountItem item) {
     if (mMountingManager.isWaitingForViewAttach(item.getSurfaceId())) {
       if (ENABLE_FABRIC_LOGS) {
@@ -360,6 +503,21 @@ public class MountItemDispatcher {
     }
   }
 
+  /**
+   * Executes {@code item}, or as much of it as fits before the frame deadline if it is a batch.
+   *
+   * @return false if the item is a batch that has to be resumed in a later frame
+   */
+  private boolean executeOrSuspend(MountItem item) {
+    if (mFrameDeadlineNanos != Long.MAX_VALUE
+        && item instanceof BatchMountItem
+        && !mMountingManager.isWaitingForViewAttach(item.getSurfaceId())) {
+      return ((BatchMountItem) item).executeUntil(mMountingManager, mFrameDeadlineNanos);
+    }
+    executeOrEnqueue(item);
+    return true;
+  }
+
   @Nullable
   private static <E extends MountItem> List<E> drainConcurrentItemQueue(
       ConcurrentLinkedQueue<E> queue) {
@@ -379,26 +537,94 @@ public class MountItemDispatcher {
     return result;
   }
 
-  /** Detect if we still have processing time left in this frame. */
-  private static boolean haveExceededNonBatchedFrameTime(long frameTimeNanos) {
-    long timeLeftInFrame = FRAME_TIME_MS - ((System.nanoTime() - frameTimeNanos) / 1000000);
-    return timeLeftInFrame < MAX_TIME_IN_FRAME_FOR_NON_BATCHED_OPERATIONS_MS;
+  /**
+   * Detect if we still have processing time left in this frame. Non-batched operations may only
+   * use the first half of the frame, leaving the rest for batched mount items and drawing.
+   */
+  private boolean haveExceededNonBatchedFrameTime(long frameTimeNanos) {
+    long timeLeftInFrame = mFrameIntervalNanos - (System.nanoTime() - frameTimeNanos);
+    return timeLeftInFrame < mFrameIntervalNanos / 2;
+  }
+
+  @UiThread
+  @ThreadConfined(UI)
+  private void updateFrameInterval(long frameTimeNanos) {
+    long lastFrameTimeNanos = mLastFrameTimeNanos;
+    mLastFrameTimeNanos = frameTimeNanos;
+    if (lastFrameTimeNanos == 0) {
+      return;
+    }
+
+    long interval = frameTimeNanos - lastFrameTimeNanos;
+    if (interval < MIN_FRAME_INTERVAL_NANOS || interval > MAX_FRAME_INTERVAL_NANOS) {
+      // The callback wasn't posted for a while (e.g. the app was paused), or the same frame was
+      // reported twice; neither tells us anything about the refresh rate.
+      return;
+    }
+
+    mFrameIntervalSamples[mFrameIntervalSampleIndex] = interval;
+    mFrameIntervalSampleIndex = (mFrameIntervalSampleIndex + 1) % FRAME_INTERVAL_SAMPLE_COUNT;
+
+    long minInterval = Long.MAX_VALUE;
+    for (long sample : mFrameIntervalSamples) {
+      if (sample != 0 && sample < minInterval) {
+        minInterval = sample;
+      }
+    }
+    mFrameIntervalNanos = minInterval;
   }
 
   @UiThread
   @ThreadConfined(UI)
   private List<DispatchCommandMountItem> getAndResetViewCommandMountItems() {
-    return drainConcurrentItemQueue(mViewCommandMountItems);
+    List<DispatchCommandMountItem> viewCommands = drainConcurrentItemQueue(mViewCommandMountItems);
+    if (mSuspendedViewCommandMountItems.isEmpty()) {
+      return viewCommands;
+    }
+    List<DispatchCommandMountItem> result = new ArrayList<>(mSuspendedViewCommandMountItems);
+    mSuspendedViewCommandMountItems.clear();
+    if (viewCommands != null) {
+      result.addAll(viewCommands);
+    }
+    return result;
   }
 
   @UiThread
   @ThreadConfined(UI)
   private List<MountItem> getAndResetMountItems() {
-    return drainConcurrentItemQueue(mMountItems);
+    List<MountItem> mountItems = drainConcurrentItemQueue(mMountItems);
+    if (mSuspendedMountItems.isEmpty()) {
+      return mountItems;
+    }
+    if (mountItems == null && System.nanoTime() >= mFrameDeadlineNanos) {
+      // Nothing new to mount and no time left: resume the suspended batch next frame instead of
+      // executing a minimal slice on every re-dispatch.
+      return null;
+    }
+    List<MountItem> result = new ArrayList<>(mSuspendedMountItems);
+    mSuspendedMountItems.clear();
+    if (mountItems != null) {
+      result.addAll(mountItems);
+    }
+    return result;
   }
 
+  @UiThread
+  @ThreadConfined(UI)
   private Collection<MountItem> getAndResetPreMountItems() {
-    return drainConcurrentItemQueue(mPreMountItems);
+    List<MountItem> preMountItems = drainConcurrentItemQueue(mPreMountItems);
+    if (preMountItems != null) {
+      mPreMountItemCount.addAndGet(-preMountItems.size());
+    }
+    if (mLowPriorityPreMountItems.isEmpty()) {
+      return preMountItems;
+    }
+    if (preMountItems == null) {
+      preMountItems = new ArrayList<>(mLowPriorityPreMountItems.size());
+    }
+    preMountItems.addAll(mLowPriorityPreMountItems);
+    mLowPriorityPreMountItems.clear();
+    return preMountItems;
   }
 
   public long getBatchedExecutionTime() {
@@ -409,6 +635,26 @@ public class MountItemDispatcher {
     return mRunStartTime;
   }
 
+  /** @return the current estimate of the display's frame interval. */
+  public long getFrameIntervalNanos() {
+    return mFrameIntervalNanos;
+  }
+
+  /** @return time spent executing mount items during the last frame callback. */
+  public long getLastFrameExecutionTimeNanos() {
+    return mLastFrameExecutionTimeNanos;
+  }
+
+  /** @return number of items that were left for later frames at the end of the last frame. */
+  public int getLastFrameDeferredItemCount() {
+    return mLastFrameDeferredItemCount;
+  }
+
+  /** @return number of frames in which mounting ran past the end of the frame. */
+  public long getOverrunFrameCount() {
+    return mOverrunFrameCount;
+  }
+
   private static void printMountItem(MountItem mountItem, String prefix) {
     // If a MountItem description is split across multiple lines, it's because it's a
     // compound MountItem. Log each line separately.
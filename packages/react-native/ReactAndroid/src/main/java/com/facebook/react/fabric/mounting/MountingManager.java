@@ -24,6 +24,8 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.RetryableMountingLayerException;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.common.mapbuffer.MapBuffer;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.react.fabric.FabricComponents;
 import com.facebook.react.fabric.FabricUIManager;
 import com.facebook.react.fabric.events.EventEmitterWrapper;
 import com.facebook.react.fabric.mounting.SurfaceMountingManager.ViewEvent;
@@ -60,6 +62,7 @@ public class MountingManager {
   @NonNull private final ViewManagerRegistry mViewManagerRegistry;
   @NonNull private final MountItemExecutor mMountItemExecutor;
   @NonNull private final RootViewManager mRootViewManager = new RootViewManager();
+  @NonNull private final BackgroundViewPreallocator mBackgroundViewPreallocator;
 
   public interface MountItemExecutor {
     @UiThread
@@ -72,6 +75,7 @@ public class MountingManager {
       @NonNull MountItemExecutor mountItemExecutor) {
     mViewManagerRegistry = viewManagerRegistry;
     mMountItemExecutor = mountItemExecutor;
+    mBackgroundViewPreallocator = new BackgroundViewPreallocator(viewManagerRegistry);
   }
 
   /**
@@ -142,6 +146,20 @@ public class MountingManager {
 
       surfaceMountingManager.stopSurface();
 
+      if (FabricUIManager.ENABLE_FABRIC_PERF_LOGS
+          && ReactFeatureFlags.enableBackgroundViewPreallocation) {
+        FLog.i(
+            TAG,
+            "Background View preallocation of surface [%d]: %d Views taken from a preallocation, "
+                + "%d created on the UI thread. Overall: %d scheduled, %d created, %d skipped.",
+            surfaceId,
+            surfaceMountingManager.getPreallocatedViewHitCount(),
+            surfaceMountingManager.getPreallocatedViewMissCount(),
+            mBackgroundViewPreallocator.getScheduledCount(),
+            mBackgroundViewPreallocator.getCreatedCount(),
+            mBackgroundViewPreallocator.getSkippedCount());
+      }
+
       if (surfaceMountingManager == mMostRecentSurfaceMountingManager) {
         mMostRecentSurfaceMountingManager = null;
       }
@@ -198,6 +216,22 @@ public class MountingManager {
     return false;
   }
 
+  /**
+   * Creates a View instance for the given tag off the UI thread, ahead of the
+   * PreAllocateViewMountItem or create instruction that will ask for it. Props are not applied
+   * here. This is a no-op for components whose ViewManager doesn't allow off-UI-thread creation.
+   */
+  @AnyThread
+  public void preallocateViewInBackground(
+      int surfaceId, int reactTag, @NonNull String componentName) {
+    SurfaceMountingManager surfaceMountingManager = getSurfaceManager(surfaceId);
+    if (surfaceMountingManager == null || surfaceMountingManager.isStopped()) {
+      return;
+    }
+    mBackgroundViewPreallocator.schedule(
+        surfaceMountingManager, reactTag, FabricComponents.getFabricComponentName(componentName));
+  }
+
   public boolean isWaitingForViewAttach(int surfaceId) {
     SurfaceMountingManager mountingManager = getSurfaceManager(surfaceId);
     if (mountingManager == null) {
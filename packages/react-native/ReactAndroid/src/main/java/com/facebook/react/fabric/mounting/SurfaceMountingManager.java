@@ -10,6 +10,7 @@ package com.facebook.react.fabric.mounting;
 import static com.facebook.infer.annotation.ThreadConfined.ANY;
 import static com.facebook.infer.annotation.ThreadConfined.UI;
 
+import android.util.SparseBooleanArray;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.ViewParent;
@@ -28,8 +29,9 @@ import com.facebook.react.bridge.RetryableMountingLayerException;
 import com.facebook.react.bridge.SoftAssertions;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.common.IntArray;
+import com.facebook.react.common.IntObjectMap;
 import com.facebook.react.common.build.ReactBuildConfig;
-import com.facebook.react.common.mapbuffer.ReadableMapBuffer;
 import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.fabric.GuardedFrameCallback;
 import com.facebook.react.fabric.events.EventEmitterWrapper;
@@ -49,15 +51,16 @@ import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.ViewManager;
 import com.facebook.react.uimanager.ViewManagerRegistry;
 import com.facebook.react.uimanager.events.EventCategoryDef;
-import com.facebook.react.views.view.ReactMapBufferViewManager;
 import com.facebook.react.views.view.ReactViewManagerWrapper;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.Stack;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.annotation.Nullable;
 
@@ -72,22 +75,42 @@ public class SurfaceMountingManager {
   @Nullable private ThemedReactContext mThemedReactContext;
 
   // These are all non-null, until StopSurface is called
-  private ConcurrentHashMap<Integer, ViewState> mTagToViewState =
-      new ConcurrentHashMap<>(); // any thread
+  // Written on the UI thread (and in addRootView), read from any thread: guarded by itself, see
+  // getNullableViewState / putViewState / removeViewState.
+  private IntObjectMap<ViewState> mTagToViewState = new IntObjectMap<>();
   private ConcurrentLinkedQueue<MountItem> mOnViewAttachItems = new ConcurrentLinkedQueue<>();
   private JSResponderHandler mJSResponderHandler;
   private ViewManagerRegistry mViewManagerRegistry;
   private RootViewManager mRootViewManager;
   private MountItemExecutor mMountItemExecutor;
 
+  // Slots of the Views that BackgroundViewPreallocator creates off the UI thread, by tag, oldest
+  // first. A slot holds PENDING_PREALLOCATED_VIEW until its View is published, and is removed when
+  // the UI thread claims it or the tag is deleted. Tags that are preallocated but never created
+  // would keep their View forever, so the oldest slot is evicted once there are too many of them.
+  // Guarded by itself.
+  private static final Object PENDING_PREALLOCATED_VIEW = new Object();
+  private static final int MAX_PREALLOCATED_VIEW_SLOTS = 256;
+  private final LinkedHashMap<Integer, Object> mPreallocatedViewSlots =
+      new LinkedHashMap<Integer, Object>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object> eldest) {
+          return size() > MAX_PREALLOCATED_VIEW_SLOTS;
+        }
+      };
+  // Views of ViewManagers that opted into off-UI-thread creation, by whether they were taken from
+  // a preallocated slot or had to be created on the UI thread. Only written on the UI thread.
+  private volatile int mPreallocatedViewHitCount = 0;
+  private volatile int mPreallocatedViewMissCount = 0;
+
   // Stack of deferred-removal tags for Views that can be
   // removed asynchronously. Guaranteed to be disconnected
   // from the viewport and these tags will not be reused in the future.
   @ThreadConfined(UI)
-  private final Stack<Integer> mReactTagsToRemove = new Stack<>();
+  private final IntArray mReactTagsToRemove = IntArray.createWithInitialCapacity(16);
 
   @ThreadConfined(UI)
-  private final Set<Integer> mErroneouslyReaddedReactTags = new HashSet<>();
+  private final SparseBooleanArray mErroneouslyReaddedReactTags = new SparseBooleanArray();
 
   @ThreadConfined(UI)
   private RemoveDeleteTreeUIFrameCallback mRemoveDeleteTreeUIFrameCallback;
@@ -175,10 +198,7 @@ public class SurfaceMountingManager {
     if (mTagSetForStoppedSurfaceLegacy != null && mTagSetForStoppedSurfaceLegacy.contains(tag)) {
       return true;
     }
-    if (mTagToViewState == null) {
-      return false;
-    }
-    return mTagToViewState.containsKey(tag);
+    return getNullableViewState(tag) != null;
   }
 
   @AnyThread
@@ -192,7 +212,7 @@ public class SurfaceMountingManager {
       return;
     }
 
-    mTagToViewState.put(
+    putViewState(
         mSurfaceId,
         new ViewState(
             mSurfaceId,
@@ -277,11 +297,14 @@ public class SurfaceMountingManager {
     // Prevent more views from being created, or the hierarchy from being manipulated at all. This
     // causes further operations to noop.
     mIsStopped = true;
+    synchronized (mPreallocatedViewSlots) {
+      mPreallocatedViewSlots.clear();
+    }
 
     // Reset all StateWrapper objects
     // Since this can happen on any thread, is it possible to race between StateWrapper destruction
     // and some accesses from View classes in the UI thread?
-    for (ViewState viewState : mTagToViewState.values()) {
+    for (ViewState viewState : getViewStates()) {
       if (viewState.mStateWrapper != null) {
         viewState.mStateWrapper.destroyState();
         viewState.mStateWrapper = null;
@@ -294,22 +317,25 @@ public class SurfaceMountingManager {
 
     Runnable runnable =
         () -> {
+          List<ViewState> viewStates = getViewStates();
           if (ReactFeatureFlags.fixStoppedSurfaceTagSetLeak) {
-            mTagSetForStoppedSurface = new SparseArrayCompat<>();
-            for (Map.Entry<Integer, ViewState> entry : mTagToViewState.entrySet()) {
+            mTagSetForStoppedSurface = new SparseArrayCompat<>(viewStates.size());
+            for (ViewState viewState : viewStates) {
               // Using this as a placeholder value in the map. We're using SparseArrayCompat
               // since it can efficiently represent the list of pending tags
-              mTagSetForStoppedSurface.put(entry.getKey(), this);
+              mTagSetForStoppedSurface.put(viewState.mReactTag, this);
 
               // We must call `onDropViewInstance` on all remaining Views
-              onViewStateDeleted(entry.getValue());
+              onViewStateDeleted(viewState);
             }
           } else {
-            for (ViewState viewState : mTagToViewState.values()) {
+            Set<Integer> tagSet = new HashSet<>();
+            for (ViewState viewState : viewStates) {
+              tagSet.add(viewState.mReactTag);
               // We must call `onDropViewInstance` on all remaining Views
               onViewStateDeleted(viewState);
             }
-            mTagSetForStoppedSurfaceLegacy = mTagToViewState.keySet();
+            mTagSetForStoppedSurfaceLegacy = tagSet;
           }
 
           // Evict all views from cache and memory
@@ -403,7 +429,7 @@ public class SurfaceMountingManager {
       if (viewParent instanceof ViewGroup) {
         ((ViewGroup) viewParent).removeView(view);
       }
-      mErroneouslyReaddedReactTags.add(tag);
+      mErroneouslyReaddedReactTags.put(tag, true);
     }
 
     try {
@@ -447,7 +473,7 @@ public class SurfaceMountingManager {
     }
 
     // This is "impossible". See comments above.
-    if (mErroneouslyReaddedReactTags.contains(tag)) {
+    if (mErroneouslyReaddedReactTags.get(tag)) {
       ReactSoftExceptionLogger.logSoftException(
           TAG,
           new IllegalViewOperationException(
@@ -778,12 +804,12 @@ public class SurfaceMountingManager {
     // Since this current function and the Runnable both run on the UI thread, there is
     // no race condition here.
     runDeferredTagRemovalAndDeletion();
-    mReactTagsToRemove.push(tag);
+    mReactTagsToRemove.add(tag);
   }
 
   @UiThread
   private void runDeferredTagRemovalAndDeletion() {
-    if (mReactTagsToRemove.empty()) {
+    if (mReactTagsToRemove.isEmpty()) {
       if (mRemoveDeleteTreeUIFrameCallback == null) {
         mRemoveDeleteTreeUIFrameCallback = new RemoveDeleteTreeUIFrameCallback(mThemedReactContext);
       }
@@ -849,16 +875,27 @@ public class SurfaceMountingManager {
       propMap = props;
     }
 
+    // Claimed even if the View isn't layoutable, so that the slot doesn't outlive the tag.
+    @Nullable View preallocatedView = claimPreallocatedView(reactTag);
     if (isLayoutable) {
-      viewManager =
-          props instanceof ReadableMapBuffer
-              ? ReactMapBufferViewManager.INSTANCE
-              : new ReactViewManagerWrapper.DefaultViewManager(
-                  mViewManagerRegistry.get(componentName));
+      ViewManager componentViewManager = mViewManagerRegistry.get(componentName);
+      if (preallocatedView != null) {
+        mPreallocatedViewHitCount++;
+      } else if (ReactFeatureFlags.enableBackgroundViewPreallocation
+          && componentViewManager.canCreateViewInstanceOffUiThread()) {
+        mPreallocatedViewMissCount++;
+      }
+      // Props encoded as MapBuffer are dispatched to the ViewManager by the wrapper as well.
+      viewManager = new ReactViewManagerWrapper.DefaultViewManager(componentViewManager);
       // View Managers are responsible for dealing with initial state and props.
       view =
           viewManager.createView(
-              reactTag, mThemedReactContext, propMap, stateWrapper, mJSResponderHandler);
+              reactTag,
+              mThemedReactContext,
+              propMap,
+              stateWrapper,
+              mJSResponderHandler,
+              preallocatedView);
     }
 
     ViewState viewState = new ViewState(reactTag, view, viewManager);
@@ -866,7 +903,97 @@ public class SurfaceMountingManager {
     viewState.mStateWrapper = stateWrapper;
     viewState.mEventEmitter = eventEmitterWrapper;
 
-    mTagToViewState.put(reactTag, viewState);
+    putViewState(reactTag, viewState);
+  }
+
+  /**
+   * Reserves the slot that a View created off the UI thread for the given tag will be published
+   * to, see {@link BackgroundViewPreallocator}.
+   *
+   * @return false if the tag already has a View or a slot, or the surface is stopped
+   */
+  @AnyThread
+  /*package*/ boolean reservePreallocatedViewSlot(int reactTag) {
+    if (isStopped() || getNullableViewState(reactTag) != null) {
+      return false;
+    }
+    synchronized (mPreallocatedViewSlots) {
+      if (mPreallocatedViewSlots.containsKey(reactTag)) {
+        return false;
+      }
+      mPreallocatedViewSlots.put(reactTag, PENDING_PREALLOCATED_VIEW);
+      return true;
+    }
+  }
+
+  /** @return true if the slot of the given tag is reserved and hasn't been claimed yet. */
+  @AnyThread
+  /*package*/ boolean isPreallocatedViewSlotPending(int reactTag) {
+    if (isStopped()) {
+      return false;
+    }
+    synchronized (mPreallocatedViewSlots) {
+      return mPreallocatedViewSlots.get(reactTag) == PENDING_PREALLOCATED_VIEW;
+    }
+  }
+
+  /**
+   * Publishes a View created off the UI thread to the slot of the given tag.
+   *
+   * @return false if the slot was already claimed or evicted, in which case the View must be
+   *     dropped
+   */
+  @AnyThread
+  /*package*/ boolean publishPreallocatedView(int reactTag, @NonNull View view) {
+    synchronized (mPreallocatedViewSlots) {
+      if (mPreallocatedViewSlots.get(reactTag) != PENDING_PREALLOCATED_VIEW) {
+        return false;
+      }
+      mPreallocatedViewSlots.put(reactTag, view);
+      return true;
+    }
+  }
+
+  /** Releases the slot of the given tag if no View was published to it. */
+  @AnyThread
+  /*package*/ void releasePreallocatedViewSlot(int reactTag) {
+    synchronized (mPreallocatedViewSlots) {
+      if (mPreallocatedViewSlots.get(reactTag) == PENDING_PREALLOCATED_VIEW) {
+        mPreallocatedViewSlots.remove(reactTag);
+      }
+    }
+  }
+
+  /**
+   * Claims the slot of the given tag, if any: a View that is published to it later is dropped.
+   *
+   * @return the View published to the slot, or null if it wasn't published yet
+   */
+  @UiThread
+  private @Nullable View claimPreallocatedView(int reactTag) {
+    Object slot;
+    synchronized (mPreallocatedViewSlots) {
+      if (mPreallocatedViewSlots.isEmpty()) {
+        return null;
+      }
+      slot = mPreallocatedViewSlots.remove(reactTag);
+    }
+    return slot instanceof View ? (View) slot : null;
+  }
+
+  /** @return the number of Views that were taken from a preallocated slot. */
+  @AnyThread
+  /*package*/ int getPreallocatedViewHitCount() {
+    return mPreallocatedViewHitCount;
+  }
+
+  /**
+   * @return the number of Views of ViewManagers that opted into off-UI-thread creation which had to
+   *     be created on the UI thread after all.
+   */
+  @AnyThread
+  /*package*/ int getPreallocatedViewMissCount() {
+    return mPreallocatedViewMissCount;
   }
 
   public void updateProps(int reactTag, Object props) {
@@ -1103,12 +1230,12 @@ public class SurfaceMountingManager {
       return;
     }
 
-    ViewState viewState = mTagToViewState.get(reactTag);
+    ViewState viewState = getNullableViewState(reactTag);
     if (viewState == null) {
       // TODO T62717437 - Use a flag to determine that these event emitters belong to virtual nodes
       // only.
       viewState = new ViewState(reactTag, null, null);
-      mTagToViewState.put(reactTag, viewState);
+      putViewState(reactTag, viewState);
     }
     EventEmitterWrapper previousEventEmitterWrapper = viewState.mEventEmitter;
     viewState.mEventEmitter = eventEmitter;
@@ -1200,6 +1327,9 @@ public class SurfaceMountingManager {
       return;
     }
 
+    // Drop a View that was preallocated for the tag after it was created.
+    claimPreallocatedView(reactTag);
+
     ViewState viewState = getNullableViewState(reactTag);
 
     if (viewState == null) {
@@ -1213,7 +1343,7 @@ public class SurfaceMountingManager {
     // To delete we simply remove the tag from the registry.
     // We want to rely on the correct set of MountInstructions being sent to the platform,
     // or StopSurface being called, so we do not handle deleting descendents of the View.
-    mTagToViewState.remove(reactTag);
+    removeViewState(reactTag);
 
     onViewStateDeleted(viewState);
   }
@@ -1260,7 +1390,7 @@ public class SurfaceMountingManager {
   }
 
   private @NonNull ViewState getViewState(int tag) {
-    ViewState viewState = mTagToViewState.get(tag);
+    ViewState viewState = getNullableViewState(tag);
     if (viewState == null) {
       throw new RetryableMountingLayerException(
           "Unable to find viewState for tag " + tag + ". Surface stopped: " + isStopped());
@@ -1269,11 +1399,46 @@ public class SurfaceMountingManager {
   }
 
   private @Nullable ViewState getNullableViewState(int tag) {
-    ConcurrentHashMap<Integer, ViewState> viewStates = mTagToViewState;
+    IntObjectMap<ViewState> viewStates = mTagToViewState;
     if (viewStates == null) {
       return null;
     }
-    return viewStates.get(tag);
+    synchronized (viewStates) {
+      return viewStates.get(tag);
+    }
+  }
+
+  private void putViewState(int tag, @NonNull ViewState viewState) {
+    IntObjectMap<ViewState> viewStates = mTagToViewState;
+    if (viewStates == null) {
+      return;
+    }
+    synchronized (viewStates) {
+      viewStates.put(tag, viewState);
+    }
+  }
+
+  private void removeViewState(int tag) {
+    IntObjectMap<ViewState> viewStates = mTagToViewState;
+    if (viewStates == null) {
+      return;
+    }
+    synchronized (viewStates) {
+      viewStates.remove(tag);
+    }
+  }
+
+  /** @return a snapshot of all current ViewStates, which can be iterated on any thread. */
+  private @NonNull List<ViewState> getViewStates() {
+    IntObjectMap<ViewState> viewStates = mTagToViewState;
+    if (viewStates == null) {
+      return Collections.emptyList();
+    }
+    synchronized (viewStates) {
+      final List<ViewState> snapshot = new ArrayList<>(viewStates.size());
+      viewStates.forEach((tag, viewState) -> snapshot.add(viewState));
+      return snapshot;
+    }
   }
 
   @SuppressWarnings("unchecked") // prevents unchecked conversion warn of the <ViewGroup> type
@@ -1287,7 +1452,7 @@ public class SurfaceMountingManager {
 
   public void printSurfaceState() {
     FLog.e(TAG, "Views created for surface {%d}:", getSurfaceId());
-    for (ViewState viewState : mTagToViewState.values()) {
+    for (ViewState viewState : getViewStates()) {
       String viewManagerName =
           viewState.mViewManager != null ? viewState.mViewManager.getName() : null;
       @Nullable View view = viewState.mView;
@@ -1310,11 +1475,7 @@ public class SurfaceMountingManager {
 
     // When the surface stopped we will reset the view state map. We are not going to enqueue
     // pending events as they are not expected to be dispatched anyways.
-    if (mTagToViewState == null) {
-      return;
-    }
-
-    ViewState viewState = mTagToViewState.get(reactTag);
+    ViewState viewState = getNullableViewState(reactTag);
     if (viewState == null) {
       // Cannot queue event without view state. Do nothing here.
       return;
@@ -1451,14 +1612,13 @@ public class SurfaceMountingManager {
     @ThreadConfined(UI)
     public void doFrameGuarded(long frameTimeNanos) {
       int deletedViews = 0;
-      Stack<Integer> localChildren = new Stack<>();
       try {
-        while (!mReactTagsToRemove.empty()) {
-          int reactTag = mReactTagsToRemove.pop();
+        while (!mReactTagsToRemove.isEmpty()) {
+          int reactTag = mReactTagsToRemove.removeLast();
           deletedViews++;
 
           // This is "impossible". See comments above.
-          if (mErroneouslyReaddedReactTags.contains(reactTag)) {
+          if (mErroneouslyReaddedReactTags.get(reactTag)) {
             ReactSoftExceptionLogger.logSoftException(
                 TAG,
                 new IllegalViewOperationException(
@@ -1468,12 +1628,11 @@ public class SurfaceMountingManager {
             continue;
           }
 
-          localChildren.clear();
-
           ViewState thisViewState = getNullableViewState(reactTag);
           if (thisViewState != null) {
             View thisView = thisViewState.mView;
             int numChildren = 0;
+            int firstChildIndex = mReactTagsToRemove.size();
 
             // Children are managed by React Native if both of the following are true:
             // 1) There are 1 or more children of this View, which must be a ViewGroup
@@ -1488,7 +1647,9 @@ public class SurfaceMountingManager {
               while ((nextChild = ((ViewGroup) thisView).getChildAt(numChildren)) != null) {
                 int childId = nextChild.getId();
                 childrenAreManaged = childrenAreManaged || getNullableViewState(childId) != null;
-                localChildren.push(nextChild.getId());
+                // Push tags onto the stack so we process all children; they are dropped again
+                // below if the children turn out not to be managed by React Native.
+                mReactTagsToRemove.add(childId);
                 numChildren++;
               }
               // Removing all at once is more efficient than removing one-by-one
@@ -1512,9 +1673,8 @@ public class SurfaceMountingManager {
                 }
               }
             }
-            if (childrenAreManaged) {
-              // Push tags onto the stack so we process all children
-              mReactTagsToRemove.addAll(localChildren);
+            if (!childrenAreManaged) {
+              mReactTagsToRemove.dropTail(mReactTagsToRemove.size() - firstChildIndex);
             }
 
             // Immediately remove tag and notify listeners.
@@ -1525,7 +1685,7 @@ public class SurfaceMountingManager {
             // In the initial version of RemoveDeleteTree we attempted to maintain
             // the bottom-up event listener behavior but this causes additional
             // memory pressure as well as complexity.
-            mTagToViewState.remove(reactTag);
+            removeViewState(reactTag);
             onViewStateDeleted(thisViewState);
 
             // Circuit breaker: after processing every N tags, check that we haven't
@@ -1538,7 +1698,7 @@ public class SurfaceMountingManager {
           }
         }
       } finally {
-        if (!mReactTagsToRemove.empty()) {
+        if (!mReactTagsToRemove.isEmpty()) {
           ReactChoreographer.getInstance()
               .postFrameCallback(ReactChoreographer.CallbackType.IDLE_EVENT, this);
         } else {
@@ -7,8 +7,25 @@
 
 package com.facebook.react.fabric.mounting.mountitems;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.UiThread;
+import com.facebook.react.fabric.mounting.MountingManager;
+
 public interface BatchMountItem extends MountItem {
 
   /** @return if the BatchMountItem contains any MountItem */
   boolean isBatchEmpty();
+
+  /**
+   * Execute the remaining MountItems of this batch until all of them have run or {@code
+   * deadlineNanos} (in the {@link System#nanoTime} base) has passed. A later call resumes from the
+   * first MountItem that wasn't executed.
+   *
+   * @return true if the whole batch has been executed
+   */
+  @UiThread
+  boolean executeUntil(@NonNull MountingManager mountingManager, long deadlineNanos);
+
+  /** @return true once every MountItem of this batch has been executed */
+  boolean isFinished();
 }
@@ -32,6 +32,10 @@ import com.facebook.systrace.Systrace;
  *
  * <p>The purpose of encapsulating the array of MountItems this way, is to reduce the amount of
  * allocations in C++ and JNI round-trips.
+ *
+ * <p>A batch can be executed in several slices with {@link #executeUntil}: execution stops at an
+ * instruction boundary once the deadline has passed, and the position in both buffers is kept so
+ * the next call picks up from the following instruction.
  */
 @DoNotStrip
 final class IntBufferBatchMountItem implements BatchMountItem {
@@ -51,6 +55,12 @@ final class IntBufferBatchMountItem implements BatchMountItem {
   static final int INSTRUCTION_UPDATE_OVERFLOW_INSET = 1024;
   static final int INSTRUCTION_REMOVE_DELETE_TREE = 2048;
 
+  /**
+   * Minimum number of instructions executed per slice, so that a batch always makes progress even
+   * if it is resumed after the deadline has passed.
+   */
+  static final int MIN_INSTRUCTIONS_PER_SLICE = 64;
+
   private final int mSurfaceId;
   private final int mCommitNumber;
 
@@ -60,6 +70,13 @@ final class IntBufferBatchMountItem implements BatchMountItem {
   private final int mIntBufferLen;
   private final int mObjBufferLen;
 
+  // Execution cursor: positions in the int and object buffers, plus the type and remaining count of
+  // the instruction group being executed.
+  private int mIntBufferPosition = 0;
+  private int mObjBufferPosition = 0;
+  private int mCurrentType = 0;
+  private int mRemainingInstructionsInGroup = 0;
+
   IntBufferBatchMountItem(int surfaceId, int[] intBuf, Object[] objBuf, int commitNumber) {
     mSurfaceId = surfaceId;
     mCommitNumber = commitNumber;
@@ -99,93 +116,132 @@ final class IntBufferBatchMountItem implements BatchMountItem {
 
   @Override
   public void execute(@NonNull MountingManager mountingManager) {
+    executeUntil(mountingManager, Long.MAX_VALUE);
+  }
+
+  @Override
+  public boolean executeUntil(@NonNull MountingManager mountingManager, long deadlineNanos) {
     SurfaceMountingManager surfaceMountingManager = mountingManager.getSurfaceManager(mSurfaceId);
     if (surfaceMountingManager == null) {
       FLog.e(
           TAG,
           "Skipping batch of MountItems; no SurfaceMountingManager found for [%d].",
           mSurfaceId);
-      return;
+      return true;
     }
     if (surfaceMountingManager.isStopped()) {
       FLog.e(TAG, "Skipping batch of MountItems; was stopped [%d].", mSurfaceId);
-      return;
+      return true;
     }
     if (ENABLE_FABRIC_LOGS) {
-      FLog.d(TAG, "Executing IntBufferBatchMountItem on surface [%d]", mSurfaceId);
+      FLog.d(
+          TAG,
+          "Executing IntBufferBatchMountItem on surface [%d] from index %d",
+          mSurfaceId,
+          mIntBufferPosition);
     }
 
-    beginMarkers("mountViews");
-
-    int i = 0, j = 0;
-    while (i < mIntBufferLen) {
-      int rawType = mIntBuffer[i++];
-      int type = rawType & ~INSTRUCTION_FLAG_MULTIPLE;
-      int numInstructions = ((rawType & INSTRUCTION_FLAG_MULTIPLE) != 0 ? mIntBuffer[i++] : 1);
-      for (int k = 0; k < numInstructions; k++) {
-        if (type == INSTRUCTION_CREATE) {
-          String componentName = getFabricComponentName((String) mObjBuffer[j++]);
-          surfaceMountingManager.createView(
-              componentName,
-              mIntBuffer[i++],
-              mObjBuffer[j++],
-              castToState(mObjBuffer[j++]),
-              castToEventEmitter(mObjBuffer[j++]),
-              mIntBuffer[i++] == 1);
-        } else if (type == INSTRUCTION_DELETE) {
-          surfaceMountingManager.deleteView(mIntBuffer[i++]);
-        } else if (type == INSTRUCTION_INSERT) {
-          int tag = mIntBuffer[i++];
-          int parentTag = mIntBuffer[i++];
-          surfaceMountingManager.addViewAt(parentTag, tag, mIntBuffer[i++]);
-        } else if (type == INSTRUCTION_REMOVE) {
-          surfaceMountingManager.removeViewAt(mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++]);
-        } else if (type == INSTRUCTION_REMOVE_DELETE_TREE) {
-          surfaceMountingManager.removeDeleteTreeAt(
-              mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++]);
-        } else if (type == INSTRUCTION_UPDATE_PROPS) {
-          surfaceMountingManager.updateProps(mIntBuffer[i++], mObjBuffer[j++]);
-        } else if (type == INSTRUCTION_UPDATE_STATE) {
-          surfaceMountingManager.updateState(mIntBuffer[i++], castToState(mObjBuffer[j++]));
-        } else if (type == INSTRUCTION_UPDATE_LAYOUT) {
-          int reactTag = mIntBuffer[i++];
-          int parentTag = mIntBuffer[i++];
-          int x = mIntBuffer[i++];
-          int y = mIntBuffer[i++];
-          int width = mIntBuffer[i++];
-          int height = mIntBuffer[i++];
-          int displayType = mIntBuffer[i++];
-
-          surfaceMountingManager.updateLayout(
-              reactTag, parentTag, x, y, width, height, displayType);
-
-        } else if (type == INSTRUCTION_UPDATE_PADDING) {
-          surfaceMountingManager.updatePadding(
-              mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++]);
-        } else if (type == INSTRUCTION_UPDATE_OVERFLOW_INSET) {
-          int reactTag = mIntBuffer[i++];
-          int overflowInsetLeft = mIntBuffer[i++];
-          int overflowInsetTop = mIntBuffer[i++];
-          int overflowInsetRight = mIntBuffer[i++];
-          int overflowInsetBottom = mIntBuffer[i++];
-
-          surfaceMountingManager.updateOverflowInset(
-              reactTag,
-              overflowInsetLeft,
-              overflowInsetTop,
-              overflowInsetRight,
-              overflowInsetBottom);
-        } else if (type == INSTRUCTION_UPDATE_EVENT_EMITTER) {
-          surfaceMountingManager.updateEventEmitter(
-              mIntBuffer[i++], castToEventEmitter(mObjBuffer[j++]));
-        } else {
-          throw new IllegalArgumentException(
-              "Invalid type argument to IntBufferBatchMountItem: " + type + " at index: " + i);
-        }
+    boolean isFirstSlice = mIntBufferPosition == 0;
+    if (isFirstSlice) {
+      beginMarkers("mountViews");
+    } else {
+      Systrace.beginSection(
+          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "FabricUIManager::mountViews (resumed)");
+    }
+
+    int i = mIntBufferPosition, j = mObjBufferPosition;
+    int type = mCurrentType;
+    int remaining = mRemainingInstructionsInGroup;
+    int executedInstructions = 0;
+    while (remaining > 0 || i < mIntBufferLen) {
+      if (remaining == 0) {
+        int rawType = mIntBuffer[i++];
+        type = rawType & ~INSTRUCTION_FLAG_MULTIPLE;
+        remaining = ((rawType & INSTRUCTION_FLAG_MULTIPLE) != 0 ? mIntBuffer[i++] : 1);
+        continue;
       }
+
+      if (executedInstructions >= MIN_INSTRUCTIONS_PER_SLICE
+          && deadlineNanos != Long.MAX_VALUE
+          && System.nanoTime() >= deadlineNanos) {
+        break;
+      }
+
+      if (type == INSTRUCTION_CREATE) {
+        String componentName = getFabricComponentName((String) mObjBuffer[j++]);
+        surfaceMountingManager.createView(
+            componentName,
+            mIntBuffer[i++],
+            mObjBuffer[j++],
+            castToState(mObjBuffer[j++]),
+            castToEventEmitter(mObjBuffer[j++]),
+            mIntBuffer[i++] == 1);
+      } else if (type == INSTRUCTION_DELETE) {
+        surfaceMountingManager.deleteView(mIntBuffer[i++]);
+      } else if (type == INSTRUCTION_INSERT) {
+        int tag = mIntBuffer[i++];
+        int parentTag = mIntBuffer[i++];
+        surfaceMountingManager.addViewAt(parentTag, tag, mIntBuffer[i++]);
+      } else if (type == INSTRUCTION_REMOVE) {
+        surfaceMountingManager.removeViewAt(mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++]);
+      } else if (type == INSTRUCTION_REMOVE_DELETE_TREE) {
+        surfaceMountingManager.removeDeleteTreeAt(
+            mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++]);
+      } else if (type == INSTRUCTION_UPDATE_PROPS) {
+        surfaceMountingManager.updateProps(mIntBuffer[i++], mObjBuffer[j++]);
+      } else if (type == INSTRUCTION_UPDATE_STATE) {
+        surfaceMountingManager.updateState(mIntBuffer[i++], castToState(mObjBuffer[j++]));
+      } else if (type == INSTRUCTION_UPDATE_LAYOUT) {
+        int reactTag = mIntBuffer[i++];
+        int parentTag = mIntBuffer[i++];
+        int x = mIntBuffer[i++];
+        int y = mIntBuffer[i++];
+        int width = mIntBuffer[i++];
+        int height = mIntBuffer[i++];
+        int displayType = mIntBuffer[i++];
+
+        surfaceMountingManager.updateLayout(reactTag, parentTag, x, y, width, height, displayType);
+
+      } else if (type == INSTRUCTION_UPDATE_PADDING) {
+        surfaceMountingManager.updatePadding(
+            mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++], mIntBuffer[i++]);
+      } else if (type == INSTRUCTION_UPDATE_OVERFLOW_INSET) {
+        int reactTag = mIntBuffer[i++];
+        int overflowInsetLeft = mIntBuffer[i++];
+        int overflowInsetTop = mIntBuffer[i++];
+        int overflowInsetRight = mIntBuffer[i++];
+        int overflowInsetBottom = mIntBuffer[i++];
+
+        surfaceMountingManager.updateOverflowInset(
+            reactTag, overflowInsetLeft, overflowInsetTop, overflowInsetRight, overflowInsetBottom);
+      } else if (type == INSTRUCTION_UPDATE_EVENT_EMITTER) {
+        surfaceMountingManager.updateEventEmitter(
+            mIntBuffer[i++], castToEventEmitter(mObjBuffer[j++]));
+      } else {
+        throw new IllegalArgumentException(
+            "Invalid type argument to IntBufferBatchMountItem: " + type + " at index: " + i);
+      }
+      remaining--;
+      executedInstructions++;
     }
 
-    endMarkers();
+    mIntBufferPosition = i;
+    mObjBufferPosition = j;
+    mCurrentType = type;
+    mRemainingInstructionsInGroup = remaining;
+
+    boolean isDone = isFinished();
+    if (isDone) {
+      endMarkers();
+    } else {
+      Systrace.endSection(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE);
+    }
+    return isDone;
+  }
+
+  @Override
+  public boolean isFinished() {
+    return mRemainingInstructionsInGroup == 0 && mIntBufferPosition >= mIntBufferLen;
   }
 
   @Override
@@ -21,6 +21,7 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.MapBuilder;
+import com.facebook.react.common.annotations.VisibleForTesting;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.modules.network.NetworkingModule;
 import com.facebook.react.modules.websocket.WebSocketModule;
@@ -32,19 +33,41 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
 import okio.ByteString;
+import okio.Source;
 
 @ReactModule(name = NativeBlobModuleSpec.NAME)
 public class BlobModule extends NativeBlobModuleSpec {
 
-  private final Map<String, byte[]> mBlobs = new HashMap<>();
+  private static final String BLOB_DIRECTORY = "blobs";
+
+  /** Network responses larger than this are streamed to a file instead of being kept in memory. */
+  private static final long MAX_IN_MEMORY_RESPONSE_SIZE = 1024 * 1024;
+
+  /** Blobs kept in memory beyond this size are spilled to files. */
+  private static final long MAX_MEMORY_SIZE =
+      Math.min(Runtime.getRuntime().maxMemory() / 8, 64 * 1024 * 1024);
+
+  /** Blobs that don't fit in this much disk space are kept in memory, or fail to be stored. */
+  private static final long MAX_DISK_SIZE = 1024L * 1024 * 1024;
+
+  // Spills blobs to files for mStore, off the thread that created them (e.g. the JS thread).
+  private final ThreadPoolExecutor mSpillExecutor =
+      new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
+  private final BlobStore mStore;
+
+  private final WebSocketMessageBatcher mWebSocketMessageBatcher = new WebSocketMessageBatcher();
 
   private final WebSocketModule.ContentHandler mWebSocketContentHandler =
       new WebSocketModule.ContentHandler() {
@@ -55,17 +78,25 @@ public class BlobModule extends NativeBlobModuleSpec {
 
         @Override
         public void onMessage(ByteString bytes, WritableMap params) {
-          byte[] data = bytes.toByteArray();
+          String blobId = UUID.randomUUID().toString();
+          // The frame is owned by the blob from now on, so it doesn't need to be copied.
+          mStore.put(blobId, bytes);
 
           WritableMap blob = Arguments.createMap();
 
-          blob.putString("blobId", store(data));
+          blob.putString("blobId", blobId);
           blob.putInt("offset", 0);
-          blob.putInt("size", data.length);
+          blob.putInt("size", bytes.size());
 
           params.putMap("data", blob);
           params.putString("type", "blob");
         }
+
+        @Override
+        public void sendEvent(
+            ReactApplicationContext reactContext, int id, String eventName, WritableMap params) {
+          mWebSocketMessageBatcher.sendEvent(reactContext, id, eventName, params);
+        }
       };
 
   private final NetworkingModule.UriHandler mNetworkingUriHandler =
@@ -114,7 +145,10 @@ public class BlobModule extends NativeBlobModuleSpec {
           }
           ReadableMap blob = data.getMap("blob");
           String blobId = blob.getString("blobId");
-          byte[] bytes = resolve(blobId, blob.getInt("offset"), blob.getInt("size"));
+          byte[] bytes = resolve(blob);
+          if (bytes == null) {
+            throw new IllegalArgumentException("Invalid or too large blob: " + blobId);
+          }
 
           return RequestBody.create(MediaType.parse(type), bytes);
         }
@@ -129,17 +163,39 @@ public class BlobModule extends NativeBlobModuleSpec {
 
         @Override
         public WritableMap toResponseData(ResponseBody body) throws IOException {
-          byte[] data = body.bytes();
+          String blobId = UUID.randomUUID().toString();
+          long size;
+          try {
+            BufferedSource source = body.source();
+            if (source.request(MAX_IN_MEMORY_RESPONSE_SIZE + 1)) {
+              // Write large responses to disk as they are received, so the whole response is
+              // never held in memory.
+              size = store(source, blobId);
+            } else {
+              byte[] data = source.readByteArray();
+              store(data, blobId);
+              size = data.length;
+            }
+          } finally {
+            body.close();
+          }
           WritableMap blob = Arguments.createMap();
-          blob.putString("blobId", store(data));
+          blob.putString("blobId", blobId);
           blob.putInt("offset", 0);
-          blob.putInt("size", data.length);
+          // Sizes are sent as doubles, which hold sizes of more than 2GB exactly.
+          blob.putDouble("size", size);
           return blob;
         }
       };
 
   public BlobModule(ReactApplicationContext reactContext) {
     super(reactContext);
+    // Each module has its own directory, so invalidating it doesn't delete the files of others.
+    File directory =
+        new File(
+            new File(reactContext.getCacheDir(), BLOB_DIRECTORY), UUID.randomUUID().toString());
+    mSpillExecutor.allowCoreThreadTimeOut(true);
+    mStore = new BlobStore(directory, MAX_MEMORY_SIZE, MAX_DISK_SIZE, mSpillExecutor);
   }
 
   @Override
@@ -147,6 +203,12 @@ public class BlobModule extends NativeBlobModuleSpec {
     BlobCollector.install(getReactApplicationContext(), this);
   }
 
+  @Override
+  public void invalidate() {
+    super.invalidate();
+    mStore.clear();
+  }
+
   @Override
   public @Nullable Map<String, Object> getTypedExportedConstants() {
     // The application can register BlobProvider as a ContentProvider so that blobs are resolvable.
@@ -169,51 +231,74 @@ public class BlobModule extends NativeBlobModuleSpec {
   }
 
   public void store(byte[] data, String blobId) {
-    synchronized (mBlobs) {
-      mBlobs.put(blobId, data);
-    }
+    mStore.put(blobId, data);
+  }
+
+  /**
+   * Stores the content of {@code source} in a file, reading it in segments so it's never fully
+   * loaded in memory.
+   *
+   * @return the size of the blob.
+   */
+  public long store(Source source, String blobId) throws IOException {
+    return mStore.put(blobId, source);
   }
 
   @DoNotStrip
   public void remove(String blobId) {
-    synchronized (mBlobs) {
-      mBlobs.remove(blobId);
-    }
+    mStore.remove(blobId);
+  }
+
+  /**
+   * Copies a range of a blob into {@code destination}. Called from native code to create
+   * ArrayBuffers backed by native memory, without going through a byte array or base64.
+   *
+   * @return false if the blob doesn't exist or has fewer bytes than {@code destination}.
+   */
+  @DoNotStrip
+  public boolean readInto(String blobId, long offset, ByteBuffer destination) {
+    return mStore.readInto(blobId, offset, destination);
   }
 
   public @Nullable byte[] resolve(Uri uri) {
     String blobId = uri.getLastPathSegment();
-    int offset = 0;
-    int size = -1;
+    long offset = 0;
+    long size = -1;
     String offsetParam = uri.getQueryParameter("offset");
     if (offsetParam != null) {
-      offset = Integer.parseInt(offsetParam, 10);
+      offset = Long.parseLong(offsetParam, 10);
     }
     String sizeParam = uri.getQueryParameter("size");
     if (sizeParam != null) {
-      size = Integer.parseInt(sizeParam, 10);
+      size = Long.parseLong(sizeParam, 10);
     }
-    return resolve(blobId, offset, size);
+    return mStore.resolve(blobId, offset, size);
   }
 
   public @Nullable byte[] resolve(String blobId, int offset, int size) {
-    synchronized (mBlobs) {
-      byte[] data = mBlobs.get(blobId);
-      if (data == null) {
-        return null;
-      }
-      if (size == -1) {
-        size = data.length - offset;
-      }
-      if (offset > 0 || size != data.length) {
-        data = Arrays.copyOfRange(data, offset, offset + size);
-      }
-      return data;
-    }
+    return mStore.resolve(blobId, offset, size);
   }
 
   public @Nullable byte[] resolve(ReadableMap blob) {
-    return resolve(blob.getString("blobId"), blob.getInt("offset"), blob.getInt("size"));
+    return mStore.resolve(blob.getString("blobId"), getOffset(blob), getSize(blob));
+  }
+
+  // Offsets and sizes are JS numbers, which can be larger than an int.
+  private static long getOffset(ReadableMap blob) {
+    return (long) blob.getDouble("offset");
+  }
+
+  private static long getSize(ReadableMap blob) {
+    return (long) blob.getDouble("size");
+  }
+
+  @VisibleForTesting
+  /* package */ NetworkingModule.ResponseHandler getNetworkingResponseHandler() {
+    return mNetworkingResponseHandler;
+  }
+
+  /* package */ BlobStore getBlobStore() {
+    return mStore;
   }
 
   private byte[] getBytesFromUri(Uri contentUri) throws IOException {
@@ -320,6 +405,8 @@ public class BlobModule extends NativeBlobModuleSpec {
 
     if (webSocketModule != null) {
       webSocketModule.setContentHandler(id, null);
+      // Messages received from now on are sent right away, so they can't overtake pending ones.
+      mWebSocketMessageBatcher.flush(getReactApplicationContext(), id);
     }
   }
 
@@ -330,10 +417,19 @@ public class BlobModule extends NativeBlobModuleSpec {
     WebSocketModule webSocketModule = getWebSocketModule("sendOverSocket");
 
     if (webSocketModule != null) {
-      byte[] data = resolve(blob.getString("blobId"), blob.getInt("offset"), blob.getInt("size"));
+      // Copy the blob into segments once and send a snapshot of them, rather than resolving the
+      // blob into an array and copying it again into a ByteString.
+      Buffer buffer = new Buffer();
+      boolean found;
+      try {
+        found =
+            mStore.writeTo(blob.getString("blobId"), getOffset(blob), getSize(blob), buffer);
+      } catch (IOException e) {
+        found = false;
+      }
 
-      if (data != null) {
-        webSocketModule.sendBinary(ByteString.of(data), id);
+      if (found) {
+        webSocketModule.sendBinary(buffer.snapshot(), id);
       } else {
         webSocketModule.sendBinary((ByteString) null, id);
       }
@@ -342,30 +438,24 @@ public class BlobModule extends NativeBlobModuleSpec {
 
   @Override
   public void createFromParts(ReadableArray parts, String blobId) {
-    int totalBlobSize = 0;
-    ArrayList<byte[]> partList = new ArrayList<>(parts.size());
+    ArrayList<BlobStore.Part> partList = new ArrayList<>(parts.size());
     for (int i = 0; i < parts.size(); i++) {
       ReadableMap part = parts.getMap(i);
       switch (part.getString("type")) {
         case "blob":
           ReadableMap blob = part.getMap("data");
-          totalBlobSize += blob.getInt("size");
-          partList.add(i, resolve(blob));
+          partList.add(
+              BlobStore.Part.ofBlob(blob.getString("blobId"), getOffset(blob), getSize(blob)));
           break;
         case "string":
           byte[] bytes = part.getString("data").getBytes(Charset.forName("UTF-8"));
-          totalBlobSize += bytes.length;
-          partList.add(i, bytes);
+          partList.add(BlobStore.Part.ofBytes(bytes));
           break;
         default:
           throw new IllegalArgumentException("Invalid type for blob: " + part.getString("type"));
       }
     }
-    ByteBuffer buffer = ByteBuffer.allocate(totalBlobSize);
-    for (byte[] bytes : partList) {
-      buffer.put(bytes);
-    }
-    store(buffer.array(), blobId);
+    mStore.putParts(blobId, partList);
   }
 
   @Override
@@ -10,27 +10,46 @@ package com.facebook.react.modules.blob;
 import android.content.ContentProvider;
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.res.AssetFileDescriptor;
 import android.database.Cursor;
 import android.net.Uri;
 import android.os.ParcelFileDescriptor;
 import androidx.annotation.Nullable;
+import com.facebook.common.logging.FLog;
 import com.facebook.react.ReactApplication;
 import com.facebook.react.ReactNativeHost;
 import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.common.ReactConstants;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okio.BufferedSink;
+import okio.Okio;
 
 public final class BlobProvider extends ContentProvider {
 
-  private static final int PIPE_CAPACITY = 65536;
+  /* package */ static final int PIPE_CAPACITY = 65536;
+  /* package */ static final int MAX_PIPE_WRITERS = 4;
 
-  private ExecutorService executor = Executors.newSingleThreadExecutor();
+  private static final AtomicLong sFileDescriptorReadCount = new AtomicLong();
+  private static final AtomicLong sPipeReadCount = new AtomicLong();
+  private static final AtomicLong sPipedBytes = new AtomicLong();
+  private static final AtomicLong sPipeWriteTimeNs = new AtomicLong();
+
+  private final ThreadPoolExecutor mPipeWriters =
+      new ThreadPoolExecutor(
+          MAX_PIPE_WRITERS,
+          MAX_PIPE_WRITERS,
+          30,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>());
 
   @Override
   public boolean onCreate() {
+    mPipeWriters.allowCoreThreadTimeOut(true);
     return true;
   }
 
@@ -62,10 +81,70 @@ public final class BlobProvider extends ContentProvider {
 
   @Override
   public ParcelFileDescriptor openFile(Uri uri, String mode) throws FileNotFoundException {
+    return openBlob(uri, mode).getParcelFileDescriptor();
+  }
+
+  /**
+   * Opens the range of the blob given by the offset and size query parameters. Ranges are streamed
+   * through a pipe, so the reader never gets a descriptor of a file holding more than the range.
+   */
+  @Override
+  public AssetFileDescriptor openAssetFile(Uri uri, String mode) throws FileNotFoundException {
+    return openBlob(uri, mode);
+  }
+
+  /** @return the number of reads served with the descriptor of a file. */
+  public static long getFileDescriptorReadCount() {
+    return sFileDescriptorReadCount.get();
+  }
+
+  /** @return the number of reads served through a pipe. */
+  public static long getPipeReadCount() {
+    return sPipeReadCount.get();
+  }
+
+  /** @return the number of bytes written to pipes, per second spent writing them. */
+  public static long getPipeThroughput() {
+    long timeNs = sPipeWriteTimeNs.get();
+    return timeNs == 0 ? 0 : sPipedBytes.get() * TimeUnit.SECONDS.toNanos(1) / timeNs;
+  }
+
+  /** @return the largest number of threads that have written to pipes at the same time. */
+  /* package */ int getLargestPipeWriterCount() {
+    return mPipeWriters.getLargestPoolSize();
+  }
+
+  private AssetFileDescriptor openBlob(Uri uri, String mode) throws FileNotFoundException {
     if (!mode.equals("r")) {
       throw new FileNotFoundException("Cannot open " + uri.toString() + " in mode '" + mode + "'");
     }
 
+    BlobStore store = getBlobModule().getBlobStore();
+    String blobId = uri.getLastPathSegment();
+    long blobSize = store.getSize(blobId);
+    if (blobSize == -1) {
+      throw new FileNotFoundException("Cannot open " + uri.toString() + ", blob not found.");
+    }
+    String offsetParam = uri.getQueryParameter("offset");
+    String sizeParam = uri.getQueryParameter("size");
+    long offset = offsetParam != null ? Long.parseLong(offsetParam, 10) : 0;
+    long size = sizeParam != null ? Long.parseLong(sizeParam, 10) : blobSize - offset;
+
+    // Large blobs are written to a file, so the caller reads the file directly instead of having
+    // the blob pumped through a pipe.
+    if (size > PIPE_CAPACITY && offset == 0 && size == blobSize) {
+      ParcelFileDescriptor fileDescriptor = openBlobFile(store, blobId);
+      if (fileDescriptor != null) {
+        sFileDescriptorReadCount.incrementAndGet();
+        return new AssetFileDescriptor(fileDescriptor, 0, size);
+      }
+    }
+
+    return new AssetFileDescriptor(
+        openPipe(store, blobId, offset, size), 0, AssetFileDescriptor.UNKNOWN_LENGTH);
+  }
+
+  private BlobModule getBlobModule() {
     BlobModule blobModule = null;
     Context context = getContext().getApplicationContext();
     if (context instanceof ReactApplication) {
@@ -77,49 +156,69 @@ public final class BlobProvider extends ContentProvider {
     if (blobModule == null) {
       throw new RuntimeException("No blob module associated with BlobProvider");
     }
+    return blobModule;
+  }
 
-    final byte[] data = blobModule.resolve(uri);
-    if (data == null) {
-      throw new FileNotFoundException("Cannot open " + uri.toString() + ", blob not found.");
+  private static @Nullable ParcelFileDescriptor openBlobFile(BlobStore store, String blobId)
+      throws FileNotFoundException {
+    try {
+      return store.openFile(
+          blobId, file -> ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY));
+    } catch (FileNotFoundException e) {
+      throw e;
+    } catch (IOException e) {
+      FLog.w(ReactConstants.TAG, "Could not write blob " + blobId + " to a file", e);
+      return null;
     }
+  }
 
+  private ParcelFileDescriptor openPipe(
+      final BlobStore store, final String blobId, final long offset, final long size)
+      throws FileNotFoundException {
     ParcelFileDescriptor[] pipe;
     try {
       pipe = ParcelFileDescriptor.createPipe();
-    } catch (IOException exception) {
-      return null;
+    } catch (IOException e) {
+      throw new FileNotFoundException("Cannot create a pipe for blob " + blobId + ": " + e);
     }
     ParcelFileDescriptor readSide = pipe[0];
     final ParcelFileDescriptor writeSide = pipe[1];
+    sPipeReadCount.incrementAndGet();
 
-    if (data.length <= PIPE_CAPACITY) {
+    if (size <= PIPE_CAPACITY) {
       // If the blob length is less than or equal to pipe capacity (64 KB),
       // we can write the data synchronously to the pipe buffer.
-      try (OutputStream outputStream = new ParcelFileDescriptor.AutoCloseOutputStream(writeSide)) {
-        outputStream.write(data);
-      } catch (IOException exception) {
-        return null;
-      }
+      writeToPipe(store, blobId, offset, size, writeSide);
     } else {
       // For blobs larger than 64 KB, a synchronous write would fill up the whole buffer
       // and block forever, because there are no readers to empty the buffer.
       // Writing from a separate thread allows us to return the read side descriptor
       // immediately so that both writer and reader can work concurrently.
       // Reading from the pipe empties the buffer and allows the next chunks to be written.
-      Runnable writer =
+      mPipeWriters.execute(
           new Runnable() {
+            @Override
             public void run() {
-              try (OutputStream outputStream =
-                  new ParcelFileDescriptor.AutoCloseOutputStream(writeSide)) {
-                outputStream.write(data);
-              } catch (IOException exception) {
-                // no-op
-              }
+              writeToPipe(store, blobId, offset, size, writeSide);
             }
-          };
-      executor.submit(writer);
+          });
     }
 
     return readSide;
   }
+
+  private static void writeToPipe(
+      BlobStore store, String blobId, long offset, long size, ParcelFileDescriptor writeSide) {
+    long startTime = System.nanoTime();
+    try (BufferedSink sink =
+        Okio.buffer(Okio.sink(new ParcelFileDescriptor.AutoCloseOutputStream(writeSide)))) {
+      if (store.writeTo(blobId, offset, size, sink)) {
+        sink.flush();
+        sPipedBytes.addAndGet(size);
+        sPipeWriteTimeNs.addAndGet(System.nanoTime() - startTime);
+      }
+    } catch (IOException e) {
+      // The reader closed the pipe, or the blob was released while it was written.
+    }
+  }
 }
@@ -0,0 +1,684 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.blob;
+
+import androidx.annotation.Nullable;
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Stores the content of the blobs created by {@link BlobModule}.
+ *
+ * <p>A blob is a list of ranges of immutable storages, which are either heap buffers or files in an
+ * app-private directory. Blobs created from other blobs reference the same storages instead of
+ * copying them, and a storage is freed once no blob references it anymore.
+ *
+ * <p>Once the heap buffers take more memory than allowed, the least recently used ones are spilled
+ * to files on the spill executor, as long as the files fit in the disk space allowed to the store.
+ * Storages are pinned while they are read, so releasing a blob never deletes a file that is being
+ * read.
+ */
+/* package */ final class BlobStore {
+
+  /** A blob created from existing blobs and byte arrays. */
+  /* package */ static final class Part {
+    private final @Nullable String mBlobId;
+    private final @Nullable byte[] mData;
+    private final long mOffset;
+    private final long mSize;
+
+    private Part(@Nullable String blobId, @Nullable byte[] data, long offset, long size) {
+      mBlobId = blobId;
+      mData = data;
+      mOffset = offset;
+      mSize = size;
+    }
+
+    /* package */ static Part ofBlob(String blobId, long offset, long size) {
+      return new Part(blobId, null, offset, size);
+    }
+
+    /* package */ static Part ofBytes(byte[] data) {
+      return new Part(null, data, 0, data.length);
+    }
+  }
+
+  /** Opens the file holding the content of a blob, see {@link #openFile}. */
+  /* package */ interface FileOpener<T> {
+    T open(File file) throws IOException;
+  }
+
+  private static final class Storage {
+    // A storage is spilled by setting mFile before clearing mData, so readers that find mData to be
+    // null can use mFile. mData starts at position 0 and is only read through duplicates.
+    private volatile @Nullable ByteBuffer mData;
+    private volatile @Nullable File mFile;
+    private final long mSize;
+    // Blobs and ongoing reads referencing the storage, which is freed once there are none left.
+    private int mRefCount;
+    private boolean mIsSpilling;
+
+    private Storage(ByteBuffer data) {
+      mData = data;
+      mSize = data.remaining();
+    }
+
+    private Storage(File file, long size) {
+      mFile = file;
+      mSize = size;
+    }
+  }
+
+  private static final class Segment {
+    private final Storage mStorage;
+    private final long mOffset;
+    private final long mSize;
+
+    private Segment(Storage storage, long offset, long size) {
+      mStorage = storage;
+      mOffset = offset;
+      mSize = size;
+    }
+  }
+
+  // Some VMs reserve header words in arrays, so they can't be quite Integer.MAX_VALUE long.
+  private static final long MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+  private static final long WRITE_SEGMENT_SIZE = 8192;
+
+  private final File mDirectory;
+  private final long mMaxMemorySize;
+  private final long mMaxDiskSize;
+  private final Executor mSpillExecutor;
+
+  private final Map<String, Segment[]> mBlobs = new HashMap<>();
+  // The storages that are kept in memory, least recently used first.
+  private final LinkedHashMap<Storage, Boolean> mMemoryStorages =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private long mMemorySize;
+  // Size of the files of the storages, including the ones being spilled.
+  private long mDiskSize;
+  // Whether a spill is queued on the spill executor and hasn't started yet.
+  private boolean mIsSpillScheduled;
+
+  /**
+   * @param spillExecutor runs the writes of heap buffers to files, so that they never block the
+   *     thread that created the blob
+   */
+  /* package */ BlobStore(
+      File directory, long maxMemorySize, long maxDiskSize, Executor spillExecutor) {
+    mDirectory = directory;
+    mMaxMemorySize = maxMemorySize;
+    mMaxDiskSize = maxDiskSize;
+    mSpillExecutor = spillExecutor;
+  }
+
+  /* package */ void put(String blobId, byte[] data) {
+    Storage storage = new Storage(ByteBuffer.wrap(data));
+    synchronized (this) {
+      putSegments(blobId, new Segment[] {new Segment(storage, 0, data.length)});
+    }
+    scheduleSpillIfNeeded();
+  }
+
+  /** Stores a read-only view of {@code data}, without copying it. */
+  /* package */ void put(String blobId, ByteString data) {
+    Storage storage = new Storage(data.asByteBuffer());
+    synchronized (this) {
+      putSegments(blobId, new Segment[] {new Segment(storage, 0, data.size())});
+    }
+    scheduleSpillIfNeeded();
+  }
+
+  /**
+   * Writes the content of {@code source} to a file as it is read, so it's never fully loaded in
+   * memory.
+   *
+   * @return the size of the blob.
+   * @throws IOException if the blob can't be written, or doesn't fit in the disk space left to the
+   *     store.
+   */
+  /* package */ long put(String blobId, Source source) throws IOException {
+    long maxSize;
+    synchronized (this) {
+      maxSize = mMaxDiskSize - mDiskSize;
+    }
+    File file = createFile();
+    long size = 0;
+    try (BufferedSink sink = Okio.buffer(Okio.sink(file))) {
+      long read;
+      while ((read = source.read(sink.getBuffer(), WRITE_SEGMENT_SIZE)) != -1) {
+        size += read;
+        if (size > maxSize) {
+          throw new IOException("Blob " + blobId + " doesn't fit in the disk space of the store");
+        }
+        sink.emitCompleteSegments();
+      }
+    } catch (IOException e) {
+      file.delete();
+      throw e;
+    }
+    synchronized (this) {
+      if (mDiskSize + size > mMaxDiskSize) {
+        file.delete();
+        throw new IOException("Blob " + blobId + " doesn't fit in the disk space of the store");
+      }
+      mDiskSize += size;
+      putSegments(blobId, new Segment[] {new Segment(new Storage(file, size), 0, size)});
+    }
+    return size;
+  }
+
+  /**
+   * Creates a blob that is the concatenation of {@code parts}. Blob parts share the storage of the
+   * blob they come from.
+   */
+  /* package */ void putParts(String blobId, List<Part> parts) {
+    synchronized (this) {
+      List<Segment> segments = new ArrayList<>(parts.size());
+      for (Part part : parts) {
+        if (part.mBlobId == null) {
+          segments.add(new Segment(new Storage(ByteBuffer.wrap(part.mData)), 0, part.mSize));
+          continue;
+        }
+        List<Segment> blobSegments = slice(part.mBlobId, part.mOffset, part.mSize);
+        if (blobSegments == null) {
+          throw new IllegalArgumentException("Invalid blob: " + part.mBlobId);
+        }
+        segments.addAll(blobSegments);
+      }
+      putSegments(blobId, segments.toArray(new Segment[segments.size()]));
+    }
+    scheduleSpillIfNeeded();
+  }
+
+  /* package */ synchronized void remove(String blobId) {
+    Segment[] segments = mBlobs.remove(blobId);
+    if (segments != null) {
+      release(Arrays.asList(segments));
+    }
+  }
+
+  /**
+   * Removes all blobs. The files of storages that aren't being read are deleted right away, the
+   * others once their reads end.
+   */
+  /* package */ synchronized void clear() {
+    for (Segment[] segments : mBlobs.values()) {
+      release(Arrays.asList(segments));
+    }
+    mBlobs.clear();
+    // Only succeeds if no file is left, i.e. nothing is being read or written.
+    mDirectory.delete();
+  }
+
+  /** @return the size of the blob, or -1 if it doesn't exist. */
+  /* package */ synchronized long getSize(String blobId) {
+    Segment[] segments = mBlobs.get(blobId);
+    if (segments == null) {
+      return -1;
+    }
+    long size = 0;
+    for (Segment segment : segments) {
+      size += segment.mSize;
+    }
+    return size;
+  }
+
+  /**
+   * @return the bytes of a range of the blob ({@code size} -1 meaning up to its end), or null if
+   *     the blob doesn't exist, can't be read or is too large for an array.
+   */
+  /* package */ @Nullable byte[] resolve(String blobId, long offset, long size) {
+    List<Segment> segments = sliceAndPin(blobId, offset, size);
+    if (segments == null) {
+      return null;
+    }
+    try {
+      return read(blobId, segments);
+    } finally {
+      unpin(segments);
+    }
+  }
+
+  private static @Nullable byte[] read(String blobId, List<Segment> segments) {
+    if (segments.size() == 1) {
+      Segment segment = segments.get(0);
+      ByteBuffer data = segment.mStorage.mData;
+      if (data != null
+          && data.hasArray()
+          && data.arrayOffset() == 0
+          && segment.mOffset == 0
+          && segment.mSize == data.array().length) {
+        return data.array();
+      }
+    }
+
+    long totalSize = 0;
+    for (Segment segment : segments) {
+      totalSize += segment.mSize;
+    }
+    if (totalSize > MAX_ARRAY_SIZE) {
+      FLog.e(
+          ReactConstants.TAG,
+          "Blob " + blobId + " of " + totalSize + " bytes is too large to be read in an array");
+      return null;
+    }
+    byte[] result = new byte[(int) totalSize];
+    int position = 0;
+    try {
+      for (Segment segment : segments) {
+        read(segment, result, position);
+        position += (int) segment.mSize;
+      }
+    } catch (IOException e) {
+      FLog.e(ReactConstants.TAG, "Could not read blob " + blobId, e);
+      return null;
+    }
+    return result;
+  }
+
+  /**
+   * Copies a range of the blob into the remaining bytes of {@code destination}, which can be a
+   * direct buffer, so that the bytes never go through an intermediate array.
+   *
+   * @return false if the blob doesn't exist, has fewer bytes than {@code destination} or can't be
+   *     read.
+   */
+  /* package */ boolean readInto(String blobId, long offset, ByteBuffer destination) {
+    List<Segment> segments = sliceAndPin(blobId, offset, destination.remaining());
+    if (segments == null) {
+      return false;
+    }
+    try {
+      long totalSize = 0;
+      for (Segment segment : segments) {
+        totalSize += segment.mSize;
+      }
+      if (totalSize != destination.remaining()) {
+        return false;
+      }
+      for (Segment segment : segments) {
+        read(segment, destination);
+      }
+      return true;
+    } catch (IOException e) {
+      FLog.e(ReactConstants.TAG, "Could not read blob " + blobId, e);
+      return false;
+    } finally {
+      unpin(segments);
+    }
+  }
+
+  /**
+   * Writes a range of the blob to {@code sink} without copying the blob in memory.
+   *
+   * @return false if the blob doesn't exist.
+   */
+  /* package */ boolean writeTo(String blobId, long offset, long size, BufferedSink sink)
+      throws IOException {
+    List<Segment> segments = sliceAndPin(blobId, offset, size);
+    if (segments == null) {
+      return false;
+    }
+    try {
+      for (Segment segment : segments) {
+        write(segment, sink);
+      }
+    } finally {
+      unpin(segments);
+    }
+    return true;
+  }
+
+  /**
+   * Opens a file with the whole content of the blob, writing it first if the blob isn't backed by a
+   * single file. The file can't be deleted while {@code opener} runs.
+   *
+   * @return what {@code opener} returned, or null if the blob doesn't exist.
+   */
+  /* package */ @Nullable <T> T openFile(String blobId, FileOpener<T> opener) throws IOException {
+    Segment[] segments;
+    List<Segment> pinnedSegments;
+    synchronized (this) {
+      segments = mBlobs.get(blobId);
+      if (segments == null) {
+        return null;
+      }
+      pinnedSegments = new ArrayList<>(Arrays.asList(segments));
+      pin(pinnedSegments);
+    }
+    try {
+      if (segments.length == 1) {
+        Segment segment = segments[0];
+        File file = segment.mStorage.mFile;
+        if (file != null && segment.mOffset == 0 && segment.mSize == segment.mStorage.mSize) {
+          return opener.open(file);
+        }
+      }
+      Segment fileSegment = writeFile(blobId, segments);
+      if (fileSegment == null) {
+        return null;
+      }
+      pinnedSegments.add(fileSegment);
+      return opener.open(fileSegment.mStorage.mFile);
+    } finally {
+      unpin(pinnedSegments);
+    }
+  }
+
+  /**
+   * Writes {@code segments} to a file which then backs the blob, unless it was changed meanwhile.
+   *
+   * @return the pinned segment of the file, or null if the blob was changed.
+   */
+  private @Nullable Segment writeFile(String blobId, Segment[] segments) throws IOException {
+    long size = 0;
+    for (Segment segment : segments) {
+      size += segment.mSize;
+    }
+    synchronized (this) {
+      if (mDiskSize + size > mMaxDiskSize) {
+        throw new IOException("Blob " + blobId + " doesn't fit in the disk space of the store");
+      }
+      mDiskSize += size;
+    }
+
+    File file = null;
+    try {
+      file = createFile();
+      try (BufferedSink sink = Okio.buffer(Okio.sink(file))) {
+        for (Segment segment : segments) {
+          write(segment, sink);
+        }
+      }
+    } catch (IOException e) {
+      if (file != null) {
+        file.delete();
+      }
+      synchronized (this) {
+        mDiskSize -= size;
+      }
+      throw e;
+    }
+
+    synchronized (this) {
+      if (mBlobs.get(blobId) != segments) {
+        // The blob was removed or replaced while it was written.
+        file.delete();
+        mDiskSize -= size;
+        return null;
+      }
+      Segment fileSegment = new Segment(new Storage(file, size), 0, size);
+      putSegments(blobId, new Segment[] {fileSegment});
+      pin(Collections.singletonList(fileSegment));
+      return fileSegment;
+    }
+  }
+
+  /* package */ synchronized long getMemorySize() {
+    return mMemorySize;
+  }
+
+  /* package */ synchronized long getDiskSize() {
+    return mDiskSize;
+  }
+
+  private File createFile() throws IOException {
+    if (!mDirectory.isDirectory() && !mDirectory.mkdirs()) {
+      throw new IOException("Could not create blob directory " + mDirectory);
+    }
+    return new File(mDirectory, UUID.randomUUID().toString());
+  }
+
+  private synchronized @Nullable List<Segment> sliceAndPin(
+      String blobId, long offset, long size) {
+    List<Segment> segments = slice(blobId, offset, size);
+    if (segments != null) {
+      pin(segments);
+    }
+    return segments;
+  }
+
+  private @Nullable List<Segment> slice(String blobId, long offset, long size) {
+    Segment[] segments = mBlobs.get(blobId);
+    if (segments == null) {
+      return null;
+    }
+    long end = size == -1 ? Long.MAX_VALUE : offset + size;
+    List<Segment> slice = new ArrayList<>(segments.length);
+    long segmentStart = 0;
+    for (Segment segment : segments) {
+      long segmentEnd = segmentStart + segment.mSize;
+      long sliceStart = Math.max(offset, segmentStart);
+      long sliceEnd = Math.min(end, segmentEnd);
+      if (sliceStart < sliceEnd) {
+        slice.add(
+            new Segment(
+                segment.mStorage,
+                segment.mOffset + sliceStart - segmentStart,
+                sliceEnd - sliceStart));
+      }
+      if (segment.mStorage.mData != null) {
+        // Accessing the storage makes it the most recently used one.
+        mMemoryStorages.get(segment.mStorage);
+      }
+      segmentStart = segmentEnd;
+    }
+    return slice;
+  }
+
+  /** Keeps the storages of {@code segments} from being freed while they are read. */
+  private void pin(List<Segment> segments) {
+    for (Segment segment : segments) {
+      segment.mStorage.mRefCount++;
+    }
+  }
+
+  private synchronized void unpin(List<Segment> segments) {
+    release(segments);
+  }
+
+  private void putSegments(String blobId, Segment[] segments) {
+    for (Segment segment : segments) {
+      Storage storage = segment.mStorage;
+      if (storage.mRefCount++ == 0 && storage.mData != null) {
+        mMemoryStorages.put(storage, Boolean.TRUE);
+        mMemorySize += storage.mSize;
+      }
+    }
+    Segment[] previousSegments = mBlobs.put(blobId, segments);
+    if (previousSegments != null) {
+      release(Arrays.asList(previousSegments));
+    }
+  }
+
+  private void release(List<Segment> segments) {
+    for (Segment segment : segments) {
+      release(segment.mStorage);
+    }
+  }
+
+  private void release(Storage storage) {
+    if (--storage.mRefCount > 0) {
+      return;
+    }
+    if (mMemoryStorages.remove(storage) != null) {
+      mMemorySize -= storage.mSize;
+    }
+    File file = storage.mFile;
+    if (file != null) {
+      file.delete();
+      mDiskSize -= storage.mSize;
+    }
+  }
+
+  /** Queues a spill on the spill executor if the heap buffers exceed the memory limit. */
+  private void scheduleSpillIfNeeded() {
+    synchronized (this) {
+      if (mIsSpillScheduled || mMemorySize <= mMaxMemorySize) {
+        return;
+      }
+      mIsSpillScheduled = true;
+    }
+    try {
+      mSpillExecutor.execute(
+          new Runnable() {
+            @Override
+            public void run() {
+              synchronized (BlobStore.this) {
+                mIsSpillScheduled = false;
+              }
+              spillIfNeeded();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      FLog.w(ReactConstants.TAG, "Could not schedule spilling blobs to disk", e);
+      synchronized (this) {
+        mIsSpillScheduled = false;
+      }
+    }
+  }
+
+  /**
+   * Spills the least recently used heap buffers to files until they fit in the memory limit, or
+   * the files would exceed the disk limit. The files are written without holding the lock.
+   */
+  private void spillIfNeeded() {
+    List<Storage> storages = new ArrayList<>();
+    synchronized (this) {
+      long memorySize = mMemorySize;
+      for (Storage storage : mMemoryStorages.keySet()) {
+        if (memorySize <= mMaxMemorySize) {
+          break;
+        }
+        if (storage.mIsSpilling) {
+          memorySize -= storage.mSize;
+          continue;
+        }
+        if (mDiskSize + storage.mSize > mMaxDiskSize) {
+          break;
+        }
+        storage.mIsSpilling = true;
+        // The storage stays alive while it's written, and its file is reserved in the disk size.
+        storage.mRefCount++;
+        mDiskSize += storage.mSize;
+        memorySize -= storage.mSize;
+        storages.add(storage);
+      }
+    }
+
+    for (Storage storage : storages) {
+      File file = null;
+      try {
+        file = createFile();
+        try (BufferedSink sink = Okio.buffer(Okio.sink(file))) {
+          sink.write(storage.mData.duplicate());
+        }
+      } catch (IOException e) {
+        FLog.w(ReactConstants.TAG, "Could not spill blob to disk", e);
+        if (file != null) {
+          file.delete();
+          file = null;
+        }
+      }
+
+      synchronized (this) {
+        storage.mIsSpilling = false;
+        if (file != null) {
+          storage.mFile = file;
+          storage.mData = null;
+          if (mMemoryStorages.remove(storage) != null) {
+            mMemorySize -= storage.mSize;
+          }
+        } else {
+          mDiskSize -= storage.mSize;
+        }
+        release(storage);
+      }
+    }
+  }
+
+  private static void read(Segment segment, byte[] destination, int position) throws IOException {
+    Storage storage = segment.mStorage;
+    ByteBuffer data = storage.mData;
+    if (data != null) {
+      ByteBuffer view = data.duplicate();
+      view.position((int) segment.mOffset);
+      view.get(destination, position, (int) segment.mSize);
+      return;
+    }
+    try (RandomAccessFile file = new RandomAccessFile(storage.mFile, "r")) {
+      file.seek(segment.mOffset);
+      file.readFully(destination, position, (int) segment.mSize);
+    }
+  }
+
+  private static void read(Segment segment, ByteBuffer destination) throws IOException {
+    Storage storage = segment.mStorage;
+    ByteBuffer data = storage.mData;
+    if (data != null) {
+      ByteBuffer view = data.duplicate();
+      view.position((int) segment.mOffset);
+      view.limit((int) (segment.mOffset + segment.mSize));
+      destination.put(view);
+      return;
+    }
+    ByteBuffer view = destination.duplicate();
+    view.limit(view.position() + (int) segment.mSize);
+    try (FileInputStream input = new FileInputStream(storage.mFile)) {
+      FileChannel channel = input.getChannel();
+      long position = segment.mOffset;
+      while (view.hasRemaining()) {
+        int read = channel.read(view, position);
+        if (read < 0) {
+          throw new EOFException("Blob file " + storage.mFile + " is truncated");
+        }
+        position += read;
+      }
+    }
+    destination.position(view.position());
+  }
+
+  private static void write(Segment segment, BufferedSink sink) throws IOException {
+    Storage storage = segment.mStorage;
+    ByteBuffer data = storage.mData;
+    if (data != null) {
+      ByteBuffer view = data.duplicate();
+      view.position((int) segment.mOffset);
+      view.limit((int) (segment.mOffset + segment.mSize));
+      sink.write(view);
+      return;
+    }
+    try (FileInputStream input = new FileInputStream(storage.mFile)) {
+      input.getChannel().position(segment.mOffset);
+      sink.write(Okio.source(input), segment.mSize);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.blob;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds back the {@code websocketMessage} events of each socket until the JS thread gets to them,
+ * so that a burst of frames is sent as one {@code batch} message per JS tick instead of one event
+ * per frame. The other events of a socket first send its pending messages, to keep them in order.
+ */
+/* package */ final class WebSocketMessageBatcher {
+
+  private static final String MESSAGE_EVENT = "websocketMessage";
+
+  // The pending messages of each socket, in the order they were received.
+  private final Map<Integer, List<WritableMap>> mPendingMessages = new HashMap<>();
+
+  /* package */ void sendEvent(
+      final ReactApplicationContext reactContext,
+      final int id,
+      String eventName,
+      WritableMap params) {
+    if (!MESSAGE_EVENT.equals(eventName)) {
+      synchronized (this) {
+        flush(reactContext, id);
+        reactContext.emitDeviceEvent(eventName, params);
+      }
+      return;
+    }
+    boolean isFirstMessage;
+    synchronized (this) {
+      List<WritableMap> messages = mPendingMessages.get(id);
+      isFirstMessage = messages == null;
+      if (messages == null) {
+        messages = new ArrayList<>();
+        mPendingMessages.put(id, messages);
+      }
+      messages.add(params);
+    }
+    if (isFirstMessage) {
+      Runnable flushRunnable =
+          new Runnable() {
+            @Override
+            public void run() {
+              flush(reactContext, id);
+            }
+          };
+      if (!reactContext.runOnJSQueueThread(flushRunnable)) {
+        flushRunnable.run();
+      }
+    }
+  }
+
+  /** Sends the pending messages of a socket right away. */
+  /* package */ synchronized void flush(ReactApplicationContext reactContext, int id) {
+    // Events are emitted while holding the lock, so that they can't be reordered across threads.
+    List<WritableMap> messages = mPendingMessages.remove(id);
+    if (messages == null || !reactContext.hasActiveReactInstance()) {
+      return;
+    }
+    if (messages.size() == 1) {
+      reactContext.emitDeviceEvent(MESSAGE_EVENT, messages.get(0));
+      return;
+    }
+    WritableArray batch = Arguments.createArray();
+    for (WritableMap message : messages) {
+      batch.pushMap(message);
+    }
+    WritableMap params = Arguments.createMap();
+    params.putInt("id", id);
+    params.putString("type", "batch");
+    params.putArray("data", batch);
+    reactContext.emitDeviceEvent(MESSAGE_EVENT, params);
+  }
+}
@@ -15,11 +15,13 @@ import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.UiThreadUtil;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.common.SystemClock;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.devsupport.interfaces.DevSupportManager;
 import com.facebook.react.jstasks.HeadlessJsTaskContext;
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class is the native implementation for JS timer execution on Android. It schedules JS timers
@@ -37,11 +39,15 @@ public class JavaTimerManager {
   // at 60 fps.
   private static final float FRAME_DURATION_MS = 1000.f / 60.f;
 
-  private static class Timer {
+  private static final long NOT_SLEEPING = -1;
+
+  private static final AtomicLong sSavedWakeUps = new AtomicLong();
+  private static final AtomicLong sTimerFramesTimeMs = new AtomicLong();
+
+  private static class Timer extends TimerWheel.Node {
     private final int mCallbackID;
     private final boolean mRepeat;
     private final int mInterval;
-    private long mTargetTime;
 
     private Timer(int callbackID, long initialTargetTime, int duration, boolean repeat) {
       mCallbackID = callbackID;
@@ -53,8 +59,11 @@ public class JavaTimerManager {
 
   private class TimerFrameCallback extends ChoreographerCompat.FrameCallback {
 
-    // Temporary map for constructing the individual arrays of timers to call
-    private @Nullable WritableArray mTimersToCall = null;
+    // Reused between frames to collect the timers to call, without allocating while holding the
+    // timer lock.
+    private final List<Timer> mExpiredTimers = new ArrayList<>();
+    private final List<Timer> mExpiredRepeatingTimers = new ArrayList<>();
+    private int[] mTimerIdsToCall = new int[16];
 
     /** Calls all timers that have expired since the last time this frame callback was called. */
     @Override
@@ -64,28 +73,71 @@ public class JavaTimerManager {
       }
 
       long frameTimeMillis = frameTimeNanos / 1000000;
+      recordFrame(frameTimeMillis);
+      int timerCount;
       synchronized (mTimerGuard) {
-        while (!mTimers.isEmpty() && mTimers.peek().mTargetTime < frameTimeMillis) {
-          Timer timer = mTimers.poll();
-          if (mTimersToCall == null) {
-            mTimersToCall = Arguments.createArray();
-          }
-          mTimersToCall.pushInt(timer.mCallbackID);
-          if (timer.mRepeat) {
-            timer.mTargetTime = frameTimeMillis + timer.mInterval;
-            mTimers.add(timer);
-          } else {
+        mTimers.advance(frameTimeMillis, mExpiredTimers);
+        mRepeatingTimers.advance(frameTimeMillis, mExpiredRepeatingTimers);
+        int timerIndex = 0;
+        int repeatingTimerIndex = 0;
+        timerCount = mExpiredTimers.size() + mExpiredRepeatingTimers.size();
+        if (timerCount > mTimerIdsToCall.length) {
+          mTimerIdsToCall = new int[Math.max(timerCount, mTimerIdsToCall.length * 2)];
+        }
+        // Both lists are sorted by target time, merge them to call the timers in that order.
+        for (int i = 0; i < timerCount; i++) {
+          Timer timer;
+          if (repeatingTimerIndex == mExpiredRepeatingTimers.size()
+              || (timerIndex < mExpiredTimers.size()
+                  && mExpiredTimers.get(timerIndex).mTargetTime
+                      <= mExpiredRepeatingTimers.get(repeatingTimerIndex).mTargetTime)) {
+            timer = mExpiredTimers.get(timerIndex++);
             mTimerIdsToTimers.remove(timer.mCallbackID);
+          } else {
+            timer = mExpiredRepeatingTimers.get(repeatingTimerIndex++);
+            timer.mTargetTime = frameTimeMillis + timer.mInterval;
+            mRepeatingTimers.add(timer);
           }
+          mTimerIdsToCall[i] = timer.mCallbackID;
+        }
+        mExpiredTimers.clear();
+        mExpiredRepeatingTimers.clear();
+      }
+
+      if (timerCount > 0) {
+        WritableArray timersToCall = Arguments.createArray();
+        for (int i = 0; i < timerCount; i++) {
+          timersToCall.pushInt(mTimerIdsToCall[i]);
         }
+        mJavaScriptTimerExecutor.callTimers(timersToCall);
       }
 
-      if (mTimersToCall != null) {
-        mJavaScriptTimerExecutor.callTimers(mTimersToCall);
-        mTimersToCall = null;
+      if (ReactFeatureFlags.enableSleepAwareTimers) {
+        scheduleNextTimerFrame(frameTimeMillis);
+      } else {
+        mReactChoreographer.postFrameCallback(ReactChoreographer.CallbackType.TIMERS_EVENTS, this);
+      }
+    }
+  }
+
+  /**
+   * Posts the timers frame callback, once the next timer is about to expire or once a timer that
+   * expires sooner is created.
+   */
+  private class WakeUpRunnable implements Runnable {
+    private volatile boolean mCancelled = false;
+
+    @Override
+    public void run() {
+      if (mCancelled) {
+        return;
       }
 
-      mReactChoreographer.postFrameCallback(ReactChoreographer.CallbackType.TIMERS_EVENTS, this);
+      wakeUp();
+    }
+
+    public void cancel() {
+      mCancelled = true;
     }
   }
 
@@ -156,13 +208,21 @@ public class JavaTimerManager {
   private final DevSupportManager mDevSupportManager;
   private final Object mTimerGuard = new Object();
   private final Object mIdleCallbackGuard = new Object();
-  private final PriorityQueue<Timer> mTimers;
+  // Repeating timers have their own wheel, so that the next one-shot timer is known without
+  // looking at every timer, see hasActiveTimersInRange.
+  private final TimerWheel mTimers;
+  private final TimerWheel mRepeatingTimers;
   private final SparseArray<Timer> mTimerIdsToTimers;
   private final AtomicBoolean isPaused = new AtomicBoolean(true);
   private final AtomicBoolean isRunningTasks = new AtomicBoolean(false);
   private final TimerFrameCallback mTimerFrameCallback = new TimerFrameCallback();
   private final IdleFrameCallback mIdleFrameCallback = new IdleFrameCallback();
   private @Nullable IdleCallbackRunnable mCurrentIdleCallbackRunnable;
+  private @Nullable WakeUpRunnable mPendingWakeUp;
+  // The time at which the timers frame callback runs next, while it doesn't run on every frame.
+  private long mNextWakeUpTime = Long.MIN_VALUE;
+  private long mSleepStartFrameTime = NOT_SLEEPING;
+  private long mLastFrameTime = NOT_SLEEPING;
   private boolean mFrameCallbackPosted = false;
   private boolean mFrameIdleCallbackPosted = false;
   private boolean mSendIdleEvents = false;
@@ -177,23 +237,10 @@ public class JavaTimerManager {
     mReactChoreographer = reactChoreographer;
     mDevSupportManager = devSupportManager;
 
-    // We store timers sorted by finish time.
-    mTimers =
-        new PriorityQueue<Timer>(
-            11, // Default capacity: for some reason they don't expose a (Comparator) constructor
-            new Comparator<Timer>() {
-              @Override
-              public int compare(Timer lhs, Timer rhs) {
-                long diff = lhs.mTargetTime - rhs.mTargetTime;
-                if (diff == 0) {
-                  return 0;
-                } else if (diff < 0) {
-                  return -1;
-                } else {
-                  return 1;
-                }
-              }
-            });
+    // We store timers by finish time, in a wheel that schedules and cancels them in constant time.
+    long currentTimeMs = SystemClock.nanoTime() / 1000000;
+    mTimers = new TimerWheel(currentTimeMs);
+    mRepeatingTimers = new TimerWheel(currentTimeMs);
     mTimerIdsToTimers = new SparseArray<>();
   }
 
@@ -263,11 +310,93 @@ public class JavaTimerManager {
   private void clearFrameCallback() {
     HeadlessJsTaskContext headlessJsTaskContext =
         HeadlessJsTaskContext.getInstance(mReactApplicationContext);
-    if (mFrameCallbackPosted && isPaused.get() && !headlessJsTaskContext.hasActiveTasks()) {
-      mReactChoreographer.removeFrameCallback(
+    if (isPaused.get() && !headlessJsTaskContext.hasActiveTasks()) {
+      if (mFrameCallbackPosted) {
+        mReactChoreographer.removeFrameCallback(
+            ReactChoreographer.CallbackType.TIMERS_EVENTS, mTimerFrameCallback);
+        mFrameCallbackPosted = false;
+      }
+      cancelPendingWakeUp();
+      synchronized (mTimerGuard) {
+        mNextWakeUpTime = Long.MIN_VALUE;
+      }
+      mSleepStartFrameTime = NOT_SLEEPING;
+      mLastFrameTime = NOT_SLEEPING;
+    }
+  }
+
+  /**
+   * Keeps running the timers frame callback on the next frame if a timer may expire by then.
+   * Otherwise, stops running it until the UI thread is woken up for the next timer, or until a
+   * timer that expires sooner is created.
+   */
+  private void scheduleNextTimerFrame(long frameTimeMillis) {
+    cancelPendingWakeUp();
+    long nextTimerTime;
+    boolean sleep;
+    synchronized (mTimerGuard) {
+      nextTimerTime =
+          Math.min(mTimers.getNextExpiryTime(), mRepeatingTimers.getNextExpiryTime());
+      // Timers are called on the first frame after their target time.
+      sleep = nextTimerTime >= frameTimeMillis + 2 * FRAME_DURATION_MS;
+      mNextWakeUpTime = sleep ? nextTimerTime : Long.MIN_VALUE;
+    }
+
+    if (!sleep) {
+      mReactChoreographer.postFrameCallback(
           ReactChoreographer.CallbackType.TIMERS_EVENTS, mTimerFrameCallback);
-      mFrameCallbackPosted = false;
+      return;
+    }
+
+    mFrameCallbackPosted = false;
+    mSleepStartFrameTime = frameTimeMillis;
+    if (nextTimerTime != Long.MAX_VALUE) {
+      // Wake up a frame early, so that the frame callback runs on the first frame after the timer.
+      long delay =
+          nextTimerTime - SystemClock.nanoTime() / 1000000 - (long) Math.ceil(FRAME_DURATION_MS);
+      mPendingWakeUp = new WakeUpRunnable();
+      UiThreadUtil.runOnUiThread(mPendingWakeUp, Math.max(0, delay));
+    }
+  }
+
+  private void wakeUp() {
+    cancelPendingWakeUp();
+    if (isPaused.get() && !isRunningTasks.get()) {
+      return;
     }
+    setChoreographerCallback();
+  }
+
+  private void cancelPendingWakeUp() {
+    if (mPendingWakeUp != null) {
+      mPendingWakeUp.cancel();
+      mPendingWakeUp = null;
+    }
+  }
+
+  private void recordFrame(long frameTimeMillis) {
+    if (mLastFrameTime != NOT_SLEEPING) {
+      sTimerFramesTimeMs.addAndGet(frameTimeMillis - mLastFrameTime);
+    }
+    mLastFrameTime = frameTimeMillis;
+
+    if (mSleepStartFrameTime != NOT_SLEEPING) {
+      // The frames skipped while sleeping, less the wake up that replaced them.
+      long skippedFrames =
+          Math.round((frameTimeMillis - mSleepStartFrameTime) / FRAME_DURATION_MS) - 1;
+      sSavedWakeUps.addAndGet(Math.max(0, skippedFrames - 1));
+      mSleepStartFrameTime = NOT_SLEEPING;
+    }
+  }
+
+  /**
+   * @return the number of frames per minute on which the timers frame callback didn't run, as no
+   *     timer was about to expire. Only counts while timers are running with {@link
+   *     ReactFeatureFlags#enableSleepAwareTimers} enabled.
+   */
+  public static long getSavedWakeUpsPerMinute() {
+    long timeMs = sTimerFramesTimeMs.get();
+    return timeMs == 0 ? 0 : sSavedWakeUps.get() * 60000 / timeMs;
   }
 
   private void setChoreographerIdleCallback() {
@@ -298,9 +427,18 @@ public class JavaTimerManager {
   public void createTimer(final int callbackID, final long delay, final boolean repeat) {
     long initialTargetTime = SystemClock.nanoTime() / 1000000 + delay;
     Timer timer = new Timer(callbackID, initialTargetTime, (int) delay, repeat);
+    boolean wakeUp;
     synchronized (mTimerGuard) {
-      mTimers.add(timer);
+      getTimers(timer).add(timer);
       mTimerIdsToTimers.put(callbackID, timer);
+      // The frame callback sleeps past this timer, it needs to run again sooner.
+      wakeUp = initialTargetTime < mNextWakeUpTime;
+      if (wakeUp) {
+        mNextWakeUpTime = Long.MIN_VALUE;
+      }
+    }
+    if (wakeUp) {
+      UiThreadUtil.runOnUiThread(new WakeUpRunnable());
     }
   }
 
@@ -353,7 +491,7 @@ public class JavaTimerManager {
         return;
       }
       mTimerIdsToTimers.remove(timerId);
-      mTimers.remove(timer);
+      getTimers(timer).remove(timer);
     }
   }
 
@@ -378,6 +516,10 @@ public class JavaTimerManager {
         });
   }
 
+  private TimerWheel getTimers(Timer timer) {
+    return timer.mRepeat ? mRepeatingTimers : mTimers;
+  }
+
   /**
    * Returns a bool representing whether there are any active timers that will be fired within a
    * certain period of time. Disregards repeating timers (setInterval). Used for testing to
@@ -387,27 +529,9 @@ public class JavaTimerManager {
    * @return True if there are pending timers within the given range; false otherwise
    */
   /* package */ boolean hasActiveTimersInRange(long rangeMs) {
+    long currentTimeMs = SystemClock.nanoTime() / 1000000;
     synchronized (mTimerGuard) {
-      Timer nextTimer = mTimers.peek();
-      if (nextTimer == null) {
-        // Timers queue is empty
-        return false;
-      }
-      if (isTimerInRange(nextTimer, rangeMs)) {
-        // First check the next timer, so we can avoid iterating over the entire queue if it's
-        // already within range.
-        return true;
-      }
-      for (Timer timer : mTimers) {
-        if (isTimerInRange(timer, rangeMs)) {
-          return true;
-        }
-      }
+      return mTimers.getNextExpiryTime() < currentTimeMs + rangeMs;
     }
-    return false;
-  }
-
-  private static boolean isTimerInRange(Timer timer, long rangeMs) {
-    return !timer.mRepeat && timer.mInterval < rangeMs;
   }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.core;
+
+import androidx.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Hierarchical timer wheel with a resolution of 1ms, scheduling and cancelling timers in constant
+ * time.
+ *
+ * <p>Timers due within 256ms are kept in the buckets of the first level, one per millisecond. Each
+ * following level has 64 buckets, each covering the whole range of the level below, and timers due
+ * more than ~18h from now are kept in an overflow list. When the wheel reaches the end of a level,
+ * the timers of the next bucket of the level above are redistributed to the lower levels.
+ *
+ * <p>This class isn't thread safe.
+ */
+/* package */ final class TimerWheel {
+
+  /** A timer of the wheel, linked in the bucket it is scheduled in. */
+  /* package */ static class Node {
+    /* package */ long mTargetTime;
+
+    private @Nullable Node mPrevious;
+    private @Nullable Node mNext;
+    private int mLevel = -1;
+  }
+
+  private static final int FIRST_LEVEL_BITS = 8;
+  private static final int LEVEL_BITS = 6;
+  private static final int LEVELS = 4;
+  private static final int OVERFLOW_LEVEL = LEVELS;
+
+  // The number of low bits of a time that index the buckets of each level.
+  private static final int[] LEVEL_SHIFTS = {
+    0,
+    FIRST_LEVEL_BITS,
+    FIRST_LEVEL_BITS + LEVEL_BITS,
+    FIRST_LEVEL_BITS + 2 * LEVEL_BITS,
+    FIRST_LEVEL_BITS + 3 * LEVEL_BITS
+  };
+
+  // Each bucket is a circular list starting with a sentinel node.
+  private final Node[][] mBuckets = new Node[LEVELS + 1][];
+  private final int[] mLevelSizes = new int[LEVELS + 1];
+  private int mSize;
+  // The next time, in ms, whose timers haven't expired yet.
+  private long mCurrentTime;
+
+  /* package */ TimerWheel(long currentTimeMs) {
+    mCurrentTime = currentTimeMs;
+    for (int level = 0; level <= OVERFLOW_LEVEL; level++) {
+      int bucketCount =
+          level == OVERFLOW_LEVEL ? 1 : 1 << (level == 0 ? FIRST_LEVEL_BITS : LEVEL_BITS);
+      mBuckets[level] = new Node[bucketCount];
+      for (int i = 0; i < bucketCount; i++) {
+        Node sentinel = new Node();
+        sentinel.mPrevious = sentinel;
+        sentinel.mNext = sentinel;
+        mBuckets[level][i] = sentinel;
+      }
+    }
+  }
+
+  /* package */ int size() {
+    return mSize;
+  }
+
+  /**
+   * Returns the time at which the next node expires, or {@link Long#MAX_VALUE} if the wheel is
+   * empty. Nodes whose target time has already passed expire at the current time of the wheel.
+   */
+  /* package */ long getNextExpiryTime() {
+    long nextExpiryTime = Long.MAX_VALUE;
+    if (mLevelSizes[0] > 0) {
+      // The first level only holds nodes due within its range, one bucket per ms.
+      Node[] buckets = mBuckets[0];
+      for (int i = 0; i < buckets.length; i++) {
+        Node bucket = buckets[(int) ((mCurrentTime + i) & (buckets.length - 1))];
+        if (bucket.mNext != bucket) {
+          nextExpiryTime = mCurrentTime + i;
+          break;
+        }
+      }
+    }
+    for (int level = 1; level <= OVERFLOW_LEVEL; level++) {
+      if (mLevelSizes[level] > 0) {
+        nextExpiryTime = Math.min(nextExpiryTime, getEarliestTargetTime(level));
+      }
+    }
+    return Math.max(nextExpiryTime, mCurrentTime);
+  }
+
+  /**
+   * Schedules the node to expire at its target time. Nodes whose target time has already passed
+   * expire along with the nodes due at the current time of the wheel.
+   */
+  /* package */ void add(Node node) {
+    long time = Math.max(node.mTargetTime, mCurrentTime);
+    long delay = time - mCurrentTime;
+    int level = 0;
+    while (level < LEVELS && delay >= 1L << LEVEL_SHIFTS[level + 1]) {
+      level++;
+    }
+    Node bucket;
+    if (level == OVERFLOW_LEVEL) {
+      bucket = mBuckets[OVERFLOW_LEVEL][0];
+    } else {
+      Node[] buckets = mBuckets[level];
+      bucket = buckets[(int) ((time >> LEVEL_SHIFTS[level]) & (buckets.length - 1))];
+    }
+
+    node.mLevel = level;
+    node.mPrevious = bucket.mPrevious;
+    node.mNext = bucket;
+    bucket.mPrevious.mNext = node;
+    bucket.mPrevious = node;
+    mLevelSizes[level]++;
+    mSize++;
+  }
+
+  /** Unschedules the node, if it is scheduled. */
+  /* package */ void remove(Node node) {
+    if (node.mLevel == -1) {
+      return;
+    }
+    node.mPrevious.mNext = node.mNext;
+    node.mNext.mPrevious = node.mPrevious;
+    node.mPrevious = null;
+    node.mNext = null;
+    mLevelSizes[node.mLevel]--;
+    mSize--;
+    node.mLevel = -1;
+  }
+
+  /**
+   * Removes the nodes whose target time is before {@code timeMs} and adds them to {@code expired},
+   * in the order of their target time.
+   */
+  @SuppressWarnings("unchecked")
+  /* package */ <T extends Node> void advance(long timeMs, List<T> expired) {
+    while (mCurrentTime < timeMs) {
+      if (mSize == 0) {
+        mCurrentTime = timeMs;
+        return;
+      }
+
+      if ((mCurrentTime & (mBuckets[0].length - 1)) == 0) {
+        cascade();
+      }
+      Node bucket = mBuckets[0][(int) (mCurrentTime & (mBuckets[0].length - 1))];
+      while (bucket.mNext != bucket) {
+        Node node = bucket.mNext;
+        remove(node);
+        expired.add((T) node);
+      }
+      mCurrentTime++;
+
+      // Skip the times at which nothing can expire: if the first level is empty, nothing happens
+      // until timers of the other levels are redistributed.
+      if (mLevelSizes[0] == 0) {
+        mCurrentTime = Math.min(getNextCascadeTime(), timeMs);
+      }
+    }
+  }
+
+  /**
+   * Returns the time at which the wheel reaches the end of the bucket of the first non-empty level
+   * above the first one, or {@link Long#MAX_VALUE} if these levels are empty.
+   */
+  private long getNextCascadeTime() {
+    for (int level = 1; level <= OVERFLOW_LEVEL; level++) {
+      if (mLevelSizes[level] > 0) {
+        long span = 1L << LEVEL_SHIFTS[level];
+        return (mCurrentTime + span - 1) & ~(span - 1);
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  /**
+   * Returns the earliest target time of the nodes of a level above the first one. The buckets
+   * following the current one are ordered by time, so only the first non-empty one is scanned. The
+   * current bucket holds either nodes of its range that aren't redistributed yet or nodes a whole
+   * turn away, so it's scanned as well.
+   */
+  private long getEarliestTargetTime(int level) {
+    Node[] buckets = mBuckets[level];
+    int currentIndex =
+        level == OVERFLOW_LEVEL
+            ? 0
+            : (int) ((mCurrentTime >> LEVEL_SHIFTS[level]) & (buckets.length - 1));
+    long earliestTargetTime = getEarliestTargetTime(buckets[currentIndex]);
+    for (int i = 1; i < buckets.length; i++) {
+      Node bucket = buckets[(currentIndex + i) & (buckets.length - 1)];
+      if (bucket.mNext != bucket) {
+        return Math.min(earliestTargetTime, getEarliestTargetTime(bucket));
+      }
+    }
+    return earliestTargetTime;
+  }
+
+  private static long getEarliestTargetTime(Node bucket) {
+    long earliestTargetTime = Long.MAX_VALUE;
+    for (Node node = bucket.mNext; node != bucket; node = node.mNext) {
+      earliestTargetTime = Math.min(earliestTargetTime, node.mTargetTime);
+    }
+    return earliestTargetTime;
+  }
+
+  /** Moves the timers of the current bucket of each level down, as far as the wheel went around. */
+  private void cascade() {
+    for (int level = 1; level <= OVERFLOW_LEVEL; level++) {
+      Node[] buckets = mBuckets[level];
+      int index =
+          level == OVERFLOW_LEVEL
+              ? 0
+              : (int) ((mCurrentTime >> LEVEL_SHIFTS[level]) & (buckets.length - 1));
+      // Detach the bucket first, as timers still far away go back to the overflow list.
+      Node bucket = buckets[index];
+      Node node = null;
+      if (bucket.mNext != bucket) {
+        node = bucket.mNext;
+        bucket.mPrevious.mNext = null;
+        bucket.mPrevious = bucket;
+        bucket.mNext = bucket;
+      }
+      while (node != null) {
+        Node next = node.mNext;
+        node.mLevel = -1;
+        mLevelSizes[level]--;
+        mSize--;
+        add(node);
+        node = next;
+      }
+      if (index != 0) {
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.network;
+
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.ReactApplicationContext;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.Call;
+
+/**
+ * Sends the text of a response to JS as it is received, adapting the size of the chunks to how fast
+ * JS handles them.
+ *
+ * <p>An event is acknowledged once the JS thread has run past it. While JS keeps up, every read is
+ * sent right away. Otherwise the text read in the meantime is coalesced and sent together when the
+ * pending event is acknowledged, and once {@link #MAX_UNACKNOWLEDGED_EVENTS} are pending the
+ * response stops being read, which lets TCP flow control slow down the server.
+ */
+public final class IncrementalDataEmitter {
+
+  private static final int MAX_UNACKNOWLEDGED_EVENTS = 2;
+  // Text that isn't sent yet is flushed beyond this size, even if JS hasn't caught up.
+  private static final int MAX_COALESCED_BYTES = 64 * 1024;
+  private static final long ACKNOWLEDGEMENT_POLL_MS = 100;
+
+  private static final AtomicLong sEventCount = new AtomicLong();
+  private static final AtomicLong sEventBytes = new AtomicLong();
+  private static final AtomicLong sBlockedTimeNs = new AtomicLong();
+
+  private final @Nullable ReactApplicationContext mReactContext;
+  private final int mRequestId;
+  private final Call mCall;
+
+  private final Object mLock = new Object();
+  private final StringBuilder mPendingText = new StringBuilder();
+  private long mPendingBytes;
+  private long mProgress;
+  private long mTotal;
+  private int mUnacknowledgedEvents;
+  private boolean mFinished;
+
+  private final Runnable mAcknowledgeRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          synchronized (mLock) {
+            if (mUnacknowledgedEvents > 0) {
+              mUnacknowledgedEvents--;
+            }
+            if (!mFinished && mPendingText.length() > 0) {
+              emitPendingText();
+            }
+            mLock.notifyAll();
+          }
+        }
+      };
+
+  /* package */ IncrementalDataEmitter(
+      @Nullable ReactApplicationContext reactContext, int requestId, Call call) {
+    mReactContext = reactContext;
+    mRequestId = requestId;
+    mCall = call;
+  }
+
+  /** @return the number of incremental data events sent to JS. */
+  public static long getEventCount() {
+    return sEventCount.get();
+  }
+
+  /** @return the average number of response bytes per incremental data event. */
+  public static long getBytesPerEvent() {
+    long eventCount = sEventCount.get();
+    return eventCount == 0 ? 0 : sEventBytes.get() / eventCount;
+  }
+
+  /** @return the time spent not reading responses, waiting for JS to handle their text. */
+  public static long getBlockedTimeMs() {
+    return TimeUnit.NANOSECONDS.toMillis(sBlockedTimeNs.get());
+  }
+
+  /**
+   * Sends or coalesces the text decoded from {@code byteCount} bytes of the response, then blocks
+   * while JS has too many events to handle.
+   */
+  /* package */ void onData(String text, int byteCount, long progress, long total)
+      throws IOException {
+    synchronized (mLock) {
+      if (mFinished) {
+        return;
+      }
+      mPendingText.append(text);
+      mPendingBytes += byteCount;
+      mProgress = progress;
+      mTotal = total;
+      if (mUnacknowledgedEvents == 0 || mPendingBytes >= MAX_COALESCED_BYTES) {
+        emitPendingText();
+      }
+
+      if (mUnacknowledgedEvents < MAX_UNACKNOWLEDGED_EVENTS) {
+        return;
+      }
+      long startTime = System.nanoTime();
+      try {
+        while (mUnacknowledgedEvents >= MAX_UNACKNOWLEDGED_EVENTS) {
+          if (mCall.isCanceled()) {
+            throw new IOException("Canceled");
+          }
+          if (mReactContext == null || !mReactContext.hasActiveReactInstance()) {
+            // Nothing will acknowledge the events anymore.
+            mUnacknowledgedEvents = 0;
+            break;
+          }
+          mLock.wait(ACKNOWLEDGEMENT_POLL_MS);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      } finally {
+        sBlockedTimeNs.addAndGet(System.nanoTime() - startTime);
+      }
+    }
+  }
+
+  /** Sends the text that is still pending, once the whole response was read. */
+  /* package */ void finish() {
+    synchronized (mLock) {
+      if (!mFinished && mPendingText.length() > 0) {
+        emitPendingText();
+      }
+      mFinished = true;
+    }
+  }
+
+  /**
+   * Drops the text that is still pending, so nothing is sent once reading the response ended,
+   * e.g. after the request failed. Does nothing after {@link #finish}.
+   */
+  /* package */ void cancel() {
+    synchronized (mLock) {
+      mFinished = true;
+      mPendingText.setLength(0);
+      mPendingBytes = 0;
+      mLock.notifyAll();
+    }
+  }
+
+  private void emitPendingText() {
+    ResponseUtil.onIncrementalDataReceived(
+        mReactContext, mRequestId, mPendingText.toString(), mProgress, mTotal);
+    sEventCount.incrementAndGet();
+    sEventBytes.addAndGet(mPendingBytes);
+    mPendingText.setLength(0);
+    mPendingBytes = 0;
+
+    // Runs once JS is done with everything that was queued before, including this event.
+    if (mReactContext != null
+        && mReactContext.hasActiveReactInstance()
+        && mReactContext.runOnJSQueueThread(mAcknowledgeRunnable)) {
+      mUnacknowledgedEvents++;
+    }
+  }
+}
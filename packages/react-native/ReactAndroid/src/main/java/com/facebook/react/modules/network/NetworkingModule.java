@@ -9,7 +9,6 @@ package com.facebook.react.modules.network;
 
 import android.net.Uri;
 import android.os.Bundle;
-import android.util.Base64;
 import androidx.annotation.Nullable;
 import com.facebook.common.logging.FLog;
 import com.facebook.fbreact.specs.NativeNetworkingAndroidSpec;
@@ -21,6 +20,7 @@ import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.network.OkHttpCallUtil;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.module.annotations.ReactModule;
 import java.io.IOException;
 import java.io.InputStream;
@@ -45,6 +45,7 @@ import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.BufferedSource;
 import okio.ByteString;
 import okio.GzipSource;
 import okio.Okio;
@@ -93,6 +94,9 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
   private static final String USER_AGENT_HEADER_NAME = "user-agent";
   private static final int CHUNK_TIMEOUT_NS = 100 * 1000000; // 100ms
   private static final int MAX_CHUNK_SIZE_BETWEEN_FLUSHES = 8 * 1024; // 8K
+  // A multiple of 3, so the chunks of a base64 response can be encoded separately.
+  private static final int BASE64_CHUNK_SIZE = 3 * 8 * 1024; // 24K
+  private static final long MAX_PRESIZED_BASE64_INPUT = Integer.MAX_VALUE / 4 * 3;
 
   private static @Nullable com.facebook.react.modules.network.CustomClientBuilder
       customClientBuilder = null;
@@ -530,7 +534,7 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
                   // response,
                   // periodically send response data updates to JS.
                   if (useIncrementalUpdates && responseType.equals("text")) {
-                    readWithProgress(requestId, responseBody);
+                    readWithProgress(requestId, call, responseBody);
                     ResponseUtil.onRequestSuccess(reactApplicationContext, requestId);
                     return;
                   }
@@ -553,7 +557,7 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
                       }
                     }
                   } else if (responseType.equals("base64")) {
-                    responseString = Base64.encodeToString(responseBody.bytes(), Base64.NO_WRAP);
+                    responseString = readAsBase64(responseBody);
                   }
                   ResponseUtil.onDataReceived(reactApplicationContext, requestId, responseString);
                   ResponseUtil.onRequestSuccess(reactApplicationContext, requestId);
@@ -589,11 +593,34 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
         });
   }
 
-  private void readWithProgress(int requestId, ResponseBody responseBody) throws IOException {
+  /**
+   * Encodes the response as it is received, so neither the raw nor the encoded response are held in
+   * memory next to the resulting string.
+   */
+  private static String readAsBase64(ResponseBody responseBody) throws IOException {
+    long contentLength = responseBody.contentLength();
+    StringBuilder base64 =
+        new StringBuilder(
+            contentLength > 0 && contentLength <= MAX_PRESIZED_BASE64_INPUT
+                ? (int) ((contentLength + 2) / 3 * 4)
+                : BASE64_CHUNK_SIZE / 3 * 4);
+    try (BufferedSource source = responseBody.source()) {
+      // Only the last chunk may need padding, as the others are a multiple of 3 bytes long.
+      while (source.request(BASE64_CHUNK_SIZE)) {
+        base64.append(source.readByteString(BASE64_CHUNK_SIZE).base64());
+      }
+      base64.append(source.readByteString().base64());
+    }
+    return base64.toString();
+  }
+
+  private void readWithProgress(int requestId, Call call, ResponseBody responseBody)
+      throws IOException {
     long totalBytesRead = -1;
     long contentLength = -1;
+    ProgressResponseBody progressResponseBody = null;
     try {
-      ProgressResponseBody progressResponseBody = (ProgressResponseBody) responseBody;
+      progressResponseBody = (ProgressResponseBody) responseBody;
       totalBytesRead = progressResponseBody.totalBytesRead();
       contentLength = progressResponseBody.contentLength();
     } catch (ClassCastException e) {
@@ -607,20 +634,36 @@ public final class NetworkingModule extends NativeNetworkingAndroidSpec {
 
     ProgressiveStringDecoder streamDecoder = new ProgressiveStringDecoder(charset);
     InputStream inputStream = responseBody.byteStream();
+    final ReactApplicationContext reactApplicationContext =
+        getReactApplicationContextIfActiveOrWarn();
+    IncrementalDataEmitter emitter =
+        ReactFeatureFlags.enableBackPressuredIncrementalUpdates
+            ? new IncrementalDataEmitter(reactApplicationContext, requestId, call)
+            : null;
     try {
       byte[] buffer = new byte[MAX_CHUNK_SIZE_BETWEEN_FLUSHES];
       int read;
-      final ReactApplicationContext reactApplicationContext =
-          getReactApplicationContextIfActiveOrWarn();
       while ((read = inputStream.read(buffer)) != -1) {
-        ResponseUtil.onIncrementalDataReceived(
-            reactApplicationContext,
-            requestId,
-            streamDecoder.decodeNext(buffer, read),
-            totalBytesRead,
-            contentLength);
+        String data = streamDecoder.decodeNext(buffer, read);
+        if (emitter != null) {
+          emitter.onData(
+              data,
+              read,
+              progressResponseBody != null ? progressResponseBody.totalBytesRead() : -1,
+              contentLength);
+        } else {
+          ResponseUtil.onIncrementalDataReceived(
+              reactApplicationContext, requestId, data, totalBytesRead, contentLength);
+        }
+      }
+      if (emitter != null) {
+        emitter.finish();
       }
     } finally {
+      if (emitter != null) {
+        // If reading failed, text coalesced while JS was busy must not be sent after the error.
+        emitter.cancel();
+      }
       inputStream.close();
     }
   }
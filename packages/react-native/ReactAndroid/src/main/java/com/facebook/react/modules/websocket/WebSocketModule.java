@@ -42,6 +42,15 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
     void onMessage(String text, WritableMap params);
 
     void onMessage(ByteString byteString, WritableMap params);
+
+    /**
+     * Sends an event of a socket using this handler. Handlers can override this to batch the
+     * {@code websocketMessage} events of a socket, as long as they keep the order of its events.
+     */
+    default void sendEvent(
+        ReactApplicationContext reactContext, int id, String eventName, WritableMap params) {
+      reactContext.emitDeviceEvent(eventName, params);
+    }
   }
 
   private final Map<Integer, WebSocket> mWebSocketConnections = new ConcurrentHashMap<>();
@@ -75,10 +84,15 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
     mContentHandlers.clear();
   }
 
-  private void sendEvent(String eventName, WritableMap params) {
+  private void sendEvent(int id, String eventName, WritableMap params) {
     ReactApplicationContext reactApplicationContext = getReactApplicationContext();
     if (reactApplicationContext.hasActiveReactInstance()) {
-      reactApplicationContext.emitDeviceEvent(eventName, params);
+      ContentHandler contentHandler = mContentHandlers.get(id);
+      if (contentHandler != null) {
+        contentHandler.sendEvent(reactApplicationContext, id, eventName, params);
+      } else {
+        reactApplicationContext.emitDeviceEvent(eventName, params);
+      }
     }
   }
 
@@ -165,7 +179,7 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
             WritableMap params = Arguments.createMap();
             params.putInt("id", id);
             params.putString("protocol", response.header("Sec-WebSocket-Protocol", ""));
-            sendEvent("websocketOpen", params);
+            sendEvent(id, "websocketOpen", params);
           }
 
           @Override
@@ -179,7 +193,7 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
             params.putInt("id", id);
             params.putInt("code", code);
             params.putString("reason", reason);
-            sendEvent("websocketClosed", params);
+            sendEvent(id, "websocketClosed", params);
           }
 
           @Override
@@ -199,7 +213,7 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
             } else {
               params.putString("data", text);
             }
-            sendEvent("websocketMessage", params);
+            sendEvent(id, "websocketMessage", params);
           }
 
           @Override
@@ -217,7 +231,7 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
               params.putString("data", text);
             }
 
-            sendEvent("websocketMessage", params);
+            sendEvent(id, "websocketMessage", params);
           }
         });
 
@@ -252,12 +266,12 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
       WritableMap params = Arguments.createMap();
       params.putInt("id", id);
       params.putString("message", "client is null");
-      sendEvent("websocketFailed", params);
+      sendEvent(id, "websocketFailed", params);
       params = Arguments.createMap();
       params.putInt("id", id);
       params.putInt("code", 0);
       params.putString("reason", "client is null");
-      sendEvent("websocketClosed", params);
+      sendEvent(id, "websocketClosed", params);
       mWebSocketConnections.remove(id);
       mContentHandlers.remove(id);
       return;
@@ -278,12 +292,12 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
       WritableMap params = Arguments.createMap();
       params.putInt("id", id);
       params.putString("message", "client is null");
-      sendEvent("websocketFailed", params);
+      sendEvent(id, "websocketFailed", params);
       params = Arguments.createMap();
       params.putInt("id", id);
       params.putInt("code", 0);
       params.putString("reason", "client is null");
-      sendEvent("websocketClosed", params);
+      sendEvent(id, "websocketClosed", params);
       mWebSocketConnections.remove(id);
       mContentHandlers.remove(id);
       return;
@@ -302,12 +316,12 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
       WritableMap params = Arguments.createMap();
       params.putInt("id", id);
       params.putString("message", "client is null");
-      sendEvent("websocketFailed", params);
+      sendEvent(id, "websocketFailed", params);
       params = Arguments.createMap();
       params.putInt("id", id);
       params.putInt("code", 0);
       params.putString("reason", "client is null");
-      sendEvent("websocketClosed", params);
+      sendEvent(id, "websocketClosed", params);
       mWebSocketConnections.remove(id);
       mContentHandlers.remove(id);
       return;
@@ -328,12 +342,12 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
       WritableMap params = Arguments.createMap();
       params.putInt("id", id);
       params.putString("message", "client is null");
-      sendEvent("websocketFailed", params);
+      sendEvent(id, "websocketFailed", params);
       params = Arguments.createMap();
       params.putInt("id", id);
       params.putInt("code", 0);
       params.putString("reason", "client is null");
-      sendEvent("websocketClosed", params);
+      sendEvent(id, "websocketClosed", params);
       mWebSocketConnections.remove(id);
       mContentHandlers.remove(id);
       return;
@@ -349,7 +363,7 @@ public final class WebSocketModule extends NativeWebSocketModuleSpec {
     WritableMap params = Arguments.createMap();
     params.putInt("id", id);
     params.putString("message", message);
-    sendEvent("websocketFailed", params);
+    sendEvent(id, "websocketFailed", params);
   }
 
   /**
@@ -22,6 +22,7 @@ import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.uimanager.annotations.ReactPropGroup;
 import com.facebook.react.uimanager.annotations.ReactPropertyHolder;
 import com.facebook.yoga.YogaValue;
+import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.JavaFile;
@@ -46,6 +47,7 @@ import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
@@ -63,10 +65,19 @@ import javax.lang.model.util.Types;
  * shadow node/view manager that is named {@code <classname>$$PropsSetter}. This class contains
  * methods to retrieve the name and type of all methods and a way to set these properties without
  * reflection.
+ *
+ * <p>Generic view managers get a setter for the erasure of their View type. Private classes can't
+ * get a generated setter and have their props set through reflection at runtime instead. These are
+ * reported as warnings, or as errors when the {@value #OPTION_FAIL_ON_REFLECTION_FALLBACK} option
+ * is set to true.
  */
 @SupportedAnnotationTypes("com.facebook.react.uimanager.annotations.ReactPropertyHolder")
+@SupportedOptions(ReactPropertyProcessor.OPTION_FAIL_ON_REFLECTION_FALLBACK)
 @SupportedSourceVersion(SourceVersion.RELEASE_7)
 public class ReactPropertyProcessor extends AbstractProcessor {
+  public static final String OPTION_FAIL_ON_REFLECTION_FALLBACK =
+      "com.facebook.react.processing.failOnReflectionFallback";
+
   private static final Map<TypeName, String> DEFAULT_TYPES;
   private static final Set<TypeName> BOXED_PRIMITIVES;
 
@@ -80,6 +91,7 @@ public class ReactPropertyProcessor extends AbstractProcessor {
 
   private static final TypeName VIEW_MANAGER_TYPE =
       ClassName.get("com.facebook.react.uimanager", "ViewManager");
+  private static final ClassName VIEW_TYPE = ClassName.get("android.view", "View");
   private static final TypeName SHADOW_NODE_IMPL_TYPE =
       ClassName.get("com.facebook.react.uimanager", "ReactShadowNodeImpl");
 
@@ -99,6 +111,7 @@ public class ReactPropertyProcessor extends AbstractProcessor {
   @SuppressFieldNotInitialized private Messager mMessager;
   @SuppressFieldNotInitialized private Elements mElements;
   @SuppressFieldNotInitialized private Types mTypes;
+  private boolean mFailOnReflectionFallback;
 
   static {
     DEFAULT_TYPES = new HashMap<>();
@@ -138,6 +151,8 @@ public class ReactPropertyProcessor extends AbstractProcessor {
     mMessager = processingEnv.getMessager();
     mElements = processingEnv.getElementUtils();
     mTypes = processingEnv.getTypeUtils();
+    mFailOnReflectionFallback =
+        Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_FAIL_ON_REFLECTION_FALLBACK));
   }
 
   @Override
@@ -170,7 +185,7 @@ public class ReactPropertyProcessor extends AbstractProcessor {
               });
           generateCode(classInfo, classInfo.mProperties);
         } else if (shouldWarnClass(classInfo)) {
-          warning(classInfo.mElement, "Class was skipped. Classes need to be non-private.");
+          reportReflectionFallback(classInfo);
         }
       } catch (IOException e) {
         error(e.getMessage());
@@ -191,8 +206,12 @@ public class ReactPropertyProcessor extends AbstractProcessor {
   private ClassInfo parseClass(ClassName className, TypeElement typeElement) {
     TypeName targetType = getTargetType(typeElement.asType());
     TypeName viewType = isShadowNodeType(targetType) ? null : targetType;
+    boolean isViewTypeErased = viewType instanceof TypeVariableName;
+    if (isViewTypeErased) {
+      viewType = getErasedType((TypeVariableName) viewType);
+    }
 
-    ClassInfo classInfo = new ClassInfo(className, typeElement, viewType);
+    ClassInfo classInfo = new ClassInfo(className, typeElement, viewType, isViewTypeErased);
     findProperties(classInfo, typeElement);
 
     return classInfo;
@@ -246,6 +265,23 @@ public class ReactPropertyProcessor extends AbstractProcessor {
     return getTargetType(types.get(0));
   }
 
+  /**
+   * @return the type that a type variable is erased to, which the generated setter of a generic
+   *     view manager uses in place of its View type.
+   */
+  private static TypeName getErasedType(TypeVariableName typeVariable) {
+    if (typeVariable.bounds.isEmpty()) {
+      return VIEW_TYPE;
+    }
+    TypeName bound = typeVariable.bounds.get(0);
+    if (bound instanceof TypeVariableName) {
+      return getErasedType((TypeVariableName) bound);
+    } else if (bound instanceof ParameterizedTypeName) {
+      return ((ParameterizedTypeName) bound).rawType;
+    }
+    return bound;
+  }
+
   private void generateCode(ClassInfo classInfo, List<PropertyInfo> properties)
       throws IOException, ReactPropertyException {
     MethodSpec getMethods =
@@ -262,16 +298,22 @@ public class ReactPropertyProcessor extends AbstractProcessor {
 
     String holderClassName =
         getClassName((TypeElement) classInfo.mElement, className.packageName()) + "$$PropsSetter";
-    TypeSpec holderClass =
+    TypeSpec.Builder holderClass =
         TypeSpec.classBuilder(holderClassName)
             .addSuperinterface(superType)
             .addModifiers(PUBLIC)
             .addMethod(generateSetPropertySpec(classInfo, properties))
-            .addMethod(getMethods)
-            .build();
+            .addMethod(getMethods);
+    if (classInfo.mIsViewTypeErased) {
+      // The setter calls the methods of the raw view manager type with the erased View type.
+      holderClass.addAnnotation(
+          AnnotationSpec.builder(SuppressWarnings.class)
+              .addMember("value", "{$S, $S}", "rawtypes", "unchecked")
+              .build());
+    }
 
     JavaFile javaFile =
-        JavaFile.builder(className.packageName(), holderClass)
+        JavaFile.builder(className.packageName(), holderClass.build())
             .addFileComment("Generated by " + getClass().getName())
             .build();
 
@@ -471,14 +513,25 @@ public class ReactPropertyProcessor extends AbstractProcessor {
 
   private static boolean shouldIgnoreClass(ClassInfo classInfo) {
     return classInfo.mElement.getModifiers().contains(PRIVATE)
-        || classInfo.mElement.getModifiers().contains(ABSTRACT)
-        || classInfo.mViewType instanceof TypeVariableName;
+        || classInfo.mElement.getModifiers().contains(ABSTRACT);
   }
 
   private static boolean shouldWarnClass(ClassInfo classInfo) {
+    // Abstract classes are fine: their props are included in the setters of their subclasses.
     return classInfo.mElement.getModifiers().contains(PRIVATE);
   }
 
+  private void reportReflectionFallback(ClassInfo classInfo) {
+    String message =
+        "Class was skipped, its props will be set through reflection at runtime. "
+            + "Classes need to be non-private.";
+    if (mFailOnReflectionFallback) {
+      error(classInfo.mElement, message);
+    } else {
+      warning(classInfo.mElement, message);
+    }
+  }
+
   private void error(Element element, String message) {
     mMessager.printMessage(ERROR, message, element);
   }
@@ -592,12 +645,18 @@ public class ReactPropertyProcessor extends AbstractProcessor {
     public final ClassName mClassName;
     public final Element mElement;
     public final @Nullable TypeName mViewType;
+    public final boolean mIsViewTypeErased;
     public final List<PropertyInfo> mProperties;
 
-    public ClassInfo(ClassName className, TypeElement element, @Nullable TypeName viewType) {
+    public ClassInfo(
+        ClassName className,
+        TypeElement element,
+        @Nullable TypeName viewType,
+        boolean isViewTypeErased) {
       mClassName = className;
       mElement = element;
       mViewType = viewType;
+      mIsViewTypeErased = isViewTypeErased;
       mProperties = new ArrayList<>();
     }
 
@@ -440,9 +440,18 @@ public abstract class BaseViewManager<T extends View, C extends LayoutShadowNode
   }
 
   private static void setTransformProperty(@NonNull View view, ReadableArray transforms) {
-    sMatrixDecompositionContext.reset();
     TransformHelper.processTransform(transforms, sTransformDecompositionArray);
-    MatrixMathHelper.decomposeMatrix(sTransformDecompositionArray, sMatrixDecompositionContext);
+    setTransformMatrix(view, sTransformDecompositionArray);
+  }
+
+  /**
+   * Applies a transform matrix, as computed by {@link TransformHelper#processTransform}, to the
+   * properties of the view. This is what setting the transform prop does, for callers that already
+   * have the matrix.
+   */
+  public static void setTransformMatrix(@NonNull View view, double[] matrix) {
+    sMatrixDecompositionContext.reset();
+    MatrixMathHelper.decomposeMatrix(matrix, sMatrixDecompositionContext);
     view.setTranslationX(
         PixelUtil.toPixelFromDIP(
             sanitizeFloatPropertyValue((float) sMatrixDecompositionContext.translation[0])));
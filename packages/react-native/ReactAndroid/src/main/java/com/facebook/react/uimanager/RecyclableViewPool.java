@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import static com.facebook.infer.annotation.ThreadConfined.UI;
+
+import android.content.ComponentCallbacks2;
+import android.view.View;
+import androidx.annotation.Nullable;
+import com.facebook.infer.annotation.ThreadConfined;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of recyclable Views for a single {@link ViewManager}, keyed by surface.
+ *
+ * <p>The pool holds at most {@code maxSize} Views, and all pools together hold at most {@link
+ * #MAX_TOTAL_VIEWS}. When the pool's own cap is hit, its least recently used surface loses its
+ * oldest View. When the global cap is hit, the least recently used surface across all pools does,
+ * which may belong to another ViewManager. Memory pressure trims the pool according to the {@link
+ * ComponentCallbacks2} trim level instead of dropping every warm View at once.
+ */
+@ThreadConfined(UI)
+public final class RecyclableViewPool<T extends View> {
+
+  /** Default number of Views a single ViewManager may keep for recycling. */
+  public static final int DEFAULT_MAX_VIEWS = 256;
+
+  /** Maximum number of Views kept for recycling across all ViewManagers. */
+  public static final int MAX_TOTAL_VIEWS = 1024;
+
+  private static final AtomicInteger sTotalSize = new AtomicInteger();
+
+  // The non-empty surfaces of all pools, access-ordered so that iteration starts at the least
+  // recently used one.
+  private static final LinkedHashMap<SurfaceViews<?>, Boolean> sSurfacesByUse =
+      new LinkedHashMap<>(16, 0.75f, true);
+
+  /** The recyclable Views of one surface in one pool, oldest first. */
+  private static final class SurfaceViews<T extends View> {
+    final RecyclableViewPool<T> mPool;
+    final int mSurfaceId;
+    final ArrayDeque<T> mViews = new ArrayDeque<>();
+
+    SurfaceViews(RecyclableViewPool<T> pool, int surfaceId) {
+      mPool = pool;
+      mSurfaceId = surfaceId;
+    }
+  }
+
+  private final int mMaxSize;
+  private int mSize = 0;
+
+  // Access-ordered, so iteration starts at the least recently used surface of this pool.
+  private final LinkedHashMap<Integer, SurfaceViews<T>> mViewsBySurface =
+      new LinkedHashMap<>(4, 0.75f, true);
+
+  private long mHitCount = 0;
+  private long mMissCount = 0;
+  private long mEvictionCount = 0;
+
+  public RecyclableViewPool(int maxSize) {
+    mMaxSize = maxSize;
+  }
+
+  /** @return the most recently recycled View of the given surface, or null if there is none. */
+  public @Nullable T acquire(int surfaceId) {
+    SurfaceViews<T> surfaceViews = mViewsBySurface.get(surfaceId);
+    T view = surfaceViews != null ? surfaceViews.mViews.pollLast() : null;
+    if (view == null) {
+      mMissCount++;
+      return null;
+    }
+    if (surfaceViews.mViews.isEmpty()) {
+      removeSurface(surfaceViews);
+    } else {
+      sSurfacesByUse.get(surfaceViews);
+    }
+    onRemoved(1);
+    mHitCount++;
+    return view;
+  }
+
+  /**
+   * Offers a View, already reset by {@link ViewManager#prepareToRecycleView}, for reuse within the
+   * given surface. Older Views are evicted to make room if needed.
+   */
+  public void release(int surfaceId, T view) {
+    if (mMaxSize <= 0) {
+      mEvictionCount++;
+      return;
+    }
+    while (mSize >= mMaxSize) {
+      evictLeastRecentlyUsed(mViewsBySurface.values().iterator().next());
+    }
+    while (sTotalSize.get() >= MAX_TOTAL_VIEWS) {
+      evictLeastRecentlyUsed(sSurfacesByUse.keySet().iterator().next());
+    }
+    SurfaceViews<T> surfaceViews = mViewsBySurface.get(surfaceId);
+    if (surfaceViews == null) {
+      surfaceViews = new SurfaceViews<>(this, surfaceId);
+      mViewsBySurface.put(surfaceId, surfaceViews);
+    }
+    sSurfacesByUse.put(surfaceViews, Boolean.TRUE);
+    surfaceViews.mViews.addLast(view);
+    mSize++;
+    sTotalSize.incrementAndGet();
+  }
+
+  public void onSurfaceStopped(int surfaceId) {
+    SurfaceViews<T> surfaceViews = mViewsBySurface.get(surfaceId);
+    if (surfaceViews != null) {
+      removeSurface(surfaceViews);
+      onRemoved(surfaceViews.mViews.size());
+    }
+  }
+
+  /**
+   * Evicts Views according to the given {@link ComponentCallbacks2} trim level: a quarter of the
+   * pool while the app is running with moderate memory pressure, half of it when it's low or the UI
+   * is hidden, and everything when memory is critical, the app is in the background or the level
+   * is unknown (e.g. from {@link ComponentCallbacks2#onLowMemory}).
+   */
+  public void trim(int level) {
+    int targetSize;
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+        || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      targetSize = 0;
+    } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+      targetSize = mSize / 2;
+    } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+      targetSize = mSize * 3 / 4;
+    } else {
+      targetSize = 0;
+    }
+    while (mSize > targetSize) {
+      evictLeastRecentlyUsed(mViewsBySurface.values().iterator().next());
+    }
+  }
+
+  /** Drops all Views of this pool, also from the count of Views kept across all ViewManagers. */
+  public void clear() {
+    for (SurfaceViews<T> surfaceViews : mViewsBySurface.values()) {
+      sSurfacesByUse.remove(surfaceViews);
+    }
+    mViewsBySurface.clear();
+    onRemoved(mSize);
+  }
+
+  public int getSize() {
+    return mSize;
+  }
+
+  public int getMaxSize() {
+    return mMaxSize;
+  }
+
+  public long getHitCount() {
+    return mHitCount;
+  }
+
+  public long getMissCount() {
+    return mMissCount;
+  }
+
+  public long getEvictionCount() {
+    return mEvictionCount;
+  }
+
+  /** @return number of Views kept for recycling across all ViewManagers. */
+  public static int getTotalSize() {
+    return sTotalSize.get();
+  }
+
+  /** Evicts the oldest View of the given surface, which must not be empty. */
+  private static void evictLeastRecentlyUsed(SurfaceViews<?> surfaceViews) {
+    RecyclableViewPool<?> pool = surfaceViews.mPool;
+    surfaceViews.mViews.pollFirst();
+    if (surfaceViews.mViews.isEmpty()) {
+      pool.removeSurface(surfaceViews);
+    }
+    pool.onRemoved(1);
+    pool.mEvictionCount++;
+  }
+
+  private void removeSurface(SurfaceViews<?> surfaceViews) {
+    mViewsBySurface.remove(surfaceViews.mSurfaceId);
+    sSurfacesByUse.remove(surfaceViews);
+  }
+
+  private void onRemoved(int count) {
+    mSize -= count;
+    sTotalSize.addAndGet(-count);
+  }
+}
@@ -11,6 +11,7 @@ import android.content.Context;
 import android.view.View;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 import com.facebook.common.logging.FLog;
 import com.facebook.react.bridge.BaseJavaModule;
 import com.facebook.react.bridge.ReactApplicationContext;
@@ -24,9 +25,7 @@ import com.facebook.react.uimanager.annotations.ReactProp;
 import com.facebook.react.uimanager.annotations.ReactPropGroup;
 import com.facebook.react.uimanager.annotations.ReactPropertyHolder;
 import com.facebook.yoga.YogaMeasureMode;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Stack;
 
 /**
  * Class responsible for knowing how to create and update catalyst Views of a given type. It is also
@@ -40,27 +39,36 @@ public abstract class ViewManager<T extends View, C extends ReactShadowNode>
   private static final String NAME = ViewManager.class.getSimpleName();
 
   /**
-   * For View recycling: we store a Stack of unused, dead Views. This is null by default, and when
-   * null signals that View Recycling is disabled. `enableViewRecycling` must be explicitly called
-   * in a concrete constructor to enable View Recycling per ViewManager.
+   * For View recycling: we store a bounded pool of unused, dead Views. This is null by default, and
+   * when null signals that View Recycling is disabled. `setupViewRecycling` must be explicitly
+   * called in a concrete constructor to enable View Recycling per ViewManager.
    */
-  @Nullable private HashMap<Integer, Stack<T>> mRecyclableViews = null;
+  @Nullable private RecyclableViewPool<T> mRecyclableViews = null;
+
+  /**
+   * For background View preallocation: the View created off the UI thread that the View being
+   * created on the UI thread should use instead of a new one. Only set during {@link #createView}.
+   */
+  @Nullable private T mPreallocatedView = null;
 
   /** Call in constructor of concrete ViewManager class to enable. */
   protected void setupViewRecycling() {
+    setupViewRecycling(RecyclableViewPool.DEFAULT_MAX_VIEWS);
+  }
+
+  /**
+   * Call in constructor of concrete ViewManager class to enable, keeping at most {@code maxViews}
+   * Views of this type around for reuse.
+   */
+  protected void setupViewRecycling(int maxViews) {
     if (ReactFeatureFlags.enableViewRecycling) {
-      mRecyclableViews = new HashMap<>();
+      mRecyclableViews = new RecyclableViewPool<>(maxViews);
     }
   }
 
-  private @Nullable Stack<T> getRecyclableViewStack(int surfaceId) {
-    if (mRecyclableViews == null) {
-      return null;
-    }
-    if (!mRecyclableViews.containsKey(surfaceId)) {
-      mRecyclableViews.put(surfaceId, new Stack<T>());
-    }
-    return mRecyclableViews.get(surfaceId);
+  /** @return the recycling pool of this ViewManager, or null if View Recycling is disabled. */
+  public @Nullable RecyclableViewPool<T> getRecyclableViewPool() {
+    return mRecyclableViews;
   }
 
   /**
@@ -81,6 +89,19 @@ public abstract class ViewManager<T extends View, C extends ReactShadowNode>
     onAfterUpdateTransaction(viewToUpdate);
   }
 
+  /**
+   * Updates the View from a Fabric props diff encoded as a {@link MapBuffer}, keyed by int prop IDs
+   * shared with the C++ props of the component. Fabric only sends MapBuffer props for components
+   * whose C++ props implement {@code propsDiffMapBuffer}, so only their ViewManagers need to
+   * override this; the update is then a switch on ints with no String hashing or boxing.
+   *
+   * @return false if this ViewManager doesn't handle MapBuffer props, in which case they are
+   *     applied as the props of a {@code View} component instead
+   */
+  public boolean updatePropertiesFromMapBuffer(@NonNull T viewToUpdate, @NonNull MapBuffer props) {
+    return false;
+  }
+
   /**
    * Override this method and return an instance of {@link ViewManagerDelegate} if the props of the
    * view managed by this view manager should be set via this delegate. The provided instance will
@@ -112,6 +133,26 @@ public abstract class ViewManager<T extends View, C extends ReactShadowNode>
     return view;
   }
 
+  /**
+   * Same as {@link #createView(int, ThemedReactContext, ReactStylesDiffMap, StateWrapper,
+   * JSResponderHandler)}, but uses {@code preallocatedView}, a View created by {@link
+   * #createViewInstanceOffUiThread}, instead of creating a new View if possible.
+   */
+  public @NonNull T createView(
+      int reactTag,
+      @NonNull ThemedReactContext reactContext,
+      @Nullable ReactStylesDiffMap props,
+      @Nullable StateWrapper stateWrapper,
+      JSResponderHandler jsResponderHandler,
+      @Nullable T preallocatedView) {
+    mPreallocatedView = preallocatedView;
+    try {
+      return createView(reactTag, reactContext, props, stateWrapper, jsResponderHandler);
+    } finally {
+      mPreallocatedView = null;
+    }
+  }
+
   /**
    * @return the name of this view manager. This will be the name used to reference this view
    *     manager from JavaScript in createReactNativeComponentClass.
@@ -169,9 +210,13 @@ public abstract class ViewManager<T extends View, C extends ReactShadowNode>
       @Nullable ReactStylesDiffMap initialProps,
       @Nullable StateWrapper stateWrapper) {
     T view = null;
-    @Nullable Stack<T> recyclableViews = getRecyclableViewStack(reactContext.getSurfaceId());
-    if (recyclableViews != null && !recyclableViews.empty()) {
-      view = recycleView(reactContext, recyclableViews.pop());
+    int surfaceId = reactContext.getSurfaceId();
+    T recycledView = mRecyclableViews != null ? mRecyclableViews.acquire(surfaceId) : null;
+    if (recycledView != null) {
+      view = recycleView(reactContext, recycledView);
+    } else if (mPreallocatedView != null) {
+      view = mPreallocatedView;
+      mPreallocatedView = null;
     } else {
       view = createViewInstance(reactContext);
     }
@@ -190,6 +235,30 @@ public abstract class ViewManager<T extends View, C extends ReactShadowNode>
     return view;
   }
 
+  /**
+   * Override and return true if {@link #createViewInstance(ThemedReactContext)} is safe to call on
+   * a background thread, i.e. it only constructs the View and doesn't touch state that is confined
+   * to the UI thread (Handlers, Loopers, other Views, ...). Views of such ViewManagers can then be
+   * preallocated off the UI thread.
+   */
+  public boolean canCreateViewInstanceOffUiThread() {
+    return false;
+  }
+
+  /**
+   * Creates a View instance on the calling (background) thread, to be passed to {@link #createView}
+   * on the UI thread, which applies props, state and event emitters.
+   *
+   * @return the View, or null if this ViewManager can't create Views off the UI thread
+   */
+  @WorkerThread
+  public @Nullable T createViewInstanceOffUiThread(@NonNull ThemedReactContext reactContext) {
+    if (!canCreateViewInstanceOffUiThread()) {
+      return null;
+    }
+    return createViewInstance(reactContext);
+  }
+
   /**
    * Called when view is detached from view hierarchy and allows for some additional cleanup by the
    * {@link ViewManager} subclass.
@@ -216,9 +285,8 @@ public abstract class ViewManager<T extends View, C extends ReactShadowNode>
     // View recycling
     ThemedReactContext themedReactContext = (ThemedReactContext) viewContext;
     int surfaceId = themedReactContext.getSurfaceId();
-    @Nullable Stack<T> recyclableViews = getRecyclableViewStack(surfaceId);
-    if (recyclableViews != null) {
-      recyclableViews.push(prepareToRecycleView(themedReactContext, view));
+    if (mRecyclableViews != null) {
+      mRecyclableViews.release(surfaceId, prepareToRecycleView(themedReactContext, view));
     }
   }
 
@@ -458,16 +526,30 @@ public abstract class ViewManager<T extends View, C extends ReactShadowNode>
    */
   public void onSurfaceStopped(int surfaceId) {
     if (mRecyclableViews != null) {
-      mRecyclableViews.remove(surfaceId);
+      mRecyclableViews.onSurfaceStopped(surfaceId);
     }
   }
 
-  /** With even slight memory pressure, we immediately evict all recyclable Views. */
-  /* package */ void trimMemory() {
-    // Wipe out all existing recyclable Views, but do not disable View Recycling entirely.
+  /**
+   * Evicts recyclable Views according to the {@link android.content.ComponentCallbacks2} trim
+   * level, see {@link RecyclableViewPool#trim}.
+   */
+  protected void trimMemory(int level) {
     // We only take any action if View Recycling is already enabled.
     if (mRecyclableViews != null) {
-      mRecyclableViews = new HashMap<>();
+      mRecyclableViews.trim(level);
+    }
+  }
+
+  /**
+   * Drops the recyclable Views of this ViewManager when the instance is torn down, so that they
+   * don't count against the limit of Views kept across all ViewManagers.
+   */
+  @Override
+  public void invalidate() {
+    super.invalidate();
+    if (mRecyclableViews != null) {
+      mRecyclableViews.clear();
     }
   }
 }
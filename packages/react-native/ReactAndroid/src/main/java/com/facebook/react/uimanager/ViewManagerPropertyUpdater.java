@@ -9,9 +9,12 @@ package com.facebook.react.uimanager;
 
 import android.view.View;
 import com.facebook.common.logging.FLog;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 
 public class ViewManagerPropertyUpdater {
   public interface Settable {
@@ -31,11 +34,22 @@ public class ViewManagerPropertyUpdater {
   private static final Map<Class<?>, ViewManagerSetter<?, ?>> VIEW_MANAGER_SETTER_MAP =
       new HashMap<>();
   private static final Map<Class<?>, ShadowNodeSetter<?>> SHADOW_NODE_SETTER_MAP = new HashMap<>();
+  private static final Set<Class<?>> REFLECTIVE_FALLBACK_CLASSES = new HashSet<>();
 
   public static void clear() {
     ViewManagersPropertyCache.clear();
     VIEW_MANAGER_SETTER_MAP.clear();
     SHADOW_NODE_SETTER_MAP.clear();
+    REFLECTIVE_FALLBACK_CLASSES.clear();
+  }
+
+  /**
+   * @return the ViewManager and shadow node classes whose props are set through reflection because
+   *     no generated {@code $$PropsSetter} was found for them, see {@link
+   *     com.facebook.react.processing.ReactPropertyProcessor}.
+   */
+  public static Set<Class<?>> getReflectiveFallbackClasses() {
+    return Collections.unmodifiableSet(new HashSet<>(REFLECTIVE_FALLBACK_CLASSES));
   }
 
   public static <T extends ViewManagerDelegate<V>, V extends View> void updateProps(
@@ -83,6 +97,7 @@ public class ViewManagerPropertyUpdater {
     if (setter == null) {
       setter = findGeneratedSetter(managerClass);
       if (setter == null) {
+        REFLECTIVE_FALLBACK_CLASSES.add(managerClass);
         setter = new FallbackViewManagerSetter<>(managerClass);
       }
       VIEW_MANAGER_SETTER_MAP.put(managerClass, setter);
@@ -98,6 +113,7 @@ public class ViewManagerPropertyUpdater {
     if (setter == null) {
       setter = findGeneratedSetter(nodeClass);
       if (setter == null) {
+        REFLECTIVE_FALLBACK_CLASSES.add(nodeClass);
         setter = new FallbackShadowNodeSetter<>(nodeClass);
       }
       SHADOW_NODE_SETTER_MAP.put(nodeClass, setter);
@@ -113,7 +129,7 @@ public class ViewManagerPropertyUpdater {
       //noinspection unchecked
       return (T) setterClass.newInstance();
     } catch (ClassNotFoundException e) {
-      FLog.w(TAG, "Could not find generated setter for " + cls);
+      FLog.w(TAG, "Could not find generated setter for " + cls + ", falling back to reflection");
       return null;
     } catch (InstantiationException | IllegalAccessException e) {
       throw new RuntimeException("Unable to instantiate methods getter for " + clsName, e);
@@ -136,7 +136,7 @@ public final class ViewManagerRegistry implements ComponentCallbacks2 {
 
   /** ComponentCallbacks2 method. */
   @Override
-  public void onTrimMemory(int level) {
+  public void onTrimMemory(final int level) {
     final List<ViewManager> viewManagers;
     synchronized (this) {
       viewManagers = new ArrayList<>(mViewManagers.values());
@@ -146,7 +146,7 @@ public final class ViewManagerRegistry implements ComponentCallbacks2 {
           @Override
           public void run() {
             for (ViewManager viewManager : viewManagers) {
-              viewManager.trimMemory();
+              viewManager.trimMemory(level);
             }
           }
         };
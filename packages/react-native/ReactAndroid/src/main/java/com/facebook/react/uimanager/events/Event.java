@@ -31,13 +31,17 @@ import com.facebook.react.uimanager.IllegalViewOperationException;
 public abstract class Event<T extends Event> {
 
   private static int sUniqueID = 0;
+  private static final short UNSET_EVENT_TYPE_ID = -1;
 
   private boolean mInitialized;
   private int mSurfaceId;
   private int mViewTag;
   private long mTimestampMs;
   private int mUniqueID = sUniqueID++;
+  private short mEventTypeId = UNSET_EVENT_TYPE_ID;
   private @Nullable EventAnimationDriverMatchSpec mEventAnimationDriverMatchSpec;
+  private @Nullable EventPool mEventPool;
+  private boolean mInPool;
 
   protected Event() {}
 
@@ -68,6 +72,7 @@ public abstract class Event<T extends Event> {
     mSurfaceId = surfaceId;
     mViewTag = viewTag;
     mTimestampMs = timestampMs;
+    mEventTypeId = UNSET_EVENT_TYPE_ID;
     mInitialized = true;
   }
 
@@ -122,7 +127,8 @@ public abstract class Event<T extends Event> {
 
   /**
    * Called when the EventDispatcher is done with an event, either because it was dispatched or
-   * because it was coalesced with another Event.
+   * because it was coalesced with another Event. Events acquired from an {@link EventPool} are
+   * returned to it right after this, so any resources held by the event should be released here.
    */
   public void onDispose() {}
 
@@ -133,11 +139,37 @@ public abstract class Event<T extends Event> {
   /*package*/ final void dispose() {
     mInitialized = false;
     onDispose();
+    if (mEventPool != null) {
+      mEventPool.release(this);
+    }
+  }
+
+  /*package*/ final void setEventPool(EventPool eventPool) {
+    mEventPool = eventPool;
+  }
+
+  /*package*/ final boolean isInPool() {
+    return mInPool;
+  }
+
+  /*package*/ final void setInPool(boolean inPool) {
+    mInPool = inPool;
   }
 
   /** @return the name of this event as registered in JS */
   public abstract String getEventName();
 
+  /**
+   * @return the id interned for this event's name in {@link EventTypeRegistry}. Cached per event so
+   *     coalescing doesn't hash the name again; reset by {@link #init} for pooled events.
+   */
+  /*package*/ final short getEventTypeId() {
+    if (mEventTypeId == UNSET_EVENT_TYPE_ID) {
+      mEventTypeId = EventTypeRegistry.getEventTypeId(getEventName());
+    }
+    return mEventTypeId;
+  }
+
   public EventAnimationDriverMatchSpec getEventAnimationDriverMatchSpec() {
     if (mEventAnimationDriverMatchSpec == null) {
       mEventAnimationDriverMatchSpec =
@@ -7,20 +7,18 @@
 
 package com.facebook.react.uimanager.events;
 
-import android.util.LongSparseArray;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.LifecycleEventListener;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.UiThreadUtil;
-import com.facebook.react.common.MapBuilder;
+import com.facebook.react.common.LongIntMap;
 import com.facebook.react.modules.core.ChoreographerCompat;
 import com.facebook.react.modules.core.ReactChoreographer;
 import com.facebook.react.uimanager.common.UIManagerType;
 import com.facebook.systrace.Systrace;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -46,6 +44,10 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <p>Ideally, we don't need this and JS is fast enough to process all the events each frame, but
  * bad things happen, including load on CPUs from the system, and we should handle this case well.
  *
+ * <p>Events may be dispatched from any thread. They are staged in a lock-free queue so that
+ * producers never contend with each other or with the frame callback; coalescing happens on the UI
+ * thread when the staged events are drained into the dispatch queue.
+ *
  * <p>== Event Cookies ==
  *
  * <p>An event cookie is made up of the event type id, view tag, and a custom coalescing key. Only
@@ -81,13 +83,12 @@ public class EventDispatcherImpl implements EventDispatcher, LifecycleEventListe
         }
       };
 
-  private final Object mEventsStagingLock = new Object();
   private final Object mEventsToDispatchLock = new Object();
   private final ReactApplicationContext mReactContext;
-  private final LongSparseArray<Integer> mEventCookieToLastEventIdx = new LongSparseArray<>();
-  private final Map<String, Short> mEventNameToEventId = MapBuilder.newHashMap();
+  private final LongIntMap mEventCookieToLastEventIdx = new LongIntMap();
   private final DispatchEventsRunnable mDispatchEventsRunnable = new DispatchEventsRunnable();
-  private final ArrayList<Event> mEventStaging = new ArrayList<>();
+  private final ConcurrentLinkedQueue<Event> mEventStaging = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger mEventStagingSize = new AtomicInteger();
   private final CopyOnWriteArrayList<EventDispatcherListener> mListeners =
       new CopyOnWriteArrayList<>();
   private final CopyOnWriteArrayList<BatchEventDispatchedListener> mPostEventDispatchListeners =
@@ -99,7 +100,6 @@ public class EventDispatcherImpl implements EventDispatcher, LifecycleEventListe
   private Event[] mEventsToDispatch = new Event[16];
   private int mEventsToDispatchSize = 0;
   private volatile ReactEventEmitter mReactEventEmitter;
-  private short mNextEventTypeId = 0;
   private volatile boolean mHasDispatchScheduled = false;
 
   public EventDispatcherImpl(ReactApplicationContext reactContext) {
@@ -116,11 +116,10 @@ public class EventDispatcherImpl implements EventDispatcher, LifecycleEventListe
       listener.onEventDispatch(event);
     }
 
-    synchronized (mEventsStagingLock) {
-      mEventStaging.add(event);
-      Systrace.startAsyncFlow(
-          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, event.getEventName(), event.getUniqueID());
-    }
+    Systrace.startAsyncFlow(
+        Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, event.getEventName(), event.getUniqueID());
+    mEventStaging.offer(event);
+    mEventStagingSize.incrementAndGet();
     maybePostFrameCallbackFromNonUI();
   }
 
@@ -194,63 +193,63 @@ public class EventDispatcherImpl implements EventDispatcher, LifecycleEventListe
    * dispatched at once. Otherwise, a JS runnable enqueued in a previous frame could run while the
    * UI thread is in the process of adding UI events and we might incorrectly send one event this
    * frame and another from this frame during the next.
+   *
+   * <p>Only the events that were staged when the drain started are moved, so producers that keep
+   * dispatching while we drain can't starve the frame callback; anything staged after that point is
+   * picked up on the next frame.
    */
   private void moveStagedEventsToDispatchQueue() {
-    synchronized (mEventsStagingLock) {
-      synchronized (mEventsToDispatchLock) {
-        for (int i = 0; i < mEventStaging.size(); i++) {
-          Event event = mEventStaging.get(i);
-
-          if (!event.canCoalesce()) {
-            addEventToEventsToDispatch(event);
-            continue;
-          }
+    int stagedEventCount = mEventStagingSize.get();
+    if (stagedEventCount == 0) {
+      return;
+    }
 
-          long eventCookie =
-              getEventCookie(event.getViewTag(), event.getEventName(), event.getCoalescingKey());
+    synchronized (mEventsToDispatchLock) {
+      int movedEventCount = 0;
+      while (movedEventCount < stagedEventCount) {
+        Event event = mEventStaging.poll();
+        if (event == null) {
+          break;
+        }
+        movedEventCount++;
 
-          Event eventToAdd = null;
-          Event eventToDispose = null;
-          Integer lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie);
+        if (!event.canCoalesce()) {
+          addEventToEventsToDispatch(event);
+          continue;
+        }
 
-          if (lastEventIdx == null) {
-            eventToAdd = event;
+        long eventCookie =
+            getEventCookie(event.getViewTag(), event.getEventTypeId(), event.getCoalescingKey());
+
+        Event eventToAdd = null;
+        Event eventToDispose = null;
+        int lastEventIdx = mEventCookieToLastEventIdx.get(eventCookie, -1);
+
+        if (lastEventIdx == -1) {
+          eventToAdd = event;
+          mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+        } else {
+          Event lastEvent = mEventsToDispatch[lastEventIdx];
+          Event coalescedEvent = event.coalesce(lastEvent);
+          if (coalescedEvent != lastEvent) {
+            eventToAdd = coalescedEvent;
             mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
+            eventToDispose = lastEvent;
+            mEventsToDispatch[lastEventIdx] = null;
           } else {
-            Event lastEvent = mEventsToDispatch[lastEventIdx];
-            Event coalescedEvent = event.coalesce(lastEvent);
-            if (coalescedEvent != lastEvent) {
-              eventToAdd = coalescedEvent;
-              mEventCookieToLastEventIdx.put(eventCookie, mEventsToDispatchSize);
-              eventToDispose = lastEvent;
-              mEventsToDispatch[lastEventIdx] = null;
-            } else {
-              eventToDispose = event;
-            }
+            eventToDispose = event;
           }
+        }
 
-          if (eventToAdd != null) {
-            addEventToEventsToDispatch(eventToAdd);
-          }
-          if (eventToDispose != null) {
-            eventToDispose.dispose();
-          }
+        if (eventToAdd != null) {
+          addEventToEventsToDispatch(eventToAdd);
+        }
+        if (eventToDispose != null) {
+          eventToDispose.dispose();
         }
       }
-      mEventStaging.clear();
-    }
-  }
-
-  private long getEventCookie(int viewTag, String eventName, short coalescingKey) {
-    short eventTypeId;
-    Short eventIdObj = mEventNameToEventId.get(eventName);
-    if (eventIdObj != null) {
-      eventTypeId = eventIdObj;
-    } else {
-      eventTypeId = mNextEventTypeId++;
-      mEventNameToEventId.put(eventName, eventTypeId);
+      mEventStagingSize.addAndGet(-movedEventCount);
     }
-    return getEventCookie(viewTag, eventTypeId, coalescingKey);
   }
 
   private static long getEventCookie(int viewTag, short eventTypeId, short coalescingKey) {
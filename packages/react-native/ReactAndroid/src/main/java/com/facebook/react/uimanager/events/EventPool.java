@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool for {@link Event} instances that are created at a high rate, such as touch, pointer and
+ * scroll events.
+ *
+ * <p>Events are taken from the pool with {@link #acquire} and handed back automatically once the
+ * {@link EventDispatcher} is done with them (after they have been dispatched or coalesced into
+ * another event), so subclasses only need to reset their own state in {@link Event#onDispose}.
+ * Releasing an event that is already in its pool is ignored instead of handing the same instance
+ * out twice.
+ *
+ * <p>Each pool counts how many events it had to allocate because it was empty, which makes it easy
+ * to verify that a steady stream of events (e.g. during a fling) doesn't allocate.
+ */
+public class EventPool<T extends Event> {
+
+  /** Creates a new event when the pool is empty. */
+  public interface Factory<T extends Event> {
+    T create();
+  }
+
+  private static final AtomicLong sTotalAllocationCount = new AtomicLong();
+
+  private final String mName;
+  private final Factory<T> mFactory;
+  private final Object[] mPool;
+  private int mSize = 0;
+
+  private long mAcquireCount = 0;
+  private long mAllocationCount = 0;
+  private long mReleaseCount = 0;
+  private long mDroppedCount = 0;
+
+  public EventPool(String name, int maxSize, Factory<T> factory) {
+    mName = name;
+    mPool = new Object[maxSize];
+    mFactory = factory;
+  }
+
+  /** @return a pooled event, or a newly created one if the pool is empty. */
+  public T acquire() {
+    T event;
+    synchronized (this) {
+      mAcquireCount++;
+      if (mSize > 0) {
+        mSize--;
+        event = (T) mPool[mSize];
+        mPool[mSize] = null;
+        event.setInPool(false);
+        return event;
+      }
+      mAllocationCount++;
+    }
+    sTotalAllocationCount.incrementAndGet();
+    event = mFactory.create();
+    event.setEventPool(this);
+    return event;
+  }
+
+  /* package */ void release(Event event) {
+    synchronized (this) {
+      if (event.isInPool()) {
+        FLog.w(ReactConstants.TAG, "Event " + mName + " released to its pool twice, ignoring");
+        return;
+      }
+      mReleaseCount++;
+      if (mSize == mPool.length) {
+        mDroppedCount++;
+        return;
+      }
+      event.setInPool(true);
+      mPool[mSize++] = event;
+    }
+  }
+
+  /** Drops all pooled events, e.g. on memory pressure. */
+  public synchronized void clear() {
+    for (int i = 0; i < mSize; i++) {
+      ((Event) mPool[i]).setInPool(false);
+      mPool[i] = null;
+    }
+    mSize = 0;
+  }
+
+  public String getName() {
+    return mName;
+  }
+
+  /** @return how many events were requested from this pool. */
+  public synchronized long getAcquireCount() {
+    return mAcquireCount;
+  }
+
+  /** @return how many events this pool had to allocate because it was empty. */
+  public synchronized long getAllocationCount() {
+    return mAllocationCount;
+  }
+
+  /** @return how many events were handed back to this pool. */
+  public synchronized long getReleaseCount() {
+    return mReleaseCount;
+  }
+
+  /** @return how many released events were dropped because the pool was full. */
+  public synchronized long getDroppedCount() {
+    return mDroppedCount;
+  }
+
+  /** @return how many events all pools together had to allocate. */
+  public static long getTotalAllocationCount() {
+    return sTotalAllocationCount.get();
+  }
+
+  @Override
+  public String toString() {
+    return "EventPool{"
+        + mName
+        + " acquired="
+        + getAcquireCount()
+        + " allocated="
+        + getAllocationCount()
+        + " released="
+        + getReleaseCount()
+        + " dropped="
+        + getDroppedCount()
+        + "}";
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager.events;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Process-wide registry that interns event names to small integer ids. The id is part of the event
+ * cookie used to coalesce events, and since it is shared across all {@link Event} subclasses and
+ * dispatchers each name is hashed and boxed only once, the first time it is seen.
+ */
+/* package */ final class EventTypeRegistry {
+
+  private static final ConcurrentHashMap<String, Short> sEventNameToEventTypeId =
+      new ConcurrentHashMap<>();
+  private static short sNextEventTypeId = 0;
+
+  private EventTypeRegistry() {}
+
+  /** @return the id interned for {@code eventName}, registering it if it hasn't been seen yet. */
+  public static short getEventTypeId(String eventName) {
+    Short eventTypeId = sEventNameToEventTypeId.get(eventName);
+    if (eventTypeId != null) {
+      return eventTypeId;
+    }
+    synchronized (EventTypeRegistry.class) {
+      eventTypeId = sEventNameToEventTypeId.get(eventName);
+      if (eventTypeId == null) {
+        eventTypeId = sNextEventTypeId++;
+        sEventNameToEventTypeId.put(eventName, eventTypeId);
+      }
+      return eventTypeId;
+    }
+  }
+}
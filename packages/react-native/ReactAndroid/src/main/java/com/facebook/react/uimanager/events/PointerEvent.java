@@ -10,7 +10,6 @@ package com.facebook.react.uimanager.events;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
 import androidx.annotation.Nullable;
-import androidx.core.util.Pools;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactSoftExceptionLogger;
@@ -27,8 +26,16 @@ import java.util.Set;
 public class PointerEvent extends Event<PointerEvent> {
   private static final String TAG = PointerEvent.class.getSimpleName();
   private static final int POINTER_EVENTS_POOL_SIZE = 6;
-  private static final Pools.SynchronizedPool<PointerEvent> EVENTS_POOL =
-      new Pools.SynchronizedPool<>(POINTER_EVENTS_POOL_SIZE);
+  private static final EventPool<PointerEvent> EVENTS_POOL =
+      new EventPool<>(
+          TAG,
+          POINTER_EVENTS_POOL_SIZE,
+          new EventPool.Factory<PointerEvent>() {
+            @Override
+            public PointerEvent create() {
+              return new PointerEvent();
+            }
+          });
   private static final short UNSET_COALESCING_KEY = -1;
 
   public static PointerEvent obtain(
@@ -37,9 +44,6 @@ public class PointerEvent extends Event<PointerEvent> {
       PointerEventState eventState,
       MotionEvent motionEventToCopy) {
     PointerEvent event = EVENTS_POOL.acquire();
-    if (event == null) {
-      event = new PointerEvent();
-    }
     event.init(
         eventName, targetTag, eventState, Assertions.assertNotNull(motionEventToCopy), (short) 0);
     return event;
@@ -52,9 +56,6 @@ public class PointerEvent extends Event<PointerEvent> {
       MotionEvent motionEventToCopy,
       short coalescingKey) {
     PointerEvent event = EVENTS_POOL.acquire();
-    if (event == null) {
-      event = new PointerEvent();
-    }
     event.init(
         eventName,
         targetTag,
@@ -158,20 +159,6 @@ public class PointerEvent extends Event<PointerEvent> {
     if (motionEvent != null) {
       motionEvent.recycle();
     }
-
-    // Either `this` is in the event pool, or motionEvent
-    // is null. It is in theory not possible for a PointerEvent to
-    // be in the EVENTS_POOL but for motionEvent to be null. However,
-    // out of an abundance of caution and to avoid memory leaks or
-    // other crashes at all costs, we attempt to release here and log
-    // a soft exception here if release throws an IllegalStateException
-    // due to `this` being over-released. This may indicate that there is
-    // a logic error in our events system or pooling mechanism.
-    try {
-      EVENTS_POOL.release(this);
-    } catch (IllegalStateException e) {
-      ReactSoftExceptionLogger.logSoftException(TAG, e);
-    }
   }
 
   private List<WritableMap> createW3CPointerEvents() {
@@ -9,7 +9,6 @@ package com.facebook.react.uimanager.events;
 
 import android.view.MotionEvent;
 import androidx.annotation.Nullable;
-import androidx.core.util.Pools;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.ReactSoftExceptionLogger;
 import com.facebook.react.bridge.SoftAssertions;
@@ -27,8 +26,16 @@ public class TouchEvent extends Event<TouchEvent> {
 
   private static final int TOUCH_EVENTS_POOL_SIZE = 3;
 
-  private static final Pools.SynchronizedPool<TouchEvent> EVENTS_POOL =
-      new Pools.SynchronizedPool<>(TOUCH_EVENTS_POOL_SIZE);
+  private static final EventPool<TouchEvent> EVENTS_POOL =
+      new EventPool<>(
+          TAG,
+          TOUCH_EVENTS_POOL_SIZE,
+          new EventPool.Factory<TouchEvent>() {
+            @Override
+            public TouchEvent create() {
+              return new TouchEvent();
+            }
+          });
 
   public static final long UNSET = Long.MIN_VALUE;
 
@@ -62,9 +69,6 @@ public class TouchEvent extends Event<TouchEvent> {
       float viewY,
       TouchEventCoalescingKeyHelper touchEventCoalescingKeyHelper) {
     TouchEvent event = EVENTS_POOL.acquire();
-    if (event == null) {
-      event = new TouchEvent();
-    }
     event.init(
         surfaceId,
         viewTag,
@@ -136,20 +140,6 @@ public class TouchEvent extends Event<TouchEvent> {
     if (motionEvent != null) {
       motionEvent.recycle();
     }
-
-    // Either `this` is in the event pool, or motionEvent
-    // is null. It is in theory not possible for a TouchEvent to
-    // be in the EVENTS_POOL but for motionEvent to be null. However,
-    // out of an abundance of caution and to avoid memory leaks or
-    // other crashes at all costs, we attempt to release here and log
-    // a soft exception here if release throws an IllegalStateException
-    // due to `this` being over-released. This may indicate that there is
-    // a logic error in our events system or pooling mechanism.
-    try {
-      EVENTS_POOL.release(this);
-    } catch (IllegalStateException e) {
-      ReactSoftExceptionLogger.logSoftException(TAG, e);
-    }
   }
 
   @Override
@@ -9,6 +9,7 @@ package com.facebook.react.views.image;
 
 import android.graphics.Color;
 import android.graphics.PorterDuff.Mode;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.facebook.common.logging.FLog;
 import com.facebook.drawee.backends.pipeline.Fresco;
@@ -33,6 +34,9 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
 
   public static final String REACT_CLASS = "RCTImageView";
 
+  // Image views hold on to decoded bitmaps until they are reset, so keep fewer of them around.
+  private static final int MAX_RECYCLABLE_VIEWS = 64;
+
   private @Nullable AbstractDraweeControllerBuilder mDraweeControllerBuilder;
   private @Nullable GlobalImageLoadListener mGlobalImageLoadListener;
   private final @Nullable Object mCallerContext;
@@ -62,6 +66,7 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
     mGlobalImageLoadListener = globalImageLoadListener;
     mCallerContext = callerContext;
     mCallerContextFactory = null;
+    setupViewRecycling(MAX_RECYCLABLE_VIEWS);
   }
 
   public ReactImageManager(
@@ -78,6 +83,7 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
     mGlobalImageLoadListener = globalImageLoadListener;
     mCallerContextFactory = callerContextFactory;
     mCallerContext = null;
+    setupViewRecycling(MAX_RECYCLABLE_VIEWS);
   }
 
   public ReactImageManager() {
@@ -85,6 +91,7 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
     mDraweeControllerBuilder = null;
     mCallerContext = null;
     mCallerContextFactory = null;
+    setupViewRecycling(MAX_RECYCLABLE_VIEWS);
   }
 
   public AbstractDraweeControllerBuilder getDraweeControllerBuilder() {
@@ -110,6 +117,17 @@ public class ReactImageManager extends SimpleViewManager<ReactImageView> {
         context, getDraweeControllerBuilder(), mGlobalImageLoadListener, callerContext);
   }
 
+  @Override
+  protected ReactImageView prepareToRecycleView(
+      @NonNull ThemedReactContext reactContext, ReactImageView view) {
+    // BaseViewManager
+    super.prepareToRecycleView(reactContext, view);
+
+    view.recycleView();
+
+    return view;
+  }
+
   @Override
   public String getName() {
     return REACT_CLASS;
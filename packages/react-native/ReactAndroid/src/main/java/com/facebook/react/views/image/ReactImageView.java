@@ -157,6 +157,40 @@ public class ReactImageView extends GenericDraweeView {
     setLegacyVisibilityHandlingEnabled(true);
   }
 
+  /**
+   * Resets all props to their defaults and releases the current image, so that this View can be
+   * reused for a different Image component.
+   */
+  /* package */ void recycleView() {
+    mSources.clear();
+    mImageSource = null;
+    mCachedImageSource = null;
+    mDefaultImageDrawable = null;
+    mLoadingImageDrawable = null;
+    mBackgroundImageDrawable = null;
+    mBackgroundColor = 0x00000000;
+    mBorderColor = 0;
+    mOverlayColor = 0;
+    mBorderWidth = 0;
+    mBorderRadius = YogaConstants.UNDEFINED;
+    mBorderCornerRadii = null;
+    mScaleType = ImageResizeMode.defaultValue();
+    mTileMode = ImageResizeMode.defaultTileMode();
+    mResizeMethod = ImageResizeMethod.AUTO;
+    mTilePostprocessor = null;
+    mIterativeBoxBlurPostProcessor = null;
+    mDownloadListener = null;
+    mControllerForTesting = null;
+    mFadeDurationMs = -1;
+    mProgressiveRenderingEnabled = false;
+    mHeaders = null;
+    mIsDirty = true;
+
+    // Release the image held by the previous controller
+    setController(null);
+    getHierarchy().reset();
+  }
+
   public void setShouldNotifyLoadEvents(boolean shouldNotify) {
     // Skip update if shouldNotify is already in sync with the download listener
     if (shouldNotify == (mDownloadListener != null)) {
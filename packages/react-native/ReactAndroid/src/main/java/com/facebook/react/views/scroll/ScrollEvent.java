@@ -8,21 +8,28 @@
 package com.facebook.react.views.scroll;
 
 import androidx.annotation.Nullable;
-import androidx.core.util.Pools;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.Arguments;
-import com.facebook.react.bridge.ReactSoftExceptionLogger;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.common.ViewUtil;
 import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.EventPool;
 
 /** A event dispatched from a ScrollView scrolling. */
 public class ScrollEvent extends Event<ScrollEvent> {
   private static String TAG = ScrollEvent.class.getSimpleName();
 
-  private static final Pools.SynchronizedPool<ScrollEvent> EVENTS_POOL =
-      new Pools.SynchronizedPool<>(3);
+  private static final EventPool<ScrollEvent> EVENTS_POOL =
+      new EventPool<>(
+          TAG,
+          3,
+          new EventPool.Factory<ScrollEvent>() {
+            @Override
+            public ScrollEvent create() {
+              return new ScrollEvent();
+            }
+          });
 
   private float mScrollX;
   private float mScrollY;
@@ -73,9 +80,6 @@ public class ScrollEvent extends Event<ScrollEvent> {
       int scrollViewWidth,
       int scrollViewHeight) {
     ScrollEvent event = EVENTS_POOL.acquire();
-    if (event == null) {
-      event = new ScrollEvent();
-    }
     event.init(
         surfaceId,
         viewTag,
@@ -91,17 +95,6 @@ public class ScrollEvent extends Event<ScrollEvent> {
     return event;
   }
 
-  @Override
-  public void onDispose() {
-    try {
-      EVENTS_POOL.release(this);
-    } catch (IllegalStateException e) {
-      // This exception can be thrown when an event is double-released.
-      // This is a problem but won't cause user-visible impact, so it's okay to fail silently.
-      ReactSoftExceptionLogger.logSoftException(TAG, e);
-    }
-  }
-
   private ScrollEvent() {}
 
   private void init(
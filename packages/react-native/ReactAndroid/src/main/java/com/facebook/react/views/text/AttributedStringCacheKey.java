@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text;
+
+import androidx.annotation.Nullable;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.common.mapbuffer.MapBuffer;
+import java.util.Objects;
+
+/**
+ * Cache key for an attributed string sent from C++ as a {@link ReadableMap} or {@link MapBuffer}.
+ *
+ * <p>Hashing or comparing the {@link com.facebook.react.bridge.ReadableNativeMap} itself imports
+ * every fragment and text attribute across JNI. Instead, the key only reads two top level values:
+ * the hash of the attributed string computed in C++ (which covers the fragments, their text
+ * attributes and the layout of attachments) and the plain text, which guards against hash
+ * collisions.
+ *
+ * <p>The hash of a {@link MapBuffer} is only 32 bits wide, so keys of MapBuffers also compare the
+ * whole buffer when their hashes match. This is a comparison of bytes that doesn't cross JNI.
+ */
+/* package */ final class AttributedStringCacheKey {
+
+  private static final String HASH_KEY = "hash";
+  private static final String STRING_KEY = "string";
+
+  private final long mHash;
+  private final String mString;
+  private final @Nullable MapBuffer mMapBuffer;
+
+  /* package */ AttributedStringCacheKey(long hash, String string) {
+    this(hash, string, null);
+  }
+
+  private AttributedStringCacheKey(long hash, String string, @Nullable MapBuffer mapBuffer) {
+    mHash = hash;
+    mString = string;
+    mMapBuffer = mapBuffer;
+  }
+
+  /**
+   * @return the key of the given attributed string, or null if it wasn't sent with a precomputed
+   *     hash.
+   */
+  /* package */ static @Nullable AttributedStringCacheKey fromAttributedString(
+      ReadableMap attributedString) {
+    if (!attributedString.hasKey(HASH_KEY) || !attributedString.hasKey(STRING_KEY)) {
+      return null;
+    }
+    String string = attributedString.getString(STRING_KEY);
+    if (string == null) {
+      return null;
+    }
+    return new AttributedStringCacheKey(
+        Double.doubleToLongBits(attributedString.getDouble(HASH_KEY)), string);
+  }
+
+  /**
+   * @return the key of the given attributed string, or null if it wasn't sent with a precomputed
+   *     hash.
+   */
+  /* package */ static @Nullable AttributedStringCacheKey fromAttributedString(
+      MapBuffer attributedString) {
+    if (!attributedString.contains(TextLayoutManagerMapBuffer.AS_KEY_HASH)
+        || !attributedString.contains(TextLayoutManagerMapBuffer.AS_KEY_STRING)) {
+      return null;
+    }
+    return new AttributedStringCacheKey(
+        attributedString.getInt(TextLayoutManagerMapBuffer.AS_KEY_HASH),
+        attributedString.getString(TextLayoutManagerMapBuffer.AS_KEY_STRING),
+        attributedString);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AttributedStringCacheKey)) {
+      return false;
+    }
+    AttributedStringCacheKey other = (AttributedStringCacheKey) o;
+    return mHash == other.mHash
+        && mString.equals(other.mString)
+        && Objects.equals(mMapBuffer, other.mMapBuffer);
+  }
+
+  @Override
+  public int hashCode() {
+    // The C++ hash already covers the text, so there's no need to hash the string again.
+    return Long.hashCode(mHash);
+  }
+}
@@ -18,12 +18,14 @@ import android.text.TextPaint;
 import android.view.Gravity;
 import android.widget.TextView;
 import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
 import com.facebook.infer.annotation.Assertions;
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.ReactNoCrashSoftException;
 import com.facebook.react.bridge.ReactSoftExceptionLogger;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.uimanager.NativeViewHierarchyOptimizer;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.ReactShadowNode;
@@ -339,6 +341,12 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
     super.onCollectExtraUpdates(uiViewOperationQueue);
 
     if (mPreparedSpannableText != null) {
+      // Precompute the text here, on the layout thread, rather than when it's set on the UI thread.
+      PrecomputedTextCompat precomputedText =
+          ReactFeatureFlags.enableTextPrecomputation && !mContainsImages
+              ? TextPrecomputer.precompute(
+                  mPreparedSpannableText, mTextBreakStrategy, mHyphenationFrequency)
+              : null;
       ReactTextUpdate reactTextUpdate =
           new ReactTextUpdate(
               mPreparedSpannableText,
@@ -350,7 +358,8 @@ public class ReactTextShadowNode extends ReactBaseTextShadowNode {
               getPadding(Spacing.BOTTOM),
               getTextAlign(),
               mTextBreakStrategy,
-              mJustificationMode);
+              mJustificationMode,
+              precomputedText);
       uiViewOperationQueue.enqueueUpdateExtraData(getReactTag(), reactTextUpdate);
     }
   }
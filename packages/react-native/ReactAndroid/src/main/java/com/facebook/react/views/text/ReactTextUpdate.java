@@ -11,6 +11,8 @@ import static com.facebook.react.views.text.TextAttributeProps.UNSET;
 
 import android.text.Layout;
 import android.text.Spannable;
+import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
 
 /**
  * Class that contains the data needed for a text update. Used by both <Text/> and <TextInput/>
@@ -28,6 +30,7 @@ public class ReactTextUpdate {
   private final int mTextAlign;
   private final int mTextBreakStrategy;
   private final int mJustificationMode;
+  private final @Nullable PrecomputedTextCompat mPrecomputedText;
 
   /**
    * @deprecated Use a non-deprecated constructor for ReactTextUpdate instead. This one remains
@@ -87,6 +90,36 @@ public class ReactTextUpdate {
       int textAlign,
       int textBreakStrategy,
       int justificationMode) {
+    this(
+        text,
+        jsEventCounter,
+        containsImages,
+        paddingStart,
+        paddingTop,
+        paddingEnd,
+        paddingBottom,
+        textAlign,
+        textBreakStrategy,
+        justificationMode,
+        null);
+  }
+
+  /**
+   * @param precomputedText {@code text} precomputed off the UI thread, see {@link
+   *     TextPrecomputer}.
+   */
+  public ReactTextUpdate(
+      Spannable text,
+      int jsEventCounter,
+      boolean containsImages,
+      float paddingStart,
+      float paddingTop,
+      float paddingEnd,
+      float paddingBottom,
+      int textAlign,
+      int textBreakStrategy,
+      int justificationMode,
+      @Nullable PrecomputedTextCompat precomputedText) {
     mText = text;
     mJsEventCounter = jsEventCounter;
     mContainsImages = containsImages;
@@ -97,6 +130,7 @@ public class ReactTextUpdate {
     mTextAlign = textAlign;
     mTextBreakStrategy = textBreakStrategy;
     mJustificationMode = justificationMode;
+    mPrecomputedText = precomputedText;
   }
 
   public static ReactTextUpdate buildReactTextUpdateFromState(
@@ -151,4 +185,8 @@ public class ReactTextUpdate {
   public int getJustificationMode() {
     return mJustificationMode;
   }
+
+  public @Nullable PrecomputedTextCompat getPrecomputedText() {
+    return mPrecomputedText;
+  }
 }
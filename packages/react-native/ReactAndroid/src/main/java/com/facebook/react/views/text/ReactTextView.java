@@ -26,6 +26,7 @@ import android.view.ViewGroup;
 import androidx.annotation.Nullable;
 import androidx.appcompat.widget.AppCompatTextView;
 import androidx.appcompat.widget.TintContextWrapper;
+import androidx.core.text.PrecomputedTextCompat;
 import androidx.core.view.AccessibilityDelegateCompat;
 import androidx.core.view.ViewCompat;
 import androidx.customview.widget.ExploreByTouchHelper;
@@ -36,6 +37,7 @@ import com.facebook.react.bridge.ReactContext;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.common.ReactConstants;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.ReactCompoundView;
 import com.facebook.react.uimanager.UIManagerModule;
@@ -74,6 +76,10 @@ public class ReactTextView extends AppCompatTextView implements ReactCompoundVie
     mDefaultGravityHorizontal = getGravityHorizontal();
     mDefaultGravityVertical = getGravity() & Gravity.VERTICAL_GRAVITY_MASK;
 
+    if (ReactFeatureFlags.enableTextPrecomputation) {
+      TextPrecomputer.setTextPaintIfNeeded(getPaint());
+    }
+
     initView();
   }
 
@@ -374,7 +380,21 @@ public class ReactTextView extends AppCompatTextView implements ReactCompoundVie
       Linkify.addLinks(spannable, mLinkifyMaskType);
       setMovementMethod(LinkMovementMethod.getInstance());
     }
-    setText(spannable);
+    PrecomputedTextCompat precomputedText = update.getPrecomputedText();
+    // Links are added to the Spannable, not to the text precomputed from it, and inline images are
+    // laid out by TextView from the spans of the Spannable it measures.
+    if (precomputedText != null && mLinkifyMaskType == 0 && !update.containsImages()) {
+      // The precomputed text can only be used with the break strategy it was precomputed with.
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M
+          && getBreakStrategy() != update.getTextBreakStrategy()) {
+        setBreakStrategy(update.getTextBreakStrategy());
+      }
+      if (!TextPrecomputer.trySetPrecomputedText(this, precomputedText)) {
+        setText(spannable);
+      }
+    } else {
+      setText(spannable);
+    }
     float paddingLeft = update.getPaddingLeft();
     float paddingTop = update.getPaddingTop();
     float paddingRight = update.getPaddingRight();
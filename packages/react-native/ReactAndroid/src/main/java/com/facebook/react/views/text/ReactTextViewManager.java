@@ -7,17 +7,21 @@
 
 package com.facebook.react.views.text;
 
+import static com.facebook.react.views.text.TextAttributeProps.UNSET;
+
 import android.content.Context;
 import android.os.Build;
 import android.text.Spannable;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.text.PrecomputedTextCompat;
 import com.facebook.react.R;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableNativeMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.common.annotations.VisibleForTesting;
 import com.facebook.react.common.mapbuffer.MapBuffer;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.uimanager.IViewManagerWithChildren;
 import com.facebook.react.uimanager.ReactAccessibilityDelegate;
@@ -159,10 +163,19 @@ public class ReactTextViewManager
         spanned,
         state.hasKey("mostRecentEventCount") ? state.getInt("mostRecentEventCount") : -1,
         false, // TODO add this into local Data
+        UNSET,
+        UNSET,
+        UNSET,
+        UNSET,
         TextAttributeProps.getTextAlignment(
             props, TextLayoutManager.isRTL(attributedString), view.getGravityHorizontal()),
         textBreakStrategy,
-        TextAttributeProps.getJustificationMode(props, currentJustificationMode));
+        TextAttributeProps.getJustificationMode(props, currentJustificationMode),
+        getPrecomputedText(
+            AttributedStringCacheKey.fromAttributedString(attributedString),
+            textBreakStrategy,
+            TextAttributeProps.getHyphenationFrequency(
+                paragraphAttributes.getString(TextLayoutManager.HYPHENATION_FREQUENCY_KEY))));
   }
 
   private Object getReactTextUpdate(ReactTextView view, ReactStylesDiffMap props, MapBuffer state) {
@@ -184,10 +197,31 @@ public class ReactTextViewManager
         spanned,
         -1, // UNUSED FOR TEXT
         false, // TODO add this into local Data
+        UNSET,
+        UNSET,
+        UNSET,
+        UNSET,
         TextAttributeProps.getTextAlignment(
             props, TextLayoutManagerMapBuffer.isRTL(attributedString), view.getGravityHorizontal()),
         textBreakStrategy,
-        TextAttributeProps.getJustificationMode(props, currentJustificationMode));
+        TextAttributeProps.getJustificationMode(props, currentJustificationMode),
+        getPrecomputedText(
+            AttributedStringCacheKey.fromAttributedString(attributedString),
+            textBreakStrategy,
+            TextAttributeProps.getHyphenationFrequency(
+                paragraphAttributes.getString(
+                    TextLayoutManagerMapBuffer.PA_KEY_HYPHENATION_FREQUENCY))));
+  }
+
+  private static @Nullable PrecomputedTextCompat getPrecomputedText(
+      @Nullable AttributedStringCacheKey attributedStringKey,
+      int textBreakStrategy,
+      int hyphenationFrequency) {
+    if (!ReactFeatureFlags.enableTextPrecomputation || attributedStringKey == null) {
+      return null;
+    }
+    return TextPrecomputer.getPrecomputedText(
+        attributedStringKey, textBreakStrategy, hyphenationFrequency);
   }
 
   @Override
@@ -253,4 +287,11 @@ public class ReactTextViewManager
   public void setPadding(ReactTextView view, int left, int top, int right, int bottom) {
     view.setPadding(left, top, right, bottom);
   }
+
+  @Override
+  protected void trimMemory(int level) {
+    super.trimMemory(level);
+    TextLayoutCache.trim(level);
+    TextPrecomputer.clear();
+  }
 }
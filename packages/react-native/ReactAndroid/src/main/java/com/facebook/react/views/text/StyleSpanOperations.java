@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text;
+
+import android.content.Context;
+import androidx.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Adds the {@link SetSpanOperation}s that style the fragments of a single Spannable, in one pass
+ * over the fragments.
+ *
+ * <p>Consecutive fragments with the same interned {@link TextAttributeProps} extend the spans of
+ * the previous fragment instead of adding their own. The first run of an interned instance uses its
+ * shared spans; later runs in the same Spannable need their own, as a span can only be set once.
+ */
+/* package */ final class StyleSpanOperations {
+
+  private final Context mContext;
+  private final List<SetSpanOperation> mOps;
+
+  private final Set<TextAttributeProps> mUsedSharedSpans =
+      Collections.newSetFromMap(new IdentityHashMap<TextAttributeProps, Boolean>());
+  private final List<SetSpanOperation> mLastOps = new ArrayList<>();
+  private @Nullable TextAttributeProps mLastTextAttributes = null;
+  private int mLastEnd = -1;
+
+  /* package */ StyleSpanOperations(Context context, List<SetSpanOperation> ops) {
+    mContext = context;
+    mOps = ops;
+  }
+
+  /* package */ void add(int start, int end, TextAttributeProps textAttributes) {
+    if (textAttributes.mIsInterned && textAttributes == mLastTextAttributes && start == mLastEnd) {
+      for (SetSpanOperation op : mLastOps) {
+        op.end = end;
+      }
+      mLastEnd = end;
+      return;
+    }
+
+    List<ReactSpan> spans =
+        textAttributes.mIsInterned && mUsedSharedSpans.add(textAttributes)
+            ? textAttributes.getSharedStyleSpans(mContext)
+            : textAttributes.createStyleSpans(mContext);
+    mLastOps.clear();
+    for (int i = 0; i < spans.size(); i++) {
+      SetSpanOperation op = new SetSpanOperation(start, end, spans.get(i));
+      mOps.add(op);
+      mLastOps.add(op);
+    }
+    mLastTextAttributes = textAttributes;
+    mLastEnd = end;
+  }
+}
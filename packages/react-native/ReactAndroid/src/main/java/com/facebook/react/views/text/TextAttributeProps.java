@@ -7,6 +7,8 @@
 
 package com.facebook.react.views.text;
 
+import android.content.Context;
+import android.graphics.Color;
 import android.os.Build;
 import android.text.Layout;
 import android.text.TextUtils;
@@ -24,6 +26,7 @@ import com.facebook.react.uimanager.ReactAccessibilityDelegate.Role;
 import com.facebook.react.uimanager.ReactStylesDiffMap;
 import com.facebook.react.uimanager.ViewProps;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -140,6 +143,11 @@ public class TextAttributeProps {
   protected boolean mContainsImages = false;
   protected float mHeightOfTallestInlineImage = Float.NaN;
 
+  // Interned instances are shared by all fragments with the same text attributes, see
+  // TextAttributePropsInterner, and share their style spans between Spannables.
+  /* package */ boolean mIsInterned = false;
+  private @Nullable List<ReactSpan> mSharedStyleSpans;
+
   private TextAttributeProps() {}
 
   /** Build a TextAttributeProps using data from the {@link MapBuffer} received as a parameter. */
@@ -350,6 +358,56 @@ public class TextAttributeProps {
     return useInlineViewHeight ? mHeightOfTallestInlineImage : mLineHeight;
   }
 
+  /**
+   * Creates the spans that style text with these attributes. Unlike {@link ReactTagSpan} or {@link
+   * ReactClickableSpan}, they don't depend on the fragment.
+   */
+  /* package */ List<ReactSpan> createStyleSpans(Context context) {
+    List<ReactSpan> spans = new ArrayList<>();
+    if (mIsColorSet) {
+      spans.add(new ReactForegroundColorSpan(mColor));
+    }
+    if (mIsBackgroundColorSet) {
+      spans.add(new ReactBackgroundColorSpan(mBackgroundColor));
+    }
+    if (!Float.isNaN(getLetterSpacing())) {
+      spans.add(new CustomLetterSpacingSpan(getLetterSpacing()));
+    }
+    spans.add(new ReactAbsoluteSizeSpan(mFontSize));
+    if (mFontStyle != UNSET || mFontWeight != UNSET || mFontFamily != null) {
+      spans.add(
+          new CustomStyleSpan(
+              mFontStyle, mFontWeight, mFontFeatureSettings, mFontFamily, context.getAssets()));
+    }
+    if (mIsUnderlineTextDecorationSet) {
+      spans.add(new ReactUnderlineSpan());
+    }
+    if (mIsLineThroughTextDecorationSet) {
+      spans.add(new ReactStrikethroughSpan());
+    }
+    if ((mTextShadowOffsetDx != 0 || mTextShadowOffsetDy != 0 || mTextShadowRadius != 0)
+        && Color.alpha(mTextShadowColor) != 0) {
+      spans.add(
+          new ShadowStyleSpan(
+              mTextShadowOffsetDx, mTextShadowOffsetDy, mTextShadowRadius, mTextShadowColor));
+    }
+    if (!Float.isNaN(getEffectiveLineHeight())) {
+      spans.add(new CustomLineHeightSpan(getEffectiveLineHeight()));
+    }
+    return spans;
+  }
+
+  /**
+   * @return the style spans of an interned instance. None of them hold state, so they can be set
+   *     on several Spannables, but only once on each: setting a span again moves it.
+   */
+  /* package */ synchronized List<ReactSpan> getSharedStyleSpans(Context context) {
+    if (mSharedStyleSpans == null) {
+      mSharedStyleSpans = Collections.unmodifiableList(createStyleSpans(context));
+    }
+    return mSharedStyleSpans;
+  }
+
   private void setNumberOfLines(int numberOfLines) {
     mNumberOfLines = numberOfLines == 0 ? UNSET : numberOfLines;
   }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text;
+
+import android.util.DisplayMetrics;
+import android.util.LruCache;
+import com.facebook.react.common.mapbuffer.MapBuffer;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.react.uimanager.DisplayMetricsHolder;
+
+/**
+ * Dedupes the {@link TextAttributeProps} of text fragments, so fragments that share their styling
+ * (e.g. the messages of a chat) share one instance and its style spans instead of each allocating
+ * their own.
+ *
+ * <p>Only text attributes encoded as {@link MapBuffer} are interned: hashing or comparing a {@link
+ * com.facebook.react.bridge.ReadableNativeMap} imports the whole map over JNI, which would cost as
+ * much as creating the TextAttributeProps again.
+ *
+ * <p>TextAttributeProps convert sizes to pixels when they are created, so the interned instances
+ * are dropped whenever the display metrics change.
+ */
+/* package */ final class TextAttributePropsInterner {
+
+  private static final int MAX_SIZE = 256;
+
+  private static final Object sLock = new Object();
+
+  private static final LruCache<MapBuffer, TextAttributeProps> sFromMapBuffer =
+      new LruCache<>(MAX_SIZE);
+
+  private static float sDensity = Float.NaN;
+  private static float sScaledDensity = Float.NaN;
+
+  private TextAttributePropsInterner() {}
+
+  /* package */ static TextAttributeProps fromMapBuffer(MapBuffer textAttributes) {
+    if (!ReactFeatureFlags.enableTextAttributeInterning) {
+      return TextAttributeProps.fromMapBuffer(textAttributes);
+    }
+    synchronized (sLock) {
+      clearIfDisplayMetricsChanged();
+      TextAttributeProps props = sFromMapBuffer.get(textAttributes);
+      if (props == null) {
+        props = TextAttributeProps.fromMapBuffer(textAttributes);
+        props.mIsInterned = true;
+        sFromMapBuffer.put(textAttributes, props);
+      }
+      return props;
+    }
+  }
+
+  /* package */ static void clear() {
+    synchronized (sLock) {
+      sFromMapBuffer.evictAll();
+    }
+  }
+
+  private static void clearIfDisplayMetricsChanged() {
+    DisplayMetrics displayMetrics = DisplayMetricsHolder.getWindowDisplayMetrics();
+    if (displayMetrics.density != sDensity || displayMetrics.scaledDensity != sScaledDensity) {
+      sDensity = displayMetrics.density;
+      sScaledDensity = displayMetrics.scaledDensity;
+      sFromMapBuffer.evictAll();
+    }
+  }
+}
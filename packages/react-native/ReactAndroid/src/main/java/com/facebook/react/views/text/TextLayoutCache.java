@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.text.Layout;
+import android.util.LruCache;
+import androidx.annotation.AnyThread;
+import androidx.annotation.Nullable;
+import com.facebook.react.config.ReactFeatureFlags;
+import com.facebook.systrace.Systrace;
+import com.facebook.yoga.YogaMeasureMode;
+
+/**
+ * Bounded cache of the {@link Layout}s built while measuring text, so measuring the same attributed
+ * string again with the same constraints (e.g. while relayouting a list) doesn't rebuild a {@link
+ * android.text.StaticLayout}.
+ *
+ * <p>Entries are keyed by the {@link AttributedStringCacheKey} of the attributed string, the
+ * paragraph attributes that affect line breaking, the width constraint and the font scale. On a
+ * hash hit the keys compare the attributed strings themselves, so a collision results in a miss
+ * rather than a wrong measurement. Spannables that don't come from an attributed string with a
+ * hash (e.g. the ones cached by {@code cacheId}) are not cached, since their spans aren't covered
+ * by any key.
+ *
+ * <p>The hit and miss counts are reported as systrace counters while tracing, and can be read
+ * through {@link #getHitCount()}, {@link #getMissCount()} and {@link #getHitRate()}.
+ */
+@AnyThread
+public final class TextLayoutCache {
+
+  private static final int MAX_SIZE = 256;
+
+  private static final LruCache<Key, Layout> sCache = new LruCache<>(MAX_SIZE);
+
+  private TextLayoutCache() {}
+
+  /** Builds the Layout of a text on a cache miss. */
+  /* package */ interface LayoutFactory {
+    Layout createLayout();
+  }
+
+  /**
+   * Returns the Layout of the given attributed string for the given constraints, reusing the one
+   * built by a previous measurement of the same attributed string if {@link
+   * ReactFeatureFlags#enableTextLayoutCache} is enabled.
+   *
+   * @param cacheKey the key of the attributed string the Layout is built from, or null if the
+   *     Layout must not be cached
+   */
+  /* package */ static Layout getOrCreateLayout(
+      Context context,
+      @Nullable AttributedStringCacheKey cacheKey,
+      float width,
+      YogaMeasureMode widthYogaMeasureMode,
+      boolean includeFontPadding,
+      int textBreakStrategy,
+      int hyphenationFrequency,
+      LayoutFactory layoutFactory) {
+    if (!ReactFeatureFlags.enableTextLayoutCache || cacheKey == null) {
+      return layoutFactory.createLayout();
+    }
+    Key key =
+        new Key(
+            cacheKey,
+            width,
+            widthYogaMeasureMode,
+            includeFontPadding,
+            textBreakStrategy,
+            hyphenationFrequency,
+            context.getResources().getConfiguration().fontScale);
+    Layout layout = sCache.get(key);
+    if (layout == null) {
+      layout = layoutFactory.createLayout();
+      sCache.put(key, layout);
+    }
+    if (Systrace.isTracing(Systrace.TRACE_TAG_REACT_JAVA_BRIDGE)) {
+      Systrace.traceCounter(
+          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "TextLayoutCache::hits", sCache.hitCount());
+      Systrace.traceCounter(
+          Systrace.TRACE_TAG_REACT_JAVA_BRIDGE, "TextLayoutCache::misses", sCache.missCount());
+    }
+    return layout;
+  }
+
+  /**
+   * Evicts Layouts according to the {@link ComponentCallbacks2} trim level: half of the cache while
+   * the app is running with memory pressure, everything once the UI is hidden, memory is critical
+   * or the level is unknown.
+   */
+  public static void trim(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE
+        && level < ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+      sCache.trimToSize(sCache.size() / 2);
+    } else {
+      sCache.evictAll();
+    }
+  }
+
+  public static void clear() {
+    sCache.evictAll();
+  }
+
+  public static int getHitCount() {
+    return sCache.hitCount();
+  }
+
+  public static int getMissCount() {
+    return sCache.missCount();
+  }
+
+  /** @return fraction of lookups that were served from the cache, or 0 if there were none. */
+  public static float getHitRate() {
+    int hits = sCache.hitCount();
+    int lookups = hits + sCache.missCount();
+    return lookups == 0 ? 0 : (float) hits / lookups;
+  }
+
+  private static final class Key {
+    final AttributedStringCacheKey mAttributedString;
+    final float mWidth;
+    final YogaMeasureMode mWidthYogaMeasureMode;
+    final boolean mIncludeFontPadding;
+    final int mTextBreakStrategy;
+    final int mHyphenationFrequency;
+    final float mFontScale;
+
+    Key(
+        AttributedStringCacheKey attributedString,
+        float width,
+        YogaMeasureMode widthYogaMeasureMode,
+        boolean includeFontPadding,
+        int textBreakStrategy,
+        int hyphenationFrequency,
+        float fontScale) {
+      mAttributedString = attributedString;
+      // The width is ignored when it doesn't constrain the layout.
+      mWidth = widthYogaMeasureMode == YogaMeasureMode.UNDEFINED ? 0 : width;
+      mWidthYogaMeasureMode = widthYogaMeasureMode;
+      mIncludeFontPadding = includeFontPadding;
+      mTextBreakStrategy = textBreakStrategy;
+      mHyphenationFrequency = hyphenationFrequency;
+      mFontScale = fontScale;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return mAttributedString.equals(other.mAttributedString)
+          && Float.compare(mWidth, other.mWidth) == 0
+          && mWidthYogaMeasureMode == other.mWidthYogaMeasureMode
+          && mIncludeFontPadding == other.mIncludeFontPadding
+          && mTextBreakStrategy == other.mTextBreakStrategy
+          && mHyphenationFrequency == other.mHyphenationFrequency
+          && Float.compare(mFontScale, other.mFontScale) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = mAttributedString.hashCode();
+      result = 31 * result + Float.floatToIntBits(mWidth);
+      result = 31 * result + mWidthYogaMeasureMode.hashCode();
+      result = 31 * result + (mIncludeFontPadding ? 1 : 0);
+      result = 31 * result + mTextBreakStrategy;
+      result = 31 * result + mHyphenationFrequency;
+      result = 31 * result + Float.floatToIntBits(mFontScale);
+      return result;
+    }
+  }
+}
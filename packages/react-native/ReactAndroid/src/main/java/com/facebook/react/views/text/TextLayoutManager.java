@@ -10,7 +10,6 @@ package com.facebook.react.views.text;
 import static com.facebook.react.views.text.TextAttributeProps.UNSET;
 
 import android.content.Context;
-import android.graphics.Color;
 import android.os.Build;
 import android.text.BoringLayout;
 import android.text.Layout;
@@ -29,9 +28,9 @@ import com.facebook.react.bridge.ReactNoCrashSoftException;
 import com.facebook.react.bridge.ReactSoftExceptionLogger;
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
-import com.facebook.react.bridge.ReadableNativeMap;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.common.build.ReactBuildConfig;
+import com.facebook.react.config.ReactFeatureFlags;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.ReactAccessibilityDelegate.AccessibilityRole;
 import com.facebook.react.uimanager.ReactAccessibilityDelegate.Role;
@@ -66,9 +65,9 @@ public class TextLayoutManager {
   private static final boolean DEFAULT_INCLUDE_FONT_PADDING = true;
   private static final String INCLUDE_FONT_PADDING_KEY = "includeFontPadding";
   private static final String TEXT_BREAK_STRATEGY_KEY = "textBreakStrategy";
-  private static final String HYPHENATION_FREQUENCY_KEY = "android_hyphenationFrequency";
+  /* package */ static final String HYPHENATION_FREQUENCY_KEY = "android_hyphenationFrequency";
   private static final String MAXIMUM_NUMBER_OF_LINES_KEY = "maximumNumberOfLines";
-  private static final LruCache<ReadableNativeMap, Spannable> sSpannableCache =
+  private static final LruCache<AttributedStringCacheKey, Spannable> sSpannableCache =
       new LruCache<>(spannableCacheSize);
   private static final ConcurrentHashMap<Integer, Spannable> sTagToSpannableCache =
       new ConcurrentHashMap<>();
@@ -104,6 +103,7 @@ public class TextLayoutManager {
       ReadableArray fragments,
       SpannableStringBuilder sb,
       List<SetSpanOperation> ops) {
+    StyleSpanOperations styleSpanOperations = new StyleSpanOperations(context, ops);
 
     for (int i = 0, length = fragments.size(); i < length; i++) {
       ReadableMap fragment = fragments.getMap(i);
@@ -135,63 +135,7 @@ public class TextLayoutManager {
         if (roleIsLink) {
           ops.add(new SetSpanOperation(start, end, new ReactClickableSpan(reactTag)));
         }
-        if (textAttributes.mIsColorSet) {
-          ops.add(
-              new SetSpanOperation(
-                  start, end, new ReactForegroundColorSpan(textAttributes.mColor)));
-        }
-        if (textAttributes.mIsBackgroundColorSet) {
-          ops.add(
-              new SetSpanOperation(
-                  start, end, new ReactBackgroundColorSpan(textAttributes.mBackgroundColor)));
-        }
-        if (!Float.isNaN(textAttributes.getLetterSpacing())) {
-          ops.add(
-              new SetSpanOperation(
-                  start, end, new CustomLetterSpacingSpan(textAttributes.getLetterSpacing())));
-        }
-        ops.add(
-            new SetSpanOperation(start, end, new ReactAbsoluteSizeSpan(textAttributes.mFontSize)));
-        if (textAttributes.mFontStyle != UNSET
-            || textAttributes.mFontWeight != UNSET
-            || textAttributes.mFontFamily != null) {
-          ops.add(
-              new SetSpanOperation(
-                  start,
-                  end,
-                  new CustomStyleSpan(
-                      textAttributes.mFontStyle,
-                      textAttributes.mFontWeight,
-                      textAttributes.mFontFeatureSettings,
-                      textAttributes.mFontFamily,
-                      context.getAssets())));
-        }
-        if (textAttributes.mIsUnderlineTextDecorationSet) {
-          ops.add(new SetSpanOperation(start, end, new ReactUnderlineSpan()));
-        }
-        if (textAttributes.mIsLineThroughTextDecorationSet) {
-          ops.add(new SetSpanOperation(start, end, new ReactStrikethroughSpan()));
-        }
-        if ((textAttributes.mTextShadowOffsetDx != 0
-                || textAttributes.mTextShadowOffsetDy != 0
-                || textAttributes.mTextShadowRadius != 0)
-            && Color.alpha(textAttributes.mTextShadowColor) != 0) {
-          ops.add(
-              new SetSpanOperation(
-                  start,
-                  end,
-                  new ShadowStyleSpan(
-                      textAttributes.mTextShadowOffsetDx,
-                      textAttributes.mTextShadowOffsetDy,
-                      textAttributes.mTextShadowRadius,
-                      textAttributes.mTextShadowColor)));
-        }
-        if (!Float.isNaN(textAttributes.getEffectiveLineHeight())) {
-          ops.add(
-              new SetSpanOperation(
-                  start, end, new CustomLineHeightSpan(textAttributes.getEffectiveLineHeight())));
-        }
-
+        styleSpanOperations.add(start, end, textAttributes);
         ops.add(new SetSpanOperation(start, end, new ReactTagSpan(reactTag)));
       }
     }
@@ -202,9 +146,25 @@ public class TextLayoutManager {
       Context context,
       ReadableMap attributedString,
       @Nullable ReactTextViewManagerCallback reactTextViewManagerCallback) {
+    AttributedStringCacheKey cacheKey =
+        ReactFeatureFlags.enableTextSpannableCache
+            ? AttributedStringCacheKey.fromAttributedString(attributedString)
+            : null;
+    if (cacheKey == null) {
+      return createSpannableFromAttributedString(
+          context, attributedString, reactTextViewManagerCallback);
+    }
 
-    return createSpannableFromAttributedString(
-        context, attributedString, reactTextViewManagerCallback);
+    synchronized (sSpannableCacheLock) {
+      Spannable text = sSpannableCache.get(cacheKey);
+      if (text == null) {
+        text =
+            createSpannableFromAttributedString(
+                context, attributedString, reactTextViewManagerCallback);
+        sSpannableCache.put(cacheKey, text);
+      }
+      return text;
+    }
   }
 
   private static Spannable createSpannableFromAttributedString(
@@ -342,6 +302,9 @@ public class TextLayoutManager {
       @Nullable float[] attachmentsPositions) {
 
     // TODO(5578671): Handle text direction (see View#getTextDirectionHeuristic)
+    // Spannables cached by cacheId aren't keyed by their attributed string, whose hash doesn't
+    // cover their spans, so their Layouts aren't cached.
+    @Nullable AttributedStringCacheKey cacheKey = null;
     Spannable text;
     if (attributedString.hasKey("cacheId")) {
       int cacheId = attributedString.getInt("cacheId");
@@ -360,6 +323,7 @@ public class TextLayoutManager {
         return 0;
       }
     } else {
+      cacheKey = AttributedStringCacheKey.fromAttributedString(attributedString);
       text = getOrCreateSpannableForText(context, attributedString, reactTextViewManagerCallback);
     }
 
@@ -378,17 +342,29 @@ public class TextLayoutManager {
       throw new IllegalStateException("Spannable element has not been prepared in onBeforeLayout");
     }
 
-    BoringLayout.Metrics boring = BoringLayout.isBoring(text, sTextPaintInstance);
-
     Layout layout =
-        createLayout(
-            text,
-            boring,
+        TextLayoutCache.getOrCreateLayout(
+            context,
+            cacheKey,
             width,
             widthYogaMeasureMode,
             includeFontPadding,
             textBreakStrategy,
-            hyphenationFrequency);
+            hyphenationFrequency,
+            () ->
+                createLayout(
+                    text,
+                    BoringLayout.isBoring(text, sTextPaintInstance),
+                    width,
+                    widthYogaMeasureMode,
+                    includeFontPadding,
+                    textBreakStrategy,
+                    hyphenationFrequency));
+
+    if (ReactFeatureFlags.enableTextPrecomputation && cacheKey != null) {
+      TextPrecomputer.requestPrecomputeForMount(
+          cacheKey, text, textBreakStrategy, hyphenationFrequency);
+    }
 
     int maximumNumberOfLines =
         paragraphAttributes.hasKey(MAXIMUM_NUMBER_OF_LINES_KEY)
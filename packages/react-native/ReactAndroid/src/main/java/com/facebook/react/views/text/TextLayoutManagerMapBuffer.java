@@ -7,11 +7,11 @@
 
 package com.facebook.react.views.text;
 
+import static com.facebook.react.config.ReactFeatureFlags.enableTextPrecomputation;
 import static com.facebook.react.config.ReactFeatureFlags.enableTextSpannableCache;
 import static com.facebook.react.views.text.TextAttributeProps.UNSET;
 
 import android.content.Context;
-import android.graphics.Color;
 import android.os.Build;
 import android.text.BoringLayout;
 import android.text.Layout;
@@ -125,13 +125,14 @@ public class TextLayoutManagerMapBuffer {
 
   private static void buildSpannableFromFragment(
       Context context, MapBuffer fragments, SpannableStringBuilder sb, List<SetSpanOperation> ops) {
+    StyleSpanOperations styleSpanOperations = new StyleSpanOperations(context, ops);
 
     for (int i = 0, length = fragments.getCount(); i < length; i++) {
       MapBuffer fragment = fragments.getMapBuffer(i);
       int start = sb.length();
 
       TextAttributeProps textAttributes =
-          TextAttributeProps.fromMapBuffer(fragment.getMapBuffer(FR_KEY_TEXT_ATTRIBUTES));
+          TextAttributePropsInterner.fromMapBuffer(fragment.getMapBuffer(FR_KEY_TEXT_ATTRIBUTES));
 
       sb.append(
           TextTransform.apply(fragment.getString(FR_KEY_STRING), textAttributes.mTextTransform));
@@ -155,63 +156,7 @@ public class TextLayoutManagerMapBuffer {
         if (roleIsLink) {
           ops.add(new SetSpanOperation(start, end, new ReactClickableSpan(reactTag)));
         }
-        if (textAttributes.mIsColorSet) {
-          ops.add(
-              new SetSpanOperation(
-                  start, end, new ReactForegroundColorSpan(textAttributes.mColor)));
-        }
-        if (textAttributes.mIsBackgroundColorSet) {
-          ops.add(
-              new SetSpanOperation(
-                  start, end, new ReactBackgroundColorSpan(textAttributes.mBackgroundColor)));
-        }
-        if (!Float.isNaN(textAttributes.getLetterSpacing())) {
-          ops.add(
-              new SetSpanOperation(
-                  start, end, new CustomLetterSpacingSpan(textAttributes.getLetterSpacing())));
-        }
-        ops.add(
-            new SetSpanOperation(start, end, new ReactAbsoluteSizeSpan(textAttributes.mFontSize)));
-        if (textAttributes.mFontStyle != UNSET
-            || textAttributes.mFontWeight != UNSET
-            || textAttributes.mFontFamily != null) {
-          ops.add(
-              new SetSpanOperation(
-                  start,
-                  end,
-                  new CustomStyleSpan(
-                      textAttributes.mFontStyle,
-                      textAttributes.mFontWeight,
-                      textAttributes.mFontFeatureSettings,
-                      textAttributes.mFontFamily,
-                      context.getAssets())));
-        }
-        if (textAttributes.mIsUnderlineTextDecorationSet) {
-          ops.add(new SetSpanOperation(start, end, new ReactUnderlineSpan()));
-        }
-        if (textAttributes.mIsLineThroughTextDecorationSet) {
-          ops.add(new SetSpanOperation(start, end, new ReactStrikethroughSpan()));
-        }
-        if ((textAttributes.mTextShadowOffsetDx != 0
-                || textAttributes.mTextShadowOffsetDy != 0
-                || textAttributes.mTextShadowRadius != 0)
-            && Color.alpha(textAttributes.mTextShadowColor) != 0) {
-          ops.add(
-              new SetSpanOperation(
-                  start,
-                  end,
-                  new ShadowStyleSpan(
-                      textAttributes.mTextShadowOffsetDx,
-                      textAttributes.mTextShadowOffsetDy,
-                      textAttributes.mTextShadowRadius,
-                      textAttributes.mTextShadowColor)));
-        }
-        if (!Float.isNaN(textAttributes.getEffectiveLineHeight())) {
-          ops.add(
-              new SetSpanOperation(
-                  start, end, new CustomLineHeightSpan(textAttributes.getEffectiveLineHeight())));
-        }
-
+        styleSpanOperations.add(start, end, textAttributes);
         ops.add(new SetSpanOperation(start, end, new ReactTagSpan(reactTag)));
       }
     }
@@ -401,16 +346,36 @@ public class TextLayoutManagerMapBuffer {
         TextAttributeProps.getHyphenationFrequency(
             paragraphAttributes.getString(PA_KEY_HYPHENATION_FREQUENCY));
 
-    BoringLayout.Metrics boring = BoringLayout.isBoring(text, sTextPaintInstance);
+    // Spannables cached by cacheId aren't keyed by their attributed string, whose hash doesn't
+    // cover their spans, so their Layouts aren't cached.
+    @Nullable
+    AttributedStringCacheKey cacheKey =
+        attributedString.contains(AS_KEY_CACHE_ID)
+            ? null
+            : AttributedStringCacheKey.fromAttributedString(attributedString);
     Layout layout =
-        createLayout(
-            text,
-            boring,
+        TextLayoutCache.getOrCreateLayout(
+            context,
+            cacheKey,
             width,
             widthYogaMeasureMode,
             includeFontPadding,
             textBreakStrategy,
-            hyphenationFrequency);
+            hyphenationFrequency,
+            () ->
+                createLayout(
+                    text,
+                    BoringLayout.isBoring(text, sTextPaintInstance),
+                    width,
+                    widthYogaMeasureMode,
+                    includeFontPadding,
+                    textBreakStrategy,
+                    hyphenationFrequency));
+
+    if (enableTextPrecomputation && cacheKey != null) {
+      TextPrecomputer.requestPrecomputeForMount(
+          cacheKey, text, textBreakStrategy, hyphenationFrequency);
+    }
 
     int maximumNumberOfLines =
         paragraphAttributes.contains(PA_KEY_MAX_NUMBER_OF_LINES)
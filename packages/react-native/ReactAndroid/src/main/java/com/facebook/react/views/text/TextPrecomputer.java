@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text;
+
+import android.os.Build;
+import android.os.Process;
+import android.text.Spannable;
+import android.text.TextDirectionHeuristics;
+import android.text.TextPaint;
+import android.util.LruCache;
+import android.widget.TextView;
+import androidx.annotation.AnyThread;
+import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+import androidx.annotation.WorkerThread;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+import com.facebook.common.logging.FLog;
+import com.facebook.react.common.ReactConstants;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Precomputes the glyph metrics of text off the UI thread with {@link PrecomputedTextCompat}, so
+ * {@link ReactTextView} only has to break lines when the text is mounted.
+ *
+ * <p>Text is precomputed with the paint of the first {@link ReactTextView} that was created and the
+ * paragraph's break strategy and hyphenation frequency. If those don't match the parameters of the
+ * TextView the text is set on, the precomputed text is dropped and TextView measures the Spannable
+ * itself as before. On API levels without {@link android.text.PrecomputedText}, {@link
+ * PrecomputedTextCompat} only warms up the glyph cache.
+ *
+ * <p>Measuring text only records it: it is precomputed on a background thread once the commit it
+ * was measured in is scheduled to be mounted, for the last paragraph attributes it was measured
+ * with. Scheduling the mount doesn't wait for it, and text that isn't precomputed by the time it is
+ * mounted is measured by TextView as before. Precomputed
+ * texts are keyed by their attributed string and their {@link PrecomputedTextCompat.Params}, not by
+ * the width they were measured with: PrecomputedText only holds glyph metrics, and lines are broken
+ * for the width of the view when the text is mounted.
+ */
+public final class TextPrecomputer {
+
+  private static final int MAX_SIZE = 100;
+  private static final long KEEP_ALIVE_SECONDS = 5;
+
+  private static final ThreadPoolExecutor sExecutor =
+      new ThreadPoolExecutor(
+          1,
+          1,
+          KEEP_ALIVE_SECONDS,
+          TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(),
+          runnable -> {
+            Thread thread =
+                new Thread(
+                    () -> {
+                      Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                      runnable.run();
+                    },
+                    "text_precomputation");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  static {
+    sExecutor.allowCoreThreadTimeOut(true);
+  }
+
+  // Whether a task that precomputes the pending texts is queued and hasn't started yet.
+  private static final AtomicBoolean sPrecomputeScheduled = new AtomicBoolean();
+
+  private static volatile @Nullable TextPaint sTextPaint;
+
+  // Measured attributed strings whose text is precomputed once their commit is mounted.
+  private static final LinkedHashMap<AttributedStringCacheKey, PendingText> sPendingTexts =
+      new LinkedHashMap<AttributedStringCacheKey, PendingText>() {
+        @Override
+        protected boolean removeEldestEntry(
+            Map.Entry<AttributedStringCacheKey, PendingText> eldest) {
+          return size() > MAX_SIZE;
+        }
+      };
+
+  // Precomputed text of measured attributed strings, waiting to be mounted.
+  private static final LruCache<Key, PrecomputedTextCompat> sPrecomputedTexts =
+      new LruCache<>(MAX_SIZE);
+
+  private static final AtomicLong sPrecomputeNanos = new AtomicLong();
+  private static final AtomicLong sAppliedCount = new AtomicLong();
+  private static final AtomicLong sRejectedCount = new AtomicLong();
+
+  private TextPrecomputer() {}
+
+  /** Records the paint text is precomputed with, if no ReactTextView did it before. */
+  @UiThread
+  /* package */ static void setTextPaintIfNeeded(TextPaint paint) {
+    if (sTextPaint == null) {
+      sTextPaint = new TextPaint(paint);
+    }
+  }
+
+  /**
+   * @return the precomputed {@code text}, or null if no ReactTextView has been created yet and the
+   *     parameters of the TextView are unknown.
+   */
+  @WorkerThread
+  public static @Nullable PrecomputedTextCompat precompute(
+      Spannable text, int textBreakStrategy, int hyphenationFrequency) {
+    PrecomputedTextCompat.Params params = getParams(textBreakStrategy, hyphenationFrequency);
+    return params != null ? precompute(text, params) : null;
+  }
+
+  private static PrecomputedTextCompat precompute(
+      Spannable text, PrecomputedTextCompat.Params params) {
+    long start = System.nanoTime();
+    PrecomputedTextCompat precomputedText = PrecomputedTextCompat.create(text, params);
+    sPrecomputeNanos.addAndGet(System.nanoTime() - start);
+    return precomputedText;
+  }
+
+  /**
+   * @return the parameters text is precomputed with for the given paragraph attributes, or null if
+   *     no ReactTextView has been created yet.
+   */
+  private static @Nullable PrecomputedTextCompat.Params getParams(
+      int textBreakStrategy, int hyphenationFrequency) {
+    TextPaint paint = sTextPaint;
+    if (paint == null) {
+      return null;
+    }
+    PrecomputedTextCompat.Params.Builder params = new PrecomputedTextCompat.Params.Builder(paint);
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+      params.setBreakStrategy(textBreakStrategy).setHyphenationFrequency(hyphenationFrequency);
+    }
+    params.setTextDirection(TextDirectionHeuristics.FIRSTSTRONG_LTR);
+    return params.build();
+  }
+
+  /**
+   * Records that the text of a measured attributed string should be precomputed, which happens in
+   * {@link #precomputePendingTexts} once the commit it was measured in is mounted. Measuring the
+   * same attributed string again replaces the previous request.
+   */
+  @AnyThread
+  /* package */ static void requestPrecomputeForMount(
+      AttributedStringCacheKey attributedStringKey,
+      Spannable text,
+      int textBreakStrategy,
+      int hyphenationFrequency) {
+    synchronized (sPendingTexts) {
+      sPendingTexts.put(
+          attributedStringKey,
+          new PendingText(attributedStringKey, text, textBreakStrategy, hyphenationFrequency));
+    }
+  }
+
+  /**
+   * Precomputes the texts requested by {@link #requestPrecomputeForMount} on a background thread,
+   * so they can be picked up with {@link #getPrecomputedText} when their attributed strings are
+   * mounted. Called when a commit is scheduled to be mounted; never blocks the calling thread.
+   */
+  @AnyThread
+  public static void schedulePrecomputePendingTexts() {
+    if (!sPrecomputeScheduled.compareAndSet(false, true)) {
+      // The queued task picks up the texts requested since then as well.
+      return;
+    }
+    try {
+      sExecutor.execute(
+          () -> {
+            sPrecomputeScheduled.set(false);
+            precomputePendingTexts();
+          });
+    } catch (RejectedExecutionException e) {
+      sPrecomputeScheduled.set(false);
+    }
+  }
+
+  /** Precomputes the texts requested by {@link #requestPrecomputeForMount} since the last call. */
+  @WorkerThread
+  /* package */ static void precomputePendingTexts() {
+    List<PendingText> pendingTexts;
+    synchronized (sPendingTexts) {
+      if (sPendingTexts.isEmpty()) {
+        return;
+      }
+      pendingTexts = new ArrayList<>(sPendingTexts.values());
+      sPendingTexts.clear();
+    }
+    for (PendingText pendingText : pendingTexts) {
+      PrecomputedTextCompat.Params params =
+          getParams(pendingText.mTextBreakStrategy, pendingText.mHyphenationFrequency);
+      if (params == null) {
+        continue;
+      }
+      Key key = new Key(pendingText.mAttributedStringKey, params);
+      if (sPrecomputedTexts.get(key) == null) {
+        sPrecomputedTexts.put(key, precompute(pendingText.mText, params));
+      }
+    }
+  }
+
+  /** Drops the texts requested by {@link #requestPrecomputeForMount} without precomputing them. */
+  @AnyThread
+  public static void clearPendingTexts() {
+    synchronized (sPendingTexts) {
+      sPendingTexts.clear();
+    }
+  }
+
+  /**
+   * @return the text of an attributed string precomputed for the given paragraph attributes with
+   *     the current paint, or null if it wasn't precomputed.
+   */
+  /* package */ static @Nullable PrecomputedTextCompat getPrecomputedText(
+      AttributedStringCacheKey attributedStringKey,
+      int textBreakStrategy,
+      int hyphenationFrequency) {
+    PrecomputedTextCompat.Params params = getParams(textBreakStrategy, hyphenationFrequency);
+    return params != null ? sPrecomputedTexts.get(new Key(attributedStringKey, params)) : null;
+  }
+
+  /**
+   * Sets the precomputed text on the given TextView if it was precomputed with the TextView's
+   * current parameters.
+   *
+   * @return whether the text was set.
+   */
+  @UiThread
+  /* package */ static boolean trySetPrecomputedText(
+      TextView textView, PrecomputedTextCompat precomputedText) {
+    if (!TextViewCompat.getTextMetricsParams(textView).equals(precomputedText.getParams())) {
+      sRejectedCount.incrementAndGet();
+      return false;
+    }
+    try {
+      TextViewCompat.setPrecomputedText(textView, precomputedText);
+    } catch (IllegalArgumentException e) {
+      FLog.w(ReactConstants.TAG, "Unable to set precomputed text", e);
+      sRejectedCount.incrementAndGet();
+      return false;
+    }
+    sAppliedCount.incrementAndGet();
+    return true;
+  }
+
+  public static void clear() {
+    clearPendingTexts();
+    sPrecomputedTexts.evictAll();
+  }
+
+  /** @return time spent precomputing text off the UI thread, which TextView doesn't have to. */
+  public static long getPrecomputeTimeMs() {
+    return sPrecomputeNanos.get() / 1_000_000;
+  }
+
+  public static long getAppliedCount() {
+    return sAppliedCount.get();
+  }
+
+  public static long getRejectedCount() {
+    return sRejectedCount.get();
+  }
+
+  private static final class PendingText {
+    final AttributedStringCacheKey mAttributedStringKey;
+    final Spannable mText;
+    final int mTextBreakStrategy;
+    final int mHyphenationFrequency;
+
+    PendingText(
+        AttributedStringCacheKey attributedStringKey,
+        Spannable text,
+        int textBreakStrategy,
+        int hyphenationFrequency) {
+      mAttributedStringKey = attributedStringKey;
+      mText = text;
+      mTextBreakStrategy = textBreakStrategy;
+      mHyphenationFrequency = hyphenationFrequency;
+    }
+  }
+
+  /**
+   * Key of a precomputed text: the attributed string and the parameters it was precomputed with,
+   * which cover the paint, the break strategy, the hyphenation frequency and the text direction.
+   */
+  private static final class Key {
+    final AttributedStringCacheKey mAttributedStringKey;
+    final PrecomputedTextCompat.Params mParams;
+
+    Key(AttributedStringCacheKey attributedStringKey, PrecomputedTextCompat.Params params) {
+      mAttributedStringKey = attributedStringKey;
+      mParams = params;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return mAttributedStringKey.equals(other.mAttributedStringKey)
+          && mParams.equals(other.mParams);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * mAttributedStringKey.hashCode() + mParams.hashCode();
+    }
+  }
+}
@@ -9,13 +9,18 @@ package com.facebook.react.views.view
 
 import android.view.View
 import com.facebook.react.bridge.ReadableArray
-import com.facebook.react.common.mapbuffer.ReadableMapBuffer
+import com.facebook.react.common.mapbuffer.MapBuffer
 import com.facebook.react.touch.JSResponderHandler
 import com.facebook.react.uimanager.ReactStylesDiffMap
 import com.facebook.react.uimanager.StateWrapper
 import com.facebook.react.uimanager.ThemedReactContext
 import com.facebook.react.uimanager.ViewGroupManager
 
+/**
+ * Applies MapBuffer props through [ReactMapBufferPropSetter] with its own [ReactViewManager].
+ * [ReactViewManagerWrapper.DefaultViewManager] falls back to it for ViewManagers that don't
+ * override [com.facebook.react.uimanager.ViewManager.updatePropertiesFromMapBuffer].
+ */
 object ReactMapBufferViewManager : ReactViewManagerWrapper {
   private val viewManager = ReactViewManager()
 
@@ -24,7 +29,8 @@ object ReactMapBufferViewManager : ReactViewManagerWrapper {
       reactContext: ThemedReactContext,
       props: Any?,
       stateWrapper: StateWrapper?,
-      jsResponderHandler: JSResponderHandler
+      jsResponderHandler: JSResponderHandler,
+      preallocatedView: View?
   ): View =
       viewManager
           .createView(
@@ -32,18 +38,19 @@ object ReactMapBufferViewManager : ReactViewManagerWrapper {
               reactContext,
               props as? ReactStylesDiffMap,
               stateWrapper,
-              jsResponderHandler)
+              jsResponderHandler,
+              preallocatedView as? ReactViewGroup)
           .also { view ->
-            if (props is ReadableMapBuffer) {
+            if (props is MapBuffer) {
               updateProperties(view, props)
             }
           }
 
   override fun updateProperties(viewToUpdate: View, props: Any?) {
-    if (props !is ReadableMapBuffer) {
+    if (props !is MapBuffer) {
       viewManager.updateProperties(viewToUpdate as ReactViewGroup, props as? ReactStylesDiffMap)
     } else {
-      ReactMapBufferPropSetter.setProps(viewToUpdate as ReactViewGroup, viewManager, props)
+      viewManager.updatePropertiesFromMapBuffer(viewToUpdate as ReactViewGroup, props)
     }
   }
 
@@ -22,6 +22,7 @@ import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.common.MapBuilder;
 import com.facebook.react.common.ReactConstants;
 import com.facebook.react.common.annotations.VisibleForTesting;
+import com.facebook.react.common.mapbuffer.MapBuffer;
 import com.facebook.react.module.annotations.ReactModule;
 import com.facebook.react.uimanager.PixelUtil;
 import com.facebook.react.uimanager.PointerEvents;
@@ -74,6 +75,14 @@ public class ReactViewManager extends ReactClippingViewManager<ReactViewGroup> {
     return view;
   }
 
+  @Override
+  public boolean updatePropertiesFromMapBuffer(
+      @NonNull ReactViewGroup viewToUpdate, @NonNull MapBuffer props) {
+    ReactMapBufferPropSetter.INSTANCE.setProps(viewToUpdate, this, props);
+    onAfterUpdateTransaction(viewToUpdate);
+    return true;
+  }
+
   @ReactProp(name = "accessible")
   public void setAccessible(ReactViewGroup view, boolean accessible) {
     view.setFocusable(accessible);
@@ -323,6 +332,12 @@ public class ReactViewManager extends ReactClippingViewManager<ReactViewGroup> {
     return new ReactViewGroup(context);
   }
 
+  /** {@link ReactViewGroup}'s constructor doesn't touch any UI-thread-confined state. */
+  @Override
+  public boolean canCreateViewInstanceOffUiThread() {
+    return true;
+  }
+
   @Override
   public Map<String, Integer> getCommandsMap() {
     return MapBuilder.of(HOTSPOT_UPDATE_KEY, CMD_HOTSPOT_UPDATE, "setPressed", CMD_SET_PRESSED);
@@ -8,7 +8,9 @@
 package com.facebook.react.views.view
 
 import android.view.View
+import com.facebook.react.bridge.ReactSoftExceptionLogger
 import com.facebook.react.bridge.ReadableArray
+import com.facebook.react.common.mapbuffer.MapBuffer
 import com.facebook.react.touch.JSResponderHandler
 import com.facebook.react.uimanager.IViewGroupManager
 import com.facebook.react.uimanager.ReactStylesDiffMap
@@ -25,7 +27,8 @@ interface ReactViewManagerWrapper {
       reactContext: ThemedReactContext,
       props: Any?,
       stateWrapper: StateWrapper?,
-      jsResponderHandler: JSResponderHandler
+      jsResponderHandler: JSResponderHandler,
+      preallocatedView: View?
   ): View
 
   fun updateProperties(viewToUpdate: View, props: Any?)
@@ -53,11 +56,23 @@ interface ReactViewManagerWrapper {
         reactContext: ThemedReactContext,
         props: Any?,
         stateWrapper: StateWrapper?,
-        jsResponderHandler: JSResponderHandler
+        jsResponderHandler: JSResponderHandler,
+        preallocatedView: View?
     ): View {
       try {
-        return viewManager.createView(
-            reactTag, reactContext, props as? ReactStylesDiffMap, stateWrapper, jsResponderHandler)
+        return viewManager
+            .createView(
+                reactTag,
+                reactContext,
+                props as? ReactStylesDiffMap,
+                stateWrapper,
+                jsResponderHandler,
+                preallocatedView)
+            .also { view ->
+              if (props is MapBuffer) {
+                updatePropertiesFromMapBuffer(view, props)
+              }
+            }
       } catch (e: NullPointerException) {
         // Throwing to try capture information about the cause of T151032868, remove after.
         throw ReactViewReturnTypeException(
@@ -67,7 +82,27 @@ interface ReactViewManagerWrapper {
     }
 
     override fun updateProperties(viewToUpdate: View, props: Any?) {
-      viewManager.updateProperties(viewToUpdate, props as? ReactStylesDiffMap)
+      if (props is MapBuffer) {
+        updatePropertiesFromMapBuffer(viewToUpdate, props)
+      } else {
+        viewManager.updateProperties(viewToUpdate, props as? ReactStylesDiffMap)
+      }
+    }
+
+    private fun updatePropertiesFromMapBuffer(view: View, props: MapBuffer) {
+      if (viewManager.updatePropertiesFromMapBuffer(view, props)) {
+        return
+      }
+      // The ViewManager doesn't handle MapBuffer props: apply them as View props, which is what
+      // happened to MapBuffer props before they were dispatched to the component's ViewManager.
+      if (view is ReactViewGroup) {
+        ReactMapBufferViewManager.updateProperties(view, props)
+      } else {
+        ReactSoftExceptionLogger.logSoftException(
+            TAG,
+            IllegalStateException(
+                "ViewManager ${viewManager.getName()} does not support props encoded as MapBuffer"))
+      }
     }
 
     override fun receiveCommand(root: View, commandId: String, args: ReadableArray?) {
@@ -97,5 +132,9 @@ interface ReactViewManagerWrapper {
 
     override val viewGroupManager: IViewGroupManager<*>
       get() = viewManager as IViewGroupManager<*>
+
+    private companion object {
+      private const val TAG = "DefaultViewManager"
+    }
   }
 }
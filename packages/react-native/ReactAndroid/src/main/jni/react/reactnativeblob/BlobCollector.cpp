@@ -7,9 +7,12 @@
 
 #include "BlobCollector.h"
 
+#include <cstdint>
+#include <fbjni/ByteBuffer.h>
 #include <fbjni/fbjni.h>
 #include <memory>
 #include <mutex>
+#include <vector>
 
 using namespace facebook;
 
@@ -18,6 +21,27 @@ namespace facebook::react {
 static constexpr auto kBlobModuleJavaDescriptor =
     "com/facebook/react/modules/blob/BlobModule";
 
+namespace {
+
+// Native memory backing an ArrayBuffer created from a blob.
+class BlobArrayBuffer : public jsi::MutableBuffer {
+ public:
+  explicit BlobArrayBuffer(size_t size) : data_(size) {}
+
+  size_t size() const override {
+    return data_.size();
+  }
+
+  uint8_t *data() override {
+    return data_.data();
+  }
+
+ private:
+  std::vector<uint8_t> data_;
+};
+
+} // namespace
+
 BlobCollector::BlobCollector(
     jni::global_ref<jobject> blobModule,
     const std::string &blobId)
@@ -55,6 +79,52 @@ void BlobCollector::nativeInstall(
                 std::make_shared<BlobCollector>(blobModuleRef, blobId);
             return jsi::Object::createFromHostObject(rt, blobCollector);
           }));
+  // Reads a range of a blob into an ArrayBuffer, which JS then owns without
+  // any further copy. Returns null if the blob doesn't have that range.
+  runtime.global().setProperty(
+      runtime,
+      "__blobArrayBufferProvider",
+      jsi::Function::createFromHostFunction(
+          runtime,
+          jsi::PropNameID::forAscii(runtime, "__blobArrayBufferProvider"),
+          3,
+          [blobModuleRef](
+              jsi::Runtime &rt,
+              const jsi::Value &thisVal,
+              const jsi::Value *args,
+              size_t count) -> jsi::Value {
+            if (count < 3) {
+              throw jsi::JSError(
+                  rt, "__blobArrayBufferProvider expects 3 arguments");
+            }
+            auto blobId = args[0].asString(rt).utf8(rt);
+            auto offset = static_cast<jlong>(args[1].asNumber());
+            auto size = args[2].asNumber();
+            if (offset < 0 || size < 0 || size > INT32_MAX) {
+              throw jsi::JSError(rt, "Invalid blob range");
+            }
+            auto buffer =
+                std::make_shared<BlobArrayBuffer>(static_cast<size_t>(size));
+            bool found = false;
+            jni::ThreadScope::WithClassLoader([&] {
+              static auto readIntoMethod =
+                  jni::findClassStatic(kBlobModuleJavaDescriptor)
+                      ->getMethod<jboolean(
+                          jstring, jlong, jni::JByteBuffer::javaobject)>(
+                          "readInto");
+              auto byteBuffer =
+                  jni::JByteBuffer::wrapBytes(buffer->data(), buffer->size());
+              found = readIntoMethod(
+                  blobModuleRef,
+                  jni::make_jstring(blobId).get(),
+                  offset,
+                  byteBuffer.get());
+            });
+            if (!found) {
+              return jsi::Value::null();
+            }
+            return jsi::ArrayBuffer(rt, buffer);
+          }));
 }
 
 void BlobCollector::registerNatives() {
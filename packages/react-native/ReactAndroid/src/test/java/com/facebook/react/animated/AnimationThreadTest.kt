@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.animated
+
+import android.os.Looper
+import com.facebook.react.bridge.CatalystInstance
+import com.facebook.react.bridge.JavaOnlyMap
+import com.facebook.react.bridge.ReactApplicationContext
+import com.facebook.react.bridge.ReadableMap
+import com.facebook.react.uimanager.UIManagerModule
+import java.time.Duration
+import java.util.concurrent.CopyOnWriteArrayList
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyInt
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.Mockito.doAnswer
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when` as whenever
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+
+@RunWith(RobolectricTestRunner::class)
+class AnimationThreadTest {
+  private lateinit var reactContext: ReactApplicationContext
+  private lateinit var nativeAnimatedModule: NativeAnimatedModule
+  private lateinit var animationThread: AnimationThread
+  // The threads runUpdates was called on, one per frame.
+  private val frameThreads = CopyOnWriteArrayList<Thread>()
+
+  @Before
+  fun setUp() {
+    reactContext = mock(ReactApplicationContext::class.java)
+    nativeAnimatedModule = mock(NativeAnimatedModule::class.java)
+    animationThread = AnimationThread(reactContext, nativeAnimatedModule)
+  }
+
+  @After
+  fun tearDown() {
+    animationThread.quit()
+  }
+
+  private fun mockNodesManager(hasActiveAnimations: Boolean): NativeAnimatedNodesManager {
+    val nodesManager = mock(NativeAnimatedNodesManager::class.java)
+    whenever(nodesManager.hasActiveAnimations()).thenReturn(hasActiveAnimations)
+    doAnswer {
+          frameThreads.add(Thread.currentThread())
+          null
+        }
+        .`when`(nodesManager)
+        .runUpdates(anyLong())
+    whenever(nativeAnimatedModule.nodesManager).thenReturn(nodesManager)
+    return nodesManager
+  }
+
+  private fun runFrames() {
+    shadowOf(animationThread.looper).idleFor(Duration.ofMillis(100))
+  }
+
+  @Test
+  fun testRunsFramesOnTheAnimationThreadOnceStarted() {
+    mockNodesManager(hasActiveAnimations = true)
+
+    runFrames()
+
+    assertThat(frameThreads).isEmpty()
+
+    animationThread.start()
+    runFrames()
+
+    assertThat(frameThreads).isNotEmpty
+    assertThat(frameThreads).containsOnly(animationThread.looper.thread)
+  }
+
+  @Test
+  fun testStopsRunningFramesOnceStopped() {
+    mockNodesManager(hasActiveAnimations = true)
+    animationThread.start()
+    runFrames()
+
+    animationThread.stop()
+    shadowOf(animationThread.looper).idle()
+    val frameCount = frameThreads.size
+    runFrames()
+
+    assertThat(frameThreads).hasSize(frameCount)
+
+    animationThread.start()
+    runFrames()
+
+    assertThat(frameThreads.size).isGreaterThan(frameCount)
+  }
+
+  @Test
+  fun testSkipsFramesWithoutActiveAnimations() {
+    val nodesManager = mockNodesManager(hasActiveAnimations = false)
+    animationThread.start()
+
+    runFrames()
+
+    verify(nodesManager, never()).runUpdates(anyLong())
+  }
+
+  @Test
+  fun testRunsPostedRunnablesInOrderOnTheAnimationThread() {
+    val threads = CopyOnWriteArrayList<Pair<Int, Thread>>()
+    animationThread.post { threads.add(Pair(1, Thread.currentThread())) }
+    animationThread.post { threads.add(Pair(2, Thread.currentThread())) }
+
+    shadowOf(animationThread.looper).idle()
+
+    assertThat(threads)
+        .containsExactly(
+            Pair(1, animationThread.looper.thread), Pair(2, animationThread.looper.thread))
+  }
+
+  @Test
+  fun testViewsAreUpdatedOnTheUiThreadWithTheLatestProps() {
+    val uiManager = mock(UIManagerModule::class.java)
+    val catalystInstance = mock(CatalystInstance::class.java)
+    whenever(catalystInstance.getNativeModule(UIManagerModule::class.java)).thenReturn(uiManager)
+    whenever(reactContext.hasCatalystInstance()).thenReturn(true)
+    whenever(reactContext.hasActiveReactInstance()).thenReturn(true)
+    whenever(reactContext.catalystInstance).thenReturn(catalystInstance)
+    val nodesManager = NativeAnimatedNodesManager(reactContext)
+    nodesManager.setAnimationThreadHandler(animationThread.handler)
+    whenever(nativeAnimatedModule.nodesManager).thenReturn(nodesManager)
+    val viewThreads = CopyOnWriteArrayList<Thread>()
+    doAnswer {
+          viewThreads.add(Thread.currentThread())
+          null
+        }
+        .`when`(uiManager)
+        .synchronouslyUpdateViewOnUIThread(anyInt(), any(ReadableMap::class.java))
+
+    animationThread.post {
+      nodesManager.createAnimatedNode(
+          1, JavaOnlyMap.of("type", "value", "value", 0.0, "offset", 0.0))
+      nodesManager.createAnimatedNode(
+          2, JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("opacity", 1)))
+      nodesManager.createAnimatedNode(
+          3, JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 2)))
+      nodesManager.connectAnimatedNodes(1, 2)
+      nodesManager.connectAnimatedNodes(2, 3)
+      nodesManager.connectAnimatedNodeToView(3, 1000)
+      nodesManager.setAnimatedNodeValue(1, 0.5)
+    }
+    animationThread.start()
+    runFrames()
+
+    // The frame ran, but the view is only updated once the UI thread gets to it.
+    verify(uiManager, never())
+        .synchronouslyUpdateViewOnUIThread(anyInt(), any(ReadableMap::class.java))
+
+    animationThread.post { nodesManager.setAnimatedNodeValue(1, 0.75) }
+    runFrames()
+    shadowOf(Looper.getMainLooper()).idle()
+
+    val propsCaptor: ArgumentCaptor<ReadableMap> = ArgumentCaptor.forClass(ReadableMap::class.java)
+    verify(uiManager).synchronouslyUpdateViewOnUIThread(eq(1000), propsCaptor.capture())
+    assertThat(propsCaptor.value.getDouble("opacity")).isEqualTo(0.75)
+    assertThat(viewThreads).containsExactly(Looper.getMainLooper().thread)
+  }
+}
@@ -18,13 +18,17 @@ import com.facebook.react.bridge.JavaOnlyMap
 import com.facebook.react.bridge.ReactApplicationContext
 import com.facebook.react.bridge.ReadableMap
 import com.facebook.react.common.MapBuilder
+import com.facebook.react.config.ReactFeatureFlags
+import com.facebook.react.uimanager.DisplayMetricsHolder
 import com.facebook.react.uimanager.UIManagerModule
 import com.facebook.react.uimanager.events.Event
 import com.facebook.react.uimanager.events.EventDispatcher
 import com.facebook.react.uimanager.events.RCTEventEmitter
+import com.facebook.react.views.view.ReactViewGroup
 import kotlin.collections.Map
 import kotlin.math.abs
 import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -35,6 +39,7 @@ import org.mockito.ArgumentMatchers.anyInt
 import org.mockito.ArgumentMatchers.eq
 import org.mockito.Mockito.atMost
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
 import org.mockito.Mockito.reset
 import org.mockito.Mockito.times
 import org.mockito.Mockito.verify
@@ -45,6 +50,7 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore
 import org.powermock.core.classloader.annotations.PrepareForTest
 import org.powermock.modules.junit4.rule.PowerMockRule
 import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
 
 /** Tests the animated nodes graph traversal algorithm from {@link NativeAnimatedNodesManager}. */
 @PrepareForTest(Arguments::class)
@@ -118,6 +124,11 @@ class NativeAnimatedNodeTraversalTest {
     nativeAnimatedNodesManager = NativeAnimatedNodesManager(reactApplicationContextMock)
   }
 
+  @After
+  fun tearDown() {
+    ReactFeatureFlags.enableTypedAnimatedProps = false
+  }
+
   /**
    * Generates a simple animated nodes graph and attaches the props node to a given {@param viewTag}
    * Parameter {@param opacity} is used as a initial value for the "opacity" attribute.
@@ -1235,6 +1246,167 @@ class NativeAnimatedNodeTraversalTest {
     assertThat(previousValue).isEqualTo(1.5)
   }
 
+  /**
+   * Verifies that nodes connected after the first frame of an animation are updated as well, as the
+   * order in which nodes are updated is only computed again when the graph changes.
+   */
+  @Test
+  fun testUpdatesNodesConnectedDuringAnimation() {
+    createSimpleAnimatedViewWithOpacity(1000)
+
+    val frames: JavaOnlyArray = JavaOnlyArray.of(0.0, 0.5, 1.0)
+    nativeAnimatedNodesManager.startAnimatingNode(
+        1,
+        1,
+        JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1.0),
+        mock(Callback::class.java))
+
+    val stylesCaptor: ArgumentCaptor<ReadableMap> = ArgumentCaptor.forClass(ReadableMap::class.java)
+
+    reset(uiManagerMock)
+    nativeAnimatedNodesManager.runUpdates(nextFrameTime())
+    verify(uiManagerMock).synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture())
+    verifyNoMoreInteractions(uiManagerMock)
+
+    nativeAnimatedNodesManager.createAnimatedNode(
+        4, JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 2)))
+    nativeAnimatedNodesManager.connectAnimatedNodes(2, 4)
+    nativeAnimatedNodesManager.connectAnimatedNodeToView(4, 2000)
+
+    reset(uiManagerMock)
+    nativeAnimatedNodesManager.runUpdates(nextFrameTime())
+    verify(uiManagerMock).synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture())
+    assertThat(stylesCaptor.value.getDouble("opacity")).isEqualTo(0.5)
+    verify(uiManagerMock).synchronouslyUpdateViewOnUIThread(eq(2000), stylesCaptor.capture())
+    assertThat(stylesCaptor.value.getDouble("opacity")).isEqualTo(0.5)
+
+    nativeAnimatedNodesManager.disconnectAnimatedNodes(2, 4)
+
+    reset(uiManagerMock)
+    nativeAnimatedNodesManager.runUpdates(nextFrameTime())
+    verify(uiManagerMock).synchronouslyUpdateViewOnUIThread(eq(1000), stylesCaptor.capture())
+    assertThat(stylesCaptor.value.getDouble("opacity")).isEqualTo(1.0)
+    verify(uiManagerMock, never())
+        .synchronouslyUpdateViewOnUIThread(eq(2000), any(ReadableMap::class.java))
+  }
+
+  /**
+   * Runs 500 concurrent animations over a graph of 5000 nodes. Each animated value goes through a
+   * chain of 7 addition nodes, each adding the value again, before reaching its view.
+   */
+  @Test
+  fun testConcurrentAnimationsOnLargeGraph() {
+    val animationCount = 500
+    val frameCount = 60
+    val frames = JavaOnlyArray()
+    for (i in 0 until frameCount) {
+      frames.pushDouble(i / (frameCount - 1.0))
+    }
+
+    for (animation in 0 until animationCount) {
+      val valueTag = animation * 10 + 1
+      nativeAnimatedNodesManager.createAnimatedNode(
+          valueTag, JavaOnlyMap.of("type", "value", "value", 0.0, "offset", 0.0))
+      var previousTag = valueTag
+      for (tag in valueTag + 1..valueTag + 7) {
+        nativeAnimatedNodesManager.createAnimatedNode(
+            tag,
+            JavaOnlyMap.of("type", "addition", "input", JavaOnlyArray.of(previousTag, valueTag)))
+        nativeAnimatedNodesManager.connectAnimatedNodes(previousTag, tag)
+        if (previousTag != valueTag) {
+          nativeAnimatedNodesManager.connectAnimatedNodes(valueTag, tag)
+        }
+        previousTag = tag
+      }
+      nativeAnimatedNodesManager.createAnimatedNode(
+          valueTag + 8,
+          JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("translateX", valueTag + 7)))
+      nativeAnimatedNodesManager.createAnimatedNode(
+          valueTag + 9,
+          JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", valueTag + 8)))
+      nativeAnimatedNodesManager.connectAnimatedNodes(valueTag + 7, valueTag + 8)
+      nativeAnimatedNodesManager.connectAnimatedNodes(valueTag + 8, valueTag + 9)
+      nativeAnimatedNodesManager.connectAnimatedNodeToView(valueTag + 9, 10000 + animation)
+    }
+    for (animation in 0 until animationCount) {
+      nativeAnimatedNodesManager.startAnimatingNode(
+          animation,
+          animation * 10 + 1,
+          JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1.0),
+          mock(Callback::class.java))
+    }
+
+    for (i in 0 until frameCount) {
+      reset(uiManagerMock)
+      nativeAnimatedNodesManager.runUpdates(nextFrameTime())
+    }
+
+    val stylesCaptor: ArgumentCaptor<ReadableMap> = ArgumentCaptor.forClass(ReadableMap::class.java)
+    verify(uiManagerMock).synchronouslyUpdateViewOnUIThread(eq(10042), stylesCaptor.capture())
+    assertThat(stylesCaptor.value.getDouble("translateX")).isEqualTo(8.0)
+    verify(uiManagerMock, times(animationCount))
+        .synchronouslyUpdateViewOnUIThread(anyInt(), any(ReadableMap::class.java))
+  }
+
+  /**
+   * Animates the opacity and transform of a view, with the typed props enabled: they are set on the
+   * view directly, and reset through the map of props.
+   */
+  @Test
+  fun testTypedPropsAreAppliedToView() {
+    ReactFeatureFlags.enableTypedAnimatedProps = true
+    DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(RuntimeEnvironment.getApplication())
+    val view = ReactViewGroup(RuntimeEnvironment.getApplication())
+    // restoreDefaultProps not called in Fabric, make sure it's a non-Fabric tag
+    val viewTag = 1001
+    whenever(uiManagerMock.resolveView(viewTag)).thenReturn(view)
+
+    nativeAnimatedNodesManager.createAnimatedNode(
+        1, JavaOnlyMap.of("type", "value", "value", 0.0, "offset", 0.0))
+    nativeAnimatedNodesManager.createAnimatedNode(
+        2, JavaOnlyMap.of("type", "value", "value", 10.0, "offset", 0.0))
+    nativeAnimatedNodesManager.createAnimatedNode(
+        3,
+        JavaOnlyMap.of(
+            "type",
+            "transform",
+            "transforms",
+            JavaOnlyArray.of(
+                JavaOnlyMap.of("type", "animated", "property", "translateX", "nodeTag", 2),
+                JavaOnlyMap.of("type", "static", "property", "translateY", "value", 5.0))))
+    nativeAnimatedNodesManager.createAnimatedNode(
+        4, JavaOnlyMap.of("type", "style", "style", JavaOnlyMap.of("opacity", 1, "transform", 3)))
+    nativeAnimatedNodesManager.createAnimatedNode(
+        5, JavaOnlyMap.of("type", "props", "props", JavaOnlyMap.of("style", 4)))
+    nativeAnimatedNodesManager.connectAnimatedNodes(1, 4)
+    nativeAnimatedNodesManager.connectAnimatedNodes(2, 3)
+    nativeAnimatedNodesManager.connectAnimatedNodes(3, 4)
+    nativeAnimatedNodesManager.connectAnimatedNodes(4, 5)
+    nativeAnimatedNodesManager.connectAnimatedNodeToView(5, viewTag)
+
+    val frames: JavaOnlyArray = JavaOnlyArray.of(0.0, 0.5, 1.0)
+    nativeAnimatedNodesManager.startAnimatingNode(
+        1,
+        1,
+        JavaOnlyMap.of("type", "frames", "frames", frames, "toValue", 1.0),
+        mock(Callback::class.java))
+    nativeAnimatedNodesManager.runUpdates(nextFrameTime())
+    nativeAnimatedNodesManager.runUpdates(nextFrameTime())
+
+    val density = DisplayMetricsHolder.getWindowDisplayMetrics().density
+    assertThat(view.alpha).isEqualTo(0.5f)
+    assertThat(view.translationX).isEqualTo(10.0f * density)
+    assertThat(view.translationY).isEqualTo(5.0f * density)
+    verify(uiManagerMock, never())
+        .synchronouslyUpdateViewOnUIThread(anyInt(), any(ReadableMap::class.java))
+
+    val stylesCaptor: ArgumentCaptor<ReadableMap> = ArgumentCaptor.forClass(ReadableMap::class.java)
+    nativeAnimatedNodesManager.restoreDefaultValues(5)
+    verify(uiManagerMock).synchronouslyUpdateViewOnUIThread(eq(viewTag), stylesCaptor.capture())
+    assertThat(stylesCaptor.value.isNull("opacity")).isTrue
+    assertThat(stylesCaptor.value.isNull("transform")).isTrue
+  }
+
   companion object {
     private const val FRAME_LEN_NANOS: Long = 1000000000L / 60L
     private const val INITIAL_FRAME_TIME_NANOS: Long = 14599233201256L /* random */
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.common
+
+import java.util.Random
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class IntObjectMapTest {
+  @Test
+  fun putGetRemove_includingZeroKey() {
+    val map = IntObjectMap<String>()
+    assertNull(map.put(0, "zero"))
+    assertNull(map.put(7, "seven"))
+    assertEquals("zero", map.put(0, "ZERO"))
+
+    assertEquals(2, map.size())
+    assertEquals("ZERO", map.get(0))
+    assertEquals("seven", map.get(7))
+    assertNull(map.get(8))
+
+    assertEquals("ZERO", map.remove(0))
+    assertEquals("seven", map.remove(7))
+    assertNull(map.remove(7))
+    assertTrue(map.isEmpty())
+  }
+
+  @Test
+  fun randomOperations_matchHashMap() {
+    val random = Random(42)
+    val map = IntObjectMap<Int>(4)
+    val expected = HashMap<Int, Int>()
+    repeat(100_000) {
+      // A small key space forces long probe sequences and lots of backward shifts.
+      val key = random.nextInt(512) - 256
+      when (random.nextInt(3)) {
+        0 -> assertEquals(expected.put(key, it), map.put(key, it))
+        1 -> assertEquals(expected.remove(key), map.remove(key))
+        else -> assertEquals(expected[key], map.get(key))
+      }
+      assertEquals(expected.size, map.size())
+    }
+
+    val visited = HashMap<Int, Int>()
+    map.forEach { key, value -> visited[key] = value }
+    assertEquals(expected, visited)
+
+    map.clear()
+    assertTrue(map.isEmpty())
+    assertFalse(map.containsKey(expected.keys.first()))
+  }
+
+  /**
+   * Replays the view state accesses of mounting a 10k node tree (create, insert, updateProps,
+   * updateLayout and updatePadding look up every tag) followed by deleting it.
+   */
+  @Test
+  fun mountAccessPattern_tenThousandNodes() {
+    val nodeCount = 10_000
+    val value = Any()
+    val map = IntObjectMap<Any>()
+    for (tag in 2..nodeCount * 2 step 2) {
+      assertNull(map.put(tag, value))
+    }
+    assertEquals(nodeCount, map.size())
+    for (lookup in 0 until 4) {
+      for (tag in 2..nodeCount * 2 step 2) {
+        assertSame(value, map.get(tag))
+        assertNull(map.get(tag + 1))
+      }
+    }
+    for (tag in 2..nodeCount * 2 step 2) {
+      assertSame(value, map.remove(tag))
+    }
+    assertTrue(map.isEmpty())
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.common
+
+import java.util.Random
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class LongIntMapTest {
+  @Test
+  fun putGetRemove_includingZeroKey() {
+    val map = LongIntMap()
+    map.put(0L, 1)
+    map.put(7L, 7)
+    map.put(0L, 2)
+
+    assertEquals(2, map.size())
+    assertTrue(map.containsKey(0L))
+    assertEquals(2, map.get(0L, -1))
+    assertEquals(7, map.get(7L, -1))
+    assertEquals(-1, map.get(8L, -1))
+
+    assertEquals(2, map.remove(0L, -1))
+    assertFalse(map.containsKey(0L))
+    assertEquals(-1, map.remove(0L, -1))
+    assertEquals(7, map.remove(7L, -1))
+    assertTrue(map.isEmpty())
+
+    map.put(0L, 3)
+    assertEquals(3, map.get(0L, -1))
+    assertEquals(1, map.size())
+  }
+
+  @Test
+  fun put_resizesPastTheLoadFactor() {
+    val map = LongIntMap(4)
+    // Packed (tag << 32 | cookie) keys, like the ones EventDispatcherImpl uses.
+    for (i in 0 until 1_000) {
+      map.put((i.toLong() shl 32) or 5L, i)
+    }
+
+    assertEquals(1_000, map.size())
+    for (i in 0 until 1_000) {
+      assertEquals(i, map.get((i.toLong() shl 32) or 5L, -1))
+    }
+    assertFalse(map.containsKey((1_000L shl 32) or 5L))
+  }
+
+  @Test
+  fun removeAndReinsert_keepsProbeSequencesIntact() {
+    val random = Random(42)
+    val map = LongIntMap(4)
+    val expected = HashMap<Long, Int>()
+    repeat(100_000) {
+      // A small key space forces long probe sequences and lots of backward shifts.
+      val key = random.nextInt(512).toLong() - 256
+      when (random.nextInt(3)) {
+        0 -> {
+          map.put(key, it)
+          expected[key] = it
+        }
+        1 -> assertEquals(expected.remove(key) ?: -1, map.remove(key, -1))
+        else -> assertEquals(expected[key] ?: -1, map.get(key, -1))
+      }
+      assertEquals(expected.size, map.size())
+    }
+
+    map.clear()
+    assertTrue(map.isEmpty())
+    assertFalse(map.containsKey(0L))
+    map.put(1L, 1)
+    assertEquals(1, map.get(1L, -1))
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.fabric.mounting
+
+import com.facebook.react.config.ReactFeatureFlags
+import com.facebook.react.fabric.mounting.mountitems.BatchMountItem
+import com.facebook.react.fabric.mounting.mountitems.DispatchCommandMountItem
+import com.facebook.react.fabric.mounting.mountitems.MountItem
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito.mock
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class MountItemDispatcherTest {
+  private val events = mutableListOf<String>()
+  private lateinit var dispatcher: MountItemDispatcher
+
+  @Before
+  fun setUp() {
+    ReactFeatureFlags.enableIncrementalBatchMountItemExecution = true
+    dispatcher =
+        MountItemDispatcher(
+            mock(MountingManager::class.java),
+            object : MountItemDispatcher.ItemDispatchListener {
+              override fun willMountItems(mountItems: List<MountItem>?) = Unit
+
+              // FabricUIManager reports the mount of the surfaces of these items to C++.
+              override fun didMountItems(mountItems: List<MountItem>?) {
+                events.add("didMountItems(${mountItems?.joinToString() ?: ""})")
+              }
+
+              override fun didDispatchMountItems() {
+                events.add("didDispatchMountItems")
+              }
+            })
+  }
+
+  @After
+  fun tearDown() {
+    ReactFeatureFlags.enableIncrementalBatchMountItemExecution = false
+  }
+
+  @Test
+  fun testSuspendedBatchIsReportedOnceMounted() {
+    dispatcher.addMountItem(TestMountItem("a"))
+    dispatcher.addMountItem(SuspendingBatchMountItem("batch"))
+    dispatcher.addMountItem(TestMountItem("c"))
+
+    // The frame started a while ago, so the batch doesn't fit in it.
+    val frameTimeNanos = System.nanoTime() - 1000000000L
+    dispatcher.dispatchPreMountItems(frameTimeNanos)
+    dispatcher.tryDispatchMountItems()
+
+    assertThat(events).containsExactly("execute(a)", "executeUntil(batch)", "didMountItems(a)")
+
+    events.clear()
+    dispatcher.dispatchCommandMountItem(TestCommandMountItem("command"))
+    dispatcher.tryDispatchMountItems()
+
+    // The command waits for the batch queued before it.
+    assertThat(events).isEmpty()
+
+    dispatcher.onFrameDispatched(frameTimeNanos)
+    dispatcher.tryDispatchMountItems()
+
+    assertThat(events)
+        .startsWith("execute(batch)", "execute(c)", "execute(command)", "didMountItems(batch, c)")
+        .endsWith("didDispatchMountItems")
+  }
+
+  @Test
+  fun testItemsAreReportedWhenNothingIsSuspended() {
+    dispatcher.dispatchCommandMountItem(TestCommandMountItem("command"))
+    dispatcher.addMountItem(TestMountItem("a"))
+    dispatcher.tryDispatchMountItems()
+
+    assertThat(events)
+        .startsWith("execute(command)", "execute(a)", "didMountItems(a)")
+        .endsWith("didDispatchMountItems")
+  }
+
+  private open inner class TestMountItem(private val name: String) : MountItem {
+    override fun execute(mountingManager: MountingManager) {
+      events.add("execute($name)")
+    }
+
+    override fun getSurfaceId(): Int = 1
+
+    override fun toString(): String = name
+  }
+
+  /** A batch that runs out of time the first time it is given a deadline. */
+  private inner class SuspendingBatchMountItem(private val name: String) :
+      TestMountItem(name), BatchMountItem {
+    private var finished = false
+
+    override fun executeUntil(mountingManager: MountingManager, deadlineNanos: Long): Boolean {
+      if (deadlineNanos == Long.MAX_VALUE || finished) {
+        execute(mountingManager)
+        return true
+      }
+      events.add("executeUntil($name)")
+      return false
+    }
+
+    override fun execute(mountingManager: MountingManager) {
+      super.execute(mountingManager)
+      finished = true
+    }
+
+    override fun isBatchEmpty(): Boolean = false
+
+    override fun isFinished(): Boolean = finished
+  }
+
+  private inner class TestCommandMountItem(private val name: String) : DispatchCommandMountItem() {
+    override fun execute(mountingManager: MountingManager) {
+      events.add("execute($name)")
+    }
+
+    override fun getSurfaceId(): Int = 1
+
+    override fun toString(): String = name
+  }
+}
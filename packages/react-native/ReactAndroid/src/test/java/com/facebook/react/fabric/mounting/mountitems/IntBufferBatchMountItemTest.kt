@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.fabric.mounting.mountitems
+
+import com.facebook.react.fabric.mounting.MountingManager
+import com.facebook.react.fabric.mounting.SurfaceMountingManager
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.mockingDetails
+import org.mockito.Mockito.`when` as whenever
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class IntBufferBatchMountItemTest {
+  companion object {
+    const val SURFACE_ID = 1
+    const val ROOT_TAG = 1
+    const val VIEW_COUNT = 500
+  }
+
+  @Test
+  fun testExecuteUntil_withPassedDeadline_executesInSlices() {
+    val (mountingManager, _) = createMountingManager()
+    val item = createBatch()
+
+    var slices = 0
+    while (!item.executeUntil(mountingManager, 0L)) {
+      slices++
+      assertThat(item.isFinished).isFalse()
+    }
+    slices++
+
+    assertThat(slices).isGreaterThan(1)
+    assertThat(item.isFinished).isTrue()
+  }
+
+  @Test
+  fun testExecuteUntil_producesSameOperationsAsUnsplitRun() {
+    val (unsplitMountingManager, unsplitSurface) = createMountingManager()
+    createBatch().execute(unsplitMountingManager)
+
+    val (splitMountingManager, splitSurface) = createMountingManager()
+    val item = createBatch()
+    while (!item.executeUntil(splitMountingManager, 0L)) {}
+
+    val unsplitOperations = recordedOperations(unsplitSurface)
+    assertThat(unsplitOperations).hasSize(VIEW_COUNT * 3)
+    assertThat(recordedOperations(splitSurface)).isEqualTo(unsplitOperations)
+  }
+
+  @Test
+  fun testExecuteUntil_withoutDeadline_executesWholeBatch() {
+    val (mountingManager, surface) = createMountingManager()
+    val item = createBatch()
+
+    assertThat(item.executeUntil(mountingManager, Long.MAX_VALUE)).isTrue()
+    assertThat(recordedOperations(surface)).hasSize(VIEW_COUNT * 3)
+  }
+
+  private fun createMountingManager(): Pair<MountingManager, SurfaceMountingManager> {
+    val surfaceMountingManager = mock(SurfaceMountingManager::class.java)
+    val mountingManager = mock(MountingManager::class.java)
+    whenever(mountingManager.getSurfaceManager(SURFACE_ID)).thenReturn(surfaceMountingManager)
+    return Pair(mountingManager, surfaceMountingManager)
+  }
+
+  /**
+   * Creates VIEW_COUNT views and inserts them into the root as two multi-instruction groups, then
+   * lays each of them out with single instructions.
+   */
+  private fun createBatch(): IntBufferBatchMountItem {
+    val ints = mutableListOf<Int>()
+    val objs = mutableListOf<Any?>()
+
+    ints.add(
+        IntBufferBatchMountItem.INSTRUCTION_CREATE or
+            IntBufferBatchMountItem.INSTRUCTION_FLAG_MULTIPLE)
+    ints.add(VIEW_COUNT)
+    for (tag in viewTags()) {
+      ints.add(tag)
+      ints.add(1)
+      objs.add("View")
+      objs.add(null)
+      objs.add(null)
+      objs.add(null)
+    }
+
+    ints.add(
+        IntBufferBatchMountItem.INSTRUCTION_INSERT or
+            IntBufferBatchMountItem.INSTRUCTION_FLAG_MULTIPLE)
+    ints.add(VIEW_COUNT)
+    for ((index, tag) in viewTags().withIndex()) {
+      ints.add(tag)
+      ints.add(ROOT_TAG)
+      ints.add(index)
+    }
+
+    for ((index, tag) in viewTags().withIndex()) {
+      ints.add(IntBufferBatchMountItem.INSTRUCTION_UPDATE_LAYOUT)
+      ints.addAll(listOf(tag, ROOT_TAG, 0, index * 10, 100, 10, 1))
+    }
+
+    return IntBufferBatchMountItem(SURFACE_ID, ints.toIntArray(), objs.toTypedArray(), 0)
+  }
+
+  private fun viewTags(): IntRange = (ROOT_TAG + 1)..(ROOT_TAG + VIEW_COUNT)
+
+  private fun recordedOperations(surface: SurfaceMountingManager): List<String> =
+      mockingDetails(surface)
+          .invocations
+          .filter { it.method.name != "isStopped" }
+          .map { it.method.name + it.arguments.contentToString() }
+}
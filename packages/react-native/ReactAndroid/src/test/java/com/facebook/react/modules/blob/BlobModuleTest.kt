@@ -12,11 +12,18 @@ import com.facebook.react.bridge.Arguments
 import com.facebook.react.bridge.JavaOnlyArray
 import com.facebook.react.bridge.JavaOnlyMap
 import com.facebook.react.bridge.ReactTestHelper
+import java.io.File
 import java.nio.ByteBuffer
 import java.util.UUID
 import kotlin.random.Random
+import okhttp3.MediaType
+import okhttp3.ResponseBody
+import okhttp3.ResponseBody.Companion.toResponseBody
+import okio.Buffer
+import okio.BufferedSource
 import org.junit.After
 import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNotNull
 import org.junit.Assert.assertNull
 import org.junit.Before
@@ -29,6 +36,7 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore
 import org.powermock.core.classloader.annotations.PrepareForTest
 import org.powermock.modules.junit4.rule.PowerMockRule
 import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
 import org.robolectric.annotation.Config
 
 @PrepareForTest(Arguments::class)
@@ -57,6 +65,7 @@ class BlobModuleTest {
   @After
   fun cleanUp() {
     blobModule.remove(blobId)
+    blobModule.invalidate()
   }
 
   @Test
@@ -152,4 +161,75 @@ class BlobModuleTest {
 
     assertNull(blobModule.resolve(blobId, 0, bytes.size))
   }
+
+  @Test
+  fun testNetworkingResponse_smallResponseIsKeptInMemory() {
+    val response = blobModule.networkingResponseHandler.toResponseData(bytes.toResponseBody())
+    val id = response.getString("blobId")!!
+
+    assertEquals(bytes.size, response.getInt("size"))
+    assertArrayEquals(bytes, blobModule.resolve(id, 0, bytes.size))
+    assertEquals(0, blobFileCount())
+    blobModule.remove(id)
+  }
+
+  @Test
+  fun testNetworkingResponse_largeResponseIsStreamedToFile() {
+    val data = Random.Default.nextBytes(2 * 1024 * 1024 + 1)
+
+    val response = blobModule.networkingResponseHandler.toResponseData(data.toResponseBody())
+    val id = response.getString("blobId")!!
+
+    assertEquals(data.size, response.getInt("size"))
+    assertEquals(1, blobFileCount())
+    assertArrayEquals(data, blobModule.resolve(id, 0, -1))
+    assertArrayEquals(data.copyOfRange(100, 200), blobModule.resolve(id, 100, 100))
+
+    blobModule.remove(id)
+
+    assertNull(blobModule.resolve(id, 0, data.size))
+    assertEquals(0, blobFileCount())
+  }
+
+  @Test
+  fun testNetworkingResponse_largeResponseIsNotBufferedInMemory() {
+    val data = Random.Default.nextBytes(2 * 1024 * 1024 + 1)
+    // ResponseBody.bytes() refuses to buffer a body of this declared length, so the response can
+    // only be stored by streaming it from its source.
+    val body =
+        object : ResponseBody() {
+          private val source = Buffer().write(data)
+
+          override fun contentType(): MediaType? = null
+
+          override fun contentLength(): Long = Long.MAX_VALUE
+
+          override fun source(): BufferedSource = source
+        }
+
+    val response = blobModule.networkingResponseHandler.toResponseData(body)
+    val id = response.getString("blobId")!!
+
+    assertEquals(data.size, response.getInt("size"))
+    assertEquals(0L, blobModule.blobStore.memorySize)
+    assertEquals(1, blobFileCount())
+    assertArrayEquals(data, blobModule.resolve(id, 0, -1))
+    blobModule.remove(id)
+  }
+
+  @Test
+  fun testInvalidate_deletesOnlyFilesOfTheModule() {
+    val otherModule = BlobModule(ReactTestHelper.createCatalystContextForTest())
+    val data = Random.Default.nextBytes(2 * 1024 * 1024 + 1)
+    val response = otherModule.networkingResponseHandler.toResponseData(data.toResponseBody())
+
+    blobModule.invalidate()
+
+    assertArrayEquals(data, otherModule.resolve(response.getString("blobId")!!, 0, -1))
+    otherModule.invalidate()
+    assertEquals(0, blobFileCount())
+  }
+
+  private fun blobFileCount(): Int =
+      File(RuntimeEnvironment.getApplication().cacheDir, "blobs").walk().count { it.isFile }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.blob
+
+import android.app.Application
+import android.net.Uri
+import android.os.ParcelFileDescriptor
+import com.facebook.react.ReactApplication
+import com.facebook.react.ReactInstanceManager
+import com.facebook.react.ReactNativeHost
+import com.facebook.react.bridge.JavaOnlyArray
+import com.facebook.react.bridge.JavaOnlyMap
+import com.facebook.react.bridge.ReactContext
+import com.facebook.react.bridge.ReactTestHelper
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when` as whenever
+import org.robolectric.Robolectric
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+import org.robolectric.annotation.Config
+
+class BlobProviderTestApplication : Application(), ReactApplication {
+  override lateinit var reactNativeHost: ReactNativeHost
+}
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = BlobProviderTestApplication::class)
+class BlobProviderTest {
+  private lateinit var blobModule: BlobModule
+  private lateinit var provider: BlobProvider
+
+  @Before
+  fun setUp() {
+    blobModule = BlobModule(ReactTestHelper.createCatalystContextForTest())
+
+    val reactContext = mock(ReactContext::class.java)
+    whenever(reactContext.getNativeModule(BlobModule::class.java)).thenReturn(blobModule)
+    val reactInstanceManager = mock(ReactInstanceManager::class.java)
+    whenever(reactInstanceManager.currentReactContext).thenReturn(reactContext)
+    val reactNativeHost = mock(ReactNativeHost::class.java)
+    whenever(reactNativeHost.reactInstanceManager).thenReturn(reactInstanceManager)
+    (RuntimeEnvironment.getApplication() as BlobProviderTestApplication).reactNativeHost =
+        reactNativeHost
+
+    provider = Robolectric.setupContentProvider(BlobProvider::class.java)
+  }
+
+  @After
+  fun tearDown() {
+    blobModule.invalidate()
+  }
+
+  private fun uri(blobId: String, offset: Int? = null, size: Int? = null): Uri =
+      Uri.Builder()
+          .scheme("content")
+          .authority("com.facebook.react.blob")
+          .appendPath(blobId)
+          .apply {
+            offset?.let { appendQueryParameter("offset", it.toString()) }
+            size?.let { appendQueryParameter("size", it.toString()) }
+          }
+          .build()
+
+  private fun read(uri: Uri): ByteArray =
+      provider.openAssetFile(uri, "r").createInputStream().use { it.readBytes() }
+
+  @Test
+  fun testOpenFileReturnsTheDescriptorOfTheBlobFile() {
+    val bytes = Random.Default.nextBytes(100 * 1024)
+    val blobId = blobModule.store(bytes)
+    val fileDescriptorReadCount = BlobProvider.getFileDescriptorReadCount()
+
+    val data =
+        ParcelFileDescriptor.AutoCloseInputStream(provider.openFile(uri(blobId), "r")).use {
+          it.readBytes()
+        }
+
+    assertArrayEquals(bytes, data)
+    assertEquals(fileDescriptorReadCount + 1, BlobProvider.getFileDescriptorReadCount())
+  }
+
+  @Test
+  fun testOpenAssetFileReadsARangeOfTheBlob() {
+    val bytes = Random.Default.nextBytes(200 * 1024)
+    val blobId = blobModule.store(bytes)
+    val pipeReadCount = BlobProvider.getPipeReadCount()
+
+    assertArrayEquals(
+        bytes.copyOfRange(1000, 101000), read(uri(blobId, offset = 1000, size = 100000)))
+    // The range is streamed rather than exposing the file of the whole blob.
+    assertEquals(pipeReadCount + 1, BlobProvider.getPipeReadCount())
+  }
+
+  @Test
+  fun testOpenAssetFileReadsBlobsCreatedFromParts() {
+    val bytes = Random.Default.nextBytes(100 * 1024)
+    val blobId = blobModule.store(bytes)
+    val blob =
+        JavaOnlyMap.of(
+            "type",
+            "blob",
+            "data",
+            JavaOnlyMap.of("blobId", blobId, "offset", 0, "size", bytes.size))
+    blobModule.createFromParts(JavaOnlyArray.of(blob, blob), "parts")
+
+    assertArrayEquals(bytes + bytes, read(uri("parts")))
+  }
+
+  @Test
+  fun testReadsMoreBlobsInParallelThanThereArePipeWriters() {
+    // Ranges larger than the pipe buffer are streamed by the writer pool.
+    val readCount = BlobProvider.MAX_PIPE_WRITERS * 3
+    val blobs = List(readCount) { Random.Default.nextBytes(BlobProvider.PIPE_CAPACITY * 2 + it) }
+    val blobIds = blobs.map { blobModule.store(it) }
+
+    // Every pipe is opened before any is read, so most writers have to wait for a free thread.
+    val streams =
+        blobIds.map { provider.openAssetFile(uri(it, offset = 1), "r").createInputStream() }
+    val executor = Executors.newFixedThreadPool(readCount)
+    val reads =
+        streams.map { stream -> executor.submit(Callable { stream.use { it.readBytes() } }) }
+
+    reads.forEachIndexed { i, read ->
+      assertArrayEquals(blobs[i].copyOfRange(1, blobs[i].size), read.get(10, TimeUnit.SECONDS))
+    }
+    assertEquals(BlobProvider.MAX_PIPE_WRITERS, provider.getLargestPipeWriterCount())
+    executor.shutdown()
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.blob
+
+import java.io.File
+import java.io.IOException
+import java.nio.ByteBuffer
+import kotlin.random.Random
+import okio.Buffer
+import okio.ByteString.Companion.toByteString
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class BlobStoreTest {
+  @get:Rule val temporaryFolder = TemporaryFolder()
+
+  private lateinit var directory: File
+  private lateinit var store: BlobStore
+
+  @Before
+  fun setUp() {
+    directory = File(temporaryFolder.root, "blobs")
+    // Spills run right away, so that the tests can check their outcome.
+    store = BlobStore(directory, 100, 1000) { it.run() }
+  }
+
+  private fun fileCount(): Int = directory.listFiles()?.size ?: 0
+
+  @Test
+  fun testBlobsCreatedFromPartsShareStorage() {
+    val bytes = Random.Default.nextBytes(40)
+    store.put("a", bytes)
+
+    store.putParts(
+        "b",
+        listOf(BlobStore.Part.ofBlob("a", 10, 20), BlobStore.Part.ofBytes(byteArrayOf(1, 2))))
+
+    assertEquals(42L, store.getMemorySize())
+    assertEquals(22L, store.getSize("b"))
+    assertArrayEquals(bytes.copyOfRange(10, 30) + byteArrayOf(1, 2), store.resolve("b", 0, -1))
+    assertArrayEquals(bytes.copyOfRange(15, 30) + byteArrayOf(1), store.resolve("b", 5, 16))
+  }
+
+  @Test
+  fun testStorageIsReleasedWithItsLastBlob() {
+    val bytes = Random.Default.nextBytes(40)
+    store.put("a", bytes)
+    store.putParts("b", listOf(BlobStore.Part.ofBlob("a", 0, 40)))
+
+    store.remove("a")
+
+    assertNull(store.resolve("a", 0, -1))
+    assertArrayEquals(bytes, store.resolve("b", 0, -1))
+    assertEquals(40L, store.getMemorySize())
+
+    store.remove("b")
+
+    assertEquals(0L, store.getMemorySize())
+  }
+
+  @Test
+  fun testLeastRecentlyUsedBlobsAreSpilledToFiles() {
+    val first = Random.Default.nextBytes(40)
+    val second = Random.Default.nextBytes(40)
+    val third = Random.Default.nextBytes(40)
+    store.put("first", first)
+    store.put("second", second)
+    store.resolve("first", 0, -1)
+
+    store.put("third", third)
+
+    assertEquals(80L, store.getMemorySize())
+    assertEquals(1, fileCount())
+    assertArrayEquals(first, store.resolve("first", 0, -1))
+    assertArrayEquals(second, store.resolve("second", 0, -1))
+    assertArrayEquals(third, store.resolve("third", 0, -1))
+
+    store.remove("second")
+
+    assertEquals(0, fileCount())
+  }
+
+  @Test
+  fun testStreamedBlobsAreStoredInFiles() {
+    val bytes = Random.Default.nextBytes(1000)
+
+    assertEquals(1000L, store.put("a", Buffer().write(bytes)))
+
+    assertEquals(0L, store.getMemorySize())
+    assertEquals(1, fileCount())
+    assertArrayEquals(bytes.copyOfRange(100, 300), store.resolve("a", 100, 200))
+    assertEquals(store.openFile("a") { it }, store.openFile("a") { it })
+
+    store.remove("a")
+
+    assertEquals(0, fileCount())
+  }
+
+  @Test
+  fun testGetFileWritesTheContentOfTheBlob() {
+    val bytes = Random.Default.nextBytes(40)
+    store.put("a", bytes)
+    store.putParts(
+        "b", listOf(BlobStore.Part.ofBlob("a", 0, 40), BlobStore.Part.ofBlob("a", 0, 40)))
+
+    val file = store.openFile("b") { it }
+
+    assertNotNull(file)
+    assertArrayEquals(bytes + bytes, file!!.readBytes())
+    assertArrayEquals(bytes + bytes, store.resolve("b", 0, -1))
+
+    store.remove("b")
+
+    assertFalse(file.exists())
+    assertArrayEquals(bytes, store.resolve("a", 0, -1))
+  }
+
+  @Test
+  fun testWriteToStreamsARangeOfTheBlob() {
+    val bytes = Random.Default.nextBytes(40)
+    store.put("a", Buffer().write(bytes))
+    store.putParts(
+        "b", listOf(BlobStore.Part.ofBytes(byteArrayOf(7)), BlobStore.Part.ofBlob("a", 0, 40)))
+    val sink = Buffer()
+
+    assertTrue(store.writeTo("b", 1, 20, sink))
+
+    assertArrayEquals(bytes.copyOfRange(0, 20), sink.readByteArray())
+    assertFalse(store.writeTo("missing", 0, -1, sink))
+  }
+
+  @Test
+  fun testReadIntoFillsADirectBuffer() {
+    val bytes = Random.Default.nextBytes(40)
+    store.put("a", Buffer().write(bytes))
+    store.putParts(
+        "b", listOf(BlobStore.Part.ofBytes(byteArrayOf(7)), BlobStore.Part.ofBlob("a", 0, 40)))
+    val destination = ByteBuffer.allocateDirect(30)
+
+    assertTrue(store.readInto("b", 0, destination))
+
+    destination.flip()
+    val result = ByteArray(30)
+    destination.get(result)
+    assertArrayEquals(byteArrayOf(7) + bytes.copyOfRange(0, 29), result)
+    assertFalse(store.readInto("b", 20, ByteBuffer.allocateDirect(30)))
+    assertFalse(store.readInto("missing", 0, ByteBuffer.allocateDirect(1)))
+  }
+
+  @Test
+  fun testByteStringsAreStoredWithoutCopy() {
+    val bytes = Random.Default.nextBytes(60)
+    store.put("a", bytes.toByteString())
+    val sink = Buffer()
+
+    assertArrayEquals(bytes.copyOfRange(10, 20), store.resolve("a", 10, 10))
+    assertTrue(store.writeTo("a", 0, -1, sink))
+    assertArrayEquals(bytes, sink.readByteArray())
+
+    store.put("b", Random.Default.nextBytes(60))
+
+    assertEquals(1, fileCount())
+    assertArrayEquals(bytes, store.resolve("a", 0, -1))
+  }
+
+  @Test
+  fun testFileIsNotDeletedWhileItIsOpened() {
+    val bytes = Random.Default.nextBytes(1000)
+    store.put("a", Buffer().write(bytes))
+
+    val content =
+        store.openFile("a") {
+          store.remove("a")
+          it.readBytes()
+        }
+
+    assertArrayEquals(bytes, content)
+    assertEquals(0, fileCount())
+    assertEquals(0L, store.getDiskSize())
+  }
+
+  @Test
+  fun testBlobsAreKeptInMemoryOnceTheDiskLimitIsReached() {
+    store.put("a", Buffer().write(Random.Default.nextBytes(950)))
+    val bytes = Random.Default.nextBytes(60)
+    store.put("b", bytes)
+    store.put("c", Random.Default.nextBytes(60))
+
+    assertEquals(950L, store.getDiskSize())
+    assertEquals(120L, store.getMemorySize())
+    assertArrayEquals(bytes, store.resolve("b", 0, -1))
+  }
+
+  @Test
+  fun testStreamedBlobLargerThanTheDiskLimitIsRejected() {
+    try {
+      store.put("a", Buffer().write(Random.Default.nextBytes(1001)))
+      fail("The blob doesn't fit in the disk limit")
+    } catch (e: IOException) {
+      // Expected.
+    }
+
+    assertEquals(-1L, store.getSize("a"))
+    assertEquals(0, fileCount())
+    assertEquals(0L, store.getDiskSize())
+  }
+
+  @Test
+  fun testSpillsRunOnTheSpillExecutor() {
+    val spills = ArrayList<Runnable>()
+    store = BlobStore(directory, 100, 1000) { spills.add(it) }
+    store.put("a", Random.Default.nextBytes(60))
+    store.put("b", Random.Default.nextBytes(60))
+    store.put("c", Random.Default.nextBytes(60))
+
+    assertEquals(1, spills.size)
+    assertEquals(0, fileCount())
+    assertEquals(180L, store.getMemorySize())
+
+    spills[0].run()
+
+    assertEquals(60L, store.getMemorySize())
+    assertEquals(2, fileCount())
+  }
+
+  @Test
+  fun testClearKeepsTheFilesOfBlobsBeingRead() {
+    val bytes = Random.Default.nextBytes(1000)
+    store.put("a", Buffer().write(bytes))
+
+    val content =
+        store.openFile("a") {
+          store.clear()
+          assertTrue(it.exists())
+          it.readBytes()
+        }
+
+    assertArrayEquals(bytes, content)
+    assertEquals(0, fileCount())
+    assertEquals(0L, store.getDiskSize())
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.core
+
+import kotlin.random.Random
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class TimerWheelTest {
+  private class TestNode(val id: Int, targetTime: Long) : TimerWheel.Node() {
+    init {
+      mTargetTime = targetTime
+    }
+  }
+
+  private fun TimerWheel.advanceTo(timeMs: Long): List<Int> {
+    val expired = ArrayList<TestNode>()
+    advance(timeMs, expired)
+    return expired.map { it.id }
+  }
+
+  @Test
+  fun testExpiresTimersBeforeTheGivenTime() {
+    val wheel = TimerWheel(1000)
+    wheel.add(TestNode(1, 1010))
+    wheel.add(TestNode(2, 1005))
+    wheel.add(TestNode(3, 1020))
+
+    assertEquals(listOf<Int>(), wheel.advanceTo(1005))
+    assertEquals(listOf(2, 1), wheel.advanceTo(1011))
+    assertEquals(1, wheel.size())
+    assertEquals(listOf(3), wheel.advanceTo(1021))
+    assertEquals(0, wheel.size())
+  }
+
+  @Test
+  fun testExpiresLateTimersOnNextAdvance() {
+    val wheel = TimerWheel(1000)
+    wheel.advanceTo(2000)
+    wheel.add(TestNode(1, 1500))
+
+    assertEquals(listOf(1), wheel.advanceTo(2001))
+  }
+
+  @Test
+  fun testRemovedTimersDontExpire() {
+    val wheel = TimerWheel(0)
+    val nodes = List(10) { TestNode(it, it * 1000L) }
+    nodes.forEach { wheel.add(it) }
+    nodes.filter { it.id % 2 == 0 }.forEach { wheel.remove(it) }
+    // Removing twice is a no-op.
+    wheel.remove(nodes[0])
+
+    assertEquals(5, wheel.size())
+    assertEquals(listOf(1, 3, 5, 7, 9), wheel.advanceTo(10000))
+  }
+
+  @Test
+  fun testExpiresTimersOfAllLevelsInOrder() {
+    val random = Random(42)
+    val start = 123456789L
+    val wheel = TimerWheel(start)
+    val delays = List(2000) { random.nextLong(1L shl (8 + 6 * (it % 5))) }
+    delays.forEachIndexed { id, delay -> wheel.add(TestNode(id, start + delay)) }
+
+    var time = start
+    val expired = ArrayList<Int>()
+    while (wheel.size() > 0) {
+      time += 1L + random.nextLong(1L shl 20)
+      val expiredNow = wheel.advanceTo(time)
+      expiredNow.forEach { assertTrue(start + delays[it] < time) }
+      expired.addAll(expiredNow)
+    }
+
+    assertEquals(delays.sorted(), expired.map { delays[it] })
+  }
+
+  @Test
+  fun testNextExpiryTimeIsTheTargetTimeOfTheNextTimer() {
+    val wheel = TimerWheel(1000)
+    assertEquals(Long.MAX_VALUE, wheel.getNextExpiryTime())
+
+    // Due in the third level, which is only redistributed every 16,384ms.
+    wheel.add(TestNode(1, 301000))
+    assertEquals(301000L, wheel.getNextExpiryTime())
+    wheel.add(TestNode(2, 5000))
+    assertEquals(5000L, wheel.getNextExpiryTime())
+    wheel.add(TestNode(3, 1100))
+    assertEquals(1100L, wheel.getNextExpiryTime())
+
+    assertEquals(listOf(3), wheel.advanceTo(1200))
+    assertEquals(5000L, wheel.getNextExpiryTime())
+    assertEquals(listOf(2), wheel.advanceTo(5001))
+    assertEquals(301000L, wheel.getNextExpiryTime())
+  }
+
+  @Test
+  fun testNextExpiryTimeMatchesTheRemainingTimers() {
+    val random = Random(42)
+    val start = 123456789L
+    val wheel = TimerWheel(start)
+    val targetTimes = HashMap<Int, Long>()
+    var time = start
+    repeat(2000) { id ->
+      val targetTime = time + random.nextLong(1L shl (8 + 6 * (id % 5)))
+      wheel.add(TestNode(id, targetTime))
+      targetTimes[id] = targetTime
+      if (id % 10 == 0) {
+        time += random.nextLong(1L shl (4 + id % 16))
+        wheel.advanceTo(time).forEach { targetTimes.remove(it) }
+      }
+      assertEquals(targetTimes.values.minOrNull() ?: Long.MAX_VALUE, wheel.getNextExpiryTime())
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.modules.network
+
+import com.facebook.react.bridge.Arguments
+import com.facebook.react.bridge.JavaOnlyArray
+import com.facebook.react.bridge.ReactApplicationContext
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import okhttp3.Call
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mockito.doAnswer
+import org.mockito.Mockito.mock
+import org.powermock.api.mockito.PowerMockito.mockStatic
+import org.powermock.api.mockito.PowerMockito.`when` as whenever
+import org.powermock.core.classloader.annotations.PowerMockIgnore
+import org.powermock.core.classloader.annotations.PrepareForTest
+import org.powermock.modules.junit4.rule.PowerMockRule
+import org.robolectric.RobolectricTestRunner
+
+@PrepareForTest(Arguments::class)
+@RunWith(RobolectricTestRunner::class)
+@PowerMockIgnore("org.mockito.*", "org.robolectric.*", "androidx.*", "android.*")
+class IncrementalDataEmitterTest {
+  @get:Rule var rule = PowerMockRule()
+
+  private val events = CopyOnWriteArrayList<String>()
+  private val acknowledgements = CopyOnWriteArrayList<Runnable>()
+  private lateinit var emitter: IncrementalDataEmitter
+
+  @Before
+  fun setUp() {
+    mockStatic(Arguments::class.java)
+    whenever(Arguments.createArray()).thenAnswer { JavaOnlyArray() }
+
+    val reactContext = mock(ReactApplicationContext::class.java)
+    whenever(reactContext.hasActiveReactInstance()).thenReturn(true)
+    whenever(reactContext.runOnJSQueueThread(any())).thenAnswer {
+      acknowledgements.add(it.getArgument(0))
+      true
+    }
+    doAnswer {
+          events.add((it.getArgument<JavaOnlyArray>(1)).getString(1))
+          null
+        }
+        .`when`(reactContext)
+        .emitDeviceEvent(anyString(), any())
+
+    emitter = IncrementalDataEmitter(reactContext, 1, mock(Call::class.java))
+  }
+
+  private fun acknowledgeNext() {
+    acknowledgements.removeAt(0).run()
+  }
+
+  @Test
+  fun testSendsDataRightAwayWhileJsKeepsUp() {
+    emitter.onData("a", 1, 1, 3)
+    acknowledgeNext()
+    emitter.onData("b", 1, 2, 3)
+    acknowledgeNext()
+    emitter.onData("c", 1, 3, 3)
+    emitter.finish()
+
+    assertEquals(listOf("a", "b", "c"), events)
+  }
+
+  @Test
+  fun testCoalescesDataWhileJsIsBusy() {
+    emitter.onData("a", 1, 1, -1)
+    emitter.onData("b", 1, 2, -1)
+    emitter.onData("c", 1, 3, -1)
+
+    assertEquals(listOf("a"), events)
+
+    acknowledgeNext()
+
+    assertEquals(listOf("a", "bc"), events)
+
+    emitter.onData("d", 1, 4, -1)
+    emitter.finish()
+
+    assertEquals(listOf("a", "bc", "d"), events)
+  }
+
+  @Test
+  fun testDropsPendingDataOnceCanceled() {
+    emitter.onData("a", 1, 1, -1)
+    emitter.onData("b", 1, 2, -1)
+
+    // Reading the response failed.
+    emitter.cancel()
+    acknowledgeNext()
+    emitter.onData("c", 1, 3, -1)
+
+    assertEquals(listOf("a"), events)
+  }
+
+  @Test
+  fun testStopsReadingWhileTooManyEventsAreUnacknowledged() {
+    emitter.onData("a", 1, 1, -1)
+    // Flushing a large coalesced chunk leaves two events unacknowledged.
+    val largeChunk = "b".repeat(64 * 1024)
+    val done = CountDownLatch(1)
+    val reader = Thread {
+      emitter.onData(largeChunk, largeChunk.length, 2, -1)
+      done.countDown()
+    }
+    reader.start()
+
+    assertFalse(done.await(300, TimeUnit.MILLISECONDS))
+
+    acknowledgeNext()
+
+    assertTrue(done.await(1, TimeUnit.SECONDS))
+    assertEquals(listOf("a", largeChunk), events)
+    assertTrue(IncrementalDataEmitter.getBlockedTimeMs() >= 300)
+  }
+}
@@ -7,18 +7,23 @@
 
 package com.facebook.react.modules.timing
 
+import android.os.Looper
 import com.facebook.react.bridge.Arguments
 import com.facebook.react.bridge.CatalystInstance
 import com.facebook.react.bridge.JavaOnlyArray
 import com.facebook.react.bridge.ReactApplicationContext
 import com.facebook.react.common.SystemClock
+import com.facebook.react.config.ReactFeatureFlags
 import com.facebook.react.devsupport.interfaces.DevSupportManager
 import com.facebook.react.modules.core.ChoreographerCompat.FrameCallback
 import com.facebook.react.modules.core.JSTimers
+import com.facebook.react.modules.core.JavaTimerManager
 import com.facebook.react.modules.core.ReactChoreographer
 import com.facebook.react.modules.core.ReactChoreographer.CallbackType
 import com.facebook.react.modules.core.TimingModule
+import java.time.Duration
 import org.assertj.core.api.Assertions.assertThat
+import org.junit.After
 import org.junit.Before
 import org.junit.Rule
 import org.junit.Test
@@ -37,6 +42,7 @@ import org.powermock.core.classloader.annotations.PowerMockIgnore
 import org.powermock.core.classloader.annotations.PrepareForTest
 import org.powermock.modules.junit4.rule.PowerMockRule
 import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
 
 @PrepareForTest(Arguments::class, SystemClock::class, ReactChoreographer::class)
 @PowerMockIgnore("org.mockito.*", "org.robolectric.*", "androidx.*", "android.*")
@@ -110,6 +116,11 @@ class TimingModuleTest {
     timingModule.initialize()
   }
 
+  @After
+  fun tearDown() {
+    ReactFeatureFlags.enableSleepAwareTimers = false
+  }
+
   private fun stepChoreographerFrame() {
     val callback = postFrameCallbackHandler.getAndResetFrameCallback()
     val idleCallback = idlePostFrameCallbackHandler.getAndResetFrameCallback()
@@ -236,6 +247,55 @@ class TimingModuleTest {
     assertThat(timingModule.hasActiveTimersInRange(200)).isTrue // In range
   }
 
+  @Test
+  fun testSleepsUntilTheNextTimer() {
+    ReactFeatureFlags.enableSleepAwareTimers = true
+    timingModule.onHostResume()
+    timingModule.createTimer(42.0, 1000.0, 0.0, false)
+    stepChoreographerFrame()
+    // The frame callback stops running, as the timer isn't due before one second.
+    stepChoreographerFrame()
+    verifyNoMoreInteractions(jSTimersMock)
+
+    currentTimeNs = 1000L * 1000 * 1000
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofSeconds(1))
+    stepChoreographerFrame()
+    verify(jSTimersMock).callTimers(JavaOnlyArray.of(42.0))
+    assertThat(JavaTimerManager.getSavedWakeUpsPerMinute()).isPositive
+  }
+
+  @Test
+  fun testWakesUpOnceForTimersSecondsAway() {
+    ReactFeatureFlags.enableSleepAwareTimers = true
+    timingModule.onHostResume()
+    timingModule.createTimer(42.0, 5000.0, 0.0, false)
+    stepChoreographerFrame()
+    stepChoreographerFrame()
+
+    // No intermediate wake-ups while the timer is pending, the frame callback is only posted again
+    // a frame before the timer is due.
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(4900))
+    assertThat(postFrameCallbackHandler.getAndResetFrameCallback()).isNull()
+    shadowOf(Looper.getMainLooper()).idleFor(Duration.ofMillis(100))
+    assertThat(postFrameCallbackHandler.getAndResetFrameCallback()).isNotNull()
+    verifyNoMoreInteractions(jSTimersMock)
+  }
+
+  @Test
+  fun testWakesUpForTimersCreatedWhileSleeping() {
+    ReactFeatureFlags.enableSleepAwareTimers = true
+    timingModule.onHostResume()
+    timingModule.createTimer(42.0, 1000.0, 0.0, false)
+    stepChoreographerFrame()
+    stepChoreographerFrame()
+
+    timingModule.createTimer(43.0, 1.0, (currentTimeNs / 1000000).toDouble(), false)
+    shadowOf(Looper.getMainLooper()).idle()
+    stepChoreographerFrame()
+    verify(jSTimersMock).callTimers(JavaOnlyArray.of(43.0))
+    verifyNoMoreInteractions(jSTimersMock)
+  }
+
   @Test
   fun testIdleCallback() {
     timingModule.setSendIdleEvents(true)
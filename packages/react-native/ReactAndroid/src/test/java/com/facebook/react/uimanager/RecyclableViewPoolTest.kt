@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager
+
+import android.content.ComponentCallbacks2
+import android.view.View
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+
+@RunWith(RobolectricTestRunner::class)
+class RecyclableViewPoolTest {
+  private fun createView(): View = View(RuntimeEnvironment.getApplication())
+
+  @Test
+  fun acquire_returnsMostRecentlyReleasedViewOfSurface() {
+    val pool = RecyclableViewPool<View>(8)
+    val first = createView()
+    val second = createView()
+    pool.release(1, first)
+    pool.release(1, second)
+    pool.release(2, createView())
+
+    assertSame(second, pool.acquire(1))
+    assertSame(first, pool.acquire(1))
+    assertNull(pool.acquire(1))
+    assertEquals(2, pool.hitCount)
+    assertEquals(1, pool.missCount)
+    pool.clear()
+  }
+
+  @Test
+  fun release_evictsOldestViewOfLeastRecentlyUsedSurface() {
+    val pool = RecyclableViewPool<View>(3)
+    val oldest = createView()
+    val second = createView()
+    pool.release(1, oldest)
+    pool.release(1, second)
+    pool.release(2, createView())
+    pool.release(2, createView())
+
+    assertEquals(3, pool.size)
+    assertEquals(1, pool.evictionCount)
+    assertSame(second, pool.acquire(1))
+    assertNull(pool.acquire(1))
+    pool.clear()
+  }
+
+  @Test
+  fun release_evictsLeastRecentlyUsedSurfaceAcrossPools() {
+    val first = RecyclableViewPool<View>(RecyclableViewPool.MAX_TOTAL_VIEWS)
+    val second = RecyclableViewPool<View>(RecyclableViewPool.MAX_TOTAL_VIEWS)
+    val oldest = createView()
+    first.release(1, oldest)
+    repeat(RecyclableViewPool.MAX_TOTAL_VIEWS - 2) { second.release(1, createView()) }
+    val newest = createView()
+    first.release(2, newest)
+
+    // Surface 1 of the first pool is the least recently used one across all pools.
+    second.release(2, createView())
+
+    assertEquals(RecyclableViewPool.MAX_TOTAL_VIEWS, RecyclableViewPool.getTotalSize())
+    assertEquals(1, first.size)
+    assertEquals(1, first.evictionCount)
+    assertEquals(RecyclableViewPool.MAX_TOTAL_VIEWS - 1, second.size)
+    assertNull(first.acquire(1))
+    assertSame(newest, first.acquire(2))
+    first.clear()
+    second.clear()
+    assertEquals(0, RecyclableViewPool.getTotalSize())
+  }
+
+  @Test
+  fun trim_isGradedByLevel() {
+    val pool = RecyclableViewPool<View>(64)
+    repeat(40) { pool.release(it % 4, createView()) }
+
+    pool.trim(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE)
+    assertEquals(30, pool.size)
+    pool.trim(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+    assertEquals(15, pool.size)
+    pool.trim(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND)
+    assertEquals(0, pool.size)
+    assertEquals(40, pool.evictionCount)
+  }
+
+  @Test
+  fun onSurfaceStopped_dropsViewsOfSurface() {
+    val pool = RecyclableViewPool<View>(8)
+    pool.release(1, createView())
+    pool.release(2, createView())
+
+    pool.onSurfaceStopped(1)
+
+    assertEquals(1, pool.size)
+    assertNull(pool.acquire(1))
+    pool.clear()
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import android.view.View;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.uimanager.annotations.ReactProp;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * Checks the reflective prop setter path of {@link ViewManagerPropertyUpdater}, which is used when
+ * no generated {@code $$PropsSetter} exists. The generated setters are covered by {@code
+ * com.facebook.react.processing.ReactPropertyProcessorTest}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ViewManagerPropertyUpdaterTest {
+
+  public static class TestViewManager extends ViewManager<View, ReactShadowNode> {
+    boolean mBoolValue;
+    int mIntValue;
+    float mFloatValue;
+    String mStringValue;
+
+    @Override
+    public String getName() {
+      return "TestView";
+    }
+
+    @Override
+    public Class<? extends ReactShadowNode> getShadowNodeClass() {
+      return ReactShadowNode.class;
+    }
+
+    @Override
+    protected View createViewInstance(ThemedReactContext reactContext) {
+      return new View(reactContext);
+    }
+
+    @Override
+    public void updateExtraData(View root, Object extraData) {}
+
+    @ReactProp(name = "boolProp")
+    public void setBoolProp(View view, boolean value) {
+      mBoolValue = value;
+    }
+
+    @ReactProp(name = "intProp")
+    public void setIntProp(View view, int value) {
+      mIntValue = value;
+    }
+
+    @ReactProp(name = "floatProp", defaultFloat = 1.0f)
+    public void setFloatProp(View view, float value) {
+      mFloatValue = value;
+    }
+
+    @ReactProp(name = "stringProp")
+    public void setStringProp(View view, String value) {
+      mStringValue = value;
+    }
+  }
+
+  /** Has no generated setter, so its props go through reflection. */
+  public static class ReflectiveViewManager extends TestViewManager {}
+
+  private View mView;
+  private ReactStylesDiffMap mProps;
+
+  @Before
+  public void setUp() {
+    ViewManagerPropertyUpdater.clear();
+    mView = new View(RuntimeEnvironment.getApplication());
+    mProps =
+        new ReactStylesDiffMap(
+            JavaOnlyMap.of(
+                "boolProp", true, "intProp", 42.0, "floatProp", 2.5, "stringProp", "hello"));
+  }
+
+  @After
+  public void tearDown() {
+    ViewManagerPropertyUpdater.clear();
+  }
+
+  @Test
+  public void reflectiveSetterAppliesPropsAndIsReported() {
+    ReflectiveViewManager manager = new ReflectiveViewManager();
+
+    ViewManagerPropertyUpdater.updateProps(manager, mView, mProps);
+
+    assertThat(manager.mBoolValue).isTrue();
+    assertThat(manager.mIntValue).isEqualTo(42);
+    assertThat(manager.mFloatValue).isEqualTo(2.5f);
+    assertThat(manager.mStringValue).isEqualTo("hello");
+    assertThat(ViewManagerPropertyUpdater.getReflectiveFallbackClasses())
+        .containsExactly(ReflectiveViewManager.class);
+  }
+}
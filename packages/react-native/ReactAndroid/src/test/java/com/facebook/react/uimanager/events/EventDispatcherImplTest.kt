@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.uimanager.events
+
+import com.facebook.react.bridge.ReactApplicationContext
+import com.facebook.react.modules.core.ChoreographerCompat.FrameCallback
+import com.facebook.react.modules.core.ReactChoreographer
+import com.facebook.react.modules.core.ReactChoreographer.CallbackType
+import java.util.concurrent.CountDownLatch
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.eq
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when` as whenever
+import org.powermock.api.mockito.PowerMockito
+import org.powermock.core.classloader.annotations.PowerMockIgnore
+import org.powermock.core.classloader.annotations.PrepareForTest
+import org.powermock.modules.junit4.rule.PowerMockRule
+import org.robolectric.RobolectricTestRunner
+
+@PrepareForTest(ReactChoreographer::class)
+@PowerMockIgnore("org.mockito.*", "org.robolectric.*", "androidx.*", "android.*")
+@RunWith(RobolectricTestRunner::class)
+class EventDispatcherImplTest {
+  companion object {
+    const val SURFACE_ID = 1
+    const val PRODUCER_COUNT = 4
+    const val EVENTS_PER_PRODUCER = 5000
+  }
+
+  @get:Rule val powerMockRule = PowerMockRule()
+
+  @Volatile private var frameCallback: FrameCallback? = null
+  private lateinit var eventDispatcher: EventDispatcherImpl
+
+  @Before
+  fun setUp() {
+    val reactChoreographerMock = mock(ReactChoreographer::class.java)
+    PowerMockito.mockStatic(ReactChoreographer::class.java)
+    whenever(ReactChoreographer.getInstance()).thenAnswer { reactChoreographerMock }
+    whenever(
+            reactChoreographerMock.postFrameCallback(
+                eq(CallbackType.TIMERS_EVENTS), any(FrameCallback::class.java)))
+        .thenAnswer { invocation -> frameCallback = invocation.arguments[1] as FrameCallback }
+
+    val reactContext = mock(ReactApplicationContext::class.java)
+    whenever(reactContext.isOnUiQueueThread).thenReturn(true)
+    whenever(reactContext.runOnJSQueueThread(any(Runnable::class.java))).thenAnswer { invocation ->
+      (invocation.arguments[0] as Runnable).run()
+      return@thenAnswer true
+    }
+
+    eventDispatcher = EventDispatcherImpl(reactContext)
+  }
+
+  @Test
+  fun testCoalescesStagedEventsOnDrain() {
+    val recorder = DispatchRecorder()
+
+    eventDispatcher.dispatchEvent(TestEvent(recorder, viewTag = 10, value = 1, coalesce = true))
+    eventDispatcher.dispatchEvent(TestEvent(recorder, viewTag = 10, value = 2, coalesce = true))
+    eventDispatcher.dispatchEvent(TestEvent(recorder, viewTag = 11, value = 3, coalesce = true))
+    eventDispatcher.dispatchEvent(TestEvent(recorder, viewTag = 10, value = 4, coalesce = false))
+    stepFrame()
+
+    assertThat(recorder.values).containsExactlyInAnyOrder(2, 3, 4)
+  }
+
+  @Test
+  fun testMultipleProducersDeliverEveryEvent() {
+    val recorder = DispatchRecorder()
+
+    val startLatch = CountDownLatch(1)
+    val doneLatch = CountDownLatch(PRODUCER_COUNT)
+    val producers =
+        (0 until PRODUCER_COUNT).map { producer ->
+          Thread {
+            startLatch.await()
+            for (i in 0 until EVENTS_PER_PRODUCER) {
+              eventDispatcher.dispatchEvent(
+                  TestEvent(
+                      recorder,
+                      viewTag = producer,
+                      value = producer * EVENTS_PER_PRODUCER + i,
+                      coalesce = false))
+            }
+            doneLatch.countDown()
+          }
+        }
+    producers.forEach { it.start() }
+
+    startLatch.countDown()
+    while (doneLatch.count > 0) {
+      stepFrame()
+    }
+    stepFrame()
+    producers.forEach { it.join() }
+
+    val totalEvents = PRODUCER_COUNT * EVENTS_PER_PRODUCER
+    assertThat(recorder.values).hasSize(totalEvents)
+    assertThat(recorder.values.toSet()).hasSize(totalEvents)
+  }
+
+  @Test
+  fun testMultipleProducersCoalescePerViewTag() {
+    val recorder = DispatchRecorder()
+
+    val threads =
+        (0 until PRODUCER_COUNT).map { producer ->
+          Thread {
+            for (i in 0 until EVENTS_PER_PRODUCER) {
+              eventDispatcher.dispatchEvent(
+                  TestEvent(recorder, viewTag = producer, value = i, coalesce = true))
+            }
+          }
+        }
+    threads.forEach { it.start() }
+    threads.forEach { it.join() }
+    stepFrame()
+
+    // Every producer used its own view tag, so exactly one (the latest) event per tag survives.
+    assertThat(recorder.values).hasSize(PRODUCER_COUNT)
+    assertThat(recorder.values.toSet()).containsOnly(EVENTS_PER_PRODUCER - 1)
+  }
+
+  @Test
+  fun testPooledEventsAreReleasedAndReused() {
+    val recorder = DispatchRecorder()
+    val pool =
+        EventPool<PooledEvent>("PooledEvent", 2, EventPool.Factory { PooledEvent(recorder) })
+
+    for (frame in 0 until 100) {
+      eventDispatcher.dispatchEvent(pool.acquire().apply { reset(frame) })
+      eventDispatcher.dispatchEvent(pool.acquire().apply { reset(frame) })
+      stepFrame()
+    }
+
+    // Both events of a frame are coalesced, and every disposed event goes back to the pool.
+    assertThat(recorder.values).hasSize(100)
+    assertThat(pool.acquireCount).isEqualTo(200)
+    assertThat(pool.allocationCount).isEqualTo(2)
+    assertThat(pool.releaseCount).isEqualTo(200)
+  }
+
+  private fun stepFrame() {
+    frameCallback?.doFrame(System.nanoTime())
+  }
+
+  private class TestEvent(
+      private val recorder: DispatchRecorder,
+      viewTag: Int,
+      val value: Int,
+      private val coalesce: Boolean
+  ) : Event<TestEvent>(SURFACE_ID, viewTag) {
+    override fun getEventName(): String = "topTest"
+
+    override fun canCoalesce(): Boolean = coalesce
+
+    // All events share a timestamp in Robolectric, so coalesce on the payload instead.
+    override fun coalesce(otherEvent: TestEvent): TestEvent =
+        if (value >= otherEvent.value) this else otherEvent
+
+    @Deprecated("Deprecated in Java")
+    override fun dispatchModern(rctEventEmitter: RCTModernEventEmitter) {
+      recorder.values.add(value)
+    }
+  }
+
+  private class PooledEvent(private val recorder: DispatchRecorder) : Event<PooledEvent>() {
+    private var value = 0
+
+    fun reset(value: Int) {
+      super.init(SURFACE_ID, 1)
+      this.value = value
+    }
+
+    override fun getEventName(): String = "topPooled"
+
+    @Deprecated("Deprecated in Java")
+    override fun dispatchModern(rctEventEmitter: RCTModernEventEmitter) {
+      recorder.values.add(value)
+    }
+  }
+
+  /** Events are dispatched on the (synchronous) JS queue, so no extra locking is needed here. */
+  private class DispatchRecorder {
+    val values: MutableList<Int> = mutableListOf()
+  }
+}
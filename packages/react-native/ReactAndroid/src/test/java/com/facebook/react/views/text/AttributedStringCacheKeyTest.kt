@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text
+
+import com.facebook.react.bridge.JavaOnlyArray
+import com.facebook.react.bridge.JavaOnlyMap
+import com.facebook.react.bridge.ReadableMap
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentMatchers.anyString
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
+import org.mockito.Mockito.verify
+import org.mockito.Mockito.`when` as whenever
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class AttributedStringCacheKeyTest {
+  private fun createAttributedString(fragmentCount: Int, hash: Double): ReadableMap {
+    val fragments = JavaOnlyArray()
+    val string = StringBuilder()
+    repeat(fragmentCount) {
+      val text = "fragment $it "
+      fragments.pushMap(
+          JavaOnlyMap.of(
+              "string",
+              text,
+              "reactTag",
+              it.toDouble(),
+              "textAttributes",
+              JavaOnlyMap.of("fontSize", 14.0, "foregroundColor", -16777216.0)))
+      string.append(text)
+    }
+    return JavaOnlyMap.of("fragments", fragments, "hash", hash, "string", string.toString())
+  }
+
+  @Test
+  fun keysOfSameHashAndStringAreEqual() {
+    val first = AttributedStringCacheKey.fromAttributedString(createAttributedString(3, 42.0))
+    val second = AttributedStringCacheKey.fromAttributedString(createAttributedString(3, 42.0))
+
+    assertEquals(first, second)
+    assertEquals(first.hashCode(), second.hashCode())
+  }
+
+  @Test
+  fun keysOfDifferentHashOrStringAreNotEqual() {
+    val key = AttributedStringCacheKey.fromAttributedString(createAttributedString(3, 42.0))
+
+    assertNotEquals(
+        key, AttributedStringCacheKey.fromAttributedString(createAttributedString(3, 43.0)))
+    // Same hash but different text, e.g. a hash collision.
+    assertNotEquals(
+        key, AttributedStringCacheKey.fromAttributedString(createAttributedString(4, 42.0)))
+  }
+
+  @Test
+  fun keysOfLongParagraphsNeverReadTheFragments() {
+    val attributedString = createAttributedString(1_000, 42.0)
+    val readableMap = mock(ReadableMap::class.java)
+    for (key in listOf("fragments", "hash", "string")) {
+      whenever(readableMap.hasKey(key)).thenReturn(true)
+    }
+    whenever(readableMap.getDouble("hash")).thenReturn(42.0)
+    whenever(readableMap.getString("string")).thenReturn(attributedString.getString("string"))
+
+    val key = AttributedStringCacheKey.fromAttributedString(readableMap)
+    assertEquals(AttributedStringCacheKey.fromAttributedString(attributedString), key)
+    key.hashCode()
+
+    // Reading the fragments is what made ReadableNativeMap keys import the whole map over JNI.
+    verify(readableMap, never()).getArray(anyString())
+    verify(readableMap, never()).toHashMap()
+  }
+
+  @Test
+  fun fromAttributedString_returnsNullWithoutHash() {
+    assertNull(
+        AttributedStringCacheKey.fromAttributedString(
+            JavaOnlyMap.of("fragments", JavaOnlyArray(), "string", "")))
+  }
+}
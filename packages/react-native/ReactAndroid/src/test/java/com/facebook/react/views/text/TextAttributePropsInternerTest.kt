@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text
+
+import android.graphics.Color
+import android.text.Spanned
+import com.facebook.react.bridge.JavaOnlyArray
+import com.facebook.react.bridge.JavaOnlyMap
+import com.facebook.react.common.mapbuffer.MapBuffer
+import com.facebook.react.config.ReactFeatureFlags
+import com.facebook.react.uimanager.DisplayMetricsHolder
+import java.util.Collections
+import java.util.IdentityHashMap
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+
+@RunWith(RobolectricTestRunner::class)
+class TextAttributePropsInternerTest {
+  private val context = RuntimeEnvironment.getApplication()
+
+  @Before
+  fun setUp() {
+    DisplayMetricsHolder.initDisplayMetricsIfNotInitialized(context)
+    ReactFeatureFlags.enableTextAttributeInterning = true
+    TextAttributePropsInterner.clear()
+  }
+
+  @After
+  fun tearDown() {
+    ReactFeatureFlags.enableTextAttributeInterning = false
+    TextAttributePropsInterner.clear()
+  }
+
+  // Each fragment gets its own text attributes instance, like the ones read from a commit.
+  private fun fragment(text: String, reactTag: Int, color: Int): MapBuffer =
+      TestMapBuffer(
+          TextLayoutManagerMapBuffer.FR_KEY_STRING.toInt() to text,
+          TextLayoutManagerMapBuffer.FR_KEY_REACT_TAG.toInt() to reactTag,
+          TextLayoutManagerMapBuffer.FR_KEY_TEXT_ATTRIBUTES.toInt() to
+              TestMapBuffer(
+                  TextAttributeProps.TA_KEY_FONT_SIZE.toInt() to 14.0,
+                  TextAttributeProps.TA_KEY_FOREGROUND_COLOR.toInt() to color))
+
+  private fun createSpannable(vararg fragments: MapBuffer): Spanned {
+    val fragmentList = TestMapBuffer(*fragments.mapIndexed { i, f -> i to f }.toTypedArray())
+    return TextLayoutManagerMapBuffer.getOrCreateSpannableForText(
+        context,
+        TestMapBuffer(TextLayoutManagerMapBuffer.AS_KEY_FRAGMENTS.toInt() to fragmentList),
+        null)
+  }
+
+  @Test
+  fun consecutiveFragmentsWithSameStyle_shareStyleSpans() {
+    val text =
+        createSpannable(fragment("Hello ", 1, Color.BLACK), fragment("world", 2, Color.BLACK))
+
+    val colorSpans = text.getSpans(0, text.length, ReactForegroundColorSpan::class.java)
+    assertEquals(1, colorSpans.size)
+    assertEquals(0, text.getSpanStart(colorSpans[0]))
+    assertEquals(text.length, text.getSpanEnd(colorSpans[0]))
+    assertEquals(2, text.getSpans(0, text.length, ReactTagSpan::class.java).size)
+  }
+
+  @Test
+  fun spannablesWithSameStyle_shareStyleSpans() {
+    val first = createSpannable(fragment("Hello", 1, Color.BLACK))
+    val second = createSpannable(fragment("world", 2, Color.BLACK))
+
+    assertSame(
+        first.getSpans(0, first.length, ReactForegroundColorSpan::class.java)[0],
+        second.getSpans(0, second.length, ReactForegroundColorSpan::class.java)[0])
+  }
+
+  @Test
+  fun nonConsecutiveFragmentsWithSameStyle_useTheirOwnSpans() {
+    val text =
+        createSpannable(
+            fragment("a", 1, Color.BLACK),
+            fragment("b", 2, Color.RED),
+            fragment("c", 3, Color.BLACK))
+
+    val colorSpans = text.getSpans(0, text.length, ReactForegroundColorSpan::class.java)
+    assertEquals(3, colorSpans.size)
+    assertNotSame(colorSpans[0], colorSpans[2])
+    assertEquals(Color.BLACK, colorSpans.first { text.getSpanStart(it) == 2 }.foregroundColor)
+  }
+
+  @Test
+  fun chatMessageList_allocatesFewerSpans() {
+    val interned = countSpansOfMessages()
+    ReactFeatureFlags.enableTextAttributeInterning = false
+    val notInterned = countSpansOfMessages()
+
+    assertTrue(interned < notInterned)
+  }
+
+  @Test
+  fun readableMapFragments_areNotInterned() {
+    val text =
+        TextLayoutManager.getOrCreateSpannableForText(
+            context,
+            JavaOnlyMap.of(
+                "fragments",
+                JavaOnlyArray.of(
+                    readableMapFragment("Hello ", 1, Color.BLACK),
+                    readableMapFragment("world", 2, Color.BLACK))),
+            null)
+
+    assertEquals(2, text.getSpans(0, text.length, ReactForegroundColorSpan::class.java).size)
+  }
+
+  private fun readableMapFragment(text: String, reactTag: Int, color: Int): JavaOnlyMap =
+      JavaOnlyMap.of(
+          "string",
+          text,
+          "reactTag",
+          reactTag.toDouble(),
+          "textAttributes",
+          JavaOnlyMap.of("fontSize", 14.0, "foregroundColor", color.toDouble()))
+
+  private fun countSpansOfMessages(): Int {
+    val spans = Collections.newSetFromMap(IdentityHashMap<Any, Boolean>())
+    repeat(1000) {
+      val text =
+          createSpannable(
+              fragment("Author $it: ", it * 2, Color.BLUE),
+              fragment("message $it", it * 2 + 1, Color.BLACK))
+      spans.addAll(text.getSpans(0, text.length, ReactSpan::class.java))
+    }
+    return spans.size
+  }
+}
+
+/**
+ * MapBuffer backed by a sorted map, which compares by content like ReadableMapBuffer without
+ * loading its native library.
+ */
+private class TestMapBuffer(vararg entries: Pair<Int, Any>) : MapBuffer {
+  private val values = sortedMapOf(*entries)
+  private val keys = values.keys.toList()
+
+  override val count: Int
+    get() = values.size
+
+  override fun contains(key: Int): Boolean = values.containsKey(key)
+
+  override fun getKeyOffset(key: Int): Int = keys.indexOf(key)
+
+  override fun entryAt(offset: Int): MapBuffer.Entry = TestEntry(keys[offset])
+
+  override fun getType(key: Int): MapBuffer.DataType = TestEntry(key).type
+
+  override fun getBoolean(key: Int): Boolean = values[key] as Boolean
+
+  override fun getInt(key: Int): Int = values[key] as Int
+
+  override fun getDouble(key: Int): Double = values[key] as Double
+
+  override fun getString(key: Int): String = values[key] as String
+
+  override fun getMapBuffer(key: Int): MapBuffer = values[key] as MapBuffer
+
+  override fun getMapBufferList(key: Int): List<MapBuffer> = throw UnsupportedOperationException()
+
+  override fun iterator(): Iterator<MapBuffer.Entry> = keys.map { TestEntry(it) }.iterator()
+
+  override fun equals(other: Any?): Boolean = other is TestMapBuffer && values == other.values
+
+  override fun hashCode(): Int = values.hashCode()
+
+  private inner class TestEntry(override val key: Int) : MapBuffer.Entry {
+    override val type: MapBuffer.DataType
+      get() =
+          when (values[key]) {
+            is Boolean -> MapBuffer.DataType.BOOL
+            is Int -> MapBuffer.DataType.INT
+            is Double -> MapBuffer.DataType.DOUBLE
+            is String -> MapBuffer.DataType.STRING
+            else -> MapBuffer.DataType.MAP
+          }
+
+    override val booleanValue: Boolean
+      get() = getBoolean(key)
+
+    override val intValue: Int
+      get() = getInt(key)
+
+    override val doubleValue: Double
+      get() = getDouble(key)
+
+    override val stringValue: String
+      get() = getString(key)
+
+    override val mapBufferValue: MapBuffer
+      get() = getMapBuffer(key)
+  }
+}
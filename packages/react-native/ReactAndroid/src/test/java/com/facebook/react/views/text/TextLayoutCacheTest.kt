@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text
+
+import android.content.ComponentCallbacks2
+import android.content.Context
+import android.text.Layout
+import com.facebook.react.bridge.JavaOnlyArray
+import com.facebook.react.bridge.JavaOnlyMap
+import com.facebook.react.config.ReactFeatureFlags
+import com.facebook.yoga.YogaMeasureMode
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotSame
+import org.junit.Assert.assertSame
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito.mock
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.RuntimeEnvironment
+
+@RunWith(RobolectricTestRunner::class)
+class TextLayoutCacheTest {
+  private lateinit var context: Context
+  private var createdLayoutCount = 0
+
+  @Before
+  fun setUp() {
+    ReactFeatureFlags.enableTextLayoutCache = true
+    TextLayoutCache.clear()
+    context = RuntimeEnvironment.getApplication()
+    createdLayoutCount = 0
+  }
+
+  @After
+  fun tearDown() {
+    ReactFeatureFlags.enableTextLayoutCache = false
+    TextLayoutCache.clear()
+  }
+
+  private fun cacheKey(text: String, hash: Double): AttributedStringCacheKey? {
+    val fragments = JavaOnlyArray()
+    fragments.pushMap(
+        JavaOnlyMap.of("string", text, "textAttributes", JavaOnlyMap.of("fontSize", 14.0)))
+    return AttributedStringCacheKey.fromAttributedString(
+        JavaOnlyMap.of("fragments", fragments, "hash", hash, "string", text))
+  }
+
+  private fun getLayout(
+      cacheKey: AttributedStringCacheKey?,
+      width: Float = 100f,
+      widthMode: YogaMeasureMode = YogaMeasureMode.EXACTLY,
+      textBreakStrategy: Int = Layout.BREAK_STRATEGY_HIGH_QUALITY
+  ): Layout =
+      TextLayoutCache.getOrCreateLayout(
+          context, cacheKey, width, widthMode, true, textBreakStrategy, 0) {
+            createdLayoutCount++
+            mock(Layout::class.java)
+          }
+
+  @Test
+  fun getOrCreateLayout_reusesLayoutOfEqualKey() {
+    val hits = TextLayoutCache.getHitCount()
+    val misses = TextLayoutCache.getMissCount()
+
+    val layout = getLayout(cacheKey("hello", 42.0))
+
+    assertSame(layout, getLayout(cacheKey("hello", 42.0)))
+    assertEquals(1, createdLayoutCount)
+    assertEquals(hits + 1, TextLayoutCache.getHitCount())
+    assertEquals(misses + 1, TextLayoutCache.getMissCount())
+  }
+
+  @Test
+  fun getOrCreateLayout_missesOnDifferentTextOrConstraints() {
+    val layout = getLayout(cacheKey("hello", 42.0))
+
+    // Same hash but different text, e.g. a hash collision.
+    assertNotSame(layout, getLayout(cacheKey("hellO", 42.0)))
+    assertNotSame(layout, getLayout(cacheKey("hello", 42.0), width = 101f))
+    assertNotSame(layout, getLayout(cacheKey("hello", 42.0), widthMode = YogaMeasureMode.AT_MOST))
+    assertNotSame(
+        layout,
+        getLayout(cacheKey("hello", 42.0), textBreakStrategy = Layout.BREAK_STRATEGY_SIMPLE))
+    assertEquals(5, createdLayoutCount)
+  }
+
+  @Test
+  fun getOrCreateLayout_ignoresWidthWhenItIsUndefined() {
+    val layout = getLayout(cacheKey("hello", 42.0), 100f, YogaMeasureMode.UNDEFINED)
+
+    assertSame(layout, getLayout(cacheKey("hello", 42.0), 200f, YogaMeasureMode.UNDEFINED))
+    assertEquals(1, createdLayoutCount)
+  }
+
+  @Test
+  fun getOrCreateLayout_doesNotCacheWithoutKeyOrWhenDisabled() {
+    getLayout(null)
+    getLayout(null)
+    ReactFeatureFlags.enableTextLayoutCache = false
+    getLayout(cacheKey("hello", 42.0))
+    getLayout(cacheKey("hello", 42.0))
+
+    assertEquals(4, createdLayoutCount)
+  }
+
+  @Test
+  fun trim_evictsLayouts() {
+    val layout = getLayout(cacheKey("hello", 42.0))
+    TextLayoutCache.trim(ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN)
+
+    assertNotSame(layout, getLayout(cacheKey("hello", 42.0)))
+    assertEquals(2, createdLayoutCount)
+  }
+
+  @Test
+  fun getHitRate_isFractionOfLookupsServedFromTheCache() {
+    val hits = TextLayoutCache.getHitCount()
+    val misses = TextLayoutCache.getMissCount()
+    repeat(3) { getLayout(cacheKey("hello", 42.0)) }
+    getLayout(cacheKey("world", 43.0))
+
+    assertEquals(hits + 2, TextLayoutCache.getHitCount())
+    assertEquals(misses + 2, TextLayoutCache.getMissCount())
+    val lookups = TextLayoutCache.getHitCount() + TextLayoutCache.getMissCount()
+    assertEquals(
+        TextLayoutCache.getHitCount().toFloat() / lookups, TextLayoutCache.getHitRate(), 0f)
+  }
+}
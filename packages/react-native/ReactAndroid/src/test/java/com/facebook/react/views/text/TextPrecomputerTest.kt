@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) Meta Platforms, Inc. and affiliates.
+ *
+ * This source code is licensed under the MIT license found in the
+ * LICENSE file in the root directory of this source tree.
+ */
+
+package com.facebook.react.views.text
+
+import android.text.Layout
+import android.text.SpannableString
+import android.text.TextPaint
+import com.facebook.react.bridge.JavaOnlyMap
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Assert.assertNull
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class TextPrecomputerTest {
+  private val hyphenationFrequency = Layout.HYPHENATION_FREQUENCY_NONE
+
+  @Before
+  fun setUp() {
+    TextPrecomputer.clear()
+    TextPrecomputer.setTextPaintIfNeeded(TextPaint())
+  }
+
+  @After
+  fun tearDown() {
+    TextPrecomputer.clear()
+  }
+
+  private val texts = HashMap<AttributedStringCacheKey, String>()
+
+  private fun cacheKey(text: String, hash: Double): AttributedStringCacheKey {
+    val key =
+        AttributedStringCacheKey.fromAttributedString(
+            JavaOnlyMap.of("hash", hash, "string", text))!!
+    texts[key] = text
+    return key
+  }
+
+  private fun requestPrecompute(
+      key: AttributedStringCacheKey,
+      textBreakStrategy: Int = Layout.BREAK_STRATEGY_HIGH_QUALITY
+  ) {
+    TextPrecomputer.requestPrecomputeForMount(
+        key, SpannableString(texts[key]), textBreakStrategy, hyphenationFrequency)
+  }
+
+  private fun getPrecomputedText(
+      key: AttributedStringCacheKey,
+      textBreakStrategy: Int = Layout.BREAK_STRATEGY_HIGH_QUALITY
+  ) = TextPrecomputer.getPrecomputedText(key, textBreakStrategy, hyphenationFrequency)
+
+  @Test
+  fun precomputePendingTexts_precomputesEveryPendingText() {
+    val hello = cacheKey("hello", 1.0)
+    val world = cacheKey("world", 2.0)
+    requestPrecompute(hello)
+    requestPrecompute(world)
+
+    assertNull(getPrecomputedText(hello))
+
+    TextPrecomputer.precomputePendingTexts()
+
+    assertNotNull(getPrecomputedText(hello))
+    assertNotNull(getPrecomputedText(world))
+    assertEquals("hello", getPrecomputedText(hello).toString())
+  }
+
+  @Test
+  fun precomputePendingTexts_usesTheLastParagraphAttributesOfAText() {
+    val hello = cacheKey("hello", 1.0)
+    requestPrecompute(hello, Layout.BREAK_STRATEGY_HIGH_QUALITY)
+    requestPrecompute(hello, Layout.BREAK_STRATEGY_SIMPLE)
+
+    TextPrecomputer.precomputePendingTexts()
+
+    assertNull(getPrecomputedText(hello, Layout.BREAK_STRATEGY_HIGH_QUALITY))
+    assertNotNull(getPrecomputedText(hello, Layout.BREAK_STRATEGY_SIMPLE))
+  }
+
+  @Test
+  fun precomputePendingTexts_consumesThePendingTexts() {
+    val hello = cacheKey("hello", 1.0)
+    requestPrecompute(hello)
+    TextPrecomputer.precomputePendingTexts()
+    TextPrecomputer.clear()
+
+    TextPrecomputer.precomputePendingTexts()
+
+    assertNull(getPrecomputedText(hello))
+  }
+
+  @Test
+  fun clearPendingTexts_dropsTextsBeforeTheyArePrecomputed() {
+    val hello = cacheKey("hello", 1.0)
+    requestPrecompute(hello)
+
+    TextPrecomputer.clearPendingTexts()
+    TextPrecomputer.precomputePendingTexts()
+
+    assertNull(getPrecomputedText(hello))
+  }
+}